@@ -0,0 +1,92 @@
+package com.slusarczykr.paxos.leader.api;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaxosMessageSerializationBenchmark {
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(PaxosMessageCodec.MAX_FRAME_SIZE);
+
+    private ObjectMapper objectMapper;
+
+    private AppendEntry appendEntry;
+    private RequestVote.Response response;
+
+    private byte[] appendEntryJson;
+    private byte[] responseJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new ParameterNamesModule(JsonCreator.Mode.DEFAULT))
+                .build();
+
+        appendEntry = new AppendEntry(1, 42, 7);
+        response = new RequestVote.Response.Accepted(2, 42);
+
+        appendEntryJson = objectMapper.writeValueAsBytes(appendEntry);
+        responseJson = objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeAppendEntryJson() throws Exception {
+        return objectMapper.writeValueAsBytes(appendEntry);
+    }
+
+    @Benchmark
+    public AppendEntry deserializeAppendEntryJson() throws Exception {
+        return objectMapper.readValue(appendEntryJson, AppendEntry.class);
+    }
+
+    @Benchmark
+    public byte[] serializeRequestVoteResponseJson() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public RequestVote.Response deserializeRequestVoteResponseJson() throws Exception {
+        return objectMapper.readValue(responseJson, RequestVote.Response.class);
+    }
+
+    @Benchmark
+    public AppendEntry encodeAndDecodeAppendEntryBinary() {
+        buffer.clear();
+        PaxosMessageCodec.encodeAppendEntry(buffer, 1, appendEntry);
+        buffer.flip();
+        buffer.position(PaxosMessageCodec.LENGTH_FIELD_SIZE + PaxosMessageCodec.HEADER_SIZE);
+
+        return PaxosMessageCodec.decodeAppendEntry(buffer);
+    }
+
+    @Benchmark
+    public RequestVote.Response encodeAndDecodeRequestVoteResponseBinary() {
+        buffer.clear();
+        PaxosMessageCodec.encodeRequestVoteResponse(buffer, 1, response);
+        buffer.flip();
+        buffer.position(PaxosMessageCodec.LENGTH_FIELD_SIZE + PaxosMessageCodec.HEADER_SIZE);
+
+        return PaxosMessageCodec.decodeRequestVoteResponse(buffer);
+    }
+}
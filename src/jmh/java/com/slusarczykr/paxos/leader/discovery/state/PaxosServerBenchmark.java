@@ -0,0 +1,53 @@
+package com.slusarczykr.paxos.leader.discovery.state;
+
+import com.slusarczykr.paxos.leader.discovery.config.ServerDiscoveryConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaxosServerBenchmark {
+
+    @Param({"3", "5", "9"})
+    private int clusterSize;
+
+    private PaxosServer paxosServer;
+
+    @Setup
+    public void setUp() {
+        ServerDiscoveryConfiguration discoveryConfiguration = new ServerDiscoveryConfiguration();
+        discoveryConfiguration.setHosts(createHosts(clusterSize));
+
+        paxosServer = new PaxosServer(discoveryConfiguration);
+        paxosServer.setServerPort(8080 + clusterSize - 1);
+        paxosServer.init();
+    }
+
+    private static List<String> createHosts(int clusterSize) {
+        return IntStream.range(0, clusterSize)
+                .mapToObj(it -> "localhost:" + (8080 + it))
+                .toList();
+    }
+
+    @Benchmark
+    public long calculateNextTerm() {
+        return paxosServer.calculateNextTerm();
+    }
+}
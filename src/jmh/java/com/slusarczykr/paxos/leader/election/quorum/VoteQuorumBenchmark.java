@@ -0,0 +1,63 @@
+package com.slusarczykr.paxos.leader.election.quorum;
+
+import com.slusarczykr.paxos.leader.api.RequestVote;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoteQuorumBenchmark {
+
+    private static final long TERM = 1;
+
+    @Param({"3", "5", "9"})
+    private int clusterSize;
+
+    private List<RequestVote.Response> responses;
+
+    @Setup
+    public void setUp() {
+        responses = IntStream.range(1, clusterSize)
+                .mapToObj(this::createResponse)
+                .toList();
+    }
+
+    private RequestVote.Response createResponse(int serverId) {
+        return serverId % 2 == 0
+                ? new RequestVote.Response.Rejected(serverId, TERM)
+                : new RequestVote.Response.Accepted(serverId, TERM);
+    }
+
+    @Benchmark
+    public boolean registerVotes() {
+        VoteQuorum voteQuorum = new VoteQuorum(clusterSize, clusterSize - 1);
+        responses.forEach(voteQuorum::register);
+
+        return voteQuorum.getResult().join();
+    }
+
+    @Benchmark
+    public boolean registerMissingVotes() {
+        VoteQuorum voteQuorum = new VoteQuorum(clusterSize, clusterSize - 1);
+        responses.forEach(it -> voteQuorum.registerMissing());
+
+        return voteQuorum.getResult().join();
+    }
+}
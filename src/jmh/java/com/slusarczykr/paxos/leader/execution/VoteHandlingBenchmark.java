@@ -0,0 +1,102 @@
+package com.slusarczykr.paxos.leader.execution;
+
+import com.slusarczykr.paxos.leader.api.RequestVote;
+import com.slusarczykr.paxos.leader.discovery.config.ServerDiscoveryConfiguration;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.config.LeaderElectionProperties;
+import com.slusarczykr.paxos.leader.election.timeout.ElectionTimeouts;
+import com.slusarczykr.paxos.leader.execution.config.ExecutionProperties;
+import com.slusarczykr.paxos.leader.metrics.PaxosMetrics;
+import com.slusarczykr.paxos.leader.replication.log.InMemoryReplicatedLog;
+import com.slusarczykr.paxos.leader.vote.factory.RequestVoteFactory;
+import com.slusarczykr.paxos.leader.vote.service.RequestVoteService;
+import com.slusarczykr.paxos.leader.vote.service.RequestVoteServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Vote requests arrive from 256 concurrent callers and each handler blocks for a while, like a handler waiting in
+ * LeaderElectionStarter.reset() or on the metadata flush. The platform mode runs them on a bounded pool, as the servlet
+ * container does, the virtual mode on a virtual thread per request. Sample time mode reports the latency percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(256)
+@Fork(1)
+public class VoteHandlingBenchmark {
+
+    private static final int PLATFORM_POOL_SIZE = 64;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"200"})
+    private long blockingMicros;
+
+    private ExecutorService executor;
+    private RequestVoteService requestVoteService;
+    private RequestVote requestVote;
+
+    @Setup
+    public void setUp() {
+        ExecutionProperties executionProperties = new ExecutionProperties();
+        executionProperties.setVirtualThreads("virtual".equals(mode));
+        PaxosThreads paxosThreads = new PaxosThreads(executionProperties);
+
+        if (executionProperties.isVirtualThreads() && !paxosThreads.isVirtual()) {
+            throw new IllegalStateException("Virtual threads mode requires Java 21 or newer");
+        }
+        executor = paxosThreads.isVirtual()
+                ? paxosThreads.newTaskExecutor("vote-handler")
+                : Executors.newFixedThreadPool(PLATFORM_POOL_SIZE, paxosThreads.newThreadFactory("vote-handler"));
+
+        ServerDiscoveryConfiguration discoveryConfiguration = new ServerDiscoveryConfiguration();
+        discoveryConfiguration.setHosts(List.of("localhost:8080", "localhost:8081", "localhost:8082"));
+
+        PaxosServer paxosServer = new PaxosServer(discoveryConfiguration);
+        paxosServer.setServerPort(8080);
+        paxosServer.init();
+
+        requestVoteService = new RequestVoteServiceImpl(paxosServer, new RequestVoteFactory(),
+                new PaxosMetrics(new SimpleMeterRegistry(), paxosServer,
+                        new ElectionTimeouts(new LeaderElectionProperties())), new InMemoryReplicatedLog());
+        requestVote = new RequestVote(1, 0, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public RequestVote.Response handleVote() throws ExecutionException, InterruptedException {
+        return executor.submit(this::vote).get();
+    }
+
+    private RequestVote.Response vote() {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(blockingMicros));
+        return requestVoteService.vote(requestVote);
+    }
+}
@@ -0,0 +1,78 @@
+package com.slusarczykr.paxos.leader.storage.log;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import com.slusarczykr.paxos.leader.storage.config.StorageProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SegmentedReplicatedLogBenchmark {
+
+    private static final int READ_BATCH_SIZE = 64;
+
+    @Param({"128", "1024"})
+    private int commandSize;
+
+    private Path directory;
+    private SegmentedReplicatedLog replicatedLog;
+    private byte[] command;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("paxos-log-benchmark");
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.setDirectory(directory.toString());
+
+        replicatedLog = new SegmentedReplicatedLog(storageProperties, 8080);
+        replicatedLog.open();
+        command = new byte[commandSize];
+
+        for (int i = 0; i < 10_000; i++) {
+            replicatedLog.append(1, command);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        replicatedLog.close();
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(it -> it.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long append() {
+        return replicatedLog.append(1, command);
+    }
+
+    @Benchmark
+    public List<LogEntry> readBatch() {
+        long fromIndex = ThreadLocalRandom.current().nextLong(1, replicatedLog.getLastIndex() - READ_BATCH_SIZE);
+        return replicatedLog.getEntries(fromIndex, READ_BATCH_SIZE, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,65 @@
+package com.slusarczykr.paxos.leader.vote.service;
+
+import com.slusarczykr.paxos.leader.api.RequestVote;
+import com.slusarczykr.paxos.leader.discovery.config.ServerDiscoveryConfiguration;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.config.LeaderElectionProperties;
+import com.slusarczykr.paxos.leader.election.timeout.ElectionTimeouts;
+import com.slusarczykr.paxos.leader.metrics.PaxosMetrics;
+import com.slusarczykr.paxos.leader.replication.log.InMemoryReplicatedLog;
+import com.slusarczykr.paxos.leader.vote.factory.RequestVoteFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestVoteServiceBenchmark {
+
+    private PaxosServer paxosServer;
+    private RequestVoteService requestVoteService;
+
+    private RequestVote staleRequestVote;
+    private long candidateTerm;
+
+    @Setup
+    public void setUp() {
+        ServerDiscoveryConfiguration discoveryConfiguration = new ServerDiscoveryConfiguration();
+        discoveryConfiguration.setHosts(List.of("localhost:8080", "localhost:8081", "localhost:8082"));
+
+        paxosServer = new PaxosServer(discoveryConfiguration);
+        paxosServer.setServerPort(8080);
+        paxosServer.init();
+
+        requestVoteService = new RequestVoteServiceImpl(paxosServer, new RequestVoteFactory(),
+                new PaxosMetrics(new SimpleMeterRegistry(), paxosServer,
+                        new ElectionTimeouts(new LeaderElectionProperties())), new InMemoryReplicatedLog());
+        staleRequestVote = new RequestVote(1, 0, 0);
+        candidateTerm = paxosServer.getTermValue();
+    }
+
+    @Benchmark
+    public RequestVote.Response voteAccepted() {
+        return requestVoteService.vote(new RequestVote(1, ++candidateTerm, 0));
+    }
+
+    @Benchmark
+    public RequestVote.Response voteRejected() {
+        return requestVoteService.vote(staleRequestVote);
+    }
+}
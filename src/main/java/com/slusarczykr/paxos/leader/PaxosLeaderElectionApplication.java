@@ -1,12 +1,19 @@
 package com.slusarczykr.paxos.leader;
 
+import com.slusarczykr.paxos.leader.api.config.TransportProperties;
 import com.slusarczykr.paxos.leader.election.config.LeaderElectionProperties;
+import com.slusarczykr.paxos.leader.execution.config.ExecutionProperties;
+import com.slusarczykr.paxos.leader.group.config.GroupProperties;
+import com.slusarczykr.paxos.leader.replication.config.ReplicationProperties;
+import com.slusarczykr.paxos.leader.resource.config.RedirectProperties;
+import com.slusarczykr.paxos.leader.storage.config.StorageProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties(LeaderElectionProperties.class)
+@EnableConfigurationProperties({LeaderElectionProperties.class, TransportProperties.class, StorageProperties.class,
+        ReplicationProperties.class, ExecutionProperties.class, RedirectProperties.class, GroupProperties.class})
 public class PaxosLeaderElectionApplication {
 
     public static void main(String[] args) {
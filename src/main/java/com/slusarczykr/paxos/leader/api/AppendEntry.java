@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.util.List;
 
 @Data
 public class AppendEntry implements Serializable {
@@ -13,11 +14,19 @@ public class AppendEntry implements Serializable {
     private final long term;
     private final long commitIndex;
 
+    private long prevLogIndex;
+    private long prevLogTerm;
+    private long heartbeatsInterval;
+    private List<LogEntry> entries = List.of();
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Response implements Serializable {
 
         private long serverId;
+        private long term;
+        private boolean success;
+        private long matchIndex;
     }
 }
@@ -0,0 +1,30 @@
+package com.slusarczykr.paxos.leader.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// one message per peer covering every group led by the sender
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupHeartbeat implements Serializable {
+
+    private long serverId;
+    private int[] groupIds;
+    private long[] terms;
+    private int[] transferGroupIds;
+
+    // only the rejected groups are listed, all the others are acknowledged
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response implements Serializable {
+
+        private long serverId;
+        private int[] rejectedGroupIds;
+        private long[] rejectedTerms;
+    }
+}
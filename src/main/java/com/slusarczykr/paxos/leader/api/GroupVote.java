@@ -0,0 +1,30 @@
+package com.slusarczykr.paxos.leader.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// candidacies of all the groups whose election timeout expired within the same tick
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupVote implements Serializable {
+
+    private long serverId;
+    private boolean transfer;
+    private int[] groupIds;
+    private long[] terms;
+
+    // aligned with the groups of the request
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response implements Serializable {
+
+        private long serverId;
+        private boolean[] granted;
+        private long[] terms;
+    }
+}
@@ -0,0 +1,33 @@
+package com.slusarczykr.paxos.leader.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstallSnapshot implements Serializable {
+
+    private long serverId;
+    private long term;
+    private long lastIncludedIndex;
+    private long lastIncludedTerm;
+    private long offset;
+    private long size;
+    private boolean done;
+    private byte[] data = new byte[0];
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response implements Serializable {
+
+        private long serverId;
+        private long term;
+        private boolean success;
+        private long nextOffset;
+    }
+}
@@ -0,0 +1,19 @@
+package com.slusarczykr.paxos.leader.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.io.Serializable;
+
+@Data
+public class LogEntry implements Serializable {
+
+    private final long index;
+    private final long term;
+    private final byte[] command;
+
+    @JsonIgnore
+    public int getSize() {
+        return 2 * Long.BYTES + Integer.BYTES + command.length;
+    }
+}
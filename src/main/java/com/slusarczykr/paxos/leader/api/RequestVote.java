@@ -1,20 +1,36 @@
 package com.slusarczykr.paxos.leader.api;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.io.Serializable;
 
+@Getter
+@Setter
 public class RequestVote extends AppendEntry implements Serializable {
 
+    private long lastLogIndex;
+    private long lastLogTerm;
+    private boolean preVote;
+
     public RequestVote(long serverId, long term, long commitIndex) {
         super(serverId, term, commitIndex);
     }
 
+    @JsonCreator
+    public RequestVote(long serverId, long term, long commitIndex, long lastLogIndex, long lastLogTerm) {
+        super(serverId, term, commitIndex);
+        this.lastLogIndex = lastLogIndex;
+        this.lastLogTerm = lastLogTerm;
+    }
+
     @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
     @JsonSubTypes({
             @JsonSubTypes.Type(value = Response.Accepted.class, name = "accepted"),
@@ -0,0 +1,28 @@
+package com.slusarczykr.paxos.leader.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+public interface SnapshotChunk {
+
+    int getLength();
+
+    // writes the bytes from the position on and returns how many were written, a non-blocking target may take fewer
+    long transferTo(long position, WritableByteChannel target) throws IOException;
+
+    default void transferTo(WritableByteChannel target) throws IOException {
+        long transferred = 0;
+
+        while (transferred < getLength()) {
+            transferred += transferTo(transferred, target);
+        }
+    }
+
+    default byte[] toByteArray() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(getLength());
+        transferTo(Channels.newChannel(outputStream));
+        return outputStream.toByteArray();
+    }
+}
@@ -3,97 +3,169 @@ package com.slusarczykr.paxos.leader.api.client;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.slusarczykr.paxos.leader.api.AppendEntry;
+import com.slusarczykr.paxos.leader.api.GroupHeartbeat;
+import com.slusarczykr.paxos.leader.api.GroupVote;
+import com.slusarczykr.paxos.leader.api.InstallSnapshot;
 import com.slusarczykr.paxos.leader.api.RequestVote;
+import com.slusarczykr.paxos.leader.api.SnapshotChunk;
+import com.slusarczykr.paxos.leader.api.config.TransportProperties;
+import com.slusarczykr.paxos.leader.api.transport.PaxosTransport;
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
 import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
 import com.slusarczykr.paxos.leader.exception.PaxosLeaderConflictException;
 import com.slusarczykr.paxos.leader.exception.PaxosLeaderElectionException;
+import com.slusarczykr.paxos.leader.metrics.PaxosMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.util.Optional;
-
-import static com.slusarczykr.paxos.leader.api.client.PaxosEndpoints.HEARTBEAT_PATH;
-import static com.slusarczykr.paxos.leader.api.client.PaxosEndpoints.VOTE_PATH;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.slusarczykr.paxos.leader.api.transport.PaxosRequests.cancellable;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.OUTCOME_CONFLICT;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.OUTCOME_EMPTY;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.OUTCOME_ERROR;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.OUTCOME_SUCCESS;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.TYPE_GROUP;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.TYPE_HEARTBEAT;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.TYPE_SNAPSHOT;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.TYPE_VOTE;
 
 @Component
-public class PaxosClient {
+@ConditionalOnProperty(prefix = "paxos.server.transport", name = "mode", havingValue = "http", matchIfMissing = true)
+public class PaxosClient implements PaxosTransport {
 
     private static final Logger log = LoggerFactory.getLogger(PaxosClient.class);
 
     private static final String FAKE_URI = "/fake";
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String APPLICATION_JSON = "application/json";
 
-    private final RestTemplate restTemplate;
+    private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final PaxosServer paxosServer;
+    private final PaxosMetrics paxosMetrics;
+    private final TransportProperties transportProperties;
 
-    public PaxosClient(RestTemplateBuilder restTemplateBuilder, ObjectMapper objectMapper, PaxosServer paxosServer) {
-        this.restTemplate = restTemplateBuilder
-                .errorHandler(new PaxosClientErrorHandler())
-                .build();
+    public PaxosClient(HttpClient paxosHttpClient, ObjectMapper objectMapper, PaxosServer paxosServer,
+                       PaxosMetrics paxosMetrics, TransportProperties transportProperties) {
+        this.httpClient = paxosHttpClient;
         this.objectMapper = objectMapper;
         this.paxosServer = paxosServer;
+        this.paxosMetrics = paxosMetrics;
+        this.transportProperties = transportProperties;
     }
 
-    public Optional<RequestVote.Response> sendRequestVote(String serverLocation, RequestVote requestVote) throws PaxosLeaderElectionException {
-        String requestUrl = buildServerLeaderCandidacyVoteUrl(serverLocation);
-        return sendRequest(requestUrl, requestVote, RequestVote.Response.class);
+    @Override
+    public CompletableFuture<Optional<RequestVote.Response>> sendRequestVote(Peer peer, RequestVote requestVote) {
+        return sendRequest(TYPE_VOTE, peer.getVoteUri(), requestVote, RequestVote.Response.class);
     }
 
-    public Optional<AppendEntry.Response> sendHeartbeats(String serverLocation, AppendEntry appendEntry) throws PaxosLeaderElectionException {
-        String requestUrl = buildServerLeaderHeartbeatUrl(serverLocation);
-        return sendRequest(requestUrl, appendEntry, AppendEntry.Response.class);
+    @Override
+    public CompletableFuture<Optional<AppendEntry.Response>> sendHeartbeats(Peer peer, AppendEntry appendEntry) {
+        return sendRequest(TYPE_HEARTBEAT, peer.getHeartbeatUri(), appendEntry, AppendEntry.Response.class);
     }
 
-    private <T> Optional<T> sendRequest(String requestUrl, AppendEntry appendEntry, Class<T> requestVoteResponse)
-            throws PaxosLeaderElectionException {
+    @Override
+    public CompletableFuture<Optional<InstallSnapshot.Response>> sendInstallSnapshot(Peer peer,
+                                                                                     InstallSnapshot installSnapshot,
+                                                                                     SnapshotChunk chunk) {
         try {
-            requestUrl = malformUrlIfLostConnectionEnabled(requestUrl);
-            HttpEntity<String> request = toRequest(appendEntry);
-            return Optional.ofNullable(restTemplate.postForObject(requestUrl, request, requestVoteResponse));
-        } catch (JsonProcessingException e) {
-            throw new PaxosLeaderElectionException("Error occurred on request processing!");
-        } catch (PaxosLeaderConflictException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Server listening on address {} is not reachable!", requestUrl, e);
+            installSnapshot.setData(chunk.toByteArray());
+        } catch (IOException e) {
+            log.error("Could not read snapshot chunk at offset {}!", installSnapshot.getOffset(), e);
+            return CompletableFuture.completedFuture(Optional.empty());
         }
-        return Optional.empty();
+        return sendRequest(TYPE_SNAPSHOT, peer.getSnapshotUri(), installSnapshot, InstallSnapshot.Response.class);
     }
 
-    private String malformUrlIfLostConnectionEnabled(String requestUrl) {
-        if (paxosServer.isLostConnectionEnabled()) {
-            log.debug("Malforming request url: '{}'", requestUrl);
-            return requestUrl + FAKE_URI;
-        }
-        return requestUrl;
+    @Override
+    public CompletableFuture<Optional<GroupHeartbeat.Response>> sendGroupHeartbeat(Peer peer, GroupHeartbeat heartbeat) {
+        return sendRequest(TYPE_GROUP, peer.getGroupHeartbeatUri(), heartbeat, GroupHeartbeat.Response.class);
     }
 
-    private HttpEntity<String> toRequest(AppendEntry appendEntry) throws JsonProcessingException {
-        return new HttpEntity<>(toJSON(appendEntry), prepareHeaders());
+    @Override
+    public CompletableFuture<Optional<GroupVote.Response>> sendGroupVote(Peer peer, GroupVote vote) {
+        return sendRequest(TYPE_GROUP, peer.getGroupVoteUri(), vote, GroupVote.Response.class);
     }
 
-    private String toJSON(AppendEntry requestVote) throws JsonProcessingException {
-        return objectMapper.writeValueAsString(requestVote);
+    private <T> CompletableFuture<Optional<T>> sendRequest(String type, URI requestUri, Object message, Class<T> responseType) {
+        long startTime = System.nanoTime();
+        HttpRequest request;
+        try {
+            request = toRequest(malformUriIfLostConnectionEnabled(requestUri), message);
+        } catch (JsonProcessingException e) {
+            recordRequest(type, OUTCOME_ERROR, startTime);
+            return CompletableFuture.failedFuture(new PaxosLeaderElectionException("Error occurred on request processing!"));
+        }
+        CompletableFuture<HttpResponse<byte[]>> exchange = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        return cancellable(exchange.thenApply(response -> readResponse(response, responseType))
+                .handle((response, e) -> handleResponse(type, requestUri, startTime, response, e)), exchange);
     }
 
-    private HttpHeaders prepareHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+    private <T> Optional<T> readResponse(HttpResponse<byte[]> response, Class<T> responseType) {
+        if (response.statusCode() >= 400) {
+            String errorMessage = String.format("Error with status %d occurred during request", response.statusCode());
+            throw new PaxosLeaderConflictException(errorMessage);
+        }
+        if (response.body().length == 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(response.body(), responseType));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> Optional<T> handleResponse(String type, URI requestUri, long startTime, Optional<T> response, Throwable e) {
+        if (e == null) {
+            recordRequest(type, response.isPresent() ? OUTCOME_SUCCESS : OUTCOME_EMPTY, startTime);
+            return response;
+        }
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+        if (cause instanceof PaxosLeaderConflictException conflictException) {
+            recordRequest(type, OUTCOME_CONFLICT, startTime);
+            throw conflictException;
+        }
+        if (cause instanceof CancellationException) {
+            log.debug("Request to {} has been cancelled", requestUri);
+            return Optional.empty();
+        }
+        recordRequest(type, OUTCOME_ERROR, startTime);
+        log.error("Server listening on address {} is not reachable! {}", requestUri, cause.toString());
+        return Optional.empty();
+    }
 
-        return headers;
+    private void recordRequest(String type, String outcome, long startTime) {
+        paxosMetrics.recordClientRequest(type, outcome, System.nanoTime() - startTime);
     }
 
-    private String buildServerLeaderHeartbeatUrl(String serverLocation) {
-        return serverLocation + HEARTBEAT_PATH;
+    private URI malformUriIfLostConnectionEnabled(URI requestUri) {
+        if (paxosServer.isLostConnectionEnabled()) {
+            log.debug("Malforming request url: '{}'", requestUri);
+            return URI.create(requestUri + FAKE_URI);
+        }
+        return requestUri;
     }
 
-    private String buildServerLeaderCandidacyVoteUrl(String serverLocation) {
-        return serverLocation + VOTE_PATH;
+    private HttpRequest toRequest(URI requestUri, Object message) throws JsonProcessingException {
+        return HttpRequest.newBuilder(requestUri)
+                .timeout(transportProperties.getRequestTimeout())
+                .header(CONTENT_TYPE, APPLICATION_JSON)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(message)))
+                .build();
     }
 }
@@ -5,6 +5,10 @@ public class PaxosEndpoints {
     public static final String BASIC = "/leaderElection";
     public static final String HEARTBEAT_PATH = BASIC + "/heartbeat";
     public static final String VOTE_PATH = BASIC + "/vote";
+    public static final String SNAPSHOT_PATH = BASIC + "/snapshot";
+    public static final String GROUP_HEARTBEAT_PATH = BASIC + "/groups/heartbeat";
+    public static final String GROUP_VOTE_PATH = BASIC + "/groups/vote";
+    public static final String STATUS_PATH = "/status";
 
     private PaxosEndpoints() {
     }
@@ -0,0 +1,24 @@
+package com.slusarczykr.paxos.leader.api.config;
+
+import com.slusarczykr.paxos.leader.execution.PaxosThreads;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+
+@Configuration
+public class HttpClientConfiguration {
+
+    @Bean
+    public HttpClient paxosHttpClient(TransportProperties transportProperties, PaxosThreads paxosThreads) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(transportProperties.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(transportProperties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER);
+
+        if (paxosThreads.isVirtual()) {
+            builder.executor(paxosThreads.newTaskExecutor("paxos-http-client"));
+        }
+        return builder.build();
+    }
+}
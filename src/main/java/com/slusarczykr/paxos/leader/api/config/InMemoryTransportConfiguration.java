@@ -0,0 +1,19 @@
+package com.slusarczykr.paxos.leader.api.config;
+
+import com.slusarczykr.paxos.leader.api.transport.InMemoryPaxosNetwork;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "paxos.server.transport", name = "mode", havingValue = "in_memory")
+public class InMemoryTransportConfiguration {
+
+    // servers started as child contexts of a parent defining the network talk to each other through it
+    @Bean
+    @ConditionalOnMissingBean
+    public InMemoryPaxosNetwork inMemoryPaxosNetwork() {
+        return new InMemoryPaxosNetwork();
+    }
+}
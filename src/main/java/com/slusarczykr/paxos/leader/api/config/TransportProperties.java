@@ -0,0 +1,23 @@
+package com.slusarczykr.paxos.leader.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConstructorBinding
+@ConfigurationProperties(prefix = "paxos.server.transport")
+@Data
+public class TransportProperties {
+
+    private Mode mode = Mode.HTTP;
+    private int tcpPortOffset = 1000;
+    private Duration requestTimeout = Duration.ofSeconds(2);
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private boolean http2 = true;
+
+    public enum Mode {
+        HTTP, TCP, IN_MEMORY
+    }
+}
@@ -0,0 +1,339 @@
+package com.slusarczykr.paxos.leader.api.tcp;
+
+import com.slusarczykr.paxos.leader.api.AppendEntry;
+import com.slusarczykr.paxos.leader.api.GroupHeartbeat;
+import com.slusarczykr.paxos.leader.api.GroupVote;
+import com.slusarczykr.paxos.leader.api.InstallSnapshot;
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import com.slusarczykr.paxos.leader.api.RequestVote;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PaxosMessageCodec {
+
+    public static final int LENGTH_FIELD_SIZE = Integer.BYTES;
+    public static final int HEADER_SIZE = Byte.BYTES + Long.BYTES;
+    public static final int MAX_FRAME_SIZE = 1024 * 1024;
+    public static final int MAX_RESPONSE_SIZE = 1024;
+
+    public static final byte REQUEST_VOTE = 1;
+    public static final byte APPEND_ENTRY = 2;
+    public static final byte REQUEST_VOTE_RESPONSE = 3;
+    public static final byte APPEND_ENTRY_RESPONSE = 4;
+    public static final byte CONFLICT = 5;
+    public static final byte ERROR = 6;
+    public static final byte INSTALL_SNAPSHOT = 7;
+    public static final byte INSTALL_SNAPSHOT_RESPONSE = 8;
+    public static final byte GROUP_HEARTBEAT = 9;
+    public static final byte GROUP_VOTE = 10;
+    public static final byte GROUP_HEARTBEAT_RESPONSE = 11;
+    public static final byte GROUP_VOTE_RESPONSE = 12;
+
+    private static final int APPEND_ENTRY_SIZE = 6 * Long.BYTES + Integer.BYTES;
+    private static final int REQUEST_VOTE_SIZE = 5 * Long.BYTES + Byte.BYTES;
+    private static final int REQUEST_VOTE_RESPONSE_SIZE = Byte.BYTES + 2 * Long.BYTES;
+    private static final int APPEND_ENTRY_RESPONSE_SIZE = 3 * Long.BYTES + Byte.BYTES;
+    private static final int INSTALL_SNAPSHOT_SIZE = 6 * Long.BYTES + Byte.BYTES + Integer.BYTES;
+    private static final int INSTALL_SNAPSHOT_RESPONSE_SIZE = 3 * Long.BYTES + Byte.BYTES;
+    private static final int GROUP_TERM_SIZE = Integer.BYTES + Long.BYTES;
+    private static final int GROUP_VOTE_RESULT_SIZE = Byte.BYTES + Long.BYTES;
+
+    public static final int MAX_SNAPSHOT_CHUNK_SIZE = MAX_FRAME_SIZE - HEADER_SIZE - INSTALL_SNAPSHOT_SIZE;
+
+    private PaxosMessageCodec() {
+    }
+
+    public static void encodeRequestVote(ByteBuffer buffer, long correlationId, RequestVote requestVote) {
+        writeHeader(buffer, REQUEST_VOTE, correlationId, REQUEST_VOTE_SIZE);
+        buffer.putLong(requestVote.getServerId());
+        buffer.putLong(requestVote.getTerm());
+        buffer.putLong(requestVote.getCommitIndex());
+        buffer.putLong(requestVote.getLastLogIndex());
+        buffer.putLong(requestVote.getLastLogTerm());
+        buffer.put((byte) (requestVote.isPreVote() ? 1 : 0));
+    }
+
+    public static void encodeAppendEntry(ByteBuffer buffer, long correlationId, AppendEntry appendEntry) {
+        int entriesSize = appendEntry.getEntries().stream()
+                .mapToInt(LogEntry::getSize)
+                .sum();
+        writeHeader(buffer, APPEND_ENTRY, correlationId, APPEND_ENTRY_SIZE + entriesSize);
+        buffer.putLong(appendEntry.getServerId());
+        buffer.putLong(appendEntry.getTerm());
+        buffer.putLong(appendEntry.getCommitIndex());
+        buffer.putLong(appendEntry.getPrevLogIndex());
+        buffer.putLong(appendEntry.getPrevLogTerm());
+        buffer.putLong(appendEntry.getHeartbeatsInterval());
+        buffer.putInt(appendEntry.getEntries().size());
+        appendEntry.getEntries().forEach(it -> writeLogEntry(buffer, it));
+    }
+
+    private static void writeLogEntry(ByteBuffer buffer, LogEntry logEntry) {
+        buffer.putLong(logEntry.getIndex());
+        buffer.putLong(logEntry.getTerm());
+        buffer.putInt(logEntry.getCommand().length);
+        buffer.put(logEntry.getCommand());
+    }
+
+    public static void encodeInstallSnapshot(ByteBuffer buffer, long correlationId, InstallSnapshot installSnapshot) {
+        encodeInstallSnapshotHeader(buffer, correlationId, installSnapshot, installSnapshot.getData().length);
+        buffer.put(installSnapshot.getData());
+    }
+
+    public static void encodeInstallSnapshotHeader(ByteBuffer buffer, long correlationId, InstallSnapshot installSnapshot,
+                                                   int dataLength) {
+        if (dataLength > MAX_SNAPSHOT_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Snapshot chunk size exceeds the limit of " + MAX_SNAPSHOT_CHUNK_SIZE + " bytes");
+        }
+        writeHeader(buffer, INSTALL_SNAPSHOT, correlationId, INSTALL_SNAPSHOT_SIZE + dataLength);
+        buffer.putLong(installSnapshot.getServerId());
+        buffer.putLong(installSnapshot.getTerm());
+        buffer.putLong(installSnapshot.getLastIncludedIndex());
+        buffer.putLong(installSnapshot.getLastIncludedTerm());
+        buffer.putLong(installSnapshot.getOffset());
+        buffer.putLong(installSnapshot.getSize());
+        buffer.put((byte) (installSnapshot.isDone() ? 1 : 0));
+        buffer.putInt(dataLength);
+    }
+
+    public static void encodeGroupHeartbeat(ByteBuffer buffer, long correlationId, GroupHeartbeat heartbeat) {
+        int[] transferGroupIds = heartbeat.getTransferGroupIds();
+        writeHeader(buffer, GROUP_HEARTBEAT, correlationId, Long.BYTES + 2 * Integer.BYTES
+                + heartbeat.getGroupIds().length * GROUP_TERM_SIZE + transferGroupIds.length * Integer.BYTES);
+        buffer.putLong(heartbeat.getServerId());
+        writeGroupTerms(buffer, heartbeat.getGroupIds(), heartbeat.getTerms());
+        buffer.putInt(transferGroupIds.length);
+
+        for (int groupId : transferGroupIds) {
+            buffer.putInt(groupId);
+        }
+    }
+
+    public static void encodeGroupVote(ByteBuffer buffer, long correlationId, GroupVote vote) {
+        writeHeader(buffer, GROUP_VOTE, correlationId, Long.BYTES + Byte.BYTES + Integer.BYTES
+                + vote.getGroupIds().length * GROUP_TERM_SIZE);
+        buffer.putLong(vote.getServerId());
+        buffer.put((byte) (vote.isTransfer() ? 1 : 0));
+        writeGroupTerms(buffer, vote.getGroupIds(), vote.getTerms());
+    }
+
+    private static void writeGroupTerms(ByteBuffer buffer, int[] groupIds, long[] terms) {
+        buffer.putInt(groupIds.length);
+
+        for (int i = 0; i < groupIds.length; i++) {
+            buffer.putInt(groupIds[i]);
+            buffer.putLong(terms[i]);
+        }
+    }
+
+    public static void encodeRequestVoteResponse(ByteBuffer buffer, long correlationId, RequestVote.Response response) {
+        writeHeader(buffer, REQUEST_VOTE_RESPONSE, correlationId, REQUEST_VOTE_RESPONSE_SIZE);
+        buffer.put((byte) (response.isAccepted() ? 1 : 0));
+        buffer.putLong(response.getServerId());
+        buffer.putLong(response.getTerm());
+    }
+
+    public static void encodeAppendEntryResponse(ByteBuffer buffer, long correlationId, AppendEntry.Response response) {
+        writeHeader(buffer, APPEND_ENTRY_RESPONSE, correlationId, APPEND_ENTRY_RESPONSE_SIZE);
+        buffer.putLong(response.getServerId());
+        buffer.putLong(response.getTerm());
+        buffer.put((byte) (response.isSuccess() ? 1 : 0));
+        buffer.putLong(response.getMatchIndex());
+    }
+
+    public static void encodeInstallSnapshotResponse(ByteBuffer buffer, long correlationId,
+                                                     InstallSnapshot.Response response) {
+        writeHeader(buffer, INSTALL_SNAPSHOT_RESPONSE, correlationId, INSTALL_SNAPSHOT_RESPONSE_SIZE);
+        buffer.putLong(response.getServerId());
+        buffer.putLong(response.getTerm());
+        buffer.put((byte) (response.isSuccess() ? 1 : 0));
+        buffer.putLong(response.getNextOffset());
+    }
+
+    public static void encodeGroupHeartbeatResponse(ByteBuffer buffer, long correlationId,
+                                                    GroupHeartbeat.Response response) {
+        writeHeader(buffer, GROUP_HEARTBEAT_RESPONSE, correlationId, getGroupHeartbeatResponseSize(response));
+        buffer.putLong(response.getServerId());
+        writeGroupTerms(buffer, response.getRejectedGroupIds(), response.getRejectedTerms());
+    }
+
+    public static void encodeGroupVoteResponse(ByteBuffer buffer, long correlationId, GroupVote.Response response) {
+        writeHeader(buffer, GROUP_VOTE_RESPONSE, correlationId, getGroupVoteResponseSize(response));
+        buffer.putLong(response.getServerId());
+        buffer.putInt(response.getGranted().length);
+
+        for (int i = 0; i < response.getGranted().length; i++) {
+            buffer.put((byte) (response.getGranted()[i] ? 1 : 0));
+            buffer.putLong(response.getTerms()[i]);
+        }
+    }
+
+    // group responses grow with the number of groups, unlike the others which fit in MAX_RESPONSE_SIZE
+    public static int getFrameSize(GroupHeartbeat.Response response) {
+        return LENGTH_FIELD_SIZE + HEADER_SIZE + getGroupHeartbeatResponseSize(response);
+    }
+
+    public static int getFrameSize(GroupVote.Response response) {
+        return LENGTH_FIELD_SIZE + HEADER_SIZE + getGroupVoteResponseSize(response);
+    }
+
+    private static int getGroupHeartbeatResponseSize(GroupHeartbeat.Response response) {
+        return Long.BYTES + Integer.BYTES + response.getRejectedGroupIds().length * GROUP_TERM_SIZE;
+    }
+
+    private static int getGroupVoteResponseSize(GroupVote.Response response) {
+        return Long.BYTES + Integer.BYTES + response.getGranted().length * GROUP_VOTE_RESULT_SIZE;
+    }
+
+    public static void encodeConflict(ByteBuffer buffer, long correlationId, long serverId) {
+        writeHeader(buffer, CONFLICT, correlationId, Long.BYTES);
+        buffer.putLong(serverId);
+    }
+
+    public static void encodeError(ByteBuffer buffer, long correlationId) {
+        writeHeader(buffer, ERROR, correlationId, 0);
+    }
+
+    private static void writeHeader(ByteBuffer buffer, byte type, long correlationId, int payloadSize) {
+        buffer.putInt(HEADER_SIZE + payloadSize);
+        buffer.put(type);
+        buffer.putLong(correlationId);
+    }
+
+    public static boolean containsFrame(ByteBuffer buffer) {
+        return buffer.remaining() >= LENGTH_FIELD_SIZE
+                && buffer.remaining() >= LENGTH_FIELD_SIZE + buffer.getInt(buffer.position());
+    }
+
+    public static RequestVote decodeRequestVote(ByteBuffer buffer) {
+        RequestVote requestVote = new RequestVote(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(),
+                buffer.getLong());
+        requestVote.setPreVote(buffer.get() == 1);
+        return requestVote;
+    }
+
+    public static AppendEntry decodeAppendEntry(ByteBuffer buffer) {
+        AppendEntry appendEntry = new AppendEntry(buffer.getLong(), buffer.getLong(), buffer.getLong());
+        appendEntry.setPrevLogIndex(buffer.getLong());
+        appendEntry.setPrevLogTerm(buffer.getLong());
+        appendEntry.setHeartbeatsInterval(buffer.getLong());
+        int count = buffer.getInt();
+        List<LogEntry> entries = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            entries.add(readLogEntry(buffer));
+        }
+        appendEntry.setEntries(entries);
+        return appendEntry;
+    }
+
+    private static LogEntry readLogEntry(ByteBuffer buffer) {
+        long index = buffer.getLong();
+        long term = buffer.getLong();
+        byte[] command = new byte[buffer.getInt()];
+        buffer.get(command);
+
+        return new LogEntry(index, term, command);
+    }
+
+    public static InstallSnapshot decodeInstallSnapshot(ByteBuffer buffer) {
+        InstallSnapshot installSnapshot = new InstallSnapshot();
+        installSnapshot.setServerId(buffer.getLong());
+        installSnapshot.setTerm(buffer.getLong());
+        installSnapshot.setLastIncludedIndex(buffer.getLong());
+        installSnapshot.setLastIncludedTerm(buffer.getLong());
+        installSnapshot.setOffset(buffer.getLong());
+        installSnapshot.setSize(buffer.getLong());
+        installSnapshot.setDone(buffer.get() == 1);
+        byte[] data = new byte[buffer.getInt()];
+        buffer.get(data);
+        installSnapshot.setData(data);
+
+        return installSnapshot;
+    }
+
+    public static GroupHeartbeat decodeGroupHeartbeat(ByteBuffer buffer) {
+        GroupHeartbeat heartbeat = new GroupHeartbeat();
+        heartbeat.setServerId(buffer.getLong());
+        int count = buffer.getInt();
+        heartbeat.setGroupIds(new int[count]);
+        heartbeat.setTerms(new long[count]);
+        readGroupTerms(buffer, heartbeat.getGroupIds(), heartbeat.getTerms());
+        int[] transferGroupIds = new int[buffer.getInt()];
+
+        for (int i = 0; i < transferGroupIds.length; i++) {
+            transferGroupIds[i] = buffer.getInt();
+        }
+        heartbeat.setTransferGroupIds(transferGroupIds);
+        return heartbeat;
+    }
+
+    public static GroupVote decodeGroupVote(ByteBuffer buffer) {
+        GroupVote vote = new GroupVote();
+        vote.setServerId(buffer.getLong());
+        vote.setTransfer(buffer.get() == 1);
+        int count = buffer.getInt();
+        vote.setGroupIds(new int[count]);
+        vote.setTerms(new long[count]);
+        readGroupTerms(buffer, vote.getGroupIds(), vote.getTerms());
+
+        return vote;
+    }
+
+    private static void readGroupTerms(ByteBuffer buffer, int[] groupIds, long[] terms) {
+        for (int i = 0; i < groupIds.length; i++) {
+            groupIds[i] = buffer.getInt();
+            terms[i] = buffer.getLong();
+        }
+    }
+
+    public static RequestVote.Response decodeRequestVoteResponse(ByteBuffer buffer) {
+        boolean accepted = buffer.get() == 1;
+        long serverId = buffer.getLong();
+        long term = buffer.getLong();
+
+        return accepted
+                ? new RequestVote.Response.Accepted(serverId, term)
+                : new RequestVote.Response.Rejected(serverId, term);
+    }
+
+    public static AppendEntry.Response decodeAppendEntryResponse(ByteBuffer buffer) {
+        long serverId = buffer.getLong();
+        long term = buffer.getLong();
+        boolean success = buffer.get() == 1;
+
+        return new AppendEntry.Response(serverId, term, success, buffer.getLong());
+    }
+
+    public static InstallSnapshot.Response decodeInstallSnapshotResponse(ByteBuffer buffer) {
+        long serverId = buffer.getLong();
+        long term = buffer.getLong();
+        boolean success = buffer.get() == 1;
+
+        return new InstallSnapshot.Response(serverId, term, success, buffer.getLong());
+    }
+
+    public static GroupHeartbeat.Response decodeGroupHeartbeatResponse(ByteBuffer buffer) {
+        long serverId = buffer.getLong();
+        int count = buffer.getInt();
+        int[] rejectedGroupIds = new int[count];
+        long[] rejectedTerms = new long[count];
+        readGroupTerms(buffer, rejectedGroupIds, rejectedTerms);
+
+        return new GroupHeartbeat.Response(serverId, rejectedGroupIds, rejectedTerms);
+    }
+
+    public static GroupVote.Response decodeGroupVoteResponse(ByteBuffer buffer) {
+        long serverId = buffer.getLong();
+        boolean[] granted = new boolean[buffer.getInt()];
+        long[] terms = new long[granted.length];
+
+        for (int i = 0; i < granted.length; i++) {
+            granted[i] = buffer.get() == 1;
+            terms[i] = buffer.getLong();
+        }
+        return new GroupVote.Response(serverId, granted, terms);
+    }
+}
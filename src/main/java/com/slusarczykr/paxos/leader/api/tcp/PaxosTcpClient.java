@@ -0,0 +1,299 @@
+package com.slusarczykr.paxos.leader.api.tcp;
+
+import com.slusarczykr.paxos.leader.api.AppendEntry;
+import com.slusarczykr.paxos.leader.api.GroupHeartbeat;
+import com.slusarczykr.paxos.leader.api.GroupVote;
+import com.slusarczykr.paxos.leader.api.InstallSnapshot;
+import com.slusarczykr.paxos.leader.api.RequestVote;
+import com.slusarczykr.paxos.leader.api.SnapshotChunk;
+import com.slusarczykr.paxos.leader.api.config.TransportProperties;
+import com.slusarczykr.paxos.leader.api.transport.PaxosTransport;
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.exception.PaxosLeaderConflictException;
+import com.slusarczykr.paxos.leader.metrics.PaxosMetrics;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.slusarczykr.paxos.leader.api.transport.PaxosRequests.cancellable;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.OUTCOME_CONFLICT;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.OUTCOME_EMPTY;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.OUTCOME_ERROR;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.OUTCOME_SUCCESS;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.TYPE_GROUP;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.TYPE_HEARTBEAT;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.TYPE_SNAPSHOT;
+import static com.slusarczykr.paxos.leader.metrics.PaxosMetrics.TYPE_VOTE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@Component
+@ConditionalOnProperty(prefix = "paxos.server.transport", name = "mode", havingValue = "tcp")
+@RequiredArgsConstructor
+public class PaxosTcpClient implements PaxosTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(PaxosTcpClient.class);
+
+    private final TransportProperties transportProperties;
+    private final PaxosServer paxosServer;
+    private final PaxosMetrics paxosMetrics;
+
+    private final Map<String, CompletableFuture<PaxosTcpConnection>> connections = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<PaxosTcpConnection>> snapshotConnections = new ConcurrentHashMap<>();
+
+    private final Queue<PaxosTcpConnection> openedConnections = new ConcurrentLinkedQueue<>();
+    private final Queue<PaxosTcpConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+
+    private Selector selector;
+    private Thread selectorThread;
+
+    @PostConstruct
+    public void init() throws IOException {
+        // connects, writes and reads of every peer connection run on a single selector thread
+        selector = Selector.open();
+        selectorThread = new Thread(this::run, "paxos-tcp-client");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    @PreDestroy
+    public void destroy() throws IOException {
+        selectorThread.interrupt();
+        selector.close();
+        Stream.concat(connections.values().stream(), snapshotConnections.values().stream())
+                .forEach(it -> it.thenAccept(PaxosTcpConnection::close));
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted() && selector.isOpen()) {
+            try {
+                selector.select();
+                registerConnections();
+                processSelectedKeys();
+                processWrites();
+            } catch (ClosedSelectorException e) {
+                return;
+            } catch (Exception e) {
+                log.error("Error occurred in the Paxos TCP client selector loop!", e);
+            }
+        }
+    }
+
+    private void registerConnections() {
+        PaxosTcpConnection connection;
+
+        while ((connection = openedConnections.poll()) != null) {
+            try {
+                connection.register(selector);
+            } catch (IOException e) {
+                connection.close(e);
+            }
+        }
+    }
+
+    private void processSelectedKeys() {
+        Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+
+        while (selectedKeys.hasNext()) {
+            SelectionKey key = selectedKeys.next();
+            selectedKeys.remove();
+            PaxosTcpConnection connection = (PaxosTcpConnection) key.attachment();
+
+            try {
+                if (key.isValid()) {
+                    connection.process();
+                }
+            } catch (IOException e) {
+                connection.close(e);
+            }
+        }
+    }
+
+    private void processWrites() {
+        PaxosTcpConnection connection;
+
+        while ((connection = pendingWrites.poll()) != null) {
+            try {
+                connection.flush();
+            } catch (IOException e) {
+                connection.close(e);
+            }
+        }
+    }
+
+    private void scheduleWrite(PaxosTcpConnection connection) {
+        pendingWrites.add(connection);
+        selector.wakeup();
+    }
+
+    @Override
+    public CompletableFuture<Optional<RequestVote.Response>> sendRequestVote(Peer peer, RequestVote requestVote) {
+        return sendRequest(TYPE_VOTE, peer.getLocation(), (buffer, correlationId) ->
+                PaxosMessageCodec.encodeRequestVote(buffer, correlationId, requestVote)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Optional<AppendEntry.Response>> sendHeartbeats(Peer peer, AppendEntry appendEntry) {
+        return sendRequest(TYPE_HEARTBEAT, peer.getLocation(), (buffer, correlationId) ->
+                PaxosMessageCodec.encodeAppendEntry(buffer, correlationId, appendEntry)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Optional<InstallSnapshot.Response>> sendInstallSnapshot(Peer peer,
+                                                                                     InstallSnapshot installSnapshot,
+                                                                                     SnapshotChunk chunk) {
+        return sendRequest(TYPE_SNAPSHOT, peer.getLocation(), connection -> connection.send((buffer, correlationId) ->
+                PaxosMessageCodec.encodeInstallSnapshotHeader(buffer, correlationId, installSnapshot, chunk.getLength()),
+                chunk
+        ));
+    }
+
+    @Override
+    public CompletableFuture<Optional<GroupHeartbeat.Response>> sendGroupHeartbeat(Peer peer, GroupHeartbeat heartbeat) {
+        return sendRequest(TYPE_GROUP, peer.getLocation(), (buffer, correlationId) ->
+                PaxosMessageCodec.encodeGroupHeartbeat(buffer, correlationId, heartbeat)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Optional<GroupVote.Response>> sendGroupVote(Peer peer, GroupVote vote) {
+        return sendRequest(TYPE_GROUP, peer.getLocation(), (buffer, correlationId) ->
+                PaxosMessageCodec.encodeGroupVote(buffer, correlationId, vote)
+        );
+    }
+
+    private <T> CompletableFuture<Optional<T>> sendRequest(String type, String serverLocation,
+                                                           BiConsumer<ByteBuffer, Long> encoder) {
+        return sendRequest(type, serverLocation, connection -> connection.send(encoder));
+    }
+
+    private <T> CompletableFuture<Optional<T>> sendRequest(String type, String serverLocation,
+                                                           Function<PaxosTcpConnection, CompletableFuture<T>> request) {
+        if (paxosServer.isLostConnectionEnabled()) {
+            log.debug("Dropping request to '{}'", serverLocation);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        long startTime = System.nanoTime();
+        CompletableFuture<T> response = send(getConnection(type, serverLocation), request);
+
+        return cancellable(response.orTimeout(getRequestTimeout(), MILLISECONDS)
+                .handle((result, e) -> handleResponse(type, serverLocation, startTime, result, e)), response);
+    }
+
+    // a cancelled response drops the request, it is not written at all if it still waits for the connection
+    private <T> CompletableFuture<T> send(CompletableFuture<PaxosTcpConnection> connection,
+                                          Function<PaxosTcpConnection, CompletableFuture<T>> request) {
+        CompletableFuture<T> response = new CompletableFuture<>();
+
+        connection.whenComplete((it, e) -> {
+            if (e != null) {
+                response.completeExceptionally(e);
+            } else if (!response.isDone()) {
+                CompletableFuture<T> sent = request.apply(it);
+                sent.whenComplete((result, error) -> complete(response, result, error));
+                cancellable(response, sent);
+            }
+        });
+        return response;
+    }
+
+    private <T> void complete(CompletableFuture<T> response, T result, Throwable e) {
+        if (e != null) {
+            response.completeExceptionally(e);
+        } else {
+            response.complete(result);
+        }
+    }
+
+    private <T> Optional<T> handleResponse(String type, String serverLocation, long startTime, T result, Throwable e) {
+        if (e == null) {
+            recordRequest(type, result != null ? OUTCOME_SUCCESS : OUTCOME_EMPTY, startTime);
+            return Optional.ofNullable(result);
+        }
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+        if (cause instanceof PaxosLeaderConflictException conflictException) {
+            recordRequest(type, OUTCOME_CONFLICT, startTime);
+            throw conflictException;
+        }
+        if (cause instanceof CancellationException) {
+            log.debug("Request to {} has been cancelled", serverLocation);
+            return Optional.empty();
+        }
+        recordRequest(type, OUTCOME_ERROR, startTime);
+        log.error("Server listening on address {} is not reachable! {}", serverLocation, cause.toString());
+        return Optional.empty();
+    }
+
+    private void recordRequest(String type, String outcome, long startTime) {
+        paxosMetrics.recordClientRequest(type, outcome, System.nanoTime() - startTime);
+    }
+
+    // the pool keeps the connecting future, so the caller that replaces a closed connection connects outside the map
+    private CompletableFuture<PaxosTcpConnection> getConnection(String type, String serverLocation) {
+        Map<String, CompletableFuture<PaxosTcpConnection>> pool =
+                TYPE_SNAPSHOT.equals(type) ? snapshotConnections : connections;
+        CompletableFuture<PaxosTcpConnection> newConnection = new CompletableFuture<>();
+        CompletableFuture<PaxosTcpConnection> connection = pool.compute(serverLocation, (location, current) ->
+                current != null && isUsable(current) ? current : newConnection
+        );
+        if (connection == newConnection) {
+            openConnection(serverLocation).whenComplete((it, e) -> complete(newConnection, it, e));
+        }
+        return connection;
+    }
+
+    private boolean isUsable(CompletableFuture<PaxosTcpConnection> connection) {
+        return !connection.isDone() || (!connection.isCompletedExceptionally() && connection.join().isOpen());
+    }
+
+    private CompletableFuture<PaxosTcpConnection> openConnection(String serverLocation) {
+        try {
+            InetSocketAddress address = toTcpAddress(serverLocation);
+            log.debug("Opening Paxos TCP connection to {}", address);
+            PaxosTcpConnection connection = PaxosTcpConnection.open(address,
+                    transportProperties.getConnectTimeout().toMillis(), getRequestTimeout(), this::scheduleWrite);
+            openedConnections.add(connection);
+            selector.wakeup();
+
+            return connection.getConnected();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private InetSocketAddress toTcpAddress(String serverLocation) {
+        URI uri = URI.create(serverLocation);
+        return new InetSocketAddress(uri.getHost(), uri.getPort() + transportProperties.getTcpPortOffset());
+    }
+
+    private long getRequestTimeout() {
+        return transportProperties.getRequestTimeout().toMillis();
+    }
+}
@@ -0,0 +1,302 @@
+package com.slusarczykr.paxos.leader.api.tcp;
+
+import com.slusarczykr.paxos.leader.api.SnapshotChunk;
+import com.slusarczykr.paxos.leader.exception.PaxosLeaderConflictException;
+import com.slusarczykr.paxos.leader.exception.PaxosLeaderElectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.APPEND_ENTRY_RESPONSE;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.CONFLICT;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.ERROR;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.GROUP_HEARTBEAT_RESPONSE;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.GROUP_VOTE_RESPONSE;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.INSTALL_SNAPSHOT_RESPONSE;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.LENGTH_FIELD_SIZE;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.MAX_FRAME_SIZE;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.REQUEST_VOTE_RESPONSE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+// non-blocking connection to a peer, all of its I/O is done by the selector thread of the PaxosTcpClient
+public class PaxosTcpConnection {
+
+    private static final Logger log = LoggerFactory.getLogger(PaxosTcpConnection.class);
+
+    private final SocketChannel channel;
+    private final long requestTimeout;
+    private final Consumer<PaxosTcpConnection> writeScheduler;
+    private final CompletableFuture<PaxosTcpConnection> connected = new CompletableFuture<>();
+
+    private final AtomicLong correlationIds = new AtomicLong(0);
+    private final Map<Long, CompletableFuture<Object>> pendingRequests = new ConcurrentHashMap<>();
+    private final Queue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+
+    // accessed by the selector thread only
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(LENGTH_FIELD_SIZE + MAX_FRAME_SIZE).limit(0);
+    // a frame is handled once it has been read entirely, responses to group messages may be as large as requests
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(LENGTH_FIELD_SIZE + MAX_FRAME_SIZE);
+    private SnapshotChunk payload;
+    private long payloadPosition;
+    private SelectionKey key;
+
+    private volatile boolean open = true;
+
+    private PaxosTcpConnection(SocketChannel channel, long requestTimeout, Consumer<PaxosTcpConnection> writeScheduler) {
+        this.channel = channel;
+        this.requestTimeout = requestTimeout;
+        this.writeScheduler = writeScheduler;
+    }
+
+    // starts connecting without waiting for it, the connection is completed by the selector thread
+    public static PaxosTcpConnection open(InetSocketAddress address, long connectTimeout, long requestTimeout,
+                                          Consumer<PaxosTcpConnection> writeScheduler) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            channel.connect(address);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        PaxosTcpConnection connection = new PaxosTcpConnection(channel, requestTimeout, writeScheduler);
+        connection.connected.orTimeout(connectTimeout, MILLISECONDS)
+                .whenComplete((it, e) -> {
+                    if (e != null) {
+                        connection.close(new IOException("Could not connect to " + address, e));
+                    }
+                });
+        return connection;
+    }
+
+    public CompletableFuture<PaxosTcpConnection> getConnected() {
+        return connected;
+    }
+
+    public <T> CompletableFuture<T> send(BiConsumer<ByteBuffer, Long> encoder) {
+        return send(encoder, null);
+    }
+
+    public <T> CompletableFuture<T> send(BiConsumer<ByteBuffer, Long> encoder, SnapshotChunk payload) {
+        long correlationId = correlationIds.incrementAndGet();
+        CompletableFuture<Object> response = new CompletableFuture<>();
+        pendingRequests.put(correlationId, response);
+        // requests which time out or are cancelled are dropped too, so a peer that stops replying does not grow the map
+        response.orTimeout(requestTimeout, MILLISECONDS)
+                .whenComplete((it, e) -> pendingRequests.remove(correlationId));
+
+        if (!open) {
+            response.completeExceptionally(new IOException("Connection is closed"));
+            return cast(response);
+        }
+        pendingWrites.add(new PendingWrite(correlationId, encoder, payload));
+        writeScheduler.accept(this);
+
+        return cast(response);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> cast(CompletableFuture<Object> response) {
+        return (CompletableFuture<T>) (CompletableFuture<?>) response;
+    }
+
+    void register(Selector selector) throws IOException {
+        // a local peer may accept the connection right away
+        if (channel.isConnected()) {
+            key = channel.register(selector, SelectionKey.OP_READ, this);
+            onConnected();
+        } else {
+            key = channel.register(selector, SelectionKey.OP_CONNECT, this);
+        }
+    }
+
+    private void onConnected() throws IOException {
+        connected.complete(this);
+        flush();
+    }
+
+    void process() throws IOException {
+        if (key.isConnectable()) {
+            if (channel.finishConnect()) {
+                onConnected();
+            }
+            return;
+        }
+        if (key.isReadable()) {
+            read();
+        }
+        if (key.isValid() && key.isWritable()) {
+            flush();
+        }
+    }
+
+    void flush() throws IOException {
+        if (key == null || !key.isValid() || !channel.isConnected()) {
+            return;
+        }
+        int interestOps = write() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+        key.interestOps(interestOps);
+    }
+
+    // returns false once the socket takes no more bytes, the rest is written when it becomes writable again
+    private boolean write() throws IOException {
+        while (true) {
+            if (!writeBuffer.hasRemaining() && payload == null && !encodeNextWrite()) {
+                return true;
+            }
+            if (writeBuffer.hasRemaining()) {
+                channel.write(writeBuffer);
+
+                if (writeBuffer.hasRemaining()) {
+                    return false;
+                }
+            }
+            if (payload != null) {
+                payloadPosition += payload.transferTo(payloadPosition, channel);
+
+                if (payloadPosition < payload.getLength()) {
+                    return false;
+                }
+                payload = null;
+            }
+        }
+    }
+
+    private boolean encodeNextWrite() {
+        PendingWrite pendingWrite;
+
+        while ((pendingWrite = pendingWrites.poll()) != null) {
+            if (encode(pendingWrite)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean encode(PendingWrite pendingWrite) {
+        if (!pendingRequests.containsKey(pendingWrite.correlationId)) {
+            return false;
+        }
+        try {
+            writeBuffer.clear();
+            pendingWrite.encoder.accept(writeBuffer, pendingWrite.correlationId);
+            writeBuffer.flip();
+            payload = pendingWrite.payload;
+            payloadPosition = 0;
+            return true;
+        } catch (RuntimeException e) {
+            writeBuffer.limit(0);
+            fail(pendingWrite.correlationId, e);
+            return false;
+        }
+    }
+
+    private void fail(long correlationId, Throwable e) {
+        CompletableFuture<Object> response = pendingRequests.remove(correlationId);
+
+        if (response != null) {
+            response.completeExceptionally(e);
+        }
+    }
+
+    private void read() throws IOException {
+        if (channel.read(readBuffer) < 0) {
+            throw new IOException("Connection closed by peer");
+        }
+        readBuffer.flip();
+
+        while (PaxosMessageCodec.containsFrame(readBuffer)) {
+            handleFrame();
+        }
+        readBuffer.compact();
+    }
+
+    private void handleFrame() {
+        int frameEnd = readBuffer.position() + LENGTH_FIELD_SIZE + readBuffer.getInt();
+        byte type = readBuffer.get();
+        long correlationId = readBuffer.getLong();
+        CompletableFuture<Object> response = pendingRequests.remove(correlationId);
+
+        if (response != null) {
+            complete(response, type);
+        }
+        readBuffer.position(frameEnd);
+    }
+
+    private void complete(CompletableFuture<Object> response, byte type) {
+        switch (type) {
+            case REQUEST_VOTE_RESPONSE -> response.complete(PaxosMessageCodec.decodeRequestVoteResponse(readBuffer));
+            case APPEND_ENTRY_RESPONSE -> response.complete(PaxosMessageCodec.decodeAppendEntryResponse(readBuffer));
+            case INSTALL_SNAPSHOT_RESPONSE -> response.complete(PaxosMessageCodec.decodeInstallSnapshotResponse(readBuffer));
+            case GROUP_HEARTBEAT_RESPONSE -> response.complete(PaxosMessageCodec.decodeGroupHeartbeatResponse(readBuffer));
+            case GROUP_VOTE_RESPONSE -> response.complete(PaxosMessageCodec.decodeGroupVoteResponse(readBuffer));
+            case CONFLICT -> response.completeExceptionally(
+                    new PaxosLeaderConflictException("Conflict reported by server with id " + readBuffer.getLong())
+            );
+            // a failed handler makes the peer unreachable for this request, only a conflict deposes the leader
+            case ERROR -> response.completeExceptionally(
+                    new PaxosLeaderElectionException("Error occurred while the peer handled the request")
+            );
+            default -> response.completeExceptionally(
+                    new PaxosLeaderElectionException("Unknown response type " + type + " received from the peer")
+            );
+        }
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public void close() {
+        close(new IOException("Connection closed"));
+    }
+
+    void close(IOException cause) {
+        if (open) {
+            open = false;
+            log.debug("Closing peer connection: {}", cause.getMessage());
+            closeChannel();
+            connected.completeExceptionally(cause);
+            pendingRequests.values().forEach(it -> it.completeExceptionally(cause));
+            pendingRequests.clear();
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.trace("Error occurred while closing peer connection", e);
+        }
+    }
+
+    private static class PendingWrite {
+
+        private final long correlationId;
+        private final BiConsumer<ByteBuffer, Long> encoder;
+        private final SnapshotChunk payload;
+
+        private PendingWrite(long correlationId, BiConsumer<ByteBuffer, Long> encoder, SnapshotChunk payload) {
+            this.correlationId = correlationId;
+            this.encoder = encoder;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.slusarczykr.paxos.leader.api.tcp;
+
+import com.slusarczykr.paxos.leader.api.AppendEntry;
+import com.slusarczykr.paxos.leader.api.GroupHeartbeat;
+import com.slusarczykr.paxos.leader.api.GroupVote;
+import com.slusarczykr.paxos.leader.api.InstallSnapshot;
+import com.slusarczykr.paxos.leader.api.RequestVote;
+import com.slusarczykr.paxos.leader.api.config.TransportProperties;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.handler.PeerMessageHandler;
+import com.slusarczykr.paxos.leader.exception.PaxosLeaderConflictException;
+import com.slusarczykr.paxos.leader.execution.PaxosThreads;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.APPEND_ENTRY;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.GROUP_HEARTBEAT;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.GROUP_VOTE;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.INSTALL_SNAPSHOT;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.LENGTH_FIELD_SIZE;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.MAX_FRAME_SIZE;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.MAX_RESPONSE_SIZE;
+import static com.slusarczykr.paxos.leader.api.tcp.PaxosMessageCodec.REQUEST_VOTE;
+
+@Component
+@ConditionalOnProperty(prefix = "paxos.server.transport", name = "mode", havingValue = "tcp")
+@RequiredArgsConstructor
+public class PaxosTcpServer {
+
+    private static final Logger log = LoggerFactory.getLogger(PaxosTcpServer.class);
+
+    private static final int MAX_IN_FLIGHT_REQUESTS = 64;
+
+    private final TransportProperties transportProperties;
+    private final PeerMessageHandler peerMessageHandler;
+    private final PaxosServer paxosServer;
+    private final PaxosThreads paxosThreads;
+
+    private final Queue<SelectionKey> respondedKeys = new ConcurrentLinkedQueue<>();
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private ExecutorService handlerExecutor;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() throws IOException {
+        start(paxosServer.getServerPort() + transportProperties.getTcpPortOffset());
+    }
+
+    private void start(int port) throws IOException {
+        // handlers wait for the disk, so they run off the selector thread and do not hold up the other peers
+        handlerExecutor = paxosThreads.newTaskExecutor("paxos-tcp-handler");
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        selectorThread = new Thread(this::run, "paxos-tcp-server");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("Paxos TCP transport listening on port {}", port);
+    }
+
+    @PreDestroy
+    public void destroy() throws IOException {
+        if (selectorThread != null) {
+            selectorThread.interrupt();
+            selector.close();
+            serverChannel.close();
+            handlerExecutor.shutdownNow();
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted() && selector.isOpen()) {
+            try {
+                selector.select();
+                processSelectedKeys();
+                processResponses();
+            } catch (ClosedSelectorException e) {
+                return;
+            } catch (Exception e) {
+                log.error("Error occurred in the Paxos TCP transport selector loop!", e);
+            }
+        }
+    }
+
+    private void processSelectedKeys() {
+        Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+
+        while (selectedKeys.hasNext()) {
+            SelectionKey key = selectedKeys.next();
+            selectedKeys.remove();
+
+            try {
+                processKey(key);
+            } catch (IOException e) {
+                log.debug("Closing peer connection: {}", e.getMessage());
+                close(key);
+            }
+        }
+    }
+
+    private void processKey(SelectionKey key) throws IOException {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+        } else {
+            if (key.isReadable()) {
+                read(key);
+            }
+            if (key.isValid() && key.isWritable()) {
+                flushResponses(key);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+
+        if (channel != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.register(selector, SelectionKey.OP_READ, new Connection());
+            log.debug("Accepted peer connection from {}", channel.getRemoteAddress());
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+
+        if (channel.read(connection.readBuffer) < 0) {
+            throw new IOException("Connection closed by peer");
+        }
+        dispatchFrames(key, connection);
+        updateInterestOps(key, connection);
+    }
+
+    // frames beyond the in-flight limit stay in the read buffer until the earlier responses have been written
+    private void dispatchFrames(SelectionKey key, Connection connection) throws IOException {
+        ByteBuffer readBuffer = connection.readBuffer;
+        readBuffer.flip();
+
+        while (PaxosMessageCodec.containsFrame(readBuffer) && connection.inFlight < MAX_IN_FLIGHT_REQUESTS) {
+            dispatchFrame(key, connection, readBuffer);
+        }
+        validateFrameSize(readBuffer);
+        readBuffer.compact();
+    }
+
+    private void validateFrameSize(ByteBuffer readBuffer) throws IOException {
+        if (readBuffer.remaining() >= LENGTH_FIELD_SIZE && readBuffer.getInt(readBuffer.position()) > MAX_FRAME_SIZE) {
+            throw new IOException("Frame size exceeds the limit of " + MAX_FRAME_SIZE + " bytes");
+        }
+    }
+
+    private void dispatchFrame(SelectionKey key, Connection connection, ByteBuffer readBuffer) {
+        int frameEnd = readBuffer.position() + LENGTH_FIELD_SIZE + readBuffer.getInt();
+        byte type = readBuffer.get();
+        long correlationId = readBuffer.getLong();
+        Object message = decode(type, readBuffer);
+        readBuffer.position(frameEnd);
+        connection.inFlight++;
+
+        handlerExecutor.execute(() -> {
+            connection.responses.add(handleMessage(type, correlationId, message));
+            respondedKeys.add(key);
+            selector.wakeup();
+        });
+    }
+
+    private Object decode(byte type, ByteBuffer readBuffer) {
+        try {
+            return switch (type) {
+                case REQUEST_VOTE -> PaxosMessageCodec.decodeRequestVote(readBuffer);
+                case APPEND_ENTRY -> PaxosMessageCodec.decodeAppendEntry(readBuffer);
+                case INSTALL_SNAPSHOT -> PaxosMessageCodec.decodeInstallSnapshot(readBuffer);
+                case GROUP_HEARTBEAT -> PaxosMessageCodec.decodeGroupHeartbeat(readBuffer);
+                case GROUP_VOTE -> PaxosMessageCodec.decodeGroupVote(readBuffer);
+                default -> null;
+            };
+        } catch (RuntimeException e) {
+            log.error("Could not decode peer message of type {}!", type, e);
+            return null;
+        }
+    }
+
+    // the response is encoded later by the selector thread, straight into the write buffer of the connection
+    private Response handleMessage(byte type, long correlationId, Object message) {
+        try {
+            if (message instanceof RequestVote requestVote) {
+                RequestVote.Response response = peerMessageHandler.handleRequestVote(requestVote);
+                return new Response(buffer -> PaxosMessageCodec.encodeRequestVoteResponse(buffer, correlationId, response));
+            }
+            if (message instanceof AppendEntry appendEntry) {
+                AppendEntry.Response response = peerMessageHandler.handleHeartbeat(appendEntry);
+                return new Response(buffer -> PaxosMessageCodec.encodeAppendEntryResponse(buffer, correlationId, response));
+            }
+            if (message instanceof InstallSnapshot installSnapshot) {
+                InstallSnapshot.Response response = peerMessageHandler.handleInstallSnapshot(installSnapshot);
+                return new Response(buffer -> PaxosMessageCodec.encodeInstallSnapshotResponse(buffer, correlationId, response));
+            }
+            if (message instanceof GroupHeartbeat heartbeat) {
+                GroupHeartbeat.Response response = peerMessageHandler.handleGroupHeartbeat(heartbeat);
+                return new Response(PaxosMessageCodec.getFrameSize(response),
+                        buffer -> PaxosMessageCodec.encodeGroupHeartbeatResponse(buffer, correlationId, response));
+            }
+            if (message instanceof GroupVote vote) {
+                GroupVote.Response response = peerMessageHandler.handleGroupVote(vote);
+                return new Response(PaxosMessageCodec.getFrameSize(response),
+                        buffer -> PaxosMessageCodec.encodeGroupVoteResponse(buffer, correlationId, response));
+            }
+        } catch (PaxosLeaderConflictException e) {
+            log.error(e.getMessage());
+            long serverId = paxosServer.getIdValue();
+            return new Response(buffer -> PaxosMessageCodec.encodeConflict(buffer, correlationId, serverId));
+        } catch (Exception e) {
+            log.error("Error occurred while handling peer message of type {}!", type, e);
+        }
+        return new Response(buffer -> PaxosMessageCodec.encodeError(buffer, correlationId));
+    }
+
+    private void processResponses() {
+        SelectionKey key;
+
+        while ((key = respondedKeys.poll()) != null) {
+            if (!key.isValid()) {
+                continue;
+            }
+            try {
+                flushResponses(key);
+            } catch (IOException e) {
+                log.debug("Closing peer connection: {}", e.getMessage());
+                close(key);
+            }
+        }
+    }
+
+    private void flushResponses(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        int inFlight = connection.inFlight;
+
+        while (!connection.responses.isEmpty() && fitsWriteBuffer(connection)) {
+            connection.responses.poll().encoder.accept(connection.writeBuffer);
+            connection.inFlight--;
+        }
+        write(key, connection.writeBuffer);
+
+        if (inFlight >= MAX_IN_FLIGHT_REQUESTS && connection.inFlight < MAX_IN_FLIGHT_REQUESTS) {
+            dispatchFrames(key, connection);
+        }
+        updateInterestOps(key, connection);
+    }
+
+    private boolean fitsWriteBuffer(Connection connection) {
+        return connection.writeBuffer.remaining() >= connection.responses.peek().size;
+    }
+
+    private void write(SelectionKey key, ByteBuffer writeBuffer) throws IOException {
+        writeBuffer.flip();
+        ((SocketChannel) key.channel()).write(writeBuffer);
+        writeBuffer.compact();
+    }
+
+    // a saturated connection is not read until its responses are written, otherwise the selector would spin on it
+    private void updateInterestOps(SelectionKey key, Connection connection) {
+        int interestOps = connection.inFlight < MAX_IN_FLIGHT_REQUESTS ? SelectionKey.OP_READ : 0;
+
+        if (connection.writeBuffer.position() > 0 || !connection.responses.isEmpty()) {
+            interestOps |= SelectionKey.OP_WRITE;
+        }
+        key.interestOps(interestOps);
+    }
+
+    private void close(SelectionKey key) {
+        try {
+            key.cancel();
+            key.channel().close();
+        } catch (IOException e) {
+            log.trace("Error occurred while closing peer connection", e);
+        }
+    }
+
+    private static class Connection {
+
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(LENGTH_FIELD_SIZE + MAX_FRAME_SIZE);
+        // a group vote response of many groups takes up to a whole frame
+        private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(LENGTH_FIELD_SIZE + MAX_FRAME_SIZE);
+        private final Queue<Response> responses = new ConcurrentLinkedQueue<>();
+
+        // accessed by the selector thread only
+        private int inFlight;
+    }
+
+    private static class Response {
+
+        private final int size;
+        private final Consumer<ByteBuffer> encoder;
+
+        private Response(Consumer<ByteBuffer> encoder) {
+            this(MAX_RESPONSE_SIZE, encoder);
+        }
+
+        private Response(int size, Consumer<ByteBuffer> encoder) {
+            this.size = size;
+            this.encoder = encoder;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.slusarczykr.paxos.leader.api.transport;
+
+import com.slusarczykr.paxos.leader.election.handler.PeerMessageHandler;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryPaxosNetwork {
+
+    private final Map<String, PeerMessageHandler> handlers = new ConcurrentHashMap<>();
+
+    public void register(String serverLocation, PeerMessageHandler handler) {
+        handlers.put(serverLocation, handler);
+    }
+
+    public void unregister(String serverLocation) {
+        handlers.remove(serverLocation);
+    }
+
+    public Optional<PeerMessageHandler> getHandler(String serverLocation) {
+        return Optional.ofNullable(handlers.get(serverLocation));
+    }
+}
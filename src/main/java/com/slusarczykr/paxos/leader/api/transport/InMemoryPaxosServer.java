@@ -0,0 +1,43 @@
+package com.slusarczykr.paxos.leader.api.transport;
+
+import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryService;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.handler.PeerMessageHandler;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+
+@Component
+@ConditionalOnProperty(prefix = "paxos.server.transport", name = "mode", havingValue = "in_memory")
+@RequiredArgsConstructor
+public class InMemoryPaxosServer {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryPaxosServer.class);
+
+    private final InMemoryPaxosNetwork network;
+    private final PeerMessageHandler peerMessageHandler;
+    private final PaxosServer paxosServer;
+    private final ServerDiscoveryService discoveryService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        String serverLocation = getServerLocation();
+        network.register(serverLocation, peerMessageHandler);
+        log.info("Paxos in-memory transport registered under {}", serverLocation);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        network.unregister(getServerLocation());
+    }
+
+    private String getServerLocation() {
+        return discoveryService.getServerLocation((int) paxosServer.getIdValue());
+    }
+}
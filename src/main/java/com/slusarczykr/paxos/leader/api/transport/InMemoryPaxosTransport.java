@@ -0,0 +1,100 @@
+package com.slusarczykr.paxos.leader.api.transport;
+
+import com.slusarczykr.paxos.leader.api.AppendEntry;
+import com.slusarczykr.paxos.leader.api.GroupHeartbeat;
+import com.slusarczykr.paxos.leader.api.GroupVote;
+import com.slusarczykr.paxos.leader.api.InstallSnapshot;
+import com.slusarczykr.paxos.leader.api.RequestVote;
+import com.slusarczykr.paxos.leader.api.SnapshotChunk;
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.handler.PeerMessageHandler;
+import com.slusarczykr.paxos.leader.execution.PaxosThreads;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+@Component
+@ConditionalOnProperty(prefix = "paxos.server.transport", name = "mode", havingValue = "in_memory")
+@RequiredArgsConstructor
+public class InMemoryPaxosTransport implements PaxosTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryPaxosTransport.class);
+
+    private final InMemoryPaxosNetwork network;
+    private final PaxosServer paxosServer;
+    private final PaxosThreads paxosThreads;
+
+    private ExecutorService deliveryExecutor;
+
+    @PostConstruct
+    public void init() {
+        deliveryExecutor = paxosThreads.newTaskExecutor("paxos-in-memory-delivery");
+    }
+
+    @PreDestroy
+    public void destroy() {
+        deliveryExecutor.shutdownNow();
+    }
+
+    @Override
+    public CompletableFuture<Optional<RequestVote.Response>> sendRequestVote(Peer peer, RequestVote requestVote) {
+        return sendRequest(peer.getLocation(), handler -> handler.handleRequestVote(requestVote));
+    }
+
+    @Override
+    public CompletableFuture<Optional<AppendEntry.Response>> sendHeartbeats(Peer peer, AppendEntry appendEntry) {
+        return sendRequest(peer.getLocation(), handler -> handler.handleHeartbeat(appendEntry));
+    }
+
+    @Override
+    public CompletableFuture<Optional<InstallSnapshot.Response>> sendInstallSnapshot(Peer peer,
+                                                                                     InstallSnapshot installSnapshot,
+                                                                                     SnapshotChunk chunk) {
+        try {
+            installSnapshot.setData(chunk.toByteArray());
+        } catch (IOException e) {
+            log.error("Could not read snapshot chunk at offset {}!", installSnapshot.getOffset(), e);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return sendRequest(peer.getLocation(), handler -> handler.handleInstallSnapshot(installSnapshot));
+    }
+
+    @Override
+    public CompletableFuture<Optional<GroupHeartbeat.Response>> sendGroupHeartbeat(Peer peer, GroupHeartbeat heartbeat) {
+        return sendRequest(peer.getLocation(), handler -> handler.handleGroupHeartbeat(heartbeat));
+    }
+
+    @Override
+    public CompletableFuture<Optional<GroupVote.Response>> sendGroupVote(Peer peer, GroupVote vote) {
+        return sendRequest(peer.getLocation(), handler -> handler.handleGroupVote(vote));
+    }
+
+    private <T> CompletableFuture<Optional<T>> sendRequest(String serverLocation, Function<PeerMessageHandler, T> request) {
+        if (paxosServer.isLostConnectionEnabled()) {
+            log.debug("Dropping request to '{}'", serverLocation);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        // a request cancelled before it is delivered never reaches the peer
+        return CompletableFuture.supplyAsync(() -> deliver(serverLocation, request), deliveryExecutor);
+    }
+
+    private <T> Optional<T> deliver(String serverLocation, Function<PeerMessageHandler, T> request) {
+        Optional<PeerMessageHandler> handler = network.getHandler(serverLocation);
+
+        if (handler.isEmpty()) {
+            log.error("Server listening on address {} is not reachable!", serverLocation);
+        }
+        return handler.map(request);
+    }
+}
@@ -0,0 +1,19 @@
+package com.slusarczykr.paxos.leader.api.transport;
+
+import java.util.concurrent.CompletableFuture;
+
+public class PaxosRequests {
+
+    private PaxosRequests() {
+    }
+
+    // the response handed to the caller is derived from the request, so its cancellation is passed on to the request
+    public static <T> CompletableFuture<T> cancellable(CompletableFuture<T> response, CompletableFuture<?> request) {
+        response.whenComplete((it, e) -> {
+            if (response.isCancelled()) {
+                request.cancel(true);
+            }
+        });
+        return response;
+    }
+}
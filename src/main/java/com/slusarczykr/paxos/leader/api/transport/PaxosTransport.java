@@ -0,0 +1,26 @@
+package com.slusarczykr.paxos.leader.api.transport;
+
+import com.slusarczykr.paxos.leader.api.AppendEntry;
+import com.slusarczykr.paxos.leader.api.GroupHeartbeat;
+import com.slusarczykr.paxos.leader.api.GroupVote;
+import com.slusarczykr.paxos.leader.api.InstallSnapshot;
+import com.slusarczykr.paxos.leader.api.RequestVote;
+import com.slusarczykr.paxos.leader.api.SnapshotChunk;
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface PaxosTransport {
+
+    CompletableFuture<Optional<RequestVote.Response>> sendRequestVote(Peer peer, RequestVote requestVote);
+
+    CompletableFuture<Optional<AppendEntry.Response>> sendHeartbeats(Peer peer, AppendEntry appendEntry);
+
+    CompletableFuture<Optional<InstallSnapshot.Response>> sendInstallSnapshot(Peer peer, InstallSnapshot installSnapshot,
+                                                                              SnapshotChunk chunk);
+
+    CompletableFuture<Optional<GroupHeartbeat.Response>> sendGroupHeartbeat(Peer peer, GroupHeartbeat heartbeat);
+
+    CompletableFuture<Optional<GroupVote.Response>> sendGroupVote(Peer peer, GroupVote vote);
+}
@@ -5,7 +5,10 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Configuration
 @ConfigurationProperties(prefix = "paxos.server.discovery")
@@ -13,5 +16,51 @@ import java.util.List;
 @Setter
 public class ServerDiscoveryConfiguration {
 
+    private static final String ID_SEPARATOR = "=";
+
+    // entries are either 'id=address' or a plain address, which gets its position within the list as the id
     private List<String> hosts;
+    // id of this server, required when it joins a running cluster or its port does not identify it within hosts
+    private Integer id;
+
+    private Duration suspicionTimeout = Duration.ofSeconds(12);
+    private Duration probeInterval = Duration.ofSeconds(2);
+    private Duration probeTimeout = Duration.ofMillis(500);
+
+    public Map<Integer, String> resolveServers() {
+        Map<Integer, String> servers = new TreeMap<>();
+
+        for (int i = 0; i < hosts.size(); i++) {
+            String host = hosts.get(i).trim();
+            int separatorIndex = host.indexOf(ID_SEPARATOR);
+            int serverId = separatorIndex > 0 ? Integer.parseInt(host.substring(0, separatorIndex).trim()) : i;
+            String serverLocation = separatorIndex > 0 ? host.substring(separatorIndex + 1).trim() : host;
+
+            if (servers.putIfAbsent(serverId, serverLocation) != null) {
+                throw new IllegalStateException("Server id " + serverId + " is assigned to more than one host");
+            }
+        }
+        return servers;
+    }
+
+    public int resolveServerId(int port) {
+        if (id != null) {
+            return id;
+        }
+        List<Integer> matchingIds = resolveServers().entrySet().stream()
+                .filter(it -> extractPort(it.getValue()) == port)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        if (matchingIds.size() != 1) {
+            throw new IllegalStateException(String.format("Port %d matches %d hosts, set paxos.server.discovery.id "
+                    + "to the id of this server", port, matchingIds.size()));
+        }
+        return matchingIds.get(0);
+    }
+
+    private static int extractPort(String server) {
+        int portStartIndex = server.lastIndexOf(":") + 1;
+        return Integer.parseInt(server.substring(portStartIndex).replaceAll("/+$", ""));
+    }
 }
@@ -0,0 +1,22 @@
+package com.slusarczykr.paxos.leader.discovery.detector;
+
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+
+import java.util.Map;
+
+public interface FailureDetector {
+
+    void register(Peer peer);
+
+    void unregister(int serverId);
+
+    void recordHeartbeat(long serverId);
+
+    void suspect(long serverId);
+
+    boolean isAvailable(long serverId);
+
+    Map<Integer, String> getAvailableServers();
+
+    int countAvailableServers();
+}
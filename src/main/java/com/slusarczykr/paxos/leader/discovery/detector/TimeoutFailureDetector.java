@@ -0,0 +1,182 @@
+package com.slusarczykr.paxos.leader.discovery.detector;
+
+import com.slusarczykr.paxos.leader.discovery.config.ServerDiscoveryConfiguration;
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@Component
+public class TimeoutFailureDetector implements FailureDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeoutFailureDetector.class);
+
+    private final PaxosServer paxosServer;
+    private final ServerDiscoveryConfiguration serverDiscoveryConfiguration;
+    private final HttpClient httpClient;
+
+    // indexed by server id, copied on every registration so lookups are plain array reads
+    private volatile PeerLiveness[] peers = new PeerLiveness[0];
+    private volatile Map<Integer, String> availableServers = Map.of();
+
+    private final ScheduledExecutorService sweepExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    public TimeoutFailureDetector(PaxosServer paxosServer, ServerDiscoveryConfiguration serverDiscoveryConfiguration,
+                                  HttpClient paxosHttpClient) {
+        this.paxosServer = paxosServer;
+        this.serverDiscoveryConfiguration = serverDiscoveryConfiguration;
+        this.httpClient = paxosHttpClient;
+    }
+
+    @PostConstruct
+    public void init() {
+        long probeInterval = serverDiscoveryConfiguration.getProbeInterval().toMillis();
+        log.info("Scheduling failure detector sweeps with interval of {} ms", probeInterval);
+        sweepExecutor.scheduleWithFixedDelay(this::sweep, probeInterval, probeInterval, MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        sweepExecutor.shutdownNow();
+    }
+
+    @Override
+    public synchronized void register(Peer peer) {
+        if (peer.getId() != paxosServer.getIdValue()) {
+            PeerLiveness[] registeredPeers = Arrays.copyOf(peers, Math.max(peers.length, peer.getId() + 1));
+            registeredPeers[peer.getId()] = new PeerLiveness(peer, System.nanoTime());
+            peers = registeredPeers;
+            refreshAvailableServers();
+        }
+    }
+
+    @Override
+    public synchronized void unregister(int serverId) {
+        if (getPeer(serverId) != null) {
+            PeerLiveness[] registeredPeers = peers.clone();
+            registeredPeers[serverId] = null;
+            peers = registeredPeers;
+            refreshAvailableServers();
+        }
+    }
+
+    @Override
+    public void recordHeartbeat(long serverId) {
+        PeerLiveness peer = getPeer(serverId);
+
+        if (peer != null) {
+            peer.lastHeartbeat = System.nanoTime();
+
+            if (!peer.alive) {
+                log.info("Server with id {} is available again", serverId);
+                updateLiveness(peer, true);
+            }
+        }
+    }
+
+    @Override
+    public void suspect(long serverId) {
+        PeerLiveness peer = getPeer(serverId);
+
+        if (peer != null && peer.alive) {
+            log.warn("Server with id {} is suspected to be unavailable", serverId);
+            updateLiveness(peer, false);
+        }
+    }
+
+    @Override
+    public boolean isAvailable(long serverId) {
+        PeerLiveness peer = getPeer(serverId);
+        return peer != null && peer.alive;
+    }
+
+    @Override
+    public Map<Integer, String> getAvailableServers() {
+        return availableServers;
+    }
+
+    @Override
+    public int countAvailableServers() {
+        return availableServers.size();
+    }
+
+    private PeerLiveness getPeer(long serverId) {
+        PeerLiveness[] registeredPeers = peers;
+        return serverId >= 0 && serverId < registeredPeers.length ? registeredPeers[(int) serverId] : null;
+    }
+
+    private void updateLiveness(PeerLiveness peer, boolean alive) {
+        peer.alive = alive;
+        refreshAvailableServers();
+    }
+
+    private synchronized void refreshAvailableServers() {
+        Map<Integer, String> servers = new TreeMap<>();
+
+        for (PeerLiveness peer : peers) {
+            if (peer != null && peer.alive) {
+                servers.put(peer.peer.getId(), peer.peer.getLocation());
+            }
+        }
+        availableServers = Collections.unmodifiableMap(servers);
+    }
+
+    private void sweep() {
+        long suspicionTimeout = serverDiscoveryConfiguration.getSuspicionTimeout().toNanos();
+        long now = System.nanoTime();
+
+        for (PeerLiveness peer : peers) {
+            if (peer != null && now - peer.lastHeartbeat > suspicionTimeout && peer.probing.compareAndSet(false, true)) {
+                probe(peer.peer.getId(), peer);
+            }
+        }
+    }
+
+    private void probe(int serverId, PeerLiveness peer) {
+        log.trace("Probing server with id {}", serverId);
+        HttpRequest request = HttpRequest.newBuilder(peer.peer.getStatusUri())
+                .timeout(serverDiscoveryConfiguration.getProbeTimeout())
+                .GET()
+                .build();
+
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, e) -> {
+                    if (e == null && response.statusCode() < 400) {
+                        recordHeartbeat(serverId);
+                    } else {
+                        suspect(serverId);
+                    }
+                    peer.probing.set(false);
+                });
+    }
+
+    private static class PeerLiveness {
+
+        private final Peer peer;
+        private final AtomicBoolean probing = new AtomicBoolean(false);
+
+        private volatile long lastHeartbeat;
+        private volatile boolean alive = true;
+
+        private PeerLiveness(Peer peer, long lastHeartbeat) {
+            this.peer = peer;
+            this.lastHeartbeat = lastHeartbeat;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.slusarczykr.paxos.leader.discovery.membership;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryService;
+import com.slusarczykr.paxos.leader.storage.snapshot.SnapshotStore;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+@RequiredArgsConstructor
+public class ClusterMembership {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private static final long BOOTSTRAP_CONFIGURATION = 0;
+
+    private final ServerDiscoveryService discoveryService;
+
+    private volatile long configurationIndex = BOOTSTRAP_CONFIGURATION;
+
+    public void apply(LogEntry logEntry) {
+        Map<Integer, String> servers = MembershipCommand.decode(logEntry.getCommand());
+        log.info("Applying cluster configuration from index {}: {}", logEntry.getIndex(), servers);
+        configurationIndex = logEntry.getIndex();
+        discoveryService.updateServers(servers);
+    }
+
+    public SnapshotStore.SnapshotWriter snapshot() {
+        long index = configurationIndex;
+        byte[] command = MembershipCommand.encode(discoveryService.getAllServers());
+
+        return outputStream -> {
+            if (index == BOOTSTRAP_CONFIGURATION) {
+                return;
+            }
+            DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+            dataOutputStream.writeLong(index);
+            dataOutputStream.writeInt(command.length);
+            dataOutputStream.write(command);
+            dataOutputStream.flush();
+        };
+    }
+
+    public void restore(InputStream inputStream) throws IOException {
+        DataInputStream dataInputStream = new DataInputStream(inputStream);
+        long index;
+        try {
+            index = dataInputStream.readLong();
+        } catch (EOFException e) {
+            // snapshot taken while the bootstrap configuration was in use
+            return;
+        }
+        byte[] command = new byte[dataInputStream.readInt()];
+        dataInputStream.readFully(command);
+        apply(new LogEntry(index, 0, command));
+    }
+
+    public MembershipStatus getStatus() {
+        return new MembershipStatus(configurationIndex, new TreeMap<>(discoveryService.getAllServers()));
+    }
+}
@@ -0,0 +1,10 @@
+package com.slusarczykr.paxos.leader.discovery.membership;
+
+import lombok.Data;
+
+@Data
+public class MembershipChange {
+
+    private int id;
+    private String address;
+}
@@ -0,0 +1,63 @@
+package com.slusarczykr.paxos.leader.discovery.membership;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+public final class MembershipCommand {
+
+    // client commands never start with a zero byte, see LogResource
+    private static final byte MEMBERSHIP_MARKER = 0;
+
+    private MembershipCommand() {
+    }
+
+    public static boolean isMembershipCommand(byte[] command) {
+        return command.length > 0 && command[0] == MEMBERSHIP_MARKER;
+    }
+
+    public static byte[] encode(Map<Integer, String> servers) {
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+            dataOutputStream.writeByte(MEMBERSHIP_MARKER);
+            dataOutputStream.writeInt(servers.size());
+
+            for (Map.Entry<Integer, String> server : new TreeMap<>(servers).entrySet()) {
+                byte[] location = server.getValue().getBytes(StandardCharsets.UTF_8);
+                dataOutputStream.writeInt(server.getKey());
+                dataOutputStream.writeInt(location.length);
+                dataOutputStream.write(location);
+            }
+            dataOutputStream.flush();
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Map<Integer, String> decode(byte[] command) {
+        try {
+            DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(command));
+            inputStream.readByte();
+            int size = inputStream.readInt();
+            Map<Integer, String> servers = new TreeMap<>();
+
+            for (int i = 0; i < size; i++) {
+                int serverId = inputStream.readInt();
+                byte[] location = new byte[inputStream.readInt()];
+                inputStream.readFully(location);
+                servers.put(serverId, new String(location, StandardCharsets.UTF_8));
+            }
+            return servers;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.slusarczykr.paxos.leader.discovery.membership;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface MembershipService {
+
+    CompletableFuture<Long> addServer(int serverId, String serverLocation);
+
+    CompletableFuture<Long> removeServer(int serverId);
+
+    MembershipStatus getStatus();
+}
@@ -0,0 +1,96 @@
+package com.slusarczykr.paxos.leader.discovery.membership;
+
+import com.slusarczykr.paxos.leader.discovery.peer.PeerTable;
+import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryService;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.exception.PaxosMembershipException;
+import com.slusarczykr.paxos.leader.exception.PaxosNotLeaderException;
+import com.slusarczykr.paxos.leader.replication.log.ReplicatedLog;
+import com.slusarczykr.paxos.leader.replication.service.LogReplicationService;
+import com.slusarczykr.paxos.leader.replication.state.LogApplier;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+public class MembershipServiceImpl implements MembershipService {
+
+    private static final Logger log = LoggerFactory.getLogger(MembershipServiceImpl.class);
+
+    private final PaxosServer paxosServer;
+    private final ServerDiscoveryService discoveryService;
+    private final LogReplicationService logReplicationService;
+    private final ReplicatedLog replicatedLog;
+    private final LogApplier logApplier;
+    private final ClusterMembership clusterMembership;
+
+    private long changeTerm;
+    private long changeBarrierIndex;
+
+    @Override
+    public CompletableFuture<Long> addServer(int serverId, String serverLocation) {
+        PeerTable.validateServer(serverId, serverLocation);
+
+        return changeMembership(servers -> {
+            if (servers.containsKey(serverId) || servers.containsValue(serverLocation)) {
+                throw new IllegalArgumentException("Server with id " + serverId + " or address " + serverLocation
+                        + " is already a member of the cluster");
+            }
+            servers.put(serverId, serverLocation);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> removeServer(int serverId) {
+        return changeMembership(servers -> {
+            if (servers.remove(serverId) == null) {
+                throw new IllegalArgumentException("Server with id " + serverId + " is not a member of the cluster");
+            }
+            if (servers.isEmpty()) {
+                throw new IllegalArgumentException("The last server cannot be removed from the cluster");
+            }
+        });
+    }
+
+    private synchronized CompletableFuture<Long> changeMembership(Consumer<Map<Integer, String>> change) {
+        long term = paxosServer.getTermValue();
+
+        if (!paxosServer.isLeader()) {
+            return CompletableFuture.failedFuture(new PaxosNotLeaderException("Current server is not the leader"));
+        }
+        // every configuration from the previous terms must be in effect before the next one is proposed
+        long lastApplied = logApplier.getLastApplied();
+
+        if (replicatedLog.getTerm(lastApplied).orElse(-1) != term) {
+            return CompletableFuture.failedFuture(
+                    new PaxosMembershipException("The leader has not applied an entry of its term yet"));
+        }
+        // one server at a time, so the majorities of the old and the new configuration always overlap
+        if (changeTerm == term && lastApplied < changeBarrierIndex) {
+            return CompletableFuture.failedFuture(
+                    new PaxosMembershipException("Another membership change is in progress"));
+        }
+        // built from the configuration in effect, which includes the previous change once it has been applied
+        Map<Integer, String> servers = new TreeMap<>(discoveryService.getAllServers());
+        change.accept(servers);
+
+        log.info("Proposing cluster configuration: {}", servers);
+        CompletableFuture<Long> commit = logReplicationService.append(MembershipCommand.encode(servers));
+        changeTerm = term;
+        changeBarrierIndex = replicatedLog.getLastIndex();
+
+        return commit;
+    }
+
+    @Override
+    public MembershipStatus getStatus() {
+        return clusterMembership.getStatus();
+    }
+}
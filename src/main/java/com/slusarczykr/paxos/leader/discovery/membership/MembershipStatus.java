@@ -0,0 +1,14 @@
+package com.slusarczykr.paxos.leader.discovery.membership;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class MembershipStatus {
+
+    private long configurationIndex;
+    private Map<Integer, String> servers;
+}
@@ -0,0 +1,94 @@
+package com.slusarczykr.paxos.leader.discovery.peer;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import static com.slusarczykr.paxos.leader.api.client.PaxosEndpoints.GROUP_HEARTBEAT_PATH;
+import static com.slusarczykr.paxos.leader.api.client.PaxosEndpoints.GROUP_VOTE_PATH;
+import static com.slusarczykr.paxos.leader.api.client.PaxosEndpoints.HEARTBEAT_PATH;
+import static com.slusarczykr.paxos.leader.api.client.PaxosEndpoints.SNAPSHOT_PATH;
+import static com.slusarczykr.paxos.leader.api.client.PaxosEndpoints.STATUS_PATH;
+import static com.slusarczykr.paxos.leader.api.client.PaxosEndpoints.VOTE_PATH;
+
+public class Peer {
+
+    private final int id;
+    private final String location;
+
+    private final URI voteUri;
+    private final URI heartbeatUri;
+    private final URI snapshotUri;
+    private final URI statusUri;
+    private final URI groupHeartbeatUri;
+    private final URI groupVoteUri;
+
+    private final AtomicReferenceArray<Object> slots = new AtomicReferenceArray<>(PeerSlot.MAX_SLOTS);
+
+    public Peer(int id, String location) {
+        this.id = id;
+        this.location = location;
+        this.voteUri = URI.create(location + VOTE_PATH);
+        this.heartbeatUri = URI.create(location + HEARTBEAT_PATH);
+        this.snapshotUri = URI.create(location + SNAPSHOT_PATH);
+        this.statusUri = URI.create(location + STATUS_PATH);
+        this.groupHeartbeatUri = URI.create(location + GROUP_HEARTBEAT_PATH);
+        this.groupVoteUri = URI.create(location + GROUP_VOTE_PATH);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(PeerSlot<T> slot) {
+        return (T) slots.get(slot.getIndex());
+    }
+
+    public <T> T computeIfAbsent(PeerSlot<T> slot, Function<Peer, T> factory) {
+        T value = get(slot);
+
+        if (value != null) {
+            return value;
+        }
+        T newValue = factory.apply(this);
+        return slots.compareAndSet(slot.getIndex(), null, newValue) ? newValue : get(slot);
+    }
+
+    public boolean isSameAs(int id, String location) {
+        return this.id == id && this.location.equals(location);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public URI getVoteUri() {
+        return voteUri;
+    }
+
+    public URI getHeartbeatUri() {
+        return heartbeatUri;
+    }
+
+    public URI getSnapshotUri() {
+        return snapshotUri;
+    }
+
+    public URI getStatusUri() {
+        return statusUri;
+    }
+
+    public URI getGroupHeartbeatUri() {
+        return groupHeartbeatUri;
+    }
+
+    public URI getGroupVoteUri() {
+        return groupVoteUri;
+    }
+
+    @Override
+    public String toString() {
+        return id + "=" + location;
+    }
+}
@@ -0,0 +1,26 @@
+package com.slusarczykr.paxos.leader.discovery.peer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// typed key of the state a component keeps per peer, declared as a constant of that component; the state is dropped
+// with the peer when its server is removed
+public final class PeerSlot<T> {
+
+    static final int MAX_SLOTS = 8;
+
+    private static final AtomicInteger nextIndex = new AtomicInteger(0);
+
+    private final int index;
+
+    public PeerSlot() {
+        this.index = nextIndex.getAndIncrement();
+
+        if (index >= MAX_SLOTS) {
+            throw new IllegalStateException("No more than " + MAX_SLOTS + " peer slots can be declared");
+        }
+    }
+
+    int getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,90 @@
+package com.slusarczykr.paxos.leader.discovery.peer;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class PeerTable {
+
+    public static final int MAX_SERVER_ID = 1023;
+
+    private static final PeerTable EMPTY = new PeerTable(new Peer[0], new Peer[0], Map.of());
+
+    private final Peer[] peersById;
+    private final Peer[] peers;
+    private final Map<Integer, String> servers;
+
+    private PeerTable(Peer[] peersById, Peer[] peers, Map<Integer, String> servers) {
+        this.peersById = peersById;
+        this.peers = peers;
+        this.servers = servers;
+    }
+
+    public static PeerTable empty() {
+        return EMPTY;
+    }
+
+    // peers with an unchanged id and address are carried over, so the state kept in their slots survives
+    public static PeerTable of(Map<Integer, String> servers, PeerTable previous) {
+        TreeMap<Integer, String> sortedServers = new TreeMap<>(servers);
+        Peer[] peers = new Peer[sortedServers.size()];
+        Peer[] peersById = new Peer[sortedServers.isEmpty() ? 0 : validateServerId(sortedServers.lastKey()) + 1];
+        int index = 0;
+
+        for (Map.Entry<Integer, String> server : sortedServers.entrySet()) {
+            int serverId = validateServerId(server.getKey());
+            Peer peer = previous.getById(serverId);
+
+            if (peer == null || !peer.isSameAs(serverId, server.getValue())) {
+                peer = new Peer(serverId, server.getValue());
+            }
+            peers[index++] = peer;
+            peersById[serverId] = peer;
+        }
+        return new PeerTable(peersById, peers, Collections.unmodifiableMap(sortedServers));
+    }
+
+    public static void validateServer(int serverId, String serverLocation) {
+        validateServerId(serverId);
+        URI.create(serverLocation);
+    }
+
+    public static int validateServerId(int serverId) {
+        if (serverId < 0 || serverId > MAX_SERVER_ID) {
+            throw new IllegalArgumentException("Server id " + serverId + " is out of range [0, " + MAX_SERVER_ID + "]");
+        }
+        return serverId;
+    }
+
+    public Peer getById(long serverId) {
+        return serverId >= 0 && serverId < peersById.length ? peersById[(int) serverId] : null;
+    }
+
+    // peers are ordered by id
+    public Peer getAt(int index) {
+        return peers[index];
+    }
+
+    public int size() {
+        return peers.length;
+    }
+
+    public boolean contains(long serverId) {
+        return getById(serverId) != null;
+    }
+
+    // rank of the server among the members, also defined for a server which is not a member
+    public int getMemberIndex(long serverId) {
+        int memberIndex = 0;
+
+        while (memberIndex < peers.length && peers[memberIndex].getId() < serverId) {
+            memberIndex++;
+        }
+        return memberIndex;
+    }
+
+    public Map<Integer, String> getServers() {
+        return servers;
+    }
+}
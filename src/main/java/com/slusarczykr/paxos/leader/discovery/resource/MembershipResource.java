@@ -0,0 +1,80 @@
+package com.slusarczykr.paxos.leader.discovery.resource;
+
+import com.slusarczykr.paxos.leader.discovery.membership.MembershipChange;
+import com.slusarczykr.paxos.leader.discovery.membership.MembershipService;
+import com.slusarczykr.paxos.leader.discovery.membership.MembershipStatus;
+import com.slusarczykr.paxos.leader.exception.PaxosMembershipException;
+import com.slusarczykr.paxos.leader.exception.PaxosNotLeaderException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@RestController
+@RequestMapping(path = "membership", produces = APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class MembershipResource {
+
+    private static final Logger log = LoggerFactory.getLogger(MembershipResource.class);
+
+    private final MembershipService membershipService;
+
+    @GetMapping
+    public ResponseEntity<MembershipStatus> getStatus() {
+        return new ResponseEntity<>(membershipService.getStatus(), HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/servers", consumes = APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<Long>> addServer(@RequestBody MembershipChange membershipChange) {
+        return changeMembership(() -> membershipService.addServer(membershipChange.getId(), membershipChange.getAddress()));
+    }
+
+    @DeleteMapping(value = "/servers/{id}")
+    public CompletableFuture<ResponseEntity<Long>> removeServer(@PathVariable("id") int serverId) {
+        return changeMembership(() -> membershipService.removeServer(serverId));
+    }
+
+    private CompletableFuture<ResponseEntity<Long>> changeMembership(Supplier<CompletableFuture<Long>> change) {
+        try {
+            return change.get()
+                    .handle((index, e) -> e == null
+                            ? new ResponseEntity<>(index, HttpStatus.OK)
+                            : new ResponseEntity<>(toHttpStatus(e)));
+        } catch (IllegalArgumentException e) {
+            log.warn(e.getMessage());
+            return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+    }
+
+    private HttpStatus toHttpStatus(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+        if (cause instanceof PaxosNotLeaderException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        if (cause instanceof PaxosMembershipException) {
+            log.warn(cause.getMessage());
+            return HttpStatus.CONFLICT;
+        }
+        if (cause instanceof TimeoutException) {
+            return HttpStatus.GATEWAY_TIMEOUT;
+        }
+        log.error("Membership change could not be committed!", cause);
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+}
@@ -1,9 +1,16 @@
 package com.slusarczykr.paxos.leader.discovery.service;
 
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+import com.slusarczykr.paxos.leader.discovery.peer.PeerTable;
+
 import java.util.Map;
 
 public interface ServerDiscoveryService {
 
+    PeerTable getPeerTable();
+
+    Peer getPeer(long serverId);
+
     Map<Integer, String> getAllServers();
 
     Map<Integer, String> getAvailableServers();
@@ -13,4 +20,12 @@ public interface ServerDiscoveryService {
     boolean anyServerAvailable();
 
     String getServerLocation(int id);
+
+    boolean isMember(long serverId);
+
+    int getMemberIndex(long serverId);
+
+    void updateServers(Map<Integer, String> servers);
+
+    void addMembershipListener(Runnable listener);
 }
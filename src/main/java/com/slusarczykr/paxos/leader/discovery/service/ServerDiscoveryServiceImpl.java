@@ -1,20 +1,19 @@
 package com.slusarczykr.paxos.leader.discovery.service;
 
 import com.slusarczykr.paxos.leader.discovery.config.ServerDiscoveryConfiguration;
-import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.discovery.detector.FailureDetector;
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+import com.slusarczykr.paxos.leader.discovery.peer.PeerTable;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.PostConstruct;
-import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Service
 @RequiredArgsConstructor
@@ -22,11 +21,12 @@ public class ServerDiscoveryServiceImpl implements ServerDiscoveryService {
 
     private static final Logger log = LoggerFactory.getLogger(ServerDiscoveryServiceImpl.class);
 
-    private final RestTemplate webClient = new RestTemplate();
-    private final PaxosServer paxosServer;
     private final ServerDiscoveryConfiguration serverDiscoveryConfiguration;
+    private final FailureDetector failureDetector;
 
-    private final Map<Integer, String> paxosServers = new ConcurrentHashMap<>();
+    private final List<Runnable> membershipListeners = new CopyOnWriteArrayList<>();
+
+    private volatile PeerTable peerTable = PeerTable.empty();
 
     @PostConstruct
     public void init() {
@@ -39,61 +39,87 @@ public class ServerDiscoveryServiceImpl implements ServerDiscoveryService {
                 .ifPresent(this::registerPaxosServers);
     }
 
-    private void registerPaxosServers(ServerDiscoveryConfiguration configuration) {
-        configuration.getHosts().forEach(server ->
-                paxosServers.put(paxosServer.calculateServerId(extractPort(server)), server)
-        );
+    private synchronized void registerPaxosServers(ServerDiscoveryConfiguration configuration) {
+        peerTable = PeerTable.of(configuration.resolveServers(), peerTable);
+
+        for (int i = 0; i < peerTable.size(); i++) {
+            failureDetector.register(peerTable.getAt(i));
+        }
     }
 
-    private int extractPort(String server) {
-        int portStartIndex = server.lastIndexOf(":") + 1;
-        return Integer.parseInt(server.substring(portStartIndex));
+    @Override
+    public PeerTable getPeerTable() {
+        return peerTable;
     }
 
     @Override
-    public Map<Integer, String> getAllServers() {
-        return Collections.unmodifiableMap(paxosServers);
+    public Peer getPeer(long serverId) {
+        return peerTable.getById(serverId);
     }
 
     @Override
-    public Map<Integer, String> getAvailableServers() {
-        return paxosServers.entrySet().stream()
-                .filter(Predicate.not(this::isCurrentHost).and(this::isAlive))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    public Map<Integer, String> getAllServers() {
+        return peerTable.getServers();
     }
 
-    private boolean isAlive(Map.Entry<Integer, String> serverEntry) {
-        try {
-            webClient.getForObject(serverEntry.getValue() + "/status", Void.class);
-            return true;
-        } catch (Exception ignored) {
-            return false;
-        }
+    @Override
+    public Map<Integer, String> getAvailableServers() {
+        return failureDetector.getAvailableServers();
     }
 
     @Override
     public int getNumberOfAvailableServers() {
-        return countAvailableServers() + 1;
+        return failureDetector.countAvailableServers() + 1;
     }
 
     @Override
     public boolean anyServerAvailable() {
-        return countAvailableServers() > 0;
+        return failureDetector.countAvailableServers() > 0;
     }
 
-    private int countAvailableServers() {
-        return (int) paxosServers.entrySet().stream()
-                .filter(Predicate.not(this::isCurrentHost))
-                .filter(this::isAlive)
-                .count();
+    @Override
+    public String getServerLocation(int id) {
+        Peer peer = peerTable.getById(id);
+        return peer != null ? peer.getLocation() : null;
     }
 
-    private boolean isCurrentHost(Map.Entry<Integer, String> serverEntry) {
-        return serverEntry.getKey() == paxosServer.getIdValue();
+    @Override
+    public boolean isMember(long serverId) {
+        return peerTable.contains(serverId);
     }
 
     @Override
-    public String getServerLocation(int id) {
-        return paxosServers.get(id);
+    public int getMemberIndex(long serverId) {
+        return peerTable.getMemberIndex(serverId);
+    }
+
+    @Override
+    public synchronized void updateServers(Map<Integer, String> servers) {
+        PeerTable previousTable = peerTable;
+        PeerTable table = PeerTable.of(servers, previousTable);
+
+        for (int i = 0; i < previousTable.size(); i++) {
+            Peer peer = previousTable.getAt(i);
+
+            if (table.getById(peer.getId()) != peer) {
+                log.info("Server with id {} listening on address {} left the cluster", peer.getId(), peer.getLocation());
+                failureDetector.unregister(peer.getId());
+            }
+        }
+        for (int i = 0; i < table.size(); i++) {
+            Peer peer = table.getAt(i);
+
+            if (previousTable.getById(peer.getId()) != peer) {
+                log.info("Server with id {} listening on address {} joined the cluster", peer.getId(), peer.getLocation());
+                failureDetector.register(peer);
+            }
+        }
+        peerTable = table;
+        membershipListeners.forEach(Runnable::run);
+    }
+
+    @Override
+    public void addMembershipListener(Runnable listener) {
+        membershipListeners.add(listener);
     }
 }
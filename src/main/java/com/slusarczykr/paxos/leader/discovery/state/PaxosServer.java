@@ -1,13 +1,22 @@
 package com.slusarczykr.paxos.leader.discovery.state;
 
 import com.slusarczykr.paxos.leader.discovery.config.ServerDiscoveryConfiguration;
+import com.slusarczykr.paxos.leader.discovery.peer.PeerTable;
+import com.slusarczykr.paxos.leader.execution.PaxosClock;
+import com.slusarczykr.paxos.leader.storage.metadata.InMemoryMetadataStore;
+import com.slusarczykr.paxos.leader.storage.metadata.MetadataStore;
+import com.slusarczykr.paxos.leader.storage.metadata.PaxosMetadata;
 import lombok.Data;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -15,6 +24,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import static com.slusarczykr.paxos.leader.discovery.state.ErrorStatus.Type.INFINITE_REPLIES;
 import static com.slusarczykr.paxos.leader.discovery.state.ErrorStatus.Type.INVALID_RESPONSE;
 import static com.slusarczykr.paxos.leader.discovery.state.ErrorStatus.Type.LOST_CONNECTION;
+import static com.slusarczykr.paxos.leader.storage.metadata.PaxosMetadata.NO_VOTE;
 
 @Component
 @Data
@@ -25,18 +35,36 @@ public class PaxosServer {
     private final AtomicInteger id = new AtomicInteger(0);
     private final AtomicLong term = new AtomicLong(0);
     private final AtomicLong commitIndex = new AtomicLong(0);
+    private final AtomicInteger votedFor = new AtomicInteger(NO_VOTE);
 
     private final AtomicBoolean leader = new AtomicBoolean(false);
+    private final AtomicLong leaderContactDeadline = new AtomicLong();
 
     private final ErrorStatus errorStatus = new ErrorStatus();
+    private final List<Runnable> stateListeners = new CopyOnWriteArrayList<>();
 
     @Value("${server.port}")
     private int serverPort;
 
     private final ServerDiscoveryConfiguration serverDiscoveryConfiguration;
+    private final MetadataStore metadataStore;
+    private final PaxosClock paxosClock;
 
     public PaxosServer(ServerDiscoveryConfiguration serverDiscoveryConfiguration) {
+        this(serverDiscoveryConfiguration, new InMemoryMetadataStore());
+    }
+
+    public PaxosServer(ServerDiscoveryConfiguration serverDiscoveryConfiguration, MetadataStore metadataStore) {
+        this(serverDiscoveryConfiguration, metadataStore, new PaxosClock());
+    }
+
+    @Autowired
+    public PaxosServer(ServerDiscoveryConfiguration serverDiscoveryConfiguration, MetadataStore metadataStore,
+                       PaxosClock paxosClock) {
         this.serverDiscoveryConfiguration = serverDiscoveryConfiguration;
+        this.metadataStore = metadataStore;
+        this.paxosClock = paxosClock;
+        this.leaderContactDeadline.set(paxosClock.nanoTime());
     }
 
     @PostConstruct
@@ -46,39 +74,90 @@ public class PaxosServer {
 
     private void initPaxosServer() {
         initServerId();
-        incrementTerm();
+        restoreMetadata();
+        incrementTerm().join();
+    }
+
+    private void restoreMetadata() {
+        metadataStore.load().ifPresent(metadata -> {
+            term.set(metadata.getTerm());
+            votedFor.set(metadata.getVotedFor());
+            commitIndex.set(metadata.getCommitIndex());
+            log.info("Restored term: {}, voted for: {}, commit index: {}",
+                    metadata.getTerm(), metadata.getVotedFor(), metadata.getCommitIndex());
+        });
     }
 
     private void initServerId() {
-        int serverId = calculateServerId(serverPort);
+        int serverId = PeerTable.validateServerId(serverDiscoveryConfiguration.resolveServerId(serverPort));
         id.set(serverId);
         log.info("Id {} has been assigned to the server", serverId);
     }
 
-    public void incrementTerm() {
+    public synchronized CompletableFuture<Void> incrementTerm() {
         long nextTerm = calculateNextTerm();
         log.info("New term: {}", nextTerm);
-        updateTerm(nextTerm);
+        return changeTerm(nextTerm, getId().get());
+    }
+
+    public synchronized boolean tryIncrementTerm(long nextTerm) {
+        if (nextTerm <= getTermValue()) {
+            return false;
+        }
+        log.info("New term: {}", nextTerm);
+        changeTerm(nextTerm, getId().get()).join();
+        return true;
+    }
+
+    public synchronized CompletableFuture<Void> updateTerm(long term) {
+        if (term <= getTermValue()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return changeTerm(term, NO_VOTE);
+    }
+
+    public synchronized CompletableFuture<Boolean> tryVoteFor(long term, int candidateId) {
+        long currentTerm = getTermValue();
+
+        if (term < currentTerm) {
+            return CompletableFuture.completedFuture(false);
+        }
+        // a term adopted from another server comes without a vote, which can still be granted in it
+        if (term == currentTerm && votedFor.get() != NO_VOTE && votedFor.get() != candidateId) {
+            return CompletableFuture.completedFuture(false);
+        }
+        // a repeated vote waits for the flush as well, the first one may still be pending
+        return changeTerm(term, candidateId).thenApply(it -> true);
     }
 
-    public void updateTerm(long term) {
-        this.term.set(term);
+    private CompletableFuture<Void> changeTerm(long term, int votedFor) {
+        long previousTerm = this.term.getAndSet(term);
+        this.votedFor.set(votedFor);
+        notifyIfChanged(previousTerm, term);
+        return persist();
     }
 
-    private long calculateNextTerm() {
+    public synchronized CompletableFuture<Void> updateCommitIndex(long commitIndex) {
+        this.commitIndex.set(commitIndex);
+        return persist();
+    }
+
+    private CompletableFuture<Void> persist() {
+        return metadataStore.save(new PaxosMetadata(term.get(), votedFor.get(), commitIndex.get()));
+    }
+
+    public long calculateNextTerm() {
         long currentTerm = getTermValue();
         currentTerm++;
 
-        while (currentTerm % countServers() != getIdValue()) {
+        long idSpace = Math.max(countServers(), getIdValue() + 1);
+
+        while (currentTerm % idSpace != getIdValue()) {
             currentTerm++;
         }
         return currentTerm;
     }
 
-    public int calculateServerId(int port) {
-        return port % countServers();
-    }
-
     private int countServers() {
         return serverDiscoveryConfiguration.getHosts().size();
     }
@@ -99,12 +178,36 @@ public class PaxosServer {
         return getLeader().get();
     }
 
+    public void recordLeaderContact(long stickinessNanos) {
+        leaderContactDeadline.set(paxosClock.nanoTime() + stickinessNanos);
+    }
+
+    public boolean hasRecentLeaderContact() {
+        return leaderContactDeadline.get() - paxosClock.nanoTime() > 0;
+    }
+
     public void demoteLeader() {
         setLeader(false);
     }
 
     public void setLeader(boolean leader) {
-        getLeader().set(leader);
+        if (getLeader().getAndSet(leader) != leader) {
+            notifyStateListeners();
+        }
+    }
+
+    public void addStateListener(Runnable listener) {
+        stateListeners.add(listener);
+    }
+
+    private void notifyIfChanged(long previousTerm, long term) {
+        if (previousTerm != term) {
+            notifyStateListeners();
+        }
+    }
+
+    private void notifyStateListeners() {
+        stateListeners.forEach(Runnable::run);
     }
 
     public boolean isEnabled(ErrorStatus.Type type) {
@@ -0,0 +1,21 @@
+package com.slusarczykr.paxos.leader.election.config;
+
+import com.slusarczykr.paxos.leader.election.timer.HashedWheelTimer;
+import com.slusarczykr.paxos.leader.execution.PaxosThreads;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ElectionTimerConfiguration {
+
+    private static final int WHEEL_SIZE = 512;
+
+    @Bean(destroyMethod = "close")
+    public HashedWheelTimer electionTimer(LeaderElectionProperties leaderElectionProps, PaxosThreads paxosThreads) {
+        if (paxosThreads.isVirtual()) {
+            return new HashedWheelTimer(leaderElectionProps.getTimerTick(), WHEEL_SIZE,
+                    paxosThreads.newThreadFactory("paxos-election-timer"), paxosThreads.newTaskExecutor("paxos-timer-task"));
+        }
+        return new HashedWheelTimer("paxos-election-timer", leaderElectionProps.getTimerTick(), WHEEL_SIZE);
+    }
+}
@@ -3,19 +3,42 @@ package com.slusarczykr.paxos.leader.election.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.convert.DurationUnit;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 
 @ConstructorBinding
 @ConfigurationProperties(prefix = "paxos.server.leader-election")
 @Data
 public class LeaderElectionProperties {
 
-    public static final int DEFAULT_MIN_AWAIT_TIME = 15;
-    public static final int DEFAULT_MAX_AWAIT_TIME = 30;
-    public static final int DEFAULT_HEARTBEATS_INTERVAL = 5;
+    public static final Duration DEFAULT_MIN_AWAIT_TIME = Duration.ofSeconds(15);
+    public static final Duration DEFAULT_MAX_AWAIT_TIME = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_HEARTBEATS_INTERVAL = Duration.ofSeconds(5);
+
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration minAwaitTime = DEFAULT_MIN_AWAIT_TIME;
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration maxAwaitTime = DEFAULT_MAX_AWAIT_TIME;
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration heartbeatsInterval = DEFAULT_HEARTBEATS_INTERVAL;
+    private Duration timerTick = Duration.ofMillis(10);
+    private double maxClockDrift = 0.05;
+
+    private Duration voteTimeout = Duration.ofSeconds(2);
+    private Duration heartbeatTimeout = Duration.ofSeconds(2);
+    private int maxInFlightHeartbeats = 2;
+    private boolean preVote = true;
+    private boolean checkQuorum = true;
 
-    private int minAwaitTime = DEFAULT_MIN_AWAIT_TIME;
-    private int maxAwaitTime = DEFAULT_MAX_AWAIT_TIME;
-    private int heartbeatsInterval = DEFAULT_HEARTBEATS_INTERVAL;
+    private boolean adaptiveTimeouts = true;
+    private double roundTripPercentile = 0.99;
+    private int heartbeatsIntervalRoundTrips = 4;
+    private int electionTimeoutHeartbeats = 5;
+    private Duration minHeartbeatsInterval = Duration.ofMillis(50);
+    private Duration minElectionTimeout = Duration.ofMillis(500);
+    private Duration maxCandidacyBackoff = Duration.ofSeconds(60);
 
     public void reset() {
         this.minAwaitTime = DEFAULT_MIN_AWAIT_TIME;
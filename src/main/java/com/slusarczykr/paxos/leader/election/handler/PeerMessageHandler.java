@@ -0,0 +1,140 @@
+package com.slusarczykr.paxos.leader.election.handler;
+
+import com.slusarczykr.paxos.leader.api.AppendEntry;
+import com.slusarczykr.paxos.leader.api.GroupHeartbeat;
+import com.slusarczykr.paxos.leader.api.GroupVote;
+import com.slusarczykr.paxos.leader.api.InstallSnapshot;
+import com.slusarczykr.paxos.leader.api.RequestVote;
+import com.slusarczykr.paxos.leader.discovery.detector.FailureDetector;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.config.LeaderElectionProperties;
+import com.slusarczykr.paxos.leader.election.starter.LeaderElectionStarter;
+import com.slusarczykr.paxos.leader.election.timeout.ElectionTimeouts;
+import com.slusarczykr.paxos.leader.election.tracker.LeaderTracker;
+import com.slusarczykr.paxos.leader.exception.PaxosLeaderConflictException;
+import com.slusarczykr.paxos.leader.group.service.GroupElectionService;
+import com.slusarczykr.paxos.leader.replication.log.ReplicatedLog;
+import com.slusarczykr.paxos.leader.replication.service.LogReplicationService;
+import com.slusarczykr.paxos.leader.replication.snapshot.SnapshotTransferService;
+import com.slusarczykr.paxos.leader.vote.service.RequestVoteService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@Component
+@RequiredArgsConstructor
+public class PeerMessageHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(PeerMessageHandler.class);
+
+    private final LeaderElectionStarter leaderElectionStarter;
+    private final RequestVoteService requestVoteService;
+    private final PaxosServer paxosServer;
+    private final FailureDetector failureDetector;
+    private final LeaderElectionProperties leaderElectionProps;
+    private final LogReplicationService logReplicationService;
+    private final ReplicatedLog replicatedLog;
+    private final SnapshotTransferService snapshotTransferService;
+    private final ElectionTimeouts electionTimeouts;
+    private final LeaderTracker leaderTracker;
+    private final GroupElectionService groupElectionService;
+
+    public RequestVote.Response handleRequestVote(RequestVote requestVote) {
+        log.info("Received {} from server with id: {}", requestVote.isPreVote() ? "pre-vote" : "vote",
+                requestVote.getServerId());
+        failureDetector.recordHeartbeat(requestVote.getServerId());
+
+        if (requestVote.isPreVote()) {
+            return requestVoteService.preVote(requestVote);
+        }
+        stopHeartbeatsOrReset();
+
+        return requestVoteService.vote(requestVote);
+    }
+
+    public AppendEntry.Response handleHeartbeat(AppendEntry appendEntry) {
+        log.debug("Received heartbeat from leader with id: {}, entries: {}", appendEntry.getServerId(),
+                appendEntry.getEntries().size());
+        long currentTerm = paxosServer.getTermValue();
+
+        if (appendEntry.getTerm() < currentTerm) {
+            log.info("Heartbeat from stale leader with id {} rejected, term: {}, current term: {}",
+                    appendEntry.getServerId(), appendEntry.getTerm(), currentTerm);
+            return createHeartbeatResponse();
+        }
+        if (appendEntry.getTerm() > currentTerm) {
+            followTerm(appendEntry.getTerm());
+        }
+        failureDetector.recordHeartbeat(appendEntry.getServerId());
+
+        if (stopHeartbeatsOrReset()) {
+            throw new PaxosLeaderConflictException("Heartbeat message received while the current server is already the leader!");
+        }
+        electionTimeouts.recordLeaderHeartbeatsInterval(MILLISECONDS.toNanos(appendEntry.getHeartbeatsInterval()));
+        paxosServer.recordLeaderContact(electionTimeouts.getElectionTimeout());
+        leaderTracker.recordLeader(appendEntry.getServerId(), appendEntry.getTerm());
+        return logReplicationService.handleAppendEntry(appendEntry);
+    }
+
+    public InstallSnapshot.Response handleInstallSnapshot(InstallSnapshot installSnapshot) {
+        log.debug("Received snapshot chunk from leader with id: {}, index: {}, offset: {}", installSnapshot.getServerId(),
+                installSnapshot.getLastIncludedIndex(), installSnapshot.getOffset());
+        long currentTerm = paxosServer.getTermValue();
+
+        if (installSnapshot.getTerm() < currentTerm) {
+            log.info("Snapshot from stale leader with id {} rejected, term: {}, current term: {}",
+                    installSnapshot.getServerId(), installSnapshot.getTerm(), currentTerm);
+            return createInstallSnapshotResponse();
+        }
+        if (installSnapshot.getTerm() > currentTerm) {
+            followTerm(installSnapshot.getTerm());
+        }
+        failureDetector.recordHeartbeat(installSnapshot.getServerId());
+
+        if (stopHeartbeatsOrReset()) {
+            throw new PaxosLeaderConflictException("Snapshot received while the current server is already the leader!");
+        }
+        paxosServer.recordLeaderContact(electionTimeouts.getElectionTimeout());
+        leaderTracker.recordLeader(installSnapshot.getServerId(), installSnapshot.getTerm());
+        return snapshotTransferService.handleInstallSnapshot(installSnapshot);
+    }
+
+    public GroupHeartbeat.Response handleGroupHeartbeat(GroupHeartbeat heartbeat) {
+        return groupElectionService.handleHeartbeat(heartbeat);
+    }
+
+    public GroupVote.Response handleGroupVote(GroupVote vote) {
+        return groupElectionService.handleVote(vote);
+    }
+
+    private void followTerm(long term) {
+        if (paxosServer.isLeader()) {
+            leaderElectionStarter.stepDown();
+        }
+        paxosServer.updateTerm(term).join();
+    }
+
+    public AppendEntry.Response createHeartbeatResponse() {
+        return new AppendEntry.Response(paxosServer.getIdValue(), paxosServer.getTermValue(), false,
+                replicatedLog.getLastIndex());
+    }
+
+    public InstallSnapshot.Response createInstallSnapshotResponse() {
+        return new InstallSnapshot.Response(paxosServer.getIdValue(), paxosServer.getTermValue(), false, 0);
+    }
+
+    private boolean stopHeartbeatsOrReset() {
+        boolean leader = paxosServer.isLeader();
+
+        if (leader) {
+            log.info("Stopping sending heartbeats...");
+            leaderElectionStarter.stopHeartbeats();
+        } else {
+            leaderElectionStarter.reset();
+        }
+        return leader;
+    }
+}
@@ -0,0 +1,174 @@
+package com.slusarczykr.paxos.leader.election.heartbeat;
+
+import com.slusarczykr.paxos.leader.api.AppendEntry;
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+import com.slusarczykr.paxos.leader.election.timer.PaxosTimer;
+import com.slusarczykr.paxos.leader.execution.PaxosClock;
+import com.slusarczykr.paxos.leader.metrics.PaxosMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.LongFunction;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+public class HeartbeatPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(HeartbeatPipeline.class);
+
+    private final Peer peer;
+    private final int serverId;
+    private final PaxosMetrics paxosMetrics;
+    private final PaxosClock paxosClock;
+    private final PaxosTimer timer;
+
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final AtomicLong dropped = new AtomicLong(0);
+
+    private volatile long lastSentTime;
+    private volatile long lastAckTime;
+    private volatile long lastRoundTripTime;
+
+    private long nextIndex;
+    private long matchIndex;
+    private boolean installingSnapshot;
+
+    public HeartbeatPipeline(Peer peer, PaxosMetrics paxosMetrics, PaxosClock paxosClock, PaxosTimer timer,
+                             long nextIndex) {
+        this.peer = peer;
+        this.serverId = peer.getId();
+        this.paxosMetrics = paxosMetrics;
+        this.paxosClock = paxosClock;
+        this.timer = timer;
+        this.nextIndex = nextIndex;
+    }
+
+    public CompletableFuture<Optional<AppendEntry.Response>> send(LongFunction<AppendEntry> appendEntryFactory,
+                                                                  BiFunction<Peer, AppendEntry, CompletableFuture<Optional<AppendEntry.Response>>> sender,
+                                                                  int maxInFlight, Duration timeout) {
+        if (!tryAcquire(maxInFlight)) {
+            dropped.incrementAndGet();
+            paxosMetrics.recordHeartbeatDropped(serverId);
+            log.debug("Heartbeat to server with id {} skipped, {} heartbeats still in flight", serverId, inFlight.get());
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        AppendEntry appendEntry = claimNextBatch(appendEntryFactory);
+        long sendTime = paxosClock.nanoTime();
+        lastSentTime = System.currentTimeMillis();
+
+        CompletableFuture<Optional<AppendEntry.Response>> heartbeat = send(sender, appendEntry)
+                .whenComplete((response, e) -> inFlight.decrementAndGet());
+
+        return timer.orTimeout(heartbeat.copy(), timeout.toMillis(), MILLISECONDS)
+                .whenComplete((response, e) -> recordRoundTrip(response, e, sendTime));
+    }
+
+    private CompletableFuture<Optional<AppendEntry.Response>> send(
+            BiFunction<Peer, AppendEntry, CompletableFuture<Optional<AppendEntry.Response>>> sender, AppendEntry appendEntry) {
+        try {
+            return sender.apply(peer, appendEntry);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private synchronized AppendEntry claimNextBatch(LongFunction<AppendEntry> appendEntryFactory) {
+        AppendEntry appendEntry = appendEntryFactory.apply(nextIndex);
+        nextIndex += appendEntry.getEntries().size();
+        return appendEntry;
+    }
+
+    public boolean hasCapacity(int maxInFlight) {
+        return inFlight.get() < maxInFlight;
+    }
+
+    public synchronized boolean hasPendingEntries(long lastLogIndex) {
+        return nextIndex <= lastLogIndex;
+    }
+
+    public synchronized void acknowledge(AppendEntry.Response response) {
+        if (response.isSuccess()) {
+            matchIndex = Math.max(matchIndex, response.getMatchIndex());
+            nextIndex = Math.max(nextIndex, matchIndex + 1);
+        } else {
+            nextIndex = Math.max(matchIndex + 1, Math.min(nextIndex, response.getMatchIndex() + 1));
+            log.debug("Log of server with id {} is inconsistent, retrying from index {}", serverId, nextIndex);
+        }
+    }
+
+    public synchronized boolean startSnapshotTransfer(long firstLogIndex) {
+        if (installingSnapshot || nextIndex >= firstLogIndex) {
+            return false;
+        }
+        log.debug("Log of server with id {} is behind the first log index {}, installing snapshot", serverId, firstLogIndex);
+        installingSnapshot = true;
+        return true;
+    }
+
+    public synchronized void finishSnapshotTransfer(long lastIncludedIndex) {
+        installingSnapshot = false;
+        matchIndex = Math.max(matchIndex, lastIncludedIndex);
+        nextIndex = Math.max(nextIndex, matchIndex + 1);
+    }
+
+    public synchronized boolean isInstallingSnapshot() {
+        return installingSnapshot;
+    }
+
+    public synchronized void rewind() {
+        nextIndex = matchIndex + 1;
+    }
+
+    public synchronized void reset(long nextIndex) {
+        this.nextIndex = nextIndex;
+        this.matchIndex = 0;
+    }
+
+    public synchronized long getMatchIndex() {
+        return matchIndex;
+    }
+
+    private boolean tryAcquire(int maxInFlight) {
+        int current;
+        do {
+            current = inFlight.get();
+
+            if (current >= maxInFlight) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        return true;
+    }
+
+    private void recordRoundTrip(Optional<AppendEntry.Response> response, Throwable e, long sendTime) {
+        long roundTripTime = paxosClock.nanoTime() - sendTime;
+        boolean acknowledged = e == null && response.isPresent();
+
+        if (acknowledged) {
+            lastAckTime = System.currentTimeMillis();
+            lastRoundTripTime = NANOSECONDS.toMillis(roundTripTime);
+        }
+        paxosMetrics.recordHeartbeat(serverId, acknowledged, roundTripTime);
+    }
+
+    public int getServerId() {
+        return serverId;
+    }
+
+    public Peer getPeer() {
+        return peer;
+    }
+
+    public synchronized HeartbeatStatus getStatus() {
+        return new HeartbeatStatus(serverId, peer.getLocation(), lastSentTime, lastAckTime, lastRoundTripTime,
+                inFlight.get(), dropped.get(), nextIndex, matchIndex, installingSnapshot);
+    }
+}
@@ -0,0 +1,15 @@
+package com.slusarczykr.paxos.leader.election.heartbeat;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface HeartbeatService {
+
+    void broadcast(Consumer<Exception> errorHandler);
+
+    void replicate(Consumer<Exception> errorHandler);
+
+    void resetPipelines();
+
+    List<HeartbeatStatus> getHeartbeatStatuses();
+}
@@ -0,0 +1,301 @@
+package com.slusarczykr.paxos.leader.election.heartbeat;
+
+import com.slusarczykr.paxos.leader.api.AppendEntry;
+import com.slusarczykr.paxos.leader.api.transport.PaxosTransport;
+import com.slusarczykr.paxos.leader.discovery.detector.FailureDetector;
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+import com.slusarczykr.paxos.leader.discovery.peer.PeerSlot;
+import com.slusarczykr.paxos.leader.discovery.peer.PeerTable;
+import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryService;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.config.LeaderElectionProperties;
+import com.slusarczykr.paxos.leader.election.lease.LeaderLease;
+import com.slusarczykr.paxos.leader.election.timeout.ElectionTimeouts;
+import com.slusarczykr.paxos.leader.election.timer.PaxosTimer;
+import com.slusarczykr.paxos.leader.exception.PaxosLeaderConflictException;
+import com.slusarczykr.paxos.leader.exception.PaxosStaleTermException;
+import com.slusarczykr.paxos.leader.execution.PaxosClock;
+import com.slusarczykr.paxos.leader.metrics.PaxosMetrics;
+import com.slusarczykr.paxos.leader.replication.commit.CommitTracker;
+import com.slusarczykr.paxos.leader.replication.config.ReplicationProperties;
+import com.slusarczykr.paxos.leader.replication.log.ReplicatedLog;
+import com.slusarczykr.paxos.leader.replication.snapshot.SnapshotTransferService;
+import com.slusarczykr.paxos.leader.storage.snapshot.SnapshotMetadata;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Service
+@RequiredArgsConstructor
+public class HeartbeatServiceImpl implements HeartbeatService {
+
+    private static final Logger log = LoggerFactory.getLogger(HeartbeatServiceImpl.class);
+
+    private static final PeerSlot<HeartbeatPipeline> PIPELINE = new PeerSlot<>();
+
+    private final PaxosTransport paxosTransport;
+    private final PaxosServer paxosServer;
+    private final ServerDiscoveryService discoveryService;
+    private final FailureDetector failureDetector;
+    private final LeaderElectionProperties leaderElectionProps;
+    private final PaxosMetrics paxosMetrics;
+    private final LeaderLease leaderLease;
+    private final ReplicatedLog replicatedLog;
+    private final CommitTracker commitTracker;
+    private final ReplicationProperties replicationProps;
+    private final SnapshotTransferService snapshotTransferService;
+    private final ElectionTimeouts electionTimeouts;
+    private final PaxosClock paxosClock;
+    private final PaxosTimer electionTimer;
+
+    @Override
+    public void broadcast(Consumer<Exception> errorHandler) {
+        long term = paxosServer.getTermValue();
+
+        forEachFollower(pipeline -> sendHeartbeat(pipeline, term, errorHandler));
+    }
+
+    @Override
+    public void replicate(Consumer<Exception> errorHandler) {
+        long term = paxosServer.getTermValue();
+        advanceCommitIndex(term);
+
+        forEachFollower(pipeline -> replicate(pipeline, term, errorHandler));
+    }
+
+    @Override
+    public void resetPipelines() {
+        long nextIndex = replicatedLog.getLastIndex() + 1;
+        log.debug("Resetting replication pipelines to index {}", nextIndex);
+        PeerTable peerTable = discoveryService.getPeerTable();
+
+        for (int i = 0; i < peerTable.size(); i++) {
+            HeartbeatPipeline pipeline = peerTable.getAt(i).get(PIPELINE);
+
+            if (pipeline != null) {
+                pipeline.reset(nextIndex);
+            }
+        }
+    }
+
+    private void forEachFollower(Consumer<HeartbeatPipeline> action) {
+        PeerTable peerTable = discoveryService.getPeerTable();
+        long serverId = paxosServer.getIdValue();
+
+        for (int i = 0; i < peerTable.size(); i++) {
+            Peer peer = peerTable.getAt(i);
+
+            if (peer.getId() != serverId) {
+                action.accept(getPipeline(peer));
+            }
+        }
+    }
+
+    private HeartbeatPipeline getPipeline(Peer peer) {
+        return peer.computeIfAbsent(PIPELINE, it -> new HeartbeatPipeline(it, paxosMetrics, paxosClock,
+                electionTimer, replicatedLog.getLastIndex() + 1));
+    }
+
+    private void sendHeartbeat(HeartbeatPipeline pipeline, long term, Consumer<Exception> errorHandler) {
+        installSnapshotIfBehind(pipeline, term, errorHandler);
+        long sendTime = paxosClock.nanoTime();
+        pipeline.send(
+                nextIndex -> createAppendEntry(term, nextIndex),
+                this::sendHeartbeat,
+                leaderElectionProps.getMaxInFlightHeartbeats(),
+                leaderElectionProps.getHeartbeatTimeout()
+        ).whenComplete((response, e) -> handleHeartbeatReply(pipeline, term, sendTime, response, e, errorHandler));
+    }
+
+    private void installSnapshotIfBehind(HeartbeatPipeline pipeline, long term, Consumer<Exception> errorHandler) {
+        if (pipeline.startSnapshotTransfer(replicatedLog.getFirstIndex())) {
+            snapshotTransferService.transfer(pipeline.getPeer(), term)
+                    .whenComplete((snapshot, e) -> handleSnapshotTransfer(pipeline, term, snapshot, e, errorHandler));
+        }
+    }
+
+    private void handleSnapshotTransfer(HeartbeatPipeline pipeline, long term, SnapshotMetadata snapshot, Throwable e,
+                                        Consumer<Exception> errorHandler) {
+        if (e != null) {
+            pipeline.finishSnapshotTransfer(0);
+            Throwable cause = unwrap(e);
+            log.warn("Snapshot transfer to follower with id {} failed: {}", pipeline.getServerId(), cause.getMessage());
+
+            if (cause instanceof PaxosLeaderConflictException conflictException) {
+                errorHandler.accept(conflictException);
+            }
+            return;
+        }
+        pipeline.finishSnapshotTransfer(snapshot.getLastIncludedIndex());
+        advanceCommitIndex(term);
+
+        if (isLeaderOf(term)) {
+            replicate(pipeline, term, errorHandler);
+        }
+    }
+
+    private AppendEntry createAppendEntry(long term, long nextIndex) {
+        long prevLogIndex = nextIndex - 1;
+        AppendEntry appendEntry = new AppendEntry(paxosServer.getIdValue(), term, paxosServer.getCommitIndexValue());
+        appendEntry.setPrevLogIndex(prevLogIndex);
+        appendEntry.setPrevLogTerm(replicatedLog.getTerm(prevLogIndex).orElse(0));
+        appendEntry.setHeartbeatsInterval(NANOSECONDS.toMillis(electionTimeouts.getLeaderHeartbeatsInterval()));
+        appendEntry.setEntries(replicatedLog.getEntries(
+                nextIndex,
+                replicationProps.getMaxBatchEntries(),
+                (int) replicationProps.getMaxBatchSize().toBytes()
+        ));
+        return appendEntry;
+    }
+
+    private CompletableFuture<Optional<AppendEntry.Response>> sendHeartbeat(Peer peer, AppendEntry appendEntry) {
+        return paxosTransport.sendHeartbeats(peer, appendEntry)
+                .whenComplete((response, e) -> suspectIfUnreachable(peer.getId(), response));
+    }
+
+    private void suspectIfUnreachable(int serverId, Optional<AppendEntry.Response> response) {
+        if (response != null && response.isEmpty()) {
+            failureDetector.suspect(serverId);
+        }
+    }
+
+    private void handleHeartbeatReply(HeartbeatPipeline pipeline, long term, long sendTime,
+                                      Optional<AppendEntry.Response> response, Throwable e,
+                                      Consumer<Exception> errorHandler) {
+        if (e != null || response.isEmpty()) {
+            pipeline.rewind();
+
+            if (e != null) {
+                handleHeartbeatError(pipeline.getServerId(), unwrap(e), errorHandler);
+            }
+        } else if (response.get().getTerm() > term) {
+            handleStaleTerm(response.get(), errorHandler);
+        } else {
+            handleHeartbeatReply(pipeline, term, sendTime, response.get(), errorHandler);
+        }
+    }
+
+    private void handleHeartbeatReply(HeartbeatPipeline pipeline, long term, long sendTime, AppendEntry.Response response,
+                                      Consumer<Exception> errorHandler) {
+        int serverId = pipeline.getServerId();
+        log.debug("Received heartbeat reply from follower with id: {}, match index: {}", serverId, response.getMatchIndex());
+        failureDetector.recordHeartbeat(serverId);
+        electionTimeouts.recordRoundTrip(paxosClock.nanoTime() - sendTime);
+        leaderLease.recordAcknowledgement(pipeline.getPeer(), sendTime);
+        pipeline.acknowledge(response);
+
+        if (response.isSuccess()) {
+            advanceCommitIndex(term);
+        }
+        if (isLeaderOf(term)) {
+            replicate(pipeline, term, errorHandler);
+        }
+    }
+
+    private void replicate(HeartbeatPipeline pipeline, long term, Consumer<Exception> errorHandler) {
+        if (pipeline.hasCapacity(leaderElectionProps.getMaxInFlightHeartbeats()) && !pipeline.isInstallingSnapshot()
+                && pipeline.hasPendingEntries(replicatedLog.getLastIndex())) {
+            sendHeartbeat(pipeline, term, errorHandler);
+        }
+    }
+
+    private void handleStaleTerm(AppendEntry.Response response, Consumer<Exception> errorHandler) {
+        log.info("Follower with id {} has a higher term: {}", response.getServerId(), response.getTerm());
+
+        if (response.getTerm() > paxosServer.getTermValue()) {
+            paxosServer.updateTerm(response.getTerm()).join();
+        }
+        errorHandler.accept(new PaxosStaleTermException("Term " + response.getTerm() + " observed on follower with id "
+                + response.getServerId()));
+    }
+
+    private boolean isLeaderOf(long term) {
+        return paxosServer.isLeader() && paxosServer.getTermValue() == term;
+    }
+
+    private void advanceCommitIndex(long term) {
+        PeerTable peerTable = discoveryService.getPeerTable();
+
+        if (peerTable.size() == 0) {
+            return;
+        }
+        long majorityMatchIndex = getMajorityMatchIndex(peerTable);
+
+        if (majorityMatchIndex > paxosServer.getCommitIndexValue()
+                && replicatedLog.getTerm(majorityMatchIndex).orElse(-1) == term && isLeaderOf(term)) {
+            commitTracker.advance(majorityMatchIndex);
+        }
+    }
+
+    // highest index matched by a majority, selected in place as clusters are small and this runs on every reply
+    private long getMajorityMatchIndex(PeerTable peerTable) {
+        int majority = peerTable.size() / 2 + 1;
+        long majorityMatchIndex = 0;
+
+        for (int i = 0; i < peerTable.size(); i++) {
+            long matchIndex = getMatchIndex(peerTable.getAt(i));
+
+            if (matchIndex > majorityMatchIndex && countMatching(peerTable, matchIndex) >= majority) {
+                majorityMatchIndex = matchIndex;
+            }
+        }
+        return majorityMatchIndex;
+    }
+
+    private int countMatching(PeerTable peerTable, long index) {
+        int matching = 0;
+
+        for (int i = 0; i < peerTable.size(); i++) {
+            if (getMatchIndex(peerTable.getAt(i)) >= index) {
+                matching++;
+            }
+        }
+        return matching;
+    }
+
+    private long getMatchIndex(Peer peer) {
+        if (peer.getId() == paxosServer.getIdValue()) {
+            return replicatedLog.getDurableIndex();
+        }
+        HeartbeatPipeline pipeline = peer.get(PIPELINE);
+        return pipeline != null ? pipeline.getMatchIndex() : 0;
+    }
+
+    private void handleHeartbeatError(int serverId, Throwable e, Consumer<Exception> errorHandler) {
+        failureDetector.suspect(serverId);
+
+        if (e instanceof Exception exception) {
+            log.error("Error occurred while sending heartbeat to follower with id {}!", serverId);
+            errorHandler.accept(exception);
+        }
+    }
+
+    private Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    @Override
+    public List<HeartbeatStatus> getHeartbeatStatuses() {
+        PeerTable peerTable = discoveryService.getPeerTable();
+        List<HeartbeatStatus> statuses = new ArrayList<>();
+
+        for (int i = 0; i < peerTable.size(); i++) {
+            HeartbeatPipeline pipeline = peerTable.getAt(i).get(PIPELINE);
+
+            if (pipeline != null) {
+                statuses.add(pipeline.getStatus());
+            }
+        }
+        return statuses;
+    }
+}
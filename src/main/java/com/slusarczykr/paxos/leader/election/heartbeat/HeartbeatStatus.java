@@ -0,0 +1,20 @@
+package com.slusarczykr.paxos.leader.election.heartbeat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class HeartbeatStatus {
+
+    private int serverId;
+    private String serverLocation;
+    private long lastSentTime;
+    private long lastAckTime;
+    private long lastRoundTripTime;
+    private int inFlight;
+    private long dropped;
+    private long nextIndex;
+    private long matchIndex;
+    private boolean installingSnapshot;
+}
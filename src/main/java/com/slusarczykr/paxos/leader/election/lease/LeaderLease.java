@@ -0,0 +1,162 @@
+package com.slusarczykr.paxos.leader.election.lease;
+
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+import com.slusarczykr.paxos.leader.discovery.peer.PeerSlot;
+import com.slusarczykr.paxos.leader.discovery.peer.PeerTable;
+import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryService;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.config.LeaderElectionProperties;
+import com.slusarczykr.paxos.leader.election.timeout.ElectionTimeouts;
+import com.slusarczykr.paxos.leader.execution.PaxosClock;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Component
+@RequiredArgsConstructor
+public class LeaderLease {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderLease.class);
+
+    private static final PeerSlot<Acknowledgement> ACKNOWLEDGEMENT = new PeerSlot<>();
+
+    private final PaxosServer paxosServer;
+    private final ServerDiscoveryService discoveryService;
+    private final LeaderElectionProperties leaderElectionProps;
+    private final ElectionTimeouts electionTimeouts;
+    private final PaxosClock paxosClock;
+
+    private volatile boolean active;
+    private volatile long leadershipStartTime;
+    private volatile long expirationTime;
+
+    public synchronized void start() {
+        leadershipStartTime = paxosClock.nanoTime();
+        expirationTime = leadershipStartTime;
+        active = true;
+        log.debug("Leader lease started for term {}", paxosServer.getTermValue());
+    }
+
+    public synchronized void revoke() {
+        if (active) {
+            log.debug("Leader lease revoked for term {}", paxosServer.getTermValue());
+        }
+        active = false;
+    }
+
+    public synchronized void recordAcknowledgement(Peer peer, long sendTime) {
+        if (!active || sendTime - leadershipStartTime < 0) {
+            return;
+        }
+        Acknowledgement acknowledgement = peer.computeIfAbsent(ACKNOWLEDGEMENT, it -> new Acknowledgement());
+
+        if (acknowledgement.leadershipStartTime != leadershipStartTime || sendTime - acknowledgement.sendTime > 0) {
+            acknowledgement.leadershipStartTime = leadershipStartTime;
+            acknowledgement.sendTime = sendTime;
+        }
+        PeerTable peerTable = discoveryService.getPeerTable();
+        int requiredAcknowledgements = countRequiredAcknowledgements(peerTable);
+
+        if (requiredAcknowledgements > 0) {
+            extendLease(peerTable, requiredAcknowledgements);
+        }
+    }
+
+    // the lease starts at the latest send time acknowledged by the required number of followers, selected in place
+    // as clusters are small and this runs on every heartbeat reply
+    private void extendLease(PeerTable peerTable, int requiredAcknowledgements) {
+        boolean found = false;
+        long latestSendTime = 0;
+
+        for (int i = 0; i < peerTable.size(); i++) {
+            Acknowledgement acknowledgement = getAcknowledgement(peerTable.getAt(i));
+
+            if (acknowledgement != null && (!found || acknowledgement.sendTime - latestSendTime > 0)
+                    && countAcknowledgedSince(peerTable, acknowledgement.sendTime) >= requiredAcknowledgements) {
+                latestSendTime = acknowledgement.sendTime;
+                found = true;
+            }
+        }
+        if (found) {
+            expirationTime = Math.max(expirationTime, latestSendTime + getLeaseDuration());
+        }
+    }
+
+    public synchronized boolean hasQuorumContact(long window) {
+        PeerTable peerTable = discoveryService.getPeerTable();
+        int requiredAcknowledgements = countRequiredAcknowledgements(peerTable);
+        long windowStartTime = paxosClock.nanoTime() - window;
+
+        if (requiredAcknowledgements == 0 || windowStartTime - leadershipStartTime < 0) {
+            return true;
+        }
+        return countAcknowledgedSince(peerTable, windowStartTime) >= requiredAcknowledgements;
+    }
+
+    private int countAcknowledgedSince(PeerTable peerTable, long sendTime) {
+        int acknowledged = 0;
+
+        for (int i = 0; i < peerTable.size(); i++) {
+            Acknowledgement acknowledgement = getAcknowledgement(peerTable.getAt(i));
+
+            if (acknowledgement != null && acknowledgement.sendTime - sendTime >= 0) {
+                acknowledged++;
+            }
+        }
+        return acknowledged;
+    }
+
+    // only acknowledgements of heartbeats sent in the current leadership count
+    private Acknowledgement getAcknowledgement(Peer peer) {
+        Acknowledgement acknowledgement = peer.get(ACKNOWLEDGEMENT);
+
+        if (!active || acknowledgement == null || acknowledgement.leadershipStartTime != leadershipStartTime
+                || peer.getId() == paxosServer.getIdValue()) {
+            return null;
+        }
+        return acknowledgement;
+    }
+
+    private int countRequiredAcknowledgements(PeerTable peerTable) {
+        return peerTable.size() / 2;
+    }
+
+    private long getLeaseDuration() {
+        long electionTimeout = electionTimeouts.getMinElectionTimeout();
+        return (long) (electionTimeout / (1 + leaderElectionProps.getMaxClockDrift()));
+    }
+
+    public boolean isValid() {
+        if (!active || !paxosServer.isLeader()) {
+            return false;
+        }
+        return countRequiredAcknowledgements(discoveryService.getPeerTable()) == 0 || getRemainingTime() > 0;
+    }
+
+    public long getRemainingTime() {
+        return Math.max(expirationTime - paxosClock.nanoTime(), 0);
+    }
+
+    public LeaseStatus getStatus() {
+        boolean valid = isValid();
+        long remainingTime = valid ? NANOSECONDS.toMillis(getRemainingTime()) : 0;
+
+        return new LeaseStatus(
+                (int) paxosServer.getIdValue(),
+                paxosServer.getTermValue(),
+                paxosServer.isLeader(),
+                valid,
+                remainingTime,
+                valid ? System.currentTimeMillis() + remainingTime : 0
+        );
+    }
+
+    private static class Acknowledgement {
+
+        private long leadershipStartTime;
+        private long sendTime;
+    }
+}
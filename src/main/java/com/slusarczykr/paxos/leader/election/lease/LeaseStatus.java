@@ -0,0 +1,16 @@
+package com.slusarczykr.paxos.leader.election.lease;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LeaseStatus {
+
+    private int serverId;
+    private long term;
+    private boolean leader;
+    private boolean valid;
+    private long remainingTime;
+    private long expirationTime;
+}
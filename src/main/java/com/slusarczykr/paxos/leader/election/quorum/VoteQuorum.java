@@ -0,0 +1,74 @@
+package com.slusarczykr.paxos.leader.election.quorum;
+
+import com.slusarczykr.paxos.leader.api.RequestVote;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class VoteQuorum {
+
+    private static final int CANDIDATE_VOTE = 1;
+
+    private final int clusterSize;
+    private final int majority;
+
+    private final AtomicInteger accepted = new AtomicInteger(CANDIDATE_VOTE);
+    private final AtomicInteger rejected = new AtomicInteger(0);
+    private final AtomicInteger pending;
+    private final AtomicLong highestTerm = new AtomicLong(0);
+
+    private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+    public VoteQuorum(int clusterSize, int followers) {
+        this.clusterSize = clusterSize;
+        this.majority = clusterSize / 2 + 1;
+        this.pending = new AtomicInteger(followers);
+        checkCompletion();
+    }
+
+    public void register(RequestVote.Response response) {
+        highestTerm.accumulateAndGet(response.getTerm(), Math::max);
+
+        if (response.isAccepted()) {
+            accepted.incrementAndGet();
+        } else {
+            rejected.incrementAndGet();
+        }
+        pending.decrementAndGet();
+        checkCompletion();
+    }
+
+    public void registerMissing() {
+        pending.decrementAndGet();
+        checkCompletion();
+    }
+
+    private void checkCompletion() {
+        if (accepted.get() >= majority) {
+            result.complete(true);
+        } else if (rejected.get() > clusterSize - majority || pending.get() <= 0) {
+            result.complete(false);
+        }
+    }
+
+    public CompletableFuture<Boolean> getResult() {
+        return result;
+    }
+
+    public int getAccepted() {
+        return accepted.get();
+    }
+
+    public int getRejected() {
+        return rejected.get();
+    }
+
+    public long getHighestTerm() {
+        return highestTerm.get();
+    }
+
+    public int getMajority() {
+        return majority;
+    }
+}
@@ -1,12 +1,11 @@
 package com.slusarczykr.paxos.leader.election.resource;
 
 import com.slusarczykr.paxos.leader.api.AppendEntry;
+import com.slusarczykr.paxos.leader.api.InstallSnapshot;
 import com.slusarczykr.paxos.leader.api.RequestVote;
-import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.handler.PeerMessageHandler;
 import com.slusarczykr.paxos.leader.election.service.LeaderElectionService;
-import com.slusarczykr.paxos.leader.exception.PaxosLeaderElectionException;
-import com.slusarczykr.paxos.leader.election.starter.LeaderElectionStarter;
-import com.slusarczykr.paxos.leader.vote.service.RequestVoteService;
+import com.slusarczykr.paxos.leader.exception.PaxosLeaderConflictException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +16,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletionException;
+
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 @RestController
@@ -27,22 +28,20 @@ public class LeaderElectionResource {
     private static final Logger log = LoggerFactory.getLogger(LeaderElectionResource.class);
 
     private final LeaderElectionService leaderElectionService;
-    private final LeaderElectionStarter leaderElectionStarter;
-    private final RequestVoteService requestVoteService;
-    private final PaxosServer paxosServer;
+    private final PeerMessageHandler peerMessageHandler;
 
     @PostMapping("/candidate")
     public ResponseEntity<Void> candidateForLeader() {
         try {
             return startLeaderCandidacy();
-        } catch (PaxosLeaderElectionException e) {
+        } catch (CompletionException e) {
             log.error("Unable start server candidacy for a leader!", e);
         }
         return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
-    private ResponseEntity<Void> startLeaderCandidacy() throws PaxosLeaderElectionException {
-        boolean leader = leaderElectionService.startLeaderCandidacy();
+    private ResponseEntity<Void> startLeaderCandidacy() {
+        boolean leader = leaderElectionService.startLeaderCandidacy().join();
 
         if (leader) {
             return new ResponseEntity<>(HttpStatus.CREATED);
@@ -52,34 +51,29 @@ public class LeaderElectionResource {
 
     @PostMapping("/vote")
     public ResponseEntity<RequestVote.Response> voteForLeaderCandidate(@RequestBody RequestVote requestVote) {
-        log.info("Received vote from server with id: {}", requestVote.getServerId());
-        stopHeartbeatsOrReset();
-        RequestVote.Response requestVoteResponse = requestVoteService.vote(requestVote);
-
+        RequestVote.Response requestVoteResponse = peerMessageHandler.handleRequestVote(requestVote);
         return new ResponseEntity<>(requestVoteResponse, HttpStatus.OK);
     }
 
     @PostMapping("/heartbeat")
     public ResponseEntity<AppendEntry.Response> sendHeartbeat(@RequestBody AppendEntry appendEntry) {
-        log.info("Received heartbeat from leader with id: {}", appendEntry.getServerId());
-        AppendEntry.Response appendEntryResponse = new AppendEntry.Response(paxosServer.getIdValue());
-
-        if (stopHeartbeatsOrReset()) {
-            log.error("Heartbeat message received while the current server is already the leader!");
-            return new ResponseEntity<>(appendEntryResponse, HttpStatus.CONFLICT);
+        try {
+            AppendEntry.Response appendEntryResponse = peerMessageHandler.handleHeartbeat(appendEntry);
+            return new ResponseEntity<>(appendEntryResponse, HttpStatus.OK);
+        } catch (PaxosLeaderConflictException e) {
+            log.error(e.getMessage());
+            return new ResponseEntity<>(peerMessageHandler.createHeartbeatResponse(), HttpStatus.CONFLICT);
         }
-        return new ResponseEntity<>(appendEntryResponse, HttpStatus.OK);
     }
 
-    private boolean stopHeartbeatsOrReset() {
-        boolean leader = paxosServer.isLeader();
-
-        if (leader) {
-            log.info("Stopping sending heartbeats...");
-            leaderElectionStarter.stopHeartbeats();
-        } else {
-            leaderElectionStarter.reset();
+    @PostMapping("/snapshot")
+    public ResponseEntity<InstallSnapshot.Response> installSnapshot(@RequestBody InstallSnapshot installSnapshot) {
+        try {
+            InstallSnapshot.Response installSnapshotResponse = peerMessageHandler.handleInstallSnapshot(installSnapshot);
+            return new ResponseEntity<>(installSnapshotResponse, HttpStatus.OK);
+        } catch (PaxosLeaderConflictException e) {
+            log.error(e.getMessage());
+            return new ResponseEntity<>(peerMessageHandler.createInstallSnapshotResponse(), HttpStatus.CONFLICT);
         }
-        return leader;
     }
 }
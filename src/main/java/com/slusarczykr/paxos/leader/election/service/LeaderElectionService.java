@@ -1,20 +1,19 @@
 package com.slusarczykr.paxos.leader.election.service;
 
-import com.slusarczykr.paxos.leader.api.AppendEntry;
 import com.slusarczykr.paxos.leader.api.RequestVote;
-import com.slusarczykr.paxos.leader.exception.PaxosLeaderElectionException;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 public interface LeaderElectionService {
 
     RequestVote createElectionVote();
 
-    boolean startLeaderCandidacy() throws PaxosLeaderElectionException;
+    CompletableFuture<Boolean> startLeaderCandidacy();
 
     boolean shouldCandidateForLeader();
 
-    AppendEntry createHeartbeat();
-
     void sendHeartbeats(Consumer<Exception> errorHandler);
+
+    void replicate(Consumer<Exception> errorHandler);
 }
@@ -1,23 +1,36 @@
 package com.slusarczykr.paxos.leader.election.service;
 
-import com.slusarczykr.paxos.leader.api.AppendEntry;
 import com.slusarczykr.paxos.leader.api.RequestVote;
-import com.slusarczykr.paxos.leader.api.client.PaxosClient;
+import com.slusarczykr.paxos.leader.api.transport.PaxosTransport;
+import com.slusarczykr.paxos.leader.discovery.detector.FailureDetector;
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+import com.slusarczykr.paxos.leader.discovery.peer.PeerTable;
 import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryService;
 import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.config.LeaderElectionProperties;
+import com.slusarczykr.paxos.leader.election.heartbeat.HeartbeatService;
+import com.slusarczykr.paxos.leader.election.quorum.VoteQuorum;
+import com.slusarczykr.paxos.leader.election.timer.PaxosTimer;
+import com.slusarczykr.paxos.leader.execution.PaxosClock;
+import com.slusarczykr.paxos.leader.execution.PaxosThreads;
+import com.slusarczykr.paxos.leader.metrics.PaxosMetrics;
+import com.slusarczykr.paxos.leader.replication.log.ReplicatedLog;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 @Service
 @RequiredArgsConstructor
@@ -25,78 +38,246 @@ public class LeaderElectionServiceImpl implements LeaderElectionService {
 
     private static final Logger log = LoggerFactory.getLogger(LeaderElectionServiceImpl.class);
 
-    private final PaxosClient paxosClient;
+    private static final long NO_TERM = -1;
+
+    private final PaxosTransport paxosTransport;
 
     private final PaxosServer paxosServer;
     private final ServerDiscoveryService discoveryService;
+    private final FailureDetector failureDetector;
+    private final LeaderElectionProperties leaderElectionProps;
+    private final HeartbeatService heartbeatService;
+    private final PaxosMetrics paxosMetrics;
+    private final ReplicatedLog replicatedLog;
+    private final PaxosClock paxosClock;
+    private final PaxosTimer electionTimer;
+    private final PaxosThreads paxosThreads;
+
+    private ExecutorService candidacyExecutor;
+
+    @PostConstruct
+    public void init() {
+        candidacyExecutor = paxosThreads.newSerialExecutor("paxos-candidacy");
+    }
+
+    @PreDestroy
+    public void destroy() {
+        candidacyExecutor.shutdownNow();
+    }
 
     @Override
     public RequestVote createElectionVote() {
         return new RequestVote(
                 paxosServer.getIdValue(),
                 paxosServer.getTermValue(),
-                paxosServer.getCommitIndexValue()
+                paxosServer.getCommitIndexValue(),
+                replicatedLog.getLastIndex(),
+                replicatedLog.getLastTerm()
         );
     }
 
+    // the candidacy steps run on the candidacy thread, the votes are awaited without holding it
     @Override
-    public boolean startLeaderCandidacy() {
-        paxosServer.incrementTerm();
+    public CompletableFuture<Boolean> startLeaderCandidacy() {
+        return CompletableFuture.supplyAsync(this::runLeaderCandidacy, candidacyExecutor)
+                .thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<Boolean> runLeaderCandidacy() {
+        if (leaderElectionProps.isPreVote()) {
+            return startLeaderCandidacyWithPreVote();
+        }
+        paxosServer.incrementTerm().join();
 
         if (shouldCandidateForLeader()) {
             return candidateForLeader();
         }
-        return false;
+        return CompletableFuture.completedFuture(false);
+    }
+
+    private CompletableFuture<Boolean> startLeaderCandidacyWithPreVote() {
+        long candidateTerm = calculateCandidateTerm();
+
+        if (candidateTerm == NO_TERM) {
+            log.info(getShouldCandidateForLeaderMessage(false));
+            return CompletableFuture.completedFuture(false);
+        }
+        return winPreVote(candidateTerm)
+                .thenComposeAsync(accepted -> accepted ? candidateForTerm(candidateTerm)
+                        : CompletableFuture.completedFuture(false), candidacyExecutor);
     }
 
-    private boolean candidateForLeader() {
+    private CompletableFuture<Boolean> candidateForTerm(long candidateTerm) {
+        if (!paxosServer.tryIncrementTerm(candidateTerm)) {
+            log.info("Term has changed during the pre-vote, candidacy for term {} is abandoned", candidateTerm);
+            return CompletableFuture.completedFuture(false);
+        }
+        return candidateForLeader();
+    }
+
+    private long calculateCandidateTerm() {
+        if (!discoveryService.anyServerAvailable()) {
+            log.debug("No servers available...");
+            return paxosServer.calculateNextTerm();
+        }
+        int numberOfAvailableServers = discoveryService.getNumberOfAvailableServers();
+        int memberIndex = discoveryService.getMemberIndex(paxosServer.getIdValue());
+
+        if (memberIndex >= numberOfAvailableServers) {
+            return NO_TERM;
+        }
+        long term = paxosServer.getTermValue() + 1;
+        return term + Math.floorMod(memberIndex - term, numberOfAvailableServers);
+    }
+
+    private CompletableFuture<Boolean> winPreVote(long candidateTerm) {
+        log.info("Starting the pre-vote of the server with id {} for term {}...", paxosServer.getIdValue(), candidateTerm);
+        RequestVote preVote = new RequestVote(
+                paxosServer.getIdValue(),
+                candidateTerm,
+                paxosServer.getCommitIndexValue(),
+                replicatedLog.getLastIndex(),
+                replicatedLog.getLastTerm()
+        );
+        preVote.setPreVote(true);
+        VoteQuorum voteQuorum = sendRequestVoteToFollowers(preVote);
+
+        return voteQuorum.getResult()
+                .thenApplyAsync(acceptedByMajority -> completePreVote(voteQuorum, acceptedByMajority), candidacyExecutor);
+    }
+
+    private boolean completePreVote(VoteQuorum voteQuorum, boolean acceptedByMajority) {
+        boolean accepted = checkAcceptanceMajority(voteQuorum, acceptedByMajority);
+        paxosMetrics.recordPreVote(accepted);
+
+        if (!accepted && voteQuorum.getHighestTerm() > paxosServer.getTermValue()) {
+            log.info("Pre-vote revealed a higher term {}, following it", voteQuorum.getHighestTerm());
+            paxosServer.updateTerm(voteQuorum.getHighestTerm()).join();
+        }
+        return accepted;
+    }
+
+    private CompletableFuture<Boolean> candidateForLeader() {
         log.info("Starting the candidacy of the server with id {} for the leader...", paxosServer.getIdValue());
+        long candidacyStartTime = paxosClock.nanoTime();
         RequestVote requestVote = createElectionVote();
-        List<RequestVote.Response> responseRequestVotes = sendRequestVoteToFollowers(requestVote);
-        boolean accepted = checkAcceptanceMajority(responseRequestVotes);
+        VoteQuorum voteQuorum = sendRequestVoteToFollowers(requestVote);
+
+        return voteQuorum.getResult()
+                .thenApplyAsync(acceptedByMajority -> completeCandidacy(voteQuorum, requestVote, acceptedByMajority,
+                        candidacyStartTime), candidacyExecutor);
+    }
+
+    private boolean completeCandidacy(VoteQuorum voteQuorum, RequestVote requestVote, boolean acceptedByMajority,
+                                      long candidacyStartTime) {
+        boolean accepted = checkAcceptanceMajority(voteQuorum, acceptedByMajority) && isTermUnchanged(requestVote);
         paxosServer.setLeader(accepted);
+        paxosMetrics.recordElection(accepted, paxosClock.nanoTime() - candidacyStartTime);
 
         if (accepted) {
             log.info("Server with id {} has been accepted by the majority and elected as the leader for the current turn!",
                     paxosServer.getIdValue());
+            appendLeaderNoOp(requestVote.getTerm());
         }
         return accepted;
     }
 
-    private List<RequestVote.Response> sendRequestVoteToFollowers(RequestVote requestVote) {
-        return getServerAddresses().stream()
-                .map(serverLocation -> sendRequestVote(requestVote, serverLocation))
-                .flatMap(Optional::stream)
+    private void appendLeaderNoOp(long term) {
+        heartbeatService.resetPipelines();
+        long index = replicatedLog.append(term, new byte[0]);
+        log.debug("No-op entry appended at index {} to commit entries of the previous terms", index);
+    }
+
+    private VoteQuorum sendRequestVoteToFollowers(RequestVote requestVote) {
+        PeerTable peerTable = discoveryService.getPeerTable();
+        List<Peer> followers = getFollowers(peerTable);
+        VoteQuorum voteQuorum = new VoteQuorum(peerTable.size(), followers.size());
+        List<CompletableFuture<Optional<RequestVote.Response>>> requests = followers.stream()
+                .map(peer -> sendRequestVote(requestVote, peer, voteQuorum))
                 .toList();
+        // the quorum is decided by the majority or by the vote timeout, the slow or dead peers are not waited on after it
+        voteQuorum.getResult().whenComplete((it, e) -> requests.forEach(request -> request.cancel(true)));
+
+        return voteQuorum;
+    }
+
+    private CompletableFuture<Optional<RequestVote.Response>> sendRequestVote(RequestVote requestVote, Peer peer,
+                                                                             VoteQuorum voteQuorum) {
+        long voteTimeout = leaderElectionProps.getVoteTimeout().toMillis();
+        long sendTime = paxosClock.nanoTime();
+        CompletableFuture<Optional<RequestVote.Response>> request = paxosTransport.sendRequestVote(peer, requestVote);
+        CompletableFuture<Optional<RequestVote.Response>> vote = request.whenComplete((response, e) -> {
+            if (!request.isCancelled()) {
+                updateLiveness(peer.getId(), e == null && response.isPresent());
+            }
+        });
+
+        electionTimer.orTimeout(vote, voteTimeout, MILLISECONDS)
+                .whenComplete((response, e) -> {
+                    registerVote(voteQuorum, requestVote, response, e);
+
+                    if (!request.isCancelled()) {
+                        recordVote(peer.getId(), response, e, sendTime);
+                    }
+                });
+        return request;
+    }
+
+    private void recordVote(int serverId, Optional<RequestVote.Response> response, Throwable e, long sendTime) {
+        Boolean accepted = e != null ? null : response.map(RequestVote.Response::isAccepted).orElse(null);
+        paxosMetrics.recordVote(serverId, accepted, paxosClock.nanoTime() - sendTime);
+    }
+
+    private void registerVote(VoteQuorum voteQuorum, RequestVote requestVote, Optional<RequestVote.Response> response,
+                              Throwable e) {
+        if (requestVote.isPreVote() && e == null) {
+            response.ifPresentOrElse(voteQuorum::register, voteQuorum::registerMissing);
+            return;
+        }
+        registerVote(voteQuorum, requestVote.getTerm(), response, e);
     }
 
-    @SneakyThrows
-    private Optional<RequestVote.Response> sendRequestVote(RequestVote requestVote, String serverLocation) {
-        return paxosClient.sendRequestVote(serverLocation, requestVote);
+    private void registerVote(VoteQuorum voteQuorum, long currentTerm, Optional<RequestVote.Response> response, Throwable e) {
+        if (e != null) {
+            log.debug("Vote has not been received on time: {}", e.getClass().getSimpleName());
+            voteQuorum.registerMissing();
+            return;
+        }
+        response.map(it -> negateVoteAcceptanceIfCorrupted(it, currentTerm))
+                .ifPresentOrElse(voteQuorum::register, voteQuorum::registerMissing);
     }
 
-    private <T extends RequestVote.Response> boolean checkAcceptanceMajority(List<T> responseRequestVotes) {
-        Map<Boolean, List<T>> candidatesResponsesByAcceptance = getCandidatesResponsesByAcceptance(responseRequestVotes);
-        boolean acceptedByMajority = isAcceptedByMajority(candidatesResponsesByAcceptance);
+    private void updateLiveness(int serverId, boolean reachable) {
+        if (reachable) {
+            failureDetector.recordHeartbeat(serverId);
+        } else {
+            failureDetector.suspect(serverId);
+        }
+    }
+
+    private boolean checkAcceptanceMajority(VoteQuorum voteQuorum, boolean acceptedByMajority) {
+        log.info("Votes accepted: {}, rejected: {}, required majority: {}",
+                voteQuorum.getAccepted(), voteQuorum.getRejected(), voteQuorum.getMajority());
         log.info(getServerCandidacyVotingStatusMessage(acceptedByMajority));
 
         return acceptedByMajority;
     }
 
+    private boolean isTermUnchanged(RequestVote requestVote) {
+        boolean termUnchanged = paxosServer.getTermValue() == requestVote.getTerm();
+
+        if (!termUnchanged) {
+            log.info("Term has changed during the candidacy, votes collected for term {} are discarded", requestVote.getTerm());
+        }
+        return termUnchanged;
+    }
+
     private String getServerCandidacyVotingStatusMessage(boolean acceptedByMajority) {
         String acceptanceMessage = acceptedByMajority ? "accepted" : "rejected";
         return String.format("Candidacy of the server with id %d has been %s in the current turn!",
                 paxosServer.getIdValue(), acceptanceMessage);
     }
 
-    private <T extends RequestVote.Response> Map<Boolean, List<T>> getCandidatesResponsesByAcceptance(List<T> responseRequestVotes) {
-        long currentTerm = paxosServer.getTermValue();
-
-        return responseRequestVotes.stream()
-                .map(it -> negateVoteAcceptanceIfCorrupted(it, currentTerm))
-                .collect(Collectors.partitioningBy(RequestVote.Response::isAccepted));
-    }
-
     private <T extends RequestVote.Response> T negateVoteAcceptanceIfCorrupted(T responseRequestVote, long currentTerm) {
         if (isVoteCorrupted(responseRequestVote, currentTerm)) {
             log.debug("Vote from server with id '{}' is corrupted. Acceptance value will be corrected", responseRequestVote.getServerId());
@@ -110,23 +291,10 @@ public class LeaderElectionServiceImpl implements LeaderElectionService {
                 || !responseRequestVote.isAccepted() && currentTerm > responseRequestVote.getTerm();
     }
 
-    private <T extends RequestVote.Response> boolean isAcceptedByMajority(Map<Boolean, List<T>> promisesByAcceptance) {
-        return countAcceptedRequestVotes(promisesByAcceptance) > countRejectedRequestVotes(promisesByAcceptance, false);
-    }
-
-    private <T extends RequestVote.Response> int countRejectedRequestVotes(Map<Boolean, List<T>> promisesByAcceptance, boolean accepted) {
-        return promisesByAcceptance.get(accepted).size();
-    }
-
-    private <T extends RequestVote.Response> int countAcceptedRequestVotes(Map<Boolean, List<T>> promisesByAcceptance) {
-        int candidateRequestVote = 1;
-        return countRejectedRequestVotes(promisesByAcceptance, true) + candidateRequestVote;
-    }
-
     @Override
     public boolean shouldCandidateForLeader() {
         if (discoveryService.anyServerAvailable()) {
-            boolean candidateForLeader = calculateCurrentTermModulo() == paxosServer.getIdValue();
+            boolean candidateForLeader = calculateCurrentTermModulo() == discoveryService.getMemberIndex(paxosServer.getIdValue());
             log.info(getShouldCandidateForLeaderMessage(candidateForLeader));
 
             return candidateForLeader;
@@ -137,35 +305,26 @@ public class LeaderElectionServiceImpl implements LeaderElectionService {
 
     @Override
     public void sendHeartbeats(Consumer<Exception> errorHandler) {
-        try {
-            log.info("Sending heartbeats to followers...");
-            AppendEntry appendEntry = createHeartbeat();
-            getServerAddresses().stream()
-                    .map(serverLocation -> sendHeartbeats(appendEntry, serverLocation))
-                    .flatMap(Optional::stream)
-                    .forEach(it -> log.info("Received heartbeat reply from follower with id: {}", it.getServerId()));
-        } catch (Exception e) {
-            log.error("Error occurred while sending heartbeats to followers!");
-            errorHandler.accept(e);
-        }
-    }
-
-    private Set<String> getServerAddresses() {
-        return new HashSet<>(discoveryService.getAvailableServers().values());
+        log.info("Sending heartbeats to followers...");
+        heartbeatService.broadcast(errorHandler);
     }
 
     @Override
-    public AppendEntry createHeartbeat() {
-        return new AppendEntry(
-                paxosServer.getIdValue(),
-                paxosServer.getTermValue(),
-                paxosServer.getCommitIndexValue()
-        );
+    public void replicate(Consumer<Exception> errorHandler) {
+        heartbeatService.replicate(errorHandler);
     }
 
-    @SneakyThrows
-    private Optional<AppendEntry.Response> sendHeartbeats(AppendEntry appendEntry, String serverLocation) {
-        return paxosClient.sendHeartbeats(serverLocation, appendEntry);
+    private List<Peer> getFollowers(PeerTable peerTable) {
+        List<Peer> followers = new ArrayList<>(peerTable.size());
+
+        for (int i = 0; i < peerTable.size(); i++) {
+            Peer peer = peerTable.getAt(i);
+
+            if (peer.getId() != paxosServer.getIdValue()) {
+                followers.add(peer);
+            }
+        }
+        return followers;
     }
 
     private String getShouldCandidateForLeaderMessage(boolean candidateForLeader) {
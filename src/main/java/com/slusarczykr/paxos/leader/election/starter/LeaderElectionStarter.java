@@ -1,32 +1,32 @@
 package com.slusarczykr.paxos.leader.election.starter;
 
+import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryService;
 import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
 import com.slusarczykr.paxos.leader.election.config.LeaderElectionProperties;
+import com.slusarczykr.paxos.leader.election.lease.LeaderLease;
 import com.slusarczykr.paxos.leader.election.service.LeaderElectionService;
 import com.slusarczykr.paxos.leader.election.task.LeaderCandidacy;
+import com.slusarczykr.paxos.leader.election.timeout.ElectionTimeouts;
+import com.slusarczykr.paxos.leader.election.timer.PaxosTimer;
 import com.slusarczykr.paxos.leader.exception.PaxosLeaderConflictException;
+import com.slusarczykr.paxos.leader.exception.PaxosNotLeaderException;
+import com.slusarczykr.paxos.leader.execution.PaxosClock;
+import com.slusarczykr.paxos.leader.metrics.PaxosMetrics;
+import com.slusarczykr.paxos.leader.replication.commit.CommitTracker;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.ApplicationContext;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
-import java.util.Random;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.PostConstruct;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.slusarczykr.paxos.leader.discovery.state.ErrorStatus.Type.INFINITE_REPLIES;
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
-import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 @Component
 @RequiredArgsConstructor
@@ -34,16 +34,32 @@ public class LeaderElectionStarter {
 
     private static final Logger log = LoggerFactory.getLogger(LeaderElectionStarter.class);
 
-    private final ApplicationContext applicationContext;
+    private final LeaderCandidacy leaderCandidacy;
     private final LeaderElectionService leaderElectionService;
     private final LeaderElectionProperties leaderElectionProps;
     private final PaxosServer paxosServer;
+    private final PaxosMetrics paxosMetrics;
+    private final LeaderLease leaderLease;
+    private final PaxosTimer electionTimer;
+    private final CommitTracker commitTracker;
+    private final ElectionTimeouts electionTimeouts;
+    private final PaxosClock paxosClock;
+    private final ServerDiscoveryService discoveryService;
 
-    private final ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
-    private final AtomicReference<CompletableFuture<Boolean>> candidacy = new AtomicReference<>();
-    private final AtomicReference<Future<?>> heartbeats = new AtomicReference<>();
+    private final AtomicBoolean electionTimeoutScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean candidacyRunning = new AtomicBoolean(false);
+    private final AtomicLong heartbeatsEpoch = new AtomicLong(0);
+    private final AtomicInteger failedCandidacies = new AtomicInteger(0);
 
-    private final Random random = new Random();
+    private volatile long electionDeadline;
+    private volatile long lastLeaderContactTime;
+    private volatile boolean heartbeatsActive;
+
+    @PostConstruct
+    public void addMembershipListener() {
+        lastLeaderContactTime = paxosClock.nanoTime();
+        discoveryService.addMembershipListener(this::stepDownIfRemoved);
+    }
 
     @EventListener(ApplicationReadyEvent.class)
     public void init() {
@@ -57,47 +73,116 @@ public class LeaderElectionStarter {
     }
 
     private boolean validateLeaderElectionConfig() {
-        return leaderElectionProps.getHeartbeatsInterval() >= leaderElectionProps.getMinAwaitTime()
-                || leaderElectionProps.getMinAwaitTime() >= leaderElectionProps.getMaxAwaitTime();
+        return leaderElectionProps.getHeartbeatsInterval().compareTo(leaderElectionProps.getMinAwaitTime()) >= 0
+                || leaderElectionProps.getMinAwaitTime().compareTo(leaderElectionProps.getMaxAwaitTime()) >= 0;
     }
 
     public void startLeaderCandidacy() {
+        demoteLeader();
+        leaderLease.revoke();
+        long timeout = awaitLeaderElectionTime();
+        log.info("Follower will start leader candidacy in {} ms", NANOSECONDS.toMillis(timeout));
+        scheduleElectionTimeout(timeout);
+    }
+
+    private void demoteLeader() {
+        if (paxosServer.isLeader()) {
+            paxosMetrics.recordLeadershipLost();
+            commitTracker.failPending(new PaxosNotLeaderException("Leadership lost before the entry has been committed"));
+        }
         paxosServer.demoteLeader();
-        LeaderCandidacy task = createStartLeaderElectionTask();
-        CompletableFuture<Boolean> leaderCandidacy = startLeaderCandidacy(task, awaitLeaderElectionTime());
-        leaderCandidacy.thenAccept(this::processLeaderElection);
-        cancelIfPresent(this.candidacy.getAndSet(leaderCandidacy));
     }
 
-    private CompletableFuture<Boolean> startLeaderCandidacy(LeaderCandidacy task, int timeout) {
-        log.info("Follower will start leader candidacy for {} ms", timeout);
-        Executor delayedExecutor = CompletableFuture.delayedExecutor(timeout, MILLISECONDS);
-        return CompletableFuture.supplyAsync(task::start, delayedExecutor);
+    private void scheduleElectionTimeout(long timeout) {
+        electionDeadline = paxosClock.nanoTime() + timeout;
+
+        if (electionTimeoutScheduled.compareAndSet(false, true)) {
+            electionTimer.schedule(this::onElectionTimeout, timeout, NANOSECONDS);
+        }
+    }
+
+    private void onElectionTimeout() {
+        long remaining = electionDeadline - paxosClock.nanoTime();
+
+        if (remaining > 0) {
+            electionTimer.schedule(this::onElectionTimeout, remaining, NANOSECONDS);
+            return;
+        }
+        electionTimeoutScheduled.set(false);
+        runLeaderCandidacy();
+    }
+
+    private void runLeaderCandidacy() {
+        if (paxosServer.isLeader() && heartbeatsActive) {
+            log.debug("Election timeout ignored, the current server is the active leader");
+            return;
+        }
+        if (!isMember()) {
+            log.debug("Election timeout ignored, the current server is not a member of the cluster");
+            scheduleElectionTimeout(awaitLeaderElectionTime());
+            return;
+        }
+        // a timeout during the candidacy is dropped, a lost candidacy schedules the next one itself
+        if (!candidacyRunning.compareAndSet(false, true)) {
+            log.debug("Election timeout ignored, the candidacy of the current server is still running");
+            return;
+        }
+        leaderCandidacy.start().thenAccept(this::completeLeaderCandidacy);
+    }
+
+    private void completeLeaderCandidacy(boolean leader) {
+        candidacyRunning.set(false);
+        processLeaderElection(leader);
     }
 
     private void processLeaderElection(boolean leader) {
         log.info("Processing leader election - leader: {}", leader);
-        if (Boolean.TRUE.equals(leader)) {
+        if (leader) {
+            failedCandidacies.set(0);
+            paxosMetrics.recordLeadershipAcquired();
+            paxosMetrics.recordFailover(paxosClock.nanoTime() - lastLeaderContactTime);
             disableInfiniteRepliesIfEnabled();
+            leaderLease.start();
             scheduleHeartbeats();
         } else {
+            failedCandidacies.incrementAndGet();
             startLeaderCandidacy();
         }
     }
 
     public void scheduleHeartbeats() {
-        int heartbeatsInterval = leaderElectionProps.getHeartbeatsInterval();
-        log.debug("Scheduling heartbeats with interval of {}s", heartbeatsInterval);
-        heartbeats.set(scheduleHeartbeats(heartbeatsInterval));
+        long heartbeatsInterval = electionTimeouts.adjustHeartbeatsInterval();
+        log.debug("Scheduling heartbeats with interval of {} ms", NANOSECONDS.toMillis(heartbeatsInterval));
+        heartbeatsActive = true;
+        long epoch = heartbeatsEpoch.incrementAndGet();
+        electionTimer.schedule(() -> sendHeartbeats(epoch, paxosClock.nanoTime()), 0, NANOSECONDS);
     }
 
-    private ScheduledFuture<?> scheduleHeartbeats(int interval) {
-        return scheduledExecutor.scheduleAtFixedRate(
-                this::sendHeartbeats,
-                5,
-                interval,
-                SECONDS
-        );
+    private void sendHeartbeats(long epoch, long scheduledTime) {
+        if (epoch != heartbeatsEpoch.get()) {
+            return;
+        }
+        if (!checkQuorum()) {
+            stepDown();
+            return;
+        }
+        sendHeartbeats();
+        long nextScheduledTime = scheduledTime + electionTimeouts.adjustHeartbeatsInterval();
+        electionTimer.schedule(() -> sendHeartbeats(epoch, nextScheduledTime),
+                nextScheduledTime - paxosClock.nanoTime(), NANOSECONDS);
+    }
+
+    private boolean checkQuorum() {
+        if (!leaderElectionProps.isCheckQuorum()) {
+            return true;
+        }
+        boolean quorumContact = leaderLease.hasQuorumContact(electionTimeouts.getElectionTimeout());
+
+        if (!quorumContact) {
+            log.warn("Heartbeats have not been acknowledged by the majority within the election timeout");
+            paxosMetrics.recordCheckQuorumStepDown();
+        }
+        return quorumContact;
     }
 
     private void disableInfiniteRepliesIfEnabled() {
@@ -107,48 +192,57 @@ public class LeaderElectionStarter {
     }
 
     private void sendHeartbeats() {
-        leaderElectionService.sendHeartbeats(e -> {
-            if (e instanceof PaxosLeaderConflictException) {
-                log.error("Leader conflict detected while sending heartbeats to followers nodes!");
-                stopHeartbeats();
-            }
-        });
+        leaderElectionService.sendHeartbeats(this::handleFollowerError);
     }
 
-    private LeaderCandidacy createStartLeaderElectionTask() {
-        LeaderCandidacy task = new LeaderCandidacy();
-        autowire(task);
+    public void replicateNow() {
+        if (paxosServer.isLeader() && heartbeatsActive) {
+            leaderElectionService.replicate(this::handleFollowerError);
+        }
+    }
 
-        return task;
+    private void handleFollowerError(Exception e) {
+        if (e instanceof PaxosLeaderConflictException) {
+            log.error("Leader conflict detected while sending heartbeats to followers nodes: {}", e.getMessage());
+            stepDown();
+        }
     }
 
-    private void autowire(LeaderCandidacy task) {
-        AutowireCapableBeanFactory factory = applicationContext.getAutowireCapableBeanFactory();
-        factory.autowireBean(task);
+    public void stepDown() {
+        log.info("Stepping down from the leadership...");
+        demoteLeader();
+        stopHeartbeats();
     }
 
-    public void stopHeartbeats() {
-        cancelIfPresent(heartbeats.get());
+    private void stepDownIfRemoved() {
+        if (!isMember() && paxosServer.isLeader()) {
+            log.info("The current server has been removed from the cluster");
+            // lets the remaining servers learn that the configuration has been committed
+            sendHeartbeats();
+            stepDown();
+        }
     }
 
-    private void cancelIfPresent(Future<?> task) {
-        Optional.ofNullable(task).ifPresent(it -> {
-            log.trace("Canceling current task execution");
-            it.cancel(false);
-        });
+    private boolean isMember() {
+        return discoveryService.isMember(paxosServer.getIdValue());
     }
 
-    public void reset() {
-        log.info("Resetting leader candidacy starting timeout...");
-        cancelIfPresent(candidacy.get());
-        startLeaderCandidacy();
+    public void stopHeartbeats() {
+        log.trace("Canceling heartbeats");
+        heartbeatsActive = false;
+        leaderLease.revoke();
+        heartbeatsEpoch.incrementAndGet();
+        scheduleElectionTimeout(awaitLeaderElectionTime());
     }
 
-    private int awaitLeaderElectionTime() {
-        return generateRandom(leaderElectionProps.getMinAwaitTime(), leaderElectionProps.getMaxAwaitTime()) * 1000;
+    public void reset() {
+        log.debug("Resetting leader candidacy starting timeout...");
+        lastLeaderContactTime = paxosClock.nanoTime();
+        failedCandidacies.set(0);
+        scheduleElectionTimeout(awaitLeaderElectionTime());
     }
 
-    public int generateRandom(int min, int max) {
-        return random.nextInt(max - min) + min;
+    private long awaitLeaderElectionTime() {
+        return electionTimeouts.nextElectionTimeout(failedCandidacies.get());
     }
 }
@@ -1,26 +1,26 @@
 package com.slusarczykr.paxos.leader.election.task;
 
 import com.slusarczykr.paxos.leader.election.service.LeaderElectionService;
-import com.slusarczykr.paxos.leader.exception.PaxosLeaderElectionException;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.stereotype.Component;
 
-@Configurable
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@RequiredArgsConstructor
 public class LeaderCandidacy {
 
     private static final Logger log = LoggerFactory.getLogger(LeaderCandidacy.class);
 
-    @Autowired
-    private LeaderElectionService leaderElectionService;
+    private final LeaderElectionService leaderElectionService;
 
-    public boolean start() {
-        try {
-            return leaderElectionService.startLeaderCandidacy();
-        } catch (PaxosLeaderElectionException e) {
-            log.error(e.getLocalizedMessage(), e);
-        }
-        return false;
+    public CompletableFuture<Boolean> start() {
+        return leaderElectionService.startLeaderCandidacy()
+                .exceptionally(e -> {
+                    log.error(e.getLocalizedMessage(), e);
+                    return false;
+                });
     }
 }
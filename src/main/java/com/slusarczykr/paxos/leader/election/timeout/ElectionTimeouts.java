@@ -0,0 +1,124 @@
+package com.slusarczykr.paxos.leader.election.timeout;
+
+import com.slusarczykr.paxos.leader.election.config.LeaderElectionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Component
+public class ElectionTimeouts {
+
+    private static final Logger log = LoggerFactory.getLogger(ElectionTimeouts.class);
+
+    private static final int ROUND_TRIP_SAMPLES = 128;
+
+    private final LeaderElectionProperties leaderElectionProps;
+    private final Supplier<Random> random;
+
+    private final long[] roundTripTimes = new long[ROUND_TRIP_SAMPLES];
+    private int roundTripIndex;
+    private int roundTripCount;
+
+    private volatile long leaderHeartbeatsInterval;
+
+    @Autowired
+    public ElectionTimeouts(LeaderElectionProperties leaderElectionProps) {
+        this(leaderElectionProps, ThreadLocalRandom::current);
+    }
+
+    // a seeded random makes the timeouts of the cluster simulator repeatable
+    public ElectionTimeouts(LeaderElectionProperties leaderElectionProps, Supplier<Random> random) {
+        this.leaderElectionProps = leaderElectionProps;
+        this.random = random;
+    }
+
+    public synchronized void recordRoundTrip(long roundTripTime) {
+        roundTripTimes[roundTripIndex] = roundTripTime;
+        roundTripIndex = (roundTripIndex + 1) % ROUND_TRIP_SAMPLES;
+        roundTripCount = Math.min(roundTripCount + 1, ROUND_TRIP_SAMPLES);
+    }
+
+    public synchronized OptionalLong getRoundTripPercentile(double percentile) {
+        if (roundTripCount == 0) {
+            return OptionalLong.empty();
+        }
+        long[] samples = Arrays.copyOf(roundTripTimes, roundTripCount);
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(percentile * samples.length) - 1;
+
+        return OptionalLong.of(samples[Math.max(index, 0)]);
+    }
+
+    public long adjustHeartbeatsInterval() {
+        long maxHeartbeatsInterval = leaderElectionProps.getHeartbeatsInterval().toNanos();
+        long heartbeatsInterval = maxHeartbeatsInterval;
+
+        if (leaderElectionProps.isAdaptiveTimeouts()) {
+            OptionalLong roundTripTime = getRoundTripPercentile(leaderElectionProps.getRoundTripPercentile());
+
+            if (roundTripTime.isPresent()) {
+                heartbeatsInterval = clamp(roundTripTime.getAsLong() * leaderElectionProps.getHeartbeatsIntervalRoundTrips(),
+                        leaderElectionProps.getMinHeartbeatsInterval().toNanos(), maxHeartbeatsInterval);
+            }
+        }
+        if (heartbeatsInterval != leaderHeartbeatsInterval) {
+            log.debug("Heartbeats interval adjusted to {} ms", NANOSECONDS.toMillis(heartbeatsInterval));
+            leaderHeartbeatsInterval = heartbeatsInterval;
+        }
+        return heartbeatsInterval;
+    }
+
+    public void recordLeaderHeartbeatsInterval(long heartbeatsInterval) {
+        if (heartbeatsInterval > 0) {
+            leaderHeartbeatsInterval = heartbeatsInterval;
+        }
+    }
+
+    public long getLeaderHeartbeatsInterval() {
+        return leaderHeartbeatsInterval;
+    }
+
+    public long getElectionTimeout() {
+        long maxElectionTimeout = leaderElectionProps.getMinAwaitTime().toNanos();
+
+        if (!leaderElectionProps.isAdaptiveTimeouts() || leaderHeartbeatsInterval == 0) {
+            return maxElectionTimeout;
+        }
+        return clamp(leaderHeartbeatsInterval * leaderElectionProps.getElectionTimeoutHeartbeats(),
+                getMinElectionTimeout(), maxElectionTimeout);
+    }
+
+    public long getMinElectionTimeout() {
+        long minAwaitTime = leaderElectionProps.getMinAwaitTime().toNanos();
+
+        if (!leaderElectionProps.isAdaptiveTimeouts()) {
+            return minAwaitTime;
+        }
+        return Math.min(leaderElectionProps.getMinElectionTimeout().toNanos(), minAwaitTime);
+    }
+
+    public long nextElectionTimeout(int failedCandidacies) {
+        long electionTimeout = getElectionTimeout();
+        double spread = (double) leaderElectionProps.getMaxAwaitTime().toNanos() / leaderElectionProps.getMinAwaitTime().toNanos();
+        long maxElectionTimeout = Math.max((long) (electionTimeout * spread), electionTimeout + 1);
+        long maxBackoff = Math.max(leaderElectionProps.getMaxCandidacyBackoff().toNanos(), maxElectionTimeout);
+
+        for (int i = 0; i < failedCandidacies && maxElectionTimeout < maxBackoff; i++) {
+            maxElectionTimeout = Math.min(maxElectionTimeout * 2, maxBackoff);
+        }
+        return random.get().nextLong(electionTimeout, maxElectionTimeout);
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(value, max));
+    }
+}
@@ -0,0 +1,156 @@
+package com.slusarczykr.paxos.leader.election.timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class HashedWheelTimer implements PaxosTimer, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final long tickDuration;
+    private final int mask;
+    private final Queue<Timeout>[] wheel;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final Thread worker;
+    private final Executor taskExecutor;
+    private final long startTime;
+
+    private volatile boolean running = true;
+    private long tick;
+
+    public HashedWheelTimer(String name, Duration tickDuration, int wheelSize) {
+        this(tickDuration, wheelSize, task -> new Thread(task, name), Runnable::run);
+    }
+
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(Duration tickDuration, int wheelSize, ThreadFactory threadFactory, Executor taskExecutor) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickDuration = Math.max(tickDuration.toNanos(), TimeUnit.MILLISECONDS.toNanos(1));
+        this.mask = wheelSize - 1;
+        this.wheel = new Queue[wheelSize];
+
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.startTime = System.nanoTime();
+        this.taskExecutor = taskExecutor;
+        this.worker = threadFactory.newThread(this::run);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(task, System.nanoTime() + Math.max(unit.toNanos(delay), 0));
+        pendingTimeouts.add(timeout);
+
+        return timeout;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            awaitNextTick();
+            transferPendingTimeouts();
+            expireTimeouts(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void awaitNextTick() {
+        long deadline = startTime + tickDuration * (tick + 1);
+        long sleepTime;
+
+        while (running && (sleepTime = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, sleepTime);
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long expirationTick = Math.max((timeout.deadline - startTime + tickDuration - 1) / tickDuration, tick);
+            timeout.remainingRounds = (expirationTick - tick) / wheel.length;
+            wheel[(int) (expirationTick & mask)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(Queue<Timeout> bucket) {
+        Iterator<Timeout> timeouts = bucket.iterator();
+
+        while (timeouts.hasNext()) {
+            Timeout timeout = timeouts.next();
+
+            if (timeout.isCancelled()) {
+                timeouts.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                timeouts.remove();
+                expire(timeout);
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    private void expire(Timeout timeout) {
+        try {
+            taskExecutor.execute(() -> runTask(timeout.task));
+        } catch (Exception e) {
+            log.error("Timer task could not be dispatched!", e);
+        }
+    }
+
+    private void runTask(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("Timer task execution failed!", e);
+        }
+    }
+
+    public static class Timeout implements PaxosTimer.Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
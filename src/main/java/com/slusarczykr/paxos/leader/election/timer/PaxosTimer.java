@@ -0,0 +1,24 @@
+package com.slusarczykr.paxos.leader.election.timer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public interface PaxosTimer {
+
+    Timeout schedule(Runnable task, long delay, TimeUnit unit);
+
+    // CompletableFuture#orTimeout driven by this timer instead of the shared delayer of the JDK
+    default <T> CompletableFuture<T> orTimeout(CompletableFuture<T> future, long timeout, TimeUnit unit) {
+        Timeout expiration = schedule(() -> future.completeExceptionally(new TimeoutException()), timeout, unit);
+        future.whenComplete((it, e) -> expiration.cancel());
+        return future;
+    }
+
+    interface Timeout {
+
+        void cancel();
+
+        boolean isCancelled();
+    }
+}
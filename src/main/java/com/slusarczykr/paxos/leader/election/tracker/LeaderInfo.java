@@ -0,0 +1,14 @@
+package com.slusarczykr.paxos.leader.election.tracker;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LeaderInfo {
+
+    private int leaderId;
+    private String leaderAddress;
+    private long term;
+    private boolean self;
+}
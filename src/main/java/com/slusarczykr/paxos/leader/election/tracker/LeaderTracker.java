@@ -0,0 +1,68 @@
+package com.slusarczykr.paxos.leader.election.tracker;
+
+import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryService;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+@RequiredArgsConstructor
+public class LeaderTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderTracker.class);
+
+    private final PaxosServer paxosServer;
+    private final ServerDiscoveryService discoveryService;
+
+    private final AtomicReference<LeaderInfo> knownLeader = new AtomicReference<>();
+    private final List<Runnable> leaderListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        paxosServer.addStateListener(this::notifyLeaderListeners);
+    }
+
+    public void addLeaderListener(Runnable listener) {
+        leaderListeners.add(listener);
+    }
+
+    private void notifyLeaderListeners() {
+        leaderListeners.forEach(Runnable::run);
+    }
+
+    public void recordLeader(long serverId, long term) {
+        int leaderId = (int) serverId;
+        LeaderInfo current = knownLeader.get();
+
+        while (current == null || current.getTerm() < term
+                || current.getTerm() == term && current.getLeaderId() != leaderId) {
+            LeaderInfo leaderInfo = new LeaderInfo(leaderId, discoveryService.getServerLocation(leaderId), term, false);
+
+            if (knownLeader.compareAndSet(current, leaderInfo)) {
+                log.debug("Server with id {} is the leader for term {}", leaderId, term);
+                notifyLeaderListeners();
+                return;
+            }
+            current = knownLeader.get();
+        }
+    }
+
+    public Optional<LeaderInfo> getLeader() {
+        long currentTerm = paxosServer.getTermValue();
+
+        if (paxosServer.isLeader()) {
+            int serverId = (int) paxosServer.getIdValue();
+            return Optional.of(new LeaderInfo(serverId, discoveryService.getServerLocation(serverId), currentTerm, true));
+        }
+        return Optional.ofNullable(knownLeader.get())
+                .filter(it -> it.getTerm() == currentTerm);
+    }
+}
@@ -0,0 +1,14 @@
+package com.slusarczykr.paxos.leader.election.watch;
+
+import com.slusarczykr.paxos.leader.election.tracker.LeaderInfo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LeadershipState {
+
+    private long version;
+    private long term;
+    private LeaderInfo leader;
+}
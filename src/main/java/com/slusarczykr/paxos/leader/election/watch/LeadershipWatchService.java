@@ -0,0 +1,11 @@
+package com.slusarczykr.paxos.leader.election.watch;
+
+import java.util.function.Consumer;
+
+public interface LeadershipWatchService {
+
+    LeadershipState getState();
+
+    // onDropped is run when the subscriber is unsubscribed for not keeping up with the changes
+    Runnable subscribe(Consumer<LeadershipState> subscriber, Runnable onDropped);
+}
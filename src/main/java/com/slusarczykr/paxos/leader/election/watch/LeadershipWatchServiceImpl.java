@@ -0,0 +1,198 @@
+package com.slusarczykr.paxos.leader.election.watch;
+
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.tracker.LeaderInfo;
+import com.slusarczykr.paxos.leader.election.tracker.LeaderTracker;
+import com.slusarczykr.paxos.leader.execution.PaxosThreads;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+public class LeadershipWatchServiceImpl implements LeadershipWatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeadershipWatchServiceImpl.class);
+
+    // every term moves through: no leader known, leader known, leader lost
+    private static final int TERM_PHASES = 3;
+    private static final int NO_LEADER = 0;
+    private static final int LEADER_KNOWN = 1;
+    private static final int LEADER_LOST = 2;
+
+    private static final long SUBSCRIBER_TIMEOUT = Duration.ofSeconds(10).toNanos();
+    private static final int PUBLISHER_THREADS = 4;
+
+    private final PaxosServer paxosServer;
+    private final LeaderTracker leaderTracker;
+    private final PaxosThreads paxosThreads;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+
+    private volatile LeadershipState state = new LeadershipState(0, 0, null);
+    private ExecutorService notifier;
+    private ExecutorService publisher;
+
+    @PostConstruct
+    public void init() {
+        notifier = paxosThreads.newSerialExecutor("paxos-leadership-watch");
+        // bounded, so subscribers blocked on their writes hold at most this many threads
+        publisher = Executors.newFixedThreadPool(PUBLISHER_THREADS,
+                paxosThreads.newThreadFactory("paxos-leadership-publisher"));
+        leaderTracker.addLeaderListener(this::scheduleRefresh);
+        refresh();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        notifier.shutdownNow();
+        publisher.shutdownNow();
+    }
+
+    @Override
+    public LeadershipState getState() {
+        return state;
+    }
+
+    @Override
+    public Runnable subscribe(Consumer<LeadershipState> subscriber, Runnable onDropped) {
+        Subscription subscription = new Subscription(subscriber, onDropped);
+        subscriptions.add(subscription);
+        return () -> subscriptions.remove(subscription);
+    }
+
+    private void scheduleRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            notifier.execute(this::refresh);
+        }
+    }
+
+    private void refresh() {
+        refreshPending.set(false);
+        LeadershipState previous = state;
+        LeadershipState next = nextState(previous);
+
+        if (next.getVersion() > previous.getVersion()) {
+            log.debug("Leadership changed, version: {}, term: {}, leader: {}", next.getVersion(), next.getTerm(),
+                    Optional.ofNullable(next.getLeader()).map(LeaderInfo::getLeaderId).orElse(null));
+            state = next;
+            subscriptions.forEach(it -> it.publish(next));
+        }
+    }
+
+    private LeadershipState nextState(LeadershipState previous) {
+        long term = paxosServer.getTermValue();
+        LeaderInfo leader = leaderTracker.getLeader().orElse(null);
+
+        return new LeadershipState(term * TERM_PHASES + phase(previous, term, leader), term, leader);
+    }
+
+    private int phase(LeadershipState previous, long term, LeaderInfo leader) {
+        if (leader != null) {
+            return LEADER_KNOWN;
+        }
+        boolean leaderSeen = previous.getTerm() == term && previous.getVersion() % TERM_PHASES != NO_LEADER;
+        return leaderSeen ? LEADER_LOST : NO_LEADER;
+    }
+
+    // every subscriber keeps only the latest state and has at most one publisher task, so a slow one does not queue up
+    private class Subscription {
+
+        private final Consumer<LeadershipState> subscriber;
+        private final Runnable onDropped;
+
+        private LeadershipState pendingState;
+        private boolean scheduled;
+        private boolean writing;
+        private boolean dropped;
+        private long writeStartTime;
+
+        Subscription(Consumer<LeadershipState> subscriber, Runnable onDropped) {
+            this.subscriber = subscriber;
+            this.onDropped = onDropped;
+        }
+
+        void publish(LeadershipState leadershipState) {
+            if (schedule(leadershipState)) {
+                execute(this::publishPending);
+            }
+        }
+
+        private synchronized boolean schedule(LeadershipState leadershipState) {
+            if (dropped) {
+                return false;
+            }
+            if (writing && System.nanoTime() - writeStartTime > SUBSCRIBER_TIMEOUT) {
+                log.debug("Leadership watch subscriber is still blocked on the previous state, unsubscribing");
+                dropped = true;
+                subscriptions.remove(this);
+                return false;
+            }
+            pendingState = leadershipState;
+
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+
+        private void execute(Runnable task) {
+            try {
+                publisher.execute(task);
+            } catch (RejectedExecutionException e) {
+                log.debug("Leadership watch is shut down, state not published");
+            }
+        }
+
+        private void publishPending() {
+            LeadershipState leadershipState;
+
+            while ((leadershipState = startWrite()) != null) {
+                try {
+                    subscriber.accept(leadershipState);
+                } catch (RuntimeException e) {
+                    log.debug("Leadership watch subscriber failed, unsubscribing: {}", e.toString());
+                    subscriptions.remove(this);
+                    return;
+                }
+                if (!finishWrite()) {
+                    onDropped.run();
+                    return;
+                }
+            }
+        }
+
+        private synchronized LeadershipState startWrite() {
+            LeadershipState leadershipState = pendingState;
+            pendingState = null;
+
+            if (leadershipState == null || dropped) {
+                scheduled = false;
+                return null;
+            }
+            writing = true;
+            writeStartTime = System.nanoTime();
+            return leadershipState;
+        }
+
+        private synchronized boolean finishWrite() {
+            writing = false;
+            return !dropped;
+        }
+    }
+}
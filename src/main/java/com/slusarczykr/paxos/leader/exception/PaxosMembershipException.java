@@ -0,0 +1,8 @@
+package com.slusarczykr.paxos.leader.exception;
+
+public class PaxosMembershipException extends RuntimeException {
+
+    public PaxosMembershipException(String message) {
+        super(message);
+    }
+}
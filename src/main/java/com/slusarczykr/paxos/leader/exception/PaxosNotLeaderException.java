@@ -0,0 +1,8 @@
+package com.slusarczykr.paxos.leader.exception;
+
+public class PaxosNotLeaderException extends RuntimeException {
+
+    public PaxosNotLeaderException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.slusarczykr.paxos.leader.exception;
+
+public class PaxosStaleTermException extends PaxosLeaderConflictException {
+
+    public PaxosStaleTermException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.slusarczykr.paxos.leader.execution;
+
+import org.springframework.stereotype.Component;
+
+// monotonic time read by the election, the cluster simulator replaces it with its virtual time
+@Component
+public class PaxosClock {
+
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,88 @@
+package com.slusarczykr.paxos.leader.execution;
+
+import com.slusarczykr.paxos.leader.execution.config.ExecutionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class PaxosThreads {
+
+    private static final Logger log = LoggerFactory.getLogger(PaxosThreads.class);
+
+    private final boolean virtual;
+
+    public PaxosThreads(ExecutionProperties executionProperties) {
+        this.virtual = executionProperties.isVirtualThreads() && isVirtualThreadsSupported();
+        log.info("Paxos tasks are executed on {} threads", virtual ? "virtual" : "platform");
+    }
+
+    private static boolean isVirtualThreadsSupported() {
+        boolean supported = createVirtualThreadFactory("paxos-probe").isPresent();
+
+        if (!supported) {
+            log.warn("Virtual threads are not supported by the Java {} runtime, falling back to platform threads",
+                    Runtime.version().feature());
+        }
+        return supported;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public ThreadFactory newThreadFactory(String name) {
+        if (virtual) {
+            return createVirtualThreadFactory(name).orElseThrow();
+        }
+        return createPlatformThreadFactory(name);
+    }
+
+    public ExecutorService newTaskExecutor(String name) {
+        if (virtual) {
+            return newThreadPerTaskExecutor(newThreadFactory(name));
+        }
+        return Executors.newCachedThreadPool(newThreadFactory(name));
+    }
+
+    public ExecutorService newSerialExecutor(String name) {
+        return Executors.newSingleThreadExecutor(newThreadFactory(name));
+    }
+
+    private static ThreadFactory createPlatformThreadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger(0);
+
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Optional<ThreadFactory> createVirtualThreadFactory(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            return Optional.of((ThreadFactory) builderType.getMethod("factory").invoke(builder));
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            log.debug("Virtual threads are not available: {}", e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor(ThreadFactory threadFactory) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create virtual thread executor", e);
+        }
+    }
+}
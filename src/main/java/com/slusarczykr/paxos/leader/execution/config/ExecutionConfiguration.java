@@ -0,0 +1,21 @@
+package com.slusarczykr.paxos.leader.execution.config;
+
+import com.slusarczykr.paxos.leader.execution.PaxosThreads;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ExecutionConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "paxos.server.execution", name = "virtual-threads", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer(PaxosThreads paxosThreads) {
+        return protocolHandler -> {
+            if (paxosThreads.isVirtual()) {
+                protocolHandler.setExecutor(paxosThreads.newTaskExecutor("paxos-http"));
+            }
+        };
+    }
+}
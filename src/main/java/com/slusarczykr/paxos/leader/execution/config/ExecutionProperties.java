@@ -0,0 +1,13 @@
+package com.slusarczykr.paxos.leader.execution.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+@ConstructorBinding
+@ConfigurationProperties(prefix = "paxos.server.execution")
+@Data
+public class ExecutionProperties {
+
+    private boolean virtualThreads = false;
+}
@@ -0,0 +1,21 @@
+package com.slusarczykr.paxos.leader.group.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConstructorBinding
+@ConfigurationProperties(prefix = "paxos.server.groups")
+@Data
+public class GroupProperties {
+
+    private int count = 0;
+    private Duration tick = Duration.ofMillis(100);
+    private Duration heartbeatsInterval = Duration.ofSeconds(1);
+    private Duration minElectionTimeout = Duration.ofSeconds(5);
+    private Duration maxElectionTimeout = Duration.ofSeconds(10);
+    private Duration balanceInterval = Duration.ofSeconds(10);
+    private int maxLeadershipTransfers = 256;
+}
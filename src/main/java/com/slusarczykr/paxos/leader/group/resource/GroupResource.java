@@ -0,0 +1,48 @@
+package com.slusarczykr.paxos.leader.group.resource;
+
+import com.slusarczykr.paxos.leader.api.GroupHeartbeat;
+import com.slusarczykr.paxos.leader.api.GroupVote;
+import com.slusarczykr.paxos.leader.group.service.GroupElectionService;
+import com.slusarczykr.paxos.leader.group.state.GroupStatus;
+import com.slusarczykr.paxos.leader.group.state.GroupsStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import static com.slusarczykr.paxos.leader.api.client.PaxosEndpoints.GROUP_HEARTBEAT_PATH;
+import static com.slusarczykr.paxos.leader.api.client.PaxosEndpoints.GROUP_VOTE_PATH;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@RestController
+@RequiredArgsConstructor
+public class GroupResource {
+
+    private final GroupElectionService groupElectionService;
+
+    @GetMapping(value = "/groups", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<GroupsStatus> getStatus() {
+        return new ResponseEntity<>(groupElectionService.getStatus(), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/groups/{groupId}", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<GroupStatus> getStatus(@PathVariable int groupId) {
+        return groupElectionService.getStatus(groupId)
+                .map(it -> new ResponseEntity<>(it, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @PostMapping(value = GROUP_HEARTBEAT_PATH, consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<GroupHeartbeat.Response> sendHeartbeat(@RequestBody GroupHeartbeat heartbeat) {
+        return new ResponseEntity<>(groupElectionService.handleHeartbeat(heartbeat), HttpStatus.OK);
+    }
+
+    @PostMapping(value = GROUP_VOTE_PATH, consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<GroupVote.Response> vote(@RequestBody GroupVote vote) {
+        return new ResponseEntity<>(groupElectionService.handleVote(vote), HttpStatus.OK);
+    }
+}
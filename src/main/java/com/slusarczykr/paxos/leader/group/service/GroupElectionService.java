@@ -0,0 +1,19 @@
+package com.slusarczykr.paxos.leader.group.service;
+
+import com.slusarczykr.paxos.leader.api.GroupHeartbeat;
+import com.slusarczykr.paxos.leader.api.GroupVote;
+import com.slusarczykr.paxos.leader.group.state.GroupStatus;
+import com.slusarczykr.paxos.leader.group.state.GroupsStatus;
+
+import java.util.Optional;
+
+public interface GroupElectionService {
+
+    GroupHeartbeat.Response handleHeartbeat(GroupHeartbeat heartbeat);
+
+    GroupVote.Response handleVote(GroupVote vote);
+
+    Optional<GroupStatus> getStatus(int groupId);
+
+    GroupsStatus getStatus();
+}
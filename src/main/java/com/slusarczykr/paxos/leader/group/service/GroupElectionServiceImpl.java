@@ -0,0 +1,502 @@
+package com.slusarczykr.paxos.leader.group.service;
+
+import com.slusarczykr.paxos.leader.api.GroupHeartbeat;
+import com.slusarczykr.paxos.leader.api.GroupVote;
+import com.slusarczykr.paxos.leader.api.transport.PaxosTransport;
+import com.slusarczykr.paxos.leader.discovery.detector.FailureDetector;
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+import com.slusarczykr.paxos.leader.discovery.peer.PeerSlot;
+import com.slusarczykr.paxos.leader.discovery.peer.PeerTable;
+import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryService;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.timer.PaxosTimer;
+import com.slusarczykr.paxos.leader.execution.PaxosThreads;
+import com.slusarczykr.paxos.leader.group.config.GroupProperties;
+import com.slusarczykr.paxos.leader.group.state.ElectionGroup;
+import com.slusarczykr.paxos.leader.group.state.GroupStatus;
+import com.slusarczykr.paxos.leader.group.state.GroupsStatus;
+import com.slusarczykr.paxos.leader.storage.metadata.GroupMetadata;
+import com.slusarczykr.paxos.leader.storage.metadata.GroupMetadataStore;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static com.slusarczykr.paxos.leader.group.state.ElectionGroup.NOT_LEADER;
+import static com.slusarczykr.paxos.leader.group.state.ElectionGroup.NO_SERVER;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Service
+@RequiredArgsConstructor
+public class GroupElectionServiceImpl implements GroupElectionService {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupElectionServiceImpl.class);
+
+    private static final PeerSlot<GroupPeerState> GROUP_PEER = new PeerSlot<>();
+    private static final int[] NO_GROUPS = new int[0];
+
+    private final PaxosServer paxosServer;
+    private final ServerDiscoveryService discoveryService;
+    private final FailureDetector failureDetector;
+    private final PaxosTransport paxosTransport;
+    private final GroupProperties groupProps;
+    private final PaxosTimer electionTimer;
+    private final GroupMetadataStore groupMetadataStore;
+    private final PaxosThreads paxosThreads;
+
+    private ExecutorService tickExecutor;
+    private ElectionGroup[] groups = new ElectionGroup[0];
+    private volatile boolean running;
+
+    private long lastHeartbeatsTime;
+    private long lastBalanceTime;
+    private int lastLeading;
+
+    @PostConstruct
+    public void init() {
+        long now = System.nanoTime();
+        PeerTable peerTable = discoveryService.getPeerTable();
+        tickExecutor = paxosThreads.newSerialExecutor("paxos-group-tick");
+        groups = new ElectionGroup[groupProps.getCount()];
+
+        int restored = 0;
+
+        for (int i = 0; i < groups.length; i++) {
+            long electionDeadline = nextElectionDeadline(i, peerTable, getServerId(), now);
+            Optional<GroupMetadata> metadata = groupMetadataStore.load(i);
+            groups[i] = metadata.isPresent()
+                    ? new ElectionGroup(i, metadata.get(), electionDeadline)
+                    : new ElectionGroup(i, electionDeadline);
+            restored += metadata.isPresent() ? 1 : 0;
+        }
+        if (groups.length > 0) {
+            log.info("Hosting {} election groups, restored terms and votes of {}", groups.length, restored);
+            running = true;
+            lastBalanceTime = now;
+            scheduleTick();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        running = false;
+        tickExecutor.shutdownNow();
+    }
+
+    private void scheduleTick() {
+        electionTimer.schedule(this::submitTick, groupProps.getTick().toNanos(), NANOSECONDS);
+    }
+
+    // the timer thread only hands the tick over, so the work of all the groups does not delay the other timer tasks
+    private void submitTick() {
+        if (running) {
+            tickExecutor.execute(this::tick);
+        }
+    }
+
+    // a single timer task drives the elections and heartbeats of all the groups
+    private void tick() {
+        try {
+            if (discoveryService.isMember(paxosServer.getIdValue())) {
+                tick(System.nanoTime());
+            }
+        } catch (RuntimeException e) {
+            log.error("Error occurred while running group elections!", e);
+        } finally {
+            if (running) {
+                scheduleTick();
+            }
+        }
+    }
+
+    private void tick(long now) {
+        PeerTable peerTable = discoveryService.getPeerTable();
+        int serverId = getServerId();
+        int majority = peerTable.size() / 2 + 1;
+        long minElectionTimeout = groupProps.getMinElectionTimeout().toNanos();
+        boolean quorumContact = countAcknowledgedSince(peerTable, serverId, now - minElectionTimeout) + 1 >= majority;
+        boolean heartbeatsDue = now - lastHeartbeatsTime >= groupProps.getHeartbeatsInterval().toNanos();
+        boolean balanceDue = heartbeatsDue && now - lastBalanceTime >= groupProps.getBalanceInterval().toNanos();
+
+        IntStream.Builder ledGroupIds = IntStream.builder();
+        LongStream.Builder ledTerms = LongStream.builder();
+        IntStream.Builder[] transfers = new IntStream.Builder[peerTable.size()];
+        Candidacies candidacies = new Candidacies();
+        Candidacies transferCandidacies = new Candidacies();
+        int transferBudget = balanceDue ? groupProps.getMaxLeadershipTransfers() : 0;
+        int leading = 0;
+        int resigned = 0;
+        List<CompletableFuture<Void>> candidaciesFlushed = new ArrayList<>();
+
+        for (ElectionGroup group : groups) {
+            long leaderTerm = group.getLeaderTerm();
+
+            if (leaderTerm != NOT_LEADER) {
+                int transferTarget = transferBudget > 0 ? getTransferTarget(group.getId(), peerTable, serverId, now) : -1;
+
+                if (!quorumContact && group.isLeaderLongerThan(now, minElectionTimeout)) {
+                    group.resign(nextElectionDeadline(group.getId(), peerTable, serverId, now));
+                    resigned++;
+                } else if (transferTarget >= 0) {
+                    group.resign(nextElectionDeadline(group.getId(), peerTable, serverId, now));
+                    addTransfer(transfers, transferTarget, group.getId());
+                    transferBudget--;
+                } else {
+                    leading++;
+
+                    if (heartbeatsDue) {
+                        ledGroupIds.add(group.getId());
+                        ledTerms.add(leaderTerm);
+                    }
+                }
+            } else if (group.isElectionDue(now)) {
+                boolean transfer = group.isTransferRequested();
+                long term = group.startCandidacy(serverId, majority, now,
+                        nextElectionDeadline(group.getId(), peerTable, serverId, now));
+                (transfer ? transferCandidacies : candidacies).add(group.getId(), term);
+                candidaciesFlushed.add(persist(group));
+            }
+        }
+        if (heartbeatsDue) {
+            lastHeartbeatsTime = now;
+            sendHeartbeats(peerTable, serverId, ledGroupIds.build().toArray(), ledTerms.build().toArray(), transfers);
+        }
+        if (!candidaciesFlushed.isEmpty()) {
+            // the votes for itself must survive a restart before the other servers are asked for theirs
+            allOf(candidaciesFlushed).whenComplete((flushed, e) -> {
+                if (e != null) {
+                    log.error("Could not persist the group candidacies, votes will not be requested!", e);
+                    return;
+                }
+                sendVotes(peerTable, serverId, candidacies, false, majority);
+                sendVotes(peerTable, serverId, transferCandidacies, true, majority);
+            });
+        }
+        logResignations(resigned);
+
+        if (balanceDue) {
+            lastBalanceTime = now;
+            logLeadership(leading);
+        }
+    }
+
+    // the preferred leader of a group is the member at the rank of the group id, which spreads the leaders evenly
+    private int getPreferredLeaderIndex(int groupId, PeerTable peerTable) {
+        return groupId % peerTable.size();
+    }
+
+    private int getTransferTarget(int groupId, PeerTable peerTable, int serverId, long now) {
+        int preferredIndex = getPreferredLeaderIndex(groupId, peerTable);
+        Peer preferredLeader = peerTable.getAt(preferredIndex);
+
+        if (preferredLeader.getId() == serverId) {
+            return -1;
+        }
+        GroupPeerState state = preferredLeader.get(GROUP_PEER);
+        boolean reachable = state != null && state.isAcknowledgedSince(now - groupProps.getMinElectionTimeout().toNanos())
+                && !state.inFlight.get();
+
+        return reachable ? preferredIndex : -1;
+    }
+
+    private void addTransfer(IntStream.Builder[] transfers, int peerIndex, int groupId) {
+        if (transfers[peerIndex] == null) {
+            transfers[peerIndex] = IntStream.builder();
+        }
+        transfers[peerIndex].add(groupId);
+    }
+
+    // servers other than the preferred leader wait for one more spread, so the preferred one usually wins
+    private long nextElectionDeadline(int groupId, PeerTable peerTable, int serverId, long now) {
+        long minElectionTimeout = groupProps.getMinElectionTimeout().toNanos();
+        long maxElectionTimeout = Math.max(groupProps.getMaxElectionTimeout().toNanos(), minElectionTimeout + 1);
+        long electionTimeout = ThreadLocalRandom.current().nextLong(minElectionTimeout, maxElectionTimeout);
+
+        if (peerTable.size() > 0 && peerTable.getAt(getPreferredLeaderIndex(groupId, peerTable)).getId() != serverId) {
+            electionTimeout += maxElectionTimeout - minElectionTimeout;
+        }
+        return now + electionTimeout;
+    }
+
+    private int countAcknowledgedSince(PeerTable peerTable, int serverId, long time) {
+        int acknowledged = 0;
+
+        for (int i = 0; i < peerTable.size(); i++) {
+            Peer peer = peerTable.getAt(i);
+            GroupPeerState state = peer.get(GROUP_PEER);
+
+            if (peer.getId() != serverId && state != null && state.isAcknowledgedSince(time)) {
+                acknowledged++;
+            }
+        }
+        return acknowledged;
+    }
+
+    private void sendHeartbeats(PeerTable peerTable, int serverId, int[] groupIds, long[] terms,
+                                IntStream.Builder[] transfers) {
+        for (int i = 0; i < peerTable.size(); i++) {
+            Peer peer = peerTable.getAt(i);
+            int[] transferGroupIds = transfers[i] != null ? transfers[i].build().toArray() : NO_GROUPS;
+
+            if (peer.getId() != serverId && (groupIds.length > 0 || transferGroupIds.length > 0)) {
+                sendHeartbeat(peer, new GroupHeartbeat(serverId, groupIds, terms, transferGroupIds));
+            }
+        }
+    }
+
+    private void sendHeartbeat(Peer peer, GroupHeartbeat heartbeat) {
+        GroupPeerState state = peer.computeIfAbsent(GROUP_PEER, it -> new GroupPeerState());
+
+        if (!state.inFlight.compareAndSet(false, true)) {
+            log.debug("Group heartbeat to server with id {} skipped, the previous one is still in flight", peer.getId());
+            return;
+        }
+        long sendTime = System.nanoTime();
+
+        paxosTransport.sendGroupHeartbeat(peer, heartbeat).whenComplete((response, e) -> {
+            state.inFlight.set(false);
+
+            if (e == null && response.isPresent()) {
+                state.acknowledge(sendTime);
+                failureDetector.recordHeartbeat(peer.getId());
+                handleRejectedHeartbeat(response.get());
+            }
+        });
+    }
+
+    private void handleRejectedHeartbeat(GroupHeartbeat.Response response) {
+        int[] rejectedGroupIds = response.getRejectedGroupIds();
+        int lost = 0;
+
+        for (int i = 0; i < rejectedGroupIds.length; i++) {
+            ElectionGroup group = getGroup(rejectedGroupIds[i]);
+
+            if (group != null && group.updateTerm(response.getRejectedTerms()[i])) {
+                lost++;
+            }
+            persistIfChanged(group);
+        }
+        if (lost > 0) {
+            log.info("Server with id {} observed higher terms of {} groups led by this server", response.getServerId(), lost);
+        }
+    }
+
+    private void sendVotes(PeerTable peerTable, int serverId, Candidacies candidacies, boolean transfer, int majority) {
+        if (candidacies.isEmpty()) {
+            return;
+        }
+        int[] groupIds = candidacies.groupIds.build().toArray();
+        long[] terms = candidacies.terms.build().toArray();
+        GroupVote vote = new GroupVote(serverId, transfer, groupIds, terms);
+        log.debug("Requesting votes for {} groups", groupIds.length);
+
+        for (int i = 0; i < peerTable.size(); i++) {
+            Peer peer = peerTable.getAt(i);
+
+            if (peer.getId() != serverId) {
+                paxosTransport.sendGroupVote(peer, vote)
+                        .thenAccept(response -> response.ifPresent(it -> handleVoteResponse(vote, it, majority)));
+            }
+        }
+    }
+
+    private void handleVoteResponse(GroupVote vote, GroupVote.Response response, int majority) {
+        long now = System.nanoTime();
+        int won = 0;
+
+        for (int i = 0; i < vote.getGroupIds().length; i++) {
+            ElectionGroup group = getGroup(vote.getGroupIds()[i]);
+
+            if (group == null) {
+                continue;
+            }
+            if (response.getGranted()[i]) {
+                won += group.registerVote(vote.getTerms()[i], majority, now) ? 1 : 0;
+            } else {
+                group.updateTerm(response.getTerms()[i]);
+                persistIfChanged(group);
+            }
+        }
+        if (won > 0) {
+            log.debug("Server has been elected the leader of {} groups", won);
+        }
+    }
+
+    private CompletableFuture<Void> persist(ElectionGroup group) {
+        return groupMetadataStore.save(group.getId(), group.getMetadata());
+    }
+
+    private static CompletableFuture<Void> allOf(List<CompletableFuture<Void>> futures) {
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    }
+
+    private void persistIfChanged(ElectionGroup group) {
+        GroupMetadata metadata = group != null ? group.takeMetadataChange() : null;
+
+        if (metadata != null) {
+            groupMetadataStore.save(group.getId(), metadata);
+        }
+    }
+
+    private void logResignations(int resigned) {
+        if (resigned > 0) {
+            log.warn("Majority of the servers has not acknowledged the group heartbeats, resigned from {} groups", resigned);
+        }
+    }
+
+    private void logLeadership(int leading) {
+        if (leading != lastLeading) {
+            log.info("Server leads {} of {} groups", leading, groups.length);
+            lastLeading = leading;
+        }
+    }
+
+    @Override
+    public GroupHeartbeat.Response handleHeartbeat(GroupHeartbeat heartbeat) {
+        long now = System.nanoTime();
+        int leaderId = (int) heartbeat.getServerId();
+        PeerTable peerTable = discoveryService.getPeerTable();
+        IntStream.Builder rejectedGroupIds = IntStream.builder();
+        LongStream.Builder rejectedTerms = LongStream.builder();
+        failureDetector.recordHeartbeat(leaderId);
+
+        for (int i = 0; i < heartbeat.getGroupIds().length; i++) {
+            ElectionGroup group = getGroup(heartbeat.getGroupIds()[i]);
+
+            if (group != null && !group.acceptHeartbeat(leaderId, heartbeat.getTerms()[i], now,
+                    nextElectionDeadline(group.getId(), peerTable, getServerId(), now))) {
+                rejectedGroupIds.add(group.getId());
+                rejectedTerms.add(group.getTerm());
+            }
+            persistIfChanged(group);
+        }
+        for (int groupId : heartbeat.getTransferGroupIds()) {
+            ElectionGroup group = getGroup(groupId);
+
+            if (group != null) {
+                group.requestTransfer(leaderId);
+            }
+        }
+        return new GroupHeartbeat.Response(paxosServer.getIdValue(), rejectedGroupIds.build().toArray(),
+                rejectedTerms.build().toArray());
+    }
+
+    @Override
+    public GroupVote.Response handleVote(GroupVote vote) {
+        long now = System.nanoTime();
+        int candidateId = (int) vote.getServerId();
+        long minElectionTimeout = groupProps.getMinElectionTimeout().toNanos();
+        PeerTable peerTable = discoveryService.getPeerTable();
+        boolean[] granted = new boolean[vote.getGroupIds().length];
+        long[] terms = new long[granted.length];
+        List<CompletableFuture<Void>> votesFlushed = new ArrayList<>();
+
+        for (int i = 0; i < granted.length; i++) {
+            ElectionGroup group = getGroup(vote.getGroupIds()[i]);
+
+            if (group != null) {
+                granted[i] = group.vote(candidateId, vote.getTerms()[i], vote.isTransfer(), now, minElectionTimeout,
+                        nextElectionDeadline(group.getId(), peerTable, getServerId(), now));
+                terms[i] = group.getTerm();
+
+                if (granted[i]) {
+                    votesFlushed.add(persist(group));
+                } else {
+                    persistIfChanged(group);
+                }
+            }
+        }
+        // a restarted server must not grant a second vote in a term it has already voted in
+        allOf(votesFlushed).join();
+        return new GroupVote.Response(paxosServer.getIdValue(), granted, terms);
+    }
+
+    @Override
+    public Optional<GroupStatus> getStatus(int groupId) {
+        return Optional.ofNullable(getGroup(groupId))
+                .map(ElectionGroup::getStatus)
+                .map(this::withLeaderAddress);
+    }
+
+    private GroupStatus withLeaderAddress(GroupStatus status) {
+        if (status.getLeaderId() != NO_SERVER) {
+            status.setLeaderAddress(discoveryService.getServerLocation(status.getLeaderId()));
+        }
+        return status;
+    }
+
+    @Override
+    public GroupsStatus getStatus() {
+        Map<Integer, Integer> leaders = new TreeMap<>();
+        int leading = 0;
+        int withoutLeader = 0;
+
+        for (ElectionGroup group : groups) {
+            GroupStatus status = group.getStatus();
+
+            if (status.getLeaderId() == NO_SERVER) {
+                withoutLeader++;
+            } else {
+                leaders.merge(status.getLeaderId(), 1, Integer::sum);
+            }
+            leading += status.isSelf() ? 1 : 0;
+        }
+        return new GroupsStatus(getServerId(), groups.length, leading, withoutLeader, leaders);
+    }
+
+    private ElectionGroup getGroup(int groupId) {
+        return groupId >= 0 && groupId < groups.length ? groups[groupId] : null;
+    }
+
+    private int getServerId() {
+        return (int) paxosServer.getIdValue();
+    }
+
+    private static class Candidacies {
+
+        private final IntStream.Builder groupIds = IntStream.builder();
+        private final LongStream.Builder terms = LongStream.builder();
+        private int size;
+
+        private void add(int groupId, long term) {
+            groupIds.add(groupId);
+            terms.add(term);
+            size++;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    private static class GroupPeerState {
+
+        private final AtomicBoolean inFlight = new AtomicBoolean(false);
+
+        private volatile boolean acknowledged;
+        private volatile long lastAckTime;
+
+        private void acknowledge(long sendTime) {
+            lastAckTime = sendTime;
+            acknowledged = true;
+        }
+
+        private boolean isAcknowledgedSince(long time) {
+            return acknowledged && lastAckTime - time >= 0;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.slusarczykr.paxos.leader.group.state;
+
+import com.slusarczykr.paxos.leader.storage.metadata.GroupMetadata;
+
+// election state of a single group, the log-less counterpart of PaxosServer
+public class ElectionGroup {
+
+    public static final int NO_SERVER = -1;
+    public static final long NOT_LEADER = -1;
+
+    private final int id;
+
+    private long term;
+    private int votedFor = NO_SERVER;
+    private int leaderId = NO_SERVER;
+    private boolean leader;
+    private boolean candidate;
+    private boolean transferRequested;
+    private int votes;
+    private boolean metadataChanged;
+
+    private long electionDeadline;
+    private long leaderContactTime;
+    private long leaderSince;
+
+    public ElectionGroup(int id, long electionDeadline) {
+        this.id = id;
+        this.electionDeadline = electionDeadline;
+    }
+
+    public ElectionGroup(int id, GroupMetadata metadata, long electionDeadline) {
+        this(id, electionDeadline);
+        this.term = metadata.getTerm();
+        this.votedFor = metadata.getVotedFor();
+    }
+
+    public synchronized boolean acceptHeartbeat(int serverId, long term, long now, long electionDeadline) {
+        if (term < this.term) {
+            return false;
+        }
+        if (term > this.term) {
+            stepDown(term);
+        }
+        leader = false;
+        candidate = false;
+        leaderId = serverId;
+        leaderContactTime = now;
+        this.electionDeadline = electionDeadline;
+        return true;
+    }
+
+    public synchronized boolean vote(int candidateId, long term, boolean transfer, long now, long minElectionTimeout,
+                                     long electionDeadline) {
+        if (term < this.term) {
+            return false;
+        }
+        if (term > this.term) {
+            // a live leader is not deposed by a server which merely lost contact with it, unless it handed over itself
+            if (!transfer && hasLeaderContact(now, minElectionTimeout)) {
+                return false;
+            }
+            stepDown(term);
+        }
+        if (votedFor != NO_SERVER && votedFor != candidateId) {
+            return false;
+        }
+        votedFor = candidateId;
+        metadataChanged = true;
+        this.electionDeadline = electionDeadline;
+        return true;
+    }
+
+    private boolean hasLeaderContact(long now, long minElectionTimeout) {
+        return leader || leaderId != NO_SERVER && now - leaderContactTime < minElectionTimeout;
+    }
+
+    public synchronized boolean isElectionDue(long now) {
+        return !leader && (transferRequested || now - electionDeadline >= 0);
+    }
+
+    public synchronized boolean isTransferRequested() {
+        return transferRequested;
+    }
+
+    public synchronized long startCandidacy(int serverId, int majority, long now, long electionDeadline) {
+        term++;
+        votedFor = serverId;
+        metadataChanged = true;
+        leaderId = NO_SERVER;
+        leader = false;
+        candidate = true;
+        transferRequested = false;
+        votes = 1;
+        this.electionDeadline = electionDeadline;
+        becomeLeaderIfElected(majority, now);
+        return term;
+    }
+
+    public synchronized boolean registerVote(long term, int majority, long now) {
+        if (!candidate || this.term != term) {
+            return false;
+        }
+        votes++;
+        return becomeLeaderIfElected(majority, now);
+    }
+
+    private boolean becomeLeaderIfElected(int majority, long now) {
+        if (votes < majority) {
+            return false;
+        }
+        candidate = false;
+        leader = true;
+        leaderId = votedFor;
+        leaderSince = now;
+        return true;
+    }
+
+    public synchronized boolean updateTerm(long term) {
+        if (term <= this.term) {
+            return false;
+        }
+        boolean wasLeader = leader;
+        stepDown(term);
+        return wasLeader;
+    }
+
+    private void stepDown(long term) {
+        this.term = term;
+        votedFor = NO_SERVER;
+        metadataChanged = true;
+        leaderId = NO_SERVER;
+        leader = false;
+        candidate = false;
+    }
+
+    // gives up the leadership within the current term, the group elects a new leader in the next one
+    public synchronized void resign(long electionDeadline) {
+        leader = false;
+        leaderId = NO_SERVER;
+        this.electionDeadline = electionDeadline;
+    }
+
+    public synchronized void requestTransfer(int serverId) {
+        if (leaderId == serverId && !leader) {
+            transferRequested = true;
+        }
+    }
+
+    public synchronized long getLeaderTerm() {
+        return leader ? term : NOT_LEADER;
+    }
+
+    public synchronized boolean isLeaderLongerThan(long now, long duration) {
+        return leader && now - leaderSince > duration;
+    }
+
+    public synchronized GroupMetadata getMetadata() {
+        return new GroupMetadata(term, votedFor);
+    }
+
+    // the term and the vote changed since the last call, null otherwise
+    public synchronized GroupMetadata takeMetadataChange() {
+        if (!metadataChanged) {
+            return null;
+        }
+        metadataChanged = false;
+        return getMetadata();
+    }
+
+    public synchronized GroupStatus getStatus() {
+        return new GroupStatus(id, term, leaderId, null, leader);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public synchronized long getTerm() {
+        return term;
+    }
+
+    public synchronized int getLeaderId() {
+        return leaderId;
+    }
+
+    public synchronized boolean isLeader() {
+        return leader;
+    }
+}
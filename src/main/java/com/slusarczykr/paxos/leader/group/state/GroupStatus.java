@@ -0,0 +1,15 @@
+package com.slusarczykr.paxos.leader.group.state;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class GroupStatus {
+
+    private int groupId;
+    private long term;
+    private int leaderId;
+    private String leaderAddress;
+    private boolean self;
+}
@@ -0,0 +1,18 @@
+package com.slusarczykr.paxos.leader.group.state;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class GroupsStatus {
+
+    private int serverId;
+    private int groups;
+    private int leading;
+    private int withoutLeader;
+    // number of groups led by every server, as known to this server
+    private Map<Integer, Integer> leaders;
+}
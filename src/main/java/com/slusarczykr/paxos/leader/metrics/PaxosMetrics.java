@@ -0,0 +1,250 @@
+package com.slusarczykr.paxos.leader.metrics;
+
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.timeout.ElectionTimeouts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Component
+public class PaxosMetrics {
+
+    public static final String TYPE_VOTE = "vote";
+    public static final String TYPE_HEARTBEAT = "heartbeat";
+    public static final String TYPE_SNAPSHOT = "snapshot";
+    public static final String TYPE_GROUP = "group";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_EMPTY = "empty";
+    public static final String OUTCOME_CONFLICT = "conflict";
+    public static final String OUTCOME_ERROR = "error";
+
+    private static final String PEER_TAG = "peer";
+    private static final String OUTCOME_TAG = "outcome";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer electionsWon;
+    private final Timer electionsLost;
+    private final Timer failover;
+    private final Counter leadershipAcquired;
+    private final Counter leadershipLost;
+    private final Counter checkQuorumStepDowns;
+    private final Counter votesCastAccepted;
+    private final Counter votesCastRejected;
+    private final Counter preVotesWon;
+    private final Counter preVotesLost;
+    private final Map<String, Timer> voteRequests;
+    private final Map<String, Timer> heartbeatRequests;
+    private final Map<String, Timer> snapshotRequests;
+    private final Map<String, Timer> groupRequests;
+
+    private final Map<Integer, PeerMeters> peers = new ConcurrentHashMap<>();
+
+    public PaxosMetrics(MeterRegistry meterRegistry, PaxosServer paxosServer, ElectionTimeouts electionTimeouts) {
+        this.meterRegistry = meterRegistry;
+        this.electionsWon = electionTimer("won");
+        this.electionsLost = electionTimer("lost");
+        this.failover = histogramTimer("paxos.election.failover")
+                .description("Time from the last contact with the previous leader until this server took over")
+                .register(meterRegistry);
+        this.leadershipAcquired = leadershipCounter("acquired");
+        this.leadershipLost = leadershipCounter("lost");
+        this.checkQuorumStepDowns = Counter.builder("paxos.leadership.quorum.lost")
+                .description("Step downs of this server after losing contact with the majority")
+                .register(meterRegistry);
+        this.votesCastAccepted = votesCastCounter("accepted");
+        this.votesCastRejected = votesCastCounter("rejected");
+        this.preVotesWon = preVoteCounter("won");
+        this.preVotesLost = preVoteCounter("lost");
+        this.voteRequests = clientTimers(TYPE_VOTE);
+        this.heartbeatRequests = clientTimers(TYPE_HEARTBEAT);
+        this.snapshotRequests = clientTimers(TYPE_SNAPSHOT);
+        this.groupRequests = clientTimers(TYPE_GROUP);
+
+        FunctionCounter.builder("paxos.term", paxosServer, PaxosServer::getTermValue)
+                .description("Current term, its rate is the term inflation")
+                .register(meterRegistry);
+        Gauge.builder("paxos.leader", paxosServer, it -> it.isLeader() ? 1 : 0)
+                .description("Whether this server is currently the leader")
+                .register(meterRegistry);
+        Gauge.builder("paxos.election.timeout", electionTimeouts, it -> NANOSECONDS.toMillis(it.getElectionTimeout()))
+                .description("Current election timeout in milliseconds, before randomization and candidacy backoff")
+                .register(meterRegistry);
+        Gauge.builder("paxos.heartbeats.interval", electionTimeouts,
+                        it -> NANOSECONDS.toMillis(it.getLeaderHeartbeatsInterval()))
+                .description("Heartbeats interval of the current leader in milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("paxos.commit.index", paxosServer, PaxosServer::getCommitIndexValue)
+                .description("Index of the highest log entry known to be committed")
+                .register(meterRegistry);
+    }
+
+    private Timer electionTimer(String outcome) {
+        return histogramTimer("paxos.election.duration")
+                .description("Duration of the leader candidacy")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter leadershipCounter(String transition) {
+        return Counter.builder("paxos.leadership.transitions")
+                .description("Leadership changes of this server")
+                .tag("transition", transition)
+                .register(meterRegistry);
+    }
+
+    private Counter votesCastCounter(String outcome) {
+        return Counter.builder("paxos.votes.cast")
+                .description("Votes cast by this server for other candidates")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter preVoteCounter(String outcome) {
+        return Counter.builder("paxos.election.prevote")
+                .description("Pre-vote rounds run before the leader candidacy, lost rounds leave the term unchanged")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry);
+    }
+
+    private Map<String, Timer> clientTimers(String type) {
+        return Map.of(
+                OUTCOME_SUCCESS, clientTimer(type, OUTCOME_SUCCESS),
+                OUTCOME_EMPTY, clientTimer(type, OUTCOME_EMPTY),
+                OUTCOME_CONFLICT, clientTimer(type, OUTCOME_CONFLICT),
+                OUTCOME_ERROR, clientTimer(type, OUTCOME_ERROR)
+        );
+    }
+
+    private Timer clientTimer(String type, String outcome) {
+        return histogramTimer("paxos.client.requests")
+                .description("Requests sent to other servers")
+                .tags("type", type, OUTCOME_TAG, outcome)
+                .register(meterRegistry);
+    }
+
+    private static Timer.Builder histogramTimer(String name) {
+        return Timer.builder(name).publishPercentileHistogram();
+    }
+
+    public void recordElection(boolean won, long durationNanos) {
+        (won ? electionsWon : electionsLost).record(durationNanos, NANOSECONDS);
+    }
+
+    public void recordPreVote(boolean won) {
+        (won ? preVotesWon : preVotesLost).increment();
+    }
+
+    public void recordFailover(long durationNanos) {
+        failover.record(durationNanos, NANOSECONDS);
+    }
+
+    public void recordLeadershipAcquired() {
+        leadershipAcquired.increment();
+    }
+
+    public void recordLeadershipLost() {
+        leadershipLost.increment();
+    }
+
+    public void recordCheckQuorumStepDown() {
+        checkQuorumStepDowns.increment();
+    }
+
+    public void recordVoteCast(boolean accepted) {
+        (accepted ? votesCastAccepted : votesCastRejected).increment();
+    }
+
+    public void recordClientRequest(String type, String outcome, long durationNanos) {
+        Map<String, Timer> timers = switch (type) {
+            case TYPE_VOTE -> voteRequests;
+            case TYPE_SNAPSHOT -> snapshotRequests;
+            case TYPE_GROUP -> groupRequests;
+            default -> heartbeatRequests;
+        };
+        timers.get(outcome).record(durationNanos, NANOSECONDS);
+    }
+
+    public void recordVote(int serverId, Boolean accepted, long roundTripNanos) {
+        PeerMeters meters = getPeerMeters(serverId);
+
+        if (accepted == null) {
+            meters.voteMissing.record(roundTripNanos, NANOSECONDS);
+        } else {
+            (accepted ? meters.voteAccepted : meters.voteRejected).record(roundTripNanos, NANOSECONDS);
+        }
+    }
+
+    public void recordHeartbeat(int serverId, boolean acknowledged, long roundTripNanos) {
+        PeerMeters meters = getPeerMeters(serverId);
+        (acknowledged ? meters.heartbeatAcked : meters.heartbeatFailed).record(roundTripNanos, NANOSECONDS);
+    }
+
+    public void recordHeartbeatDropped(int serverId) {
+        getPeerMeters(serverId).heartbeatDropped.increment();
+    }
+
+    public void recordSnapshotTransferred(int serverId, long bytes) {
+        getPeerMeters(serverId).snapshotTransferred.increment(bytes);
+    }
+
+    private PeerMeters getPeerMeters(int serverId) {
+        PeerMeters meters = peers.get(serverId);
+
+        if (meters == null) {
+            meters = peers.computeIfAbsent(serverId, id -> new PeerMeters(String.valueOf(id)));
+        }
+        return meters;
+    }
+
+    private class PeerMeters {
+
+        private final Timer voteAccepted;
+        private final Timer voteRejected;
+        private final Timer voteMissing;
+        private final Timer heartbeatAcked;
+        private final Timer heartbeatFailed;
+        private final Counter heartbeatDropped;
+        private final Counter snapshotTransferred;
+
+        private PeerMeters(String peer) {
+            this.voteAccepted = voteTimer(peer, "accepted");
+            this.voteRejected = voteTimer(peer, "rejected");
+            this.voteMissing = voteTimer(peer, "missing");
+            this.heartbeatAcked = heartbeatTimer(peer, "acked");
+            this.heartbeatFailed = heartbeatTimer(peer, "failed");
+            this.heartbeatDropped = Counter.builder("paxos.heartbeats.dropped")
+                    .description("Heartbeats skipped because too many were still in flight")
+                    .tag(PEER_TAG, peer)
+                    .register(meterRegistry);
+            this.snapshotTransferred = Counter.builder("paxos.snapshot.transferred")
+                    .description("Snapshot bytes streamed to the follower")
+                    .baseUnit("bytes")
+                    .tag(PEER_TAG, peer)
+                    .register(meterRegistry);
+        }
+
+        private Timer voteTimer(String peer, String outcome) {
+            return histogramTimer("paxos.vote.rtt")
+                    .description("Round trip time of the request vote")
+                    .tags(PEER_TAG, peer, OUTCOME_TAG, outcome)
+                    .register(meterRegistry);
+        }
+
+        private Timer heartbeatTimer(String peer, String outcome) {
+            return histogramTimer("paxos.heartbeat.rtt")
+                    .description("Round trip time of the heartbeat")
+                    .tags(PEER_TAG, peer, OUTCOME_TAG, outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
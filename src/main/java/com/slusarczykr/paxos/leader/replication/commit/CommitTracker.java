@@ -0,0 +1,64 @@
+package com.slusarczykr.paxos.leader.replication.commit;
+
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+@Component
+@RequiredArgsConstructor
+public class CommitTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(CommitTracker.class);
+
+    private final PaxosServer paxosServer;
+
+    private final NavigableMap<Long, List<CompletableFuture<Long>>> waiters = new TreeMap<>();
+    private final List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(LongConsumer listener) {
+        listeners.add(listener);
+    }
+
+    public synchronized CompletableFuture<Long> awaitCommit(long index) {
+        if (index <= paxosServer.getCommitIndexValue()) {
+            return CompletableFuture.completedFuture(index);
+        }
+        CompletableFuture<Long> commit = new CompletableFuture<>();
+        waiters.computeIfAbsent(index, it -> new ArrayList<>()).add(commit);
+        return commit;
+    }
+
+    public synchronized void advance(long commitIndex) {
+        if (commitIndex <= paxosServer.getCommitIndexValue()) {
+            return;
+        }
+        log.debug("Advancing commit index to {}", commitIndex);
+        paxosServer.updateCommitIndex(commitIndex);
+        NavigableMap<Long, List<CompletableFuture<Long>>> committed = waiters.headMap(commitIndex, true);
+
+        for (Map.Entry<Long, List<CompletableFuture<Long>>> entry : committed.entrySet()) {
+            entry.getValue().forEach(it -> it.complete(entry.getKey()));
+        }
+        committed.clear();
+        listeners.forEach(it -> it.accept(commitIndex));
+    }
+
+    public synchronized void failPending(RuntimeException e) {
+        if (!waiters.isEmpty()) {
+            log.info("Failing {} pending log entries: {}", waiters.size(), e.getMessage());
+            waiters.values().forEach(it -> it.forEach(commit -> commit.completeExceptionally(e)));
+            waiters.clear();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.slusarczykr.paxos.leader.replication.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConstructorBinding
+@ConfigurationProperties(prefix = "paxos.server.replication")
+@Data
+public class ReplicationProperties {
+
+    private int maxBatchEntries = 512;
+    private DataSize maxBatchSize = DataSize.ofKilobytes(256);
+    private Duration commitTimeout = Duration.ofSeconds(5);
+    private long snapshotEntries = 10_000;
+    private DataSize snapshotSize = DataSize.ofMegabytes(64);
+    private DataSize snapshotChunkSize = DataSize.ofKilobytes(512);
+    private DataSize snapshotTransferRate = DataSize.ofMegabytes(32);
+    private int maxSnapshotTransfers = 2;
+}
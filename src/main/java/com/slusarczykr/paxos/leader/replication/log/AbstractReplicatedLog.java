@@ -0,0 +1,103 @@
+package com.slusarczykr.paxos.leader.replication.log;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+public abstract class AbstractReplicatedLog implements ReplicatedLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AbstractReplicatedLog.class);
+
+    private long snapshotIndex;
+    private long snapshotTerm;
+
+    @Override
+    public synchronized long append(long term, byte[] command) {
+        long index = getLastIndex() + 1;
+        append(index, term, command);
+        return index;
+    }
+
+    @Override
+    public synchronized OptionalLong tryAppend(long prevLogIndex, long prevLogTerm, List<LogEntry> entries) {
+        if (prevLogIndex > snapshotIndex && !hasEntry(prevLogIndex, prevLogTerm)) {
+            log.debug("Log does not contain an entry with index {} and term {}", prevLogIndex, prevLogTerm);
+            return OptionalLong.empty();
+        }
+        for (LogEntry entry : entries) {
+            if (entry.getIndex() <= snapshotIndex) {
+                continue;
+            }
+            OptionalLong existingTerm = getTerm(entry.getIndex());
+
+            if (existingTerm.isPresent() && existingTerm.getAsLong() != entry.getTerm()) {
+                log.info("Conflicting entry found at index {}, truncating the log", entry.getIndex());
+                truncate(entry.getIndex());
+                existingTerm = OptionalLong.empty();
+            }
+            if (existingTerm.isEmpty()) {
+                append(entry.getIndex(), entry.getTerm(), entry.getCommand());
+            }
+        }
+        return OptionalLong.of(prevLogIndex + entries.size());
+    }
+
+    private boolean hasEntry(long index, long term) {
+        OptionalLong existingTerm = getTerm(index);
+        return existingTerm.isPresent() && existingTerm.getAsLong() == term;
+    }
+
+    @Override
+    public synchronized void compact(long snapshotIndex, long snapshotTerm) {
+        if (snapshotIndex > this.snapshotIndex) {
+            this.snapshotIndex = snapshotIndex;
+            this.snapshotTerm = snapshotTerm;
+            discardPrefix(snapshotIndex);
+            log.debug("Log compacted up to index {}, first index: {}", snapshotIndex, getFirstIndex());
+        }
+    }
+
+    @Override
+    public synchronized void install(long snapshotIndex, long snapshotTerm) {
+        if (snapshotIndex <= this.snapshotIndex) {
+            return;
+        }
+        if (hasEntry(snapshotIndex, snapshotTerm)) {
+            compact(snapshotIndex, snapshotTerm);
+            return;
+        }
+        this.snapshotIndex = snapshotIndex;
+        this.snapshotTerm = snapshotTerm;
+        reset(snapshotIndex + 1);
+        log.info("Log replaced by snapshot at index {} and term {}", snapshotIndex, snapshotTerm);
+    }
+
+    @Override
+    public synchronized OptionalLong getTerm(long index) {
+        if (index == snapshotIndex) {
+            return OptionalLong.of(snapshotTerm);
+        }
+        if (index < getFirstIndex() || index > getLastIndex()) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(termAt(index));
+    }
+
+    @Override
+    public synchronized long getLastTerm() {
+        return getTerm(getLastIndex()).orElse(0);
+    }
+
+    protected abstract void append(long index, long term, byte[] command);
+
+    protected abstract void truncate(long fromIndex);
+
+    protected abstract void discardPrefix(long snapshotIndex);
+
+    protected abstract void reset(long firstIndex);
+
+    protected abstract long termAt(long index);
+}
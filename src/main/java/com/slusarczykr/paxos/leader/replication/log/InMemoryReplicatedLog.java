@@ -0,0 +1,90 @@
+package com.slusarczykr.paxos.leader.replication.log;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@ConditionalOnProperty(prefix = "paxos.server.storage", name = "type", havingValue = "memory")
+public class InMemoryReplicatedLog extends AbstractReplicatedLog {
+
+    private final List<LogEntry> entries = new ArrayList<>();
+
+    private long firstIndex = 1;
+
+    @Override
+    protected synchronized void append(long index, long term, byte[] command) {
+        if (index != getLastIndex() + 1) {
+            throw new IllegalStateException("Log entry with index " + index + " does not follow the last index "
+                    + getLastIndex());
+        }
+        entries.add(new LogEntry(index, term, command));
+    }
+
+    @Override
+    protected synchronized void truncate(long fromIndex) {
+        entries.subList(toPosition(fromIndex), entries.size()).clear();
+    }
+
+    @Override
+    protected synchronized void discardPrefix(long snapshotIndex) {
+        entries.subList(0, Math.min(toPosition(snapshotIndex + 1), entries.size())).clear();
+        firstIndex = snapshotIndex + 1;
+    }
+
+    @Override
+    protected synchronized void reset(long firstIndex) {
+        entries.clear();
+        this.firstIndex = firstIndex;
+    }
+
+    @Override
+    public synchronized CompletableFuture<Long> flush() {
+        return CompletableFuture.completedFuture(getLastIndex());
+    }
+
+    private int toPosition(long index) {
+        return (int) (index - firstIndex);
+    }
+
+    @Override
+    public synchronized List<LogEntry> getEntries(long fromIndex, int maxEntries, int maxBytes) {
+        List<LogEntry> batch = new ArrayList<>();
+        int batchBytes = 0;
+
+        for (long index = fromIndex; index >= firstIndex && index <= getLastIndex() && batch.size() < maxEntries; index++) {
+            LogEntry entry = entries.get(toPosition(index));
+            batchBytes += entry.getSize();
+
+            if (!batch.isEmpty() && batchBytes > maxBytes) {
+                break;
+            }
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    @Override
+    protected synchronized long termAt(long index) {
+        return entries.get(toPosition(index)).getTerm();
+    }
+
+    @Override
+    public synchronized long getFirstIndex() {
+        return firstIndex;
+    }
+
+    @Override
+    public synchronized long getLastIndex() {
+        return firstIndex + entries.size() - 1;
+    }
+
+    @Override
+    public synchronized long getDurableIndex() {
+        return getLastIndex();
+    }
+}
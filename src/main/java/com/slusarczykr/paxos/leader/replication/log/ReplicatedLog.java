@@ -0,0 +1,32 @@
+package com.slusarczykr.paxos.leader.replication.log;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+
+public interface ReplicatedLog {
+
+    long append(long term, byte[] command);
+
+    OptionalLong tryAppend(long prevLogIndex, long prevLogTerm, List<LogEntry> entries);
+
+    CompletableFuture<Long> flush();
+
+    List<LogEntry> getEntries(long fromIndex, int maxEntries, int maxBytes);
+
+    void compact(long snapshotIndex, long snapshotTerm);
+
+    void install(long snapshotIndex, long snapshotTerm);
+
+    OptionalLong getTerm(long index);
+
+    long getFirstIndex();
+
+    long getLastIndex();
+
+    long getDurableIndex();
+
+    long getLastTerm();
+}
@@ -0,0 +1,75 @@
+package com.slusarczykr.paxos.leader.replication.resource;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import com.slusarczykr.paxos.leader.discovery.membership.MembershipCommand;
+import com.slusarczykr.paxos.leader.exception.PaxosNotLeaderException;
+import com.slusarczykr.paxos.leader.replication.service.LogReplicationService;
+import com.slusarczykr.paxos.leader.replication.service.ReplicationStatus;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@RestController
+@RequestMapping(path = "log", produces = APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class LogResource {
+
+    private static final Logger log = LoggerFactory.getLogger(LogResource.class);
+
+    private final LogReplicationService logReplicationService;
+
+    @PostMapping
+    public CompletableFuture<ResponseEntity<Long>> append(@RequestBody byte[] command) {
+        if (MembershipCommand.isMembershipCommand(command)) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+        try {
+            return logReplicationService.append(command)
+                    .handle((index, e) -> e == null
+                            ? new ResponseEntity<>(index, HttpStatus.CREATED)
+                            : new ResponseEntity<>(toHttpStatus(e)));
+        } catch (IllegalArgumentException e) {
+            log.warn(e.getMessage());
+            return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.PAYLOAD_TOO_LARGE));
+        }
+    }
+
+    private HttpStatus toHttpStatus(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+        if (cause instanceof PaxosNotLeaderException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        if (cause instanceof TimeoutException) {
+            return HttpStatus.GATEWAY_TIMEOUT;
+        }
+        log.error("Log entry could not be committed!", cause);
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<LogEntry>> getEntries(@RequestParam(value = "from", defaultValue = "1") long fromIndex,
+                                                     @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return new ResponseEntity<>(logReplicationService.getEntries(fromIndex, limit), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/status")
+    public ResponseEntity<ReplicationStatus> getStatus() {
+        return new ResponseEntity<>(logReplicationService.getStatus(), HttpStatus.OK);
+    }
+}
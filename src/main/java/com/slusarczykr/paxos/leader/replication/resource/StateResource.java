@@ -0,0 +1,45 @@
+package com.slusarczykr.paxos.leader.replication.resource;
+
+import com.slusarczykr.paxos.leader.replication.log.ReplicatedLog;
+import com.slusarczykr.paxos.leader.replication.state.KeyValueStateMachine;
+import com.slusarczykr.paxos.leader.replication.state.LogApplier;
+import com.slusarczykr.paxos.leader.replication.state.StateStatus;
+import com.slusarczykr.paxos.leader.storage.snapshot.SnapshotStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+@RestController
+@RequestMapping(path = "state", produces = APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class StateResource {
+
+    private final KeyValueStateMachine keyValueStateMachine;
+    private final LogApplier logApplier;
+    private final ReplicatedLog replicatedLog;
+    private final SnapshotStore snapshotStore;
+
+    @GetMapping
+    public ResponseEntity<StateStatus> getStatus() {
+        StateStatus stateStatus = new StateStatus(
+                logApplier.getLastApplied(),
+                replicatedLog.getFirstIndex(),
+                keyValueStateMachine.size(),
+                snapshotStore.getLatest().orElse(null)
+        );
+        return new ResponseEntity<>(stateStatus, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/{key}")
+    public ResponseEntity<String> get(@PathVariable("key") String key) {
+        return keyValueStateMachine.get(key)
+                .map(it -> new ResponseEntity<>(it, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
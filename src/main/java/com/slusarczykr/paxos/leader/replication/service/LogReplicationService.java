@@ -0,0 +1,18 @@
+package com.slusarczykr.paxos.leader.replication.service;
+
+import com.slusarczykr.paxos.leader.api.AppendEntry;
+import com.slusarczykr.paxos.leader.api.LogEntry;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface LogReplicationService {
+
+    CompletableFuture<Long> append(byte[] command);
+
+    AppendEntry.Response handleAppendEntry(AppendEntry appendEntry);
+
+    List<LogEntry> getEntries(long fromIndex, int maxEntries);
+
+    ReplicationStatus getStatus();
+}
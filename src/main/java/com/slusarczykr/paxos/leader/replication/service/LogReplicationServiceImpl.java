@@ -0,0 +1,87 @@
+package com.slusarczykr.paxos.leader.replication.service;
+
+import com.slusarczykr.paxos.leader.api.AppendEntry;
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.starter.LeaderElectionStarter;
+import com.slusarczykr.paxos.leader.exception.PaxosNotLeaderException;
+import com.slusarczykr.paxos.leader.replication.commit.CommitTracker;
+import com.slusarczykr.paxos.leader.replication.config.ReplicationProperties;
+import com.slusarczykr.paxos.leader.replication.log.ReplicatedLog;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@Service
+@RequiredArgsConstructor
+public class LogReplicationServiceImpl implements LogReplicationService {
+
+    private static final Logger log = LoggerFactory.getLogger(LogReplicationServiceImpl.class);
+
+    private final PaxosServer paxosServer;
+    private final ReplicatedLog replicatedLog;
+    private final CommitTracker commitTracker;
+    private final ReplicationProperties replicationProps;
+    private final LeaderElectionStarter leaderElectionStarter;
+
+    @Override
+    public CompletableFuture<Long> append(byte[] command) {
+        if (command.length > replicationProps.getMaxBatchSize().toBytes()) {
+            throw new IllegalArgumentException("Command size exceeds the limit of " + replicationProps.getMaxBatchSize());
+        }
+        long term = paxosServer.getTermValue();
+
+        if (!paxosServer.isLeader()) {
+            return CompletableFuture.failedFuture(new PaxosNotLeaderException("Current server is not the leader"));
+        }
+        long index = replicatedLog.append(term, command);
+        log.trace("Appended entry with index {} in term {}", index, term);
+        CompletableFuture<Long> commit = commitTracker.awaitCommit(index);
+        leaderElectionStarter.replicateNow();
+        // the leader counts its own entries towards the majority only once they are flushed
+        replicatedLog.flush().thenRun(leaderElectionStarter::replicateNow);
+
+        return commit.orTimeout(replicationProps.getCommitTimeout().toMillis(), MILLISECONDS);
+    }
+
+    @Override
+    public AppendEntry.Response handleAppendEntry(AppendEntry appendEntry) {
+        OptionalLong matchIndex = replicatedLog.tryAppend(
+                appendEntry.getPrevLogIndex(),
+                appendEntry.getPrevLogTerm(),
+                appendEntry.getEntries()
+        );
+        if (matchIndex.isEmpty()) {
+            long hint = Math.min(replicatedLog.getLastIndex(), appendEntry.getPrevLogIndex() - 1);
+            return new AppendEntry.Response(paxosServer.getIdValue(), paxosServer.getTermValue(), false, hint);
+        }
+        // entries are acknowledged only once they are flushed
+        replicatedLog.flush().join();
+        commitTracker.advance(Math.min(appendEntry.getCommitIndex(), matchIndex.getAsLong()));
+        return new AppendEntry.Response(paxosServer.getIdValue(), paxosServer.getTermValue(), true, matchIndex.getAsLong());
+    }
+
+    @Override
+    public List<LogEntry> getEntries(long fromIndex, int maxEntries) {
+        return replicatedLog.getEntries(Math.max(fromIndex, replicatedLog.getFirstIndex()), maxEntries, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public ReplicationStatus getStatus() {
+        return new ReplicationStatus(
+                paxosServer.getIdValue(),
+                paxosServer.getTermValue(),
+                paxosServer.isLeader(),
+                paxosServer.getCommitIndexValue(),
+                replicatedLog.getLastIndex(),
+                replicatedLog.getLastTerm()
+        );
+    }
+}
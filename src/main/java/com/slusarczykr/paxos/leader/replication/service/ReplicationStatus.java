@@ -0,0 +1,16 @@
+package com.slusarczykr.paxos.leader.replication.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ReplicationStatus {
+
+    private long serverId;
+    private long term;
+    private boolean leader;
+    private long commitIndex;
+    private long lastIndex;
+    private long lastTerm;
+}
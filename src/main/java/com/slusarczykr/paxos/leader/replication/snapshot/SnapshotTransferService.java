@@ -0,0 +1,14 @@
+package com.slusarczykr.paxos.leader.replication.snapshot;
+
+import com.slusarczykr.paxos.leader.api.InstallSnapshot;
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+import com.slusarczykr.paxos.leader.storage.snapshot.SnapshotMetadata;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface SnapshotTransferService {
+
+    CompletableFuture<SnapshotMetadata> transfer(Peer peer, long term);
+
+    InstallSnapshot.Response handleInstallSnapshot(InstallSnapshot installSnapshot);
+}
@@ -0,0 +1,231 @@
+package com.slusarczykr.paxos.leader.replication.snapshot;
+
+import com.slusarczykr.paxos.leader.api.InstallSnapshot;
+import com.slusarczykr.paxos.leader.api.SnapshotChunk;
+import com.slusarczykr.paxos.leader.api.transport.PaxosTransport;
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.exception.PaxosNotLeaderException;
+import com.slusarczykr.paxos.leader.exception.PaxosStaleTermException;
+import com.slusarczykr.paxos.leader.execution.PaxosThreads;
+import com.slusarczykr.paxos.leader.metrics.PaxosMetrics;
+import com.slusarczykr.paxos.leader.replication.config.ReplicationProperties;
+import com.slusarczykr.paxos.leader.replication.state.LogApplier;
+import com.slusarczykr.paxos.leader.storage.snapshot.SnapshotMetadata;
+import com.slusarczykr.paxos.leader.storage.snapshot.SnapshotStore;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Service
+@RequiredArgsConstructor
+public class SnapshotTransferServiceImpl implements SnapshotTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotTransferServiceImpl.class);
+
+    private static final long UNKNOWN_OFFSET = -1;
+
+    private static final int MAX_REJECTED_CHUNKS = 5;
+    private static final long INITIAL_REJECTION_BACKOFF = Duration.ofMillis(100).toNanos();
+    private static final long MAX_REJECTION_BACKOFF = Duration.ofSeconds(2).toNanos();
+
+    private final PaxosTransport paxosTransport;
+    private final PaxosServer paxosServer;
+    private final SnapshotStore snapshotStore;
+    private final LogApplier logApplier;
+    private final PaxosMetrics paxosMetrics;
+    private final ReplicationProperties replicationProps;
+    private final PaxosThreads paxosThreads;
+
+    private ExecutorService transferExecutor;
+
+    // every transfer holds its thread for the whole stream, transfers beyond the limit wait for a free one
+    @PostConstruct
+    public void init() {
+        transferExecutor = Executors.newFixedThreadPool(replicationProps.getMaxSnapshotTransfers(),
+                paxosThreads.newThreadFactory("paxos-snapshot-transfer"));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        transferExecutor.shutdownNow();
+    }
+
+    @Override
+    public CompletableFuture<SnapshotMetadata> transfer(Peer peer, long term) {
+        return CompletableFuture.supplyAsync(() -> runTransfer(peer, term), transferExecutor);
+    }
+
+    private SnapshotMetadata runTransfer(Peer peer, long term) {
+        int serverId = peer.getId();
+        SnapshotMetadata snapshot = snapshotStore.getLatest()
+                .orElseThrow(() -> new IllegalStateException("No snapshot available for the transfer"));
+        log.debug("Streaming snapshot at index {} of {} bytes to follower with id {}", snapshot.getLastIncludedIndex(),
+                snapshot.getSize(), serverId);
+
+        try (SnapshotStore.SnapshotReader reader = snapshotStore.openReader(snapshot)) {
+            long startTime = System.nanoTime();
+            runTransfer(peer, term, snapshot, reader);
+            log.info("Snapshot at index {} installed on follower with id {} in {} ms", snapshot.getLastIncludedIndex(),
+                    serverId, NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void runTransfer(Peer peer, long term, SnapshotMetadata snapshot, SnapshotStore.SnapshotReader reader) {
+        int serverId = peer.getId();
+        long offset = UNKNOWN_OFFSET;
+        long startTime = System.nanoTime();
+        long transferred = 0;
+        int rejectedChunks = 0;
+
+        while (true) {
+            validateLeaderOf(term);
+            SnapshotChunk chunk = readChunk(reader, offset);
+            InstallSnapshot installSnapshot = createInstallSnapshot(term, snapshot, offset, chunk);
+            Optional<InstallSnapshot.Response> response = send(peer, installSnapshot, chunk);
+
+            if (response.isEmpty()) {
+                throw new IllegalStateException("Snapshot chunk at offset " + installSnapshot.getOffset()
+                        + " not acknowledged by follower with id " + serverId);
+            }
+            validateTerm(serverId, response.get());
+
+            if (response.get().isSuccess()) {
+                if (installSnapshot.isDone()) {
+                    return;
+                }
+                transferred += chunk.getLength();
+                paxosMetrics.recordSnapshotTransferred(serverId, chunk.getLength());
+                throttle(transferred, startTime);
+                rejectedChunks = 0;
+            } else if (offset != UNKNOWN_OFFSET) {
+                backOff(serverId, installSnapshot, ++rejectedChunks);
+            }
+            offset = Math.min(response.get().getNextOffset(), snapshot.getSize());
+        }
+    }
+
+    private void validateLeaderOf(long term) {
+        if (!paxosServer.isLeader() || paxosServer.getTermValue() != term) {
+            throw new PaxosNotLeaderException("Leadership of term " + term + " lost, snapshot transfer aborted");
+        }
+    }
+
+    private SnapshotChunk readChunk(SnapshotStore.SnapshotReader reader, long offset) {
+        int chunkSize = offset == UNKNOWN_OFFSET ? 0 : (int) replicationProps.getSnapshotChunkSize().toBytes();
+        return reader.read(Math.max(offset, 0), chunkSize);
+    }
+
+    private InstallSnapshot createInstallSnapshot(long term, SnapshotMetadata snapshot, long offset, SnapshotChunk chunk) {
+        long chunkOffset = Math.max(offset, 0);
+        boolean done = offset != UNKNOWN_OFFSET && chunkOffset + chunk.getLength() >= snapshot.getSize();
+
+        InstallSnapshot installSnapshot = new InstallSnapshot();
+        installSnapshot.setServerId(paxosServer.getIdValue());
+        installSnapshot.setTerm(term);
+        installSnapshot.setLastIncludedIndex(snapshot.getLastIncludedIndex());
+        installSnapshot.setLastIncludedTerm(snapshot.getLastIncludedTerm());
+        installSnapshot.setOffset(chunkOffset);
+        installSnapshot.setSize(snapshot.getSize());
+        installSnapshot.setDone(done);
+
+        return installSnapshot;
+    }
+
+    private Optional<InstallSnapshot.Response> send(Peer peer, InstallSnapshot installSnapshot, SnapshotChunk chunk) {
+        return paxosTransport.sendInstallSnapshot(peer, installSnapshot, chunk).join();
+    }
+
+    private void validateTerm(int serverId, InstallSnapshot.Response response) {
+        if (response.getTerm() > paxosServer.getTermValue()) {
+            paxosServer.updateTerm(response.getTerm()).join();
+            throw new PaxosStaleTermException("Term " + response.getTerm() + " observed on follower with id " + serverId);
+        }
+    }
+
+    private void throttle(long transferred, long startTime) {
+        long transferRate = replicationProps.getSnapshotTransferRate().toBytes();
+        long expectedTime = transferred * 1_000_000_000L / transferRate;
+        pause(expectedTime - (System.nanoTime() - startTime));
+    }
+
+    // a follower failing to store chunks is retried with a growing pause and given up on, the next heartbeat restarts
+    // the transfer from the offset it stored
+    private void backOff(int serverId, InstallSnapshot installSnapshot, int rejectedChunks) {
+        if (rejectedChunks >= MAX_REJECTED_CHUNKS) {
+            throw new IllegalStateException("Snapshot chunk at offset " + installSnapshot.getOffset()
+                    + " rejected " + rejectedChunks + " times by follower with id " + serverId);
+        }
+        pause(Math.min(INITIAL_REJECTION_BACKOFF << (rejectedChunks - 1), MAX_REJECTION_BACKOFF));
+    }
+
+    private void pause(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaxosNotLeaderException("Snapshot transfer interrupted");
+        }
+    }
+
+    @Override
+    public synchronized InstallSnapshot.Response handleInstallSnapshot(InstallSnapshot installSnapshot) {
+        long lastIncludedIndex = installSnapshot.getLastIncludedIndex();
+        long lastIncludedTerm = installSnapshot.getLastIncludedTerm();
+
+        if (lastIncludedIndex <= paxosServer.getCommitIndexValue()) {
+            log.debug("Snapshot at index {} is already covered by the commit index", lastIncludedIndex);
+            return createResponse(true, installSnapshot.getSize());
+        }
+        try {
+            long receivedSize = snapshotStore.getReceivedSize(lastIncludedIndex, lastIncludedTerm);
+
+            if (installSnapshot.getOffset() != receivedSize) {
+                log.info("Snapshot at index {} expected at offset {}, received offset {}", lastIncludedIndex,
+                        receivedSize, installSnapshot.getOffset());
+                return createResponse(false, receivedSize);
+            }
+            long nextOffset = snapshotStore.receive(lastIncludedIndex, lastIncludedTerm, installSnapshot.getOffset(),
+                    installSnapshot.getData());
+
+            if (!installSnapshot.isDone()) {
+                return createResponse(true, nextOffset);
+            }
+            if (nextOffset != installSnapshot.getSize()) {
+                log.warn("Snapshot at index {} has {} bytes, expected {}", lastIncludedIndex, nextOffset,
+                        installSnapshot.getSize());
+                return createResponse(false, nextOffset);
+            }
+            logApplier.install(snapshotStore.completeReceive(lastIncludedIndex, lastIncludedTerm));
+            log.info("Snapshot at index {} and term {} received from leader with id {}", lastIncludedIndex,
+                    lastIncludedTerm, installSnapshot.getServerId());
+            return createResponse(true, nextOffset);
+        } catch (IOException e) {
+            log.error("Could not store snapshot chunk at offset {}!", installSnapshot.getOffset(), e);
+            return createResponse(false, 0);
+        }
+    }
+
+    private InstallSnapshot.Response createResponse(boolean success, long nextOffset) {
+        return new InstallSnapshot.Response(paxosServer.getIdValue(), paxosServer.getTermValue(), success, nextOffset);
+    }
+}
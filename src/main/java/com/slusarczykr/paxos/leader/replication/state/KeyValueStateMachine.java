@@ -0,0 +1,85 @@
+package com.slusarczykr.paxos.leader.replication.state;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import com.slusarczykr.paxos.leader.storage.snapshot.SnapshotStore;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class KeyValueStateMachine implements StateMachine {
+
+    private static final char SEPARATOR = '=';
+
+    private final Map<String, String> state = new ConcurrentHashMap<>();
+
+    @Override
+    public void apply(LogEntry logEntry) {
+        if (logEntry.getCommand().length == 0) {
+            return;
+        }
+        String command = new String(logEntry.getCommand(), StandardCharsets.UTF_8);
+        int separator = command.indexOf(SEPARATOR);
+
+        if (separator < 0) {
+            state.remove(command);
+        } else {
+            state.put(command.substring(0, separator), command.substring(separator + 1));
+        }
+    }
+
+    @Override
+    public SnapshotStore.SnapshotWriter snapshot() {
+        Map<String, String> copy = new HashMap<>(state);
+
+        return outputStream -> {
+            DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+            dataOutputStream.writeInt(copy.size());
+
+            for (Map.Entry<String, String> entry : copy.entrySet()) {
+                writeString(dataOutputStream, entry.getKey());
+                writeString(dataOutputStream, entry.getValue());
+            }
+            dataOutputStream.flush();
+        };
+    }
+
+    private void writeString(DataOutputStream outputStream, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        outputStream.writeInt(bytes.length);
+        outputStream.write(bytes);
+    }
+
+    @Override
+    public void restore(InputStream inputStream) throws IOException {
+        DataInputStream dataInputStream = new DataInputStream(inputStream);
+        int size = dataInputStream.readInt();
+        state.clear();
+
+        for (int i = 0; i < size; i++) {
+            state.put(readString(dataInputStream), readString(dataInputStream));
+        }
+    }
+
+    private String readString(DataInputStream inputStream) throws IOException {
+        byte[] bytes = new byte[inputStream.readInt()];
+        inputStream.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public Optional<String> get(String key) {
+        return Optional.ofNullable(state.get(key));
+    }
+
+    public int size() {
+        return state.size();
+    }
+}
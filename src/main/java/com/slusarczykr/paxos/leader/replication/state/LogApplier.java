@@ -0,0 +1,178 @@
+package com.slusarczykr.paxos.leader.replication.state;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import com.slusarczykr.paxos.leader.discovery.membership.ClusterMembership;
+import com.slusarczykr.paxos.leader.discovery.membership.MembershipCommand;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.execution.PaxosThreads;
+import com.slusarczykr.paxos.leader.replication.commit.CommitTracker;
+import com.slusarczykr.paxos.leader.replication.config.ReplicationProperties;
+import com.slusarczykr.paxos.leader.replication.log.ReplicatedLog;
+import com.slusarczykr.paxos.leader.storage.snapshot.SnapshotMetadata;
+import com.slusarczykr.paxos.leader.storage.snapshot.SnapshotStore;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@RequiredArgsConstructor
+public class LogApplier {
+
+    private static final Logger log = LoggerFactory.getLogger(LogApplier.class);
+
+    private static final int APPLY_BATCH_SIZE = 512;
+
+    private final PaxosServer paxosServer;
+    private final ReplicatedLog replicatedLog;
+    private final StateMachine stateMachine;
+    private final SnapshotStore snapshotStore;
+    private final CommitTracker commitTracker;
+    private final ReplicationProperties replicationProps;
+    private final ClusterMembership clusterMembership;
+    private final PaxosThreads paxosThreads;
+
+    private ExecutorService applierExecutor;
+    private ExecutorService snapshotExecutor;
+    private final AtomicBoolean applyScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean snapshotInProgress = new AtomicBoolean(false);
+
+    private volatile long lastApplied;
+    private long appliedEntriesSinceSnapshot;
+    private long appliedBytesSinceSnapshot;
+
+    @PostConstruct
+    public void init() throws IOException {
+        applierExecutor = paxosThreads.newSerialExecutor("paxos-log-applier");
+        snapshotExecutor = paxosThreads.newSerialExecutor("paxos-snapshot-writer");
+        long startTime = System.nanoTime();
+        Optional<SnapshotMetadata> snapshot = snapshotStore.getLatest();
+
+        if (snapshot.isPresent()) {
+            restore(snapshot.get());
+        }
+        commitTracker.addListener(commitIndex -> scheduleApply());
+        applyCommitted();
+        log.info("State machine recovered up to index {} in {} ms", lastApplied, (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    private void restore(SnapshotMetadata snapshot) throws IOException {
+        try (InputStream inputStream = snapshotStore.open(snapshot)) {
+            stateMachine.restore(inputStream);
+            clusterMembership.restore(inputStream);
+        }
+        lastApplied = snapshot.getLastIncludedIndex();
+        replicatedLog.compact(snapshot.getLastIncludedIndex(), snapshot.getLastIncludedTerm());
+        commitTracker.advance(snapshot.getLastIncludedIndex());
+        log.info("State machine restored from snapshot at index {} and term {}", snapshot.getLastIncludedIndex(),
+                snapshot.getLastIncludedTerm());
+    }
+
+    public void install(SnapshotMetadata snapshot) {
+        replicatedLog.install(snapshot.getLastIncludedIndex(), snapshot.getLastIncludedTerm());
+
+        applierExecutor.execute(() -> {
+            try {
+                restore(snapshot);
+                appliedEntriesSinceSnapshot = 0;
+                appliedBytesSinceSnapshot = 0;
+                applyCommitted();
+            } catch (IOException e) {
+                log.error("Could not restore state machine from snapshot at index {}!", snapshot.getLastIncludedIndex(), e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        applierExecutor.shutdownNow();
+        snapshotExecutor.shutdown();
+    }
+
+    private void scheduleApply() {
+        if (applyScheduled.compareAndSet(false, true)) {
+            applierExecutor.execute(() -> {
+                applyScheduled.set(false);
+                applyCommitted();
+            });
+        }
+    }
+
+    private void applyCommitted() {
+        long commitIndex = paxosServer.getCommitIndexValue();
+
+        while (lastApplied < commitIndex) {
+            List<LogEntry> entries = replicatedLog.getEntries(lastApplied + 1, APPLY_BATCH_SIZE, Integer.MAX_VALUE);
+
+            if (entries.isEmpty()) {
+                log.warn("Committed entries from index {} are not available in the log", lastApplied + 1);
+                return;
+            }
+            for (LogEntry entry : entries) {
+                if (entry.getIndex() > commitIndex) {
+                    break;
+                }
+                apply(entry);
+                lastApplied = entry.getIndex();
+                appliedEntriesSinceSnapshot++;
+                appliedBytesSinceSnapshot += entry.getSize();
+            }
+        }
+        takeSnapshotIfThresholdReached();
+    }
+
+    private void apply(LogEntry entry) {
+        if (MembershipCommand.isMembershipCommand(entry.getCommand())) {
+            clusterMembership.apply(entry);
+        } else {
+            stateMachine.apply(entry);
+        }
+    }
+
+    private void takeSnapshotIfThresholdReached() {
+        boolean thresholdReached = appliedEntriesSinceSnapshot >= replicationProps.getSnapshotEntries()
+                || appliedBytesSinceSnapshot >= replicationProps.getSnapshotSize().toBytes();
+
+        if (thresholdReached && snapshotInProgress.compareAndSet(false, true)) {
+            long snapshotIndex = lastApplied;
+            long snapshotTerm = replicatedLog.getTerm(snapshotIndex).orElseThrow();
+            SnapshotStore.SnapshotWriter stateWriter = stateMachine.snapshot();
+            SnapshotStore.SnapshotWriter membershipWriter = clusterMembership.snapshot();
+            SnapshotStore.SnapshotWriter writer = outputStream -> {
+                stateWriter.writeTo(outputStream);
+                membershipWriter.writeTo(outputStream);
+            };
+            appliedEntriesSinceSnapshot = 0;
+            appliedBytesSinceSnapshot = 0;
+            snapshotExecutor.execute(() -> takeSnapshot(snapshotIndex, snapshotTerm, writer));
+        }
+    }
+
+    private void takeSnapshot(long snapshotIndex, long snapshotTerm, SnapshotStore.SnapshotWriter writer) {
+        try {
+            long startTime = System.nanoTime();
+            SnapshotMetadata snapshot = snapshotStore.save(snapshotIndex, snapshotTerm, writer);
+            replicatedLog.compact(snapshotIndex, snapshotTerm);
+            log.info("Snapshot of {} bytes taken at index {} in {} ms, log compacted to first index {}",
+                    snapshot.getSize(), snapshotIndex, (System.nanoTime() - startTime) / 1_000_000,
+                    replicatedLog.getFirstIndex());
+        } catch (IOException e) {
+            log.error("Could not take snapshot at index {}!", snapshotIndex, e);
+        } finally {
+            snapshotInProgress.set(false);
+        }
+    }
+
+    public long getLastApplied() {
+        return lastApplied;
+    }
+}
@@ -0,0 +1,16 @@
+package com.slusarczykr.paxos.leader.replication.state;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import com.slusarczykr.paxos.leader.storage.snapshot.SnapshotStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface StateMachine {
+
+    void apply(LogEntry logEntry);
+
+    SnapshotStore.SnapshotWriter snapshot();
+
+    void restore(InputStream inputStream) throws IOException;
+}
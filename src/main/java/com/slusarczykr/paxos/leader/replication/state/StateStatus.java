@@ -0,0 +1,15 @@
+package com.slusarczykr.paxos.leader.replication.state;
+
+import com.slusarczykr.paxos.leader.storage.snapshot.SnapshotMetadata;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StateStatus {
+
+    private long lastApplied;
+    private long firstLogIndex;
+    private int size;
+    private SnapshotMetadata snapshot;
+}
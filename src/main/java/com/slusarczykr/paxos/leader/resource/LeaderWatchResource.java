@@ -0,0 +1,88 @@
+package com.slusarczykr.paxos.leader.resource;
+
+import com.slusarczykr.paxos.leader.election.watch.LeadershipState;
+import com.slusarczykr.paxos.leader.election.watch.LeadershipWatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
+
+@RestController
+@RequestMapping(path = "leader")
+@RequiredArgsConstructor
+public class LeaderWatchResource {
+
+    private static final long MAX_WATCH_TIMEOUT = Duration.ofMinutes(5).toMillis();
+    private static final long EVENTS_TIMEOUT = Duration.ofMinutes(30).toMillis();
+    private static final String LEADERSHIP_EVENT = "leadership";
+
+    private final LeadershipWatchService leadershipWatchService;
+
+    @GetMapping(value = "/watch", produces = APPLICATION_JSON_VALUE)
+    public DeferredResult<LeadershipState> watch(@RequestParam(value = "version", defaultValue = "-1") long version,
+                                                 @RequestParam(value = "timeout", defaultValue = "30000") long timeout) {
+        DeferredResult<LeadershipState> result = new DeferredResult<>(Math.min(timeout, MAX_WATCH_TIMEOUT),
+                leadershipWatchService::getState);
+        Runnable unsubscribe = leadershipWatchService.subscribe(state -> completeIfNewer(result, state, version),
+                () -> result.setResult(leadershipWatchService.getState()));
+        result.onCompletion(unsubscribe);
+        completeIfNewer(result, leadershipWatchService.getState(), version);
+
+        return result;
+    }
+
+    private void completeIfNewer(DeferredResult<LeadershipState> result, LeadershipState state, long version) {
+        if (state.getVersion() > version) {
+            result.setResult(state);
+        }
+    }
+
+    @GetMapping(value = "/events", produces = TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestHeader(value = "Last-Event-ID", defaultValue = "-1") long lastEventId) {
+        LeadershipEmitter emitter = new LeadershipEmitter(lastEventId);
+        // a dropped client reconnects and resumes after the last event it has received
+        Runnable unsubscribe = leadershipWatchService.subscribe(emitter::sendState, emitter::complete);
+        emitter.onCompletion(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        emitter.sendState(leadershipWatchService.getState());
+
+        return emitter;
+    }
+
+    private static class LeadershipEmitter extends SseEmitter {
+
+        private long lastVersion;
+
+        LeadershipEmitter(long lastVersion) {
+            super(EVENTS_TIMEOUT);
+            this.lastVersion = lastVersion;
+        }
+
+        synchronized void sendState(LeadershipState state) {
+            if (state.getVersion() <= lastVersion) {
+                return;
+            }
+            try {
+                send(event()
+                        .id(String.valueOf(state.getVersion()))
+                        .name(LEADERSHIP_EVENT)
+                        .data(state));
+                lastVersion = state.getVersion();
+            } catch (IOException e) {
+                completeWithError(e);
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -2,11 +2,19 @@ package com.slusarczykr.paxos.leader.resource;
 
 import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryService;
 import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.heartbeat.HeartbeatService;
+import com.slusarczykr.paxos.leader.election.heartbeat.HeartbeatStatus;
+import com.slusarczykr.paxos.leader.election.lease.LeaderLease;
+import com.slusarczykr.paxos.leader.election.lease.LeaseStatus;
+import com.slusarczykr.paxos.leader.election.tracker.LeaderInfo;
+import com.slusarczykr.paxos.leader.election.tracker.LeaderTracker;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +25,9 @@ public class ServerResource {
 
     private final PaxosServer paxosServer;
     private final ServerDiscoveryService discoveryService;
+    private final HeartbeatService heartbeatService;
+    private final LeaderLease leaderLease;
+    private final LeaderTracker leaderTracker;
 
     @GetMapping(value = "/status")
     public ResponseEntity<Void> status() {
@@ -25,10 +36,36 @@ public class ServerResource {
 
     @GetMapping(value = "/leader")
     public ResponseEntity<String> isLeader() {
-        String leader = String.valueOf(paxosServer.isLeader());
+        String leader = String.valueOf(leaderLease.isValid());
         return new ResponseEntity<>(leader, HttpStatus.OK);
     }
 
+    @GetMapping(value = "/leader/info")
+    public ResponseEntity<LeaderInfo> getLeaderInfo(WebRequest webRequest) {
+        return leaderTracker.getLeader()
+                .map(it -> toLeaderInfoResponse(it, webRequest))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    private ResponseEntity<LeaderInfo> toLeaderInfoResponse(LeaderInfo leaderInfo, WebRequest webRequest) {
+        String eTag = String.format("\"%d-%d\"", leaderInfo.getTerm(), leaderInfo.getLeaderId());
+
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(leaderInfo);
+    }
+
+    @GetMapping(value = "/leader/lease")
+    public ResponseEntity<LeaseStatus> getLeaderLease() {
+        return new ResponseEntity<>(leaderLease.getStatus(), HttpStatus.OK);
+    }
+
     @GetMapping(value = "/servers")
     public ResponseEntity<List<String>> getServers() {
         List<String> servers = new ArrayList<>(discoveryService.getAllServers().values());
@@ -40,4 +77,9 @@ public class ServerResource {
         List<String> servers = new ArrayList<>(discoveryService.getAvailableServers().values());
         return new ResponseEntity<>(servers, HttpStatus.OK);
     }
+
+    @GetMapping(value = "/heartbeats")
+    public ResponseEntity<List<HeartbeatStatus>> getHeartbeats() {
+        return new ResponseEntity<>(heartbeatService.getHeartbeatStatuses(), HttpStatus.OK);
+    }
 }
@@ -0,0 +1,23 @@
+package com.slusarczykr.paxos.leader.resource.config;
+
+import com.slusarczykr.paxos.leader.resource.redirect.LeaderRedirectInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "paxos.server.redirect", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class RedirectConfiguration implements WebMvcConfigurer {
+
+    private final LeaderRedirectInterceptor leaderRedirectInterceptor;
+    private final RedirectProperties redirectProperties;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(leaderRedirectInterceptor)
+                .addPathPatterns(redirectProperties.getPaths());
+    }
+}
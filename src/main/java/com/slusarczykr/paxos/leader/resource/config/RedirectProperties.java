@@ -0,0 +1,16 @@
+package com.slusarczykr.paxos.leader.resource.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.util.List;
+
+@ConstructorBinding
+@ConfigurationProperties(prefix = "paxos.server.redirect")
+@Data
+public class RedirectProperties {
+
+    private boolean enabled = false;
+    private List<String> paths = List.of("/log/**", "/membership/servers/**");
+}
@@ -0,0 +1,45 @@
+package com.slusarczykr.paxos.leader.resource.redirect;
+
+import com.slusarczykr.paxos.leader.election.tracker.LeaderInfo;
+import com.slusarczykr.paxos.leader.election.tracker.LeaderTracker;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class LeaderRedirectInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderRedirectInterceptor.class);
+
+    private final LeaderTracker leaderTracker;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Optional<LeaderInfo> leader = leaderTracker.getLeader()
+                .filter(it -> !it.isSelf() && it.getLeaderAddress() != null);
+
+        if (leader.isEmpty()) {
+            return true;
+        }
+        String location = buildLeaderUrl(leader.get(), request);
+        log.debug("Redirecting {} {} to the leader: '{}'", request.getMethod(), request.getRequestURI(), location);
+        // 307 makes the client repeat the same method and body against the leader
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, location);
+        return false;
+    }
+
+    private String buildLeaderUrl(LeaderInfo leader, HttpServletRequest request) {
+        String location = leader.getLeaderAddress() + request.getRequestURI();
+        return request.getQueryString() != null ? location + "?" + request.getQueryString() : location;
+    }
+}
@@ -0,0 +1,24 @@
+package com.slusarczykr.paxos.leader.storage.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConstructorBinding
+@ConfigurationProperties(prefix = "paxos.server.storage")
+@Data
+public class StorageProperties {
+
+    public enum Type {
+        MAPPED, MEMORY
+    }
+
+    private Type type = Type.MAPPED;
+    private String directory = "data";
+    private Duration groupCommitWindow = Duration.ofMillis(2);
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    private DataSize indexInterval = DataSize.ofKilobytes(4);
+}
@@ -0,0 +1,283 @@
+package com.slusarczykr.paxos.leader.storage.log;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+class LogSegment {
+
+    private static final Logger log = LoggerFactory.getLogger(LogSegment.class);
+
+    static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES;
+
+    private static final int SIZE_OFFSET = 0;
+    private static final int CHECKSUM_OFFSET = Integer.BYTES;
+    private static final int INDEX_OFFSET = 2 * Integer.BYTES;
+    private static final int TERM_OFFSET = INDEX_OFFSET + Long.BYTES;
+    private static final int INITIAL_INDEX_CAPACITY = 64;
+
+    private final long baseIndex;
+    private final Path file;
+    private final Path indexFile;
+    private final int indexInterval;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer checksumView;
+    private final CRC32C checksum = new CRC32C();
+
+    private long[] indexes = new long[INITIAL_INDEX_CAPACITY];
+    private int[] positions = new int[INITIAL_INDEX_CAPACITY];
+    private int indexSize;
+    private int lastIndexedPosition;
+
+    private int writePosition;
+    private long lastIndex;
+    private long lastTerm;
+
+    private LogSegment(Path directory, long baseIndex, int segmentSize, int indexInterval) throws IOException {
+        this.baseIndex = baseIndex;
+        this.file = directory.resolve(String.format("%020d.log", baseIndex));
+        this.indexFile = directory.resolve(String.format("%020d.index", baseIndex));
+        this.indexInterval = indexInterval;
+        this.channel = FileChannel.open(file, CREATE, READ, WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, channel.size()));
+        this.checksumView = buffer.duplicate();
+        this.lastIndex = baseIndex - 1;
+    }
+
+    static LogSegment create(Path directory, long baseIndex, int segmentSize, int indexInterval) throws IOException {
+        LogSegment segment = new LogSegment(directory, baseIndex, segmentSize, indexInterval);
+        segment.buffer.putInt(0, 0);
+        return segment;
+    }
+
+    static LogSegment open(Path directory, long baseIndex, int segmentSize, int indexInterval, boolean sealed)
+            throws IOException {
+        LogSegment segment = new LogSegment(directory, baseIndex, segmentSize, indexInterval);
+
+        if (!sealed || !segment.loadIndex()) {
+            segment.recover();
+        }
+        return segment;
+    }
+
+    private void recover() {
+        long startTime = System.nanoTime();
+        int position = 0;
+        long expectedIndex = baseIndex;
+
+        while (isValidRecord(position, expectedIndex)) {
+            indexPosition(expectedIndex, position);
+            lastIndex = expectedIndex;
+            lastTerm = buffer.getLong(position + TERM_OFFSET);
+            position += buffer.getInt(position + SIZE_OFFSET);
+            expectedIndex++;
+        }
+        writePosition = position;
+        writeTerminator();
+        log.info("Recovered log segment {} with {} entries in {} ms", file.getFileName(), lastIndex - baseIndex + 1,
+                (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    private boolean isValidRecord(int position, long expectedIndex) {
+        if (position + HEADER_SIZE > buffer.capacity()) {
+            return false;
+        }
+        int size = buffer.getInt(position + SIZE_OFFSET);
+
+        return size >= HEADER_SIZE
+                && position + size <= buffer.capacity()
+                && buffer.getLong(position + INDEX_OFFSET) == expectedIndex
+                && buffer.getInt(position + CHECKSUM_OFFSET) == checksum(position, size);
+    }
+
+    boolean append(long index, long term, byte[] command) {
+        int size = HEADER_SIZE + command.length;
+
+        if (writePosition + size > buffer.capacity()) {
+            return false;
+        }
+        int position = writePosition;
+        buffer.putLong(position + INDEX_OFFSET, index);
+        buffer.putLong(position + TERM_OFFSET, term);
+        buffer.put(position + HEADER_SIZE, command);
+        buffer.putInt(position + CHECKSUM_OFFSET, checksum(position, size));
+        writePosition += size;
+        writeTerminator();
+        buffer.putInt(position + SIZE_OFFSET, size);
+
+        indexPosition(index, position);
+        lastIndex = index;
+        lastTerm = term;
+        return true;
+    }
+
+    private void writeTerminator() {
+        if (writePosition + Integer.BYTES <= buffer.capacity()) {
+            buffer.putInt(writePosition, 0);
+        }
+    }
+
+    private int checksum(int position, int size) {
+        checksumView.clear();
+        checksumView.position(position + INDEX_OFFSET).limit(position + size);
+        checksum.reset();
+        checksum.update(checksumView);
+        return (int) checksum.getValue();
+    }
+
+    private void indexPosition(long index, int position) {
+        if (indexSize > 0 && position - lastIndexedPosition < indexInterval) {
+            return;
+        }
+        if (indexSize == indexes.length) {
+            indexes = Arrays.copyOf(indexes, indexSize * 2);
+            positions = Arrays.copyOf(positions, indexSize * 2);
+        }
+        indexes[indexSize] = index;
+        positions[indexSize] = position;
+        indexSize++;
+        lastIndexedPosition = position;
+    }
+
+    private int positionOf(long index) {
+        int slot = Arrays.binarySearch(indexes, 0, indexSize, index);
+        slot = slot >= 0 ? slot : -slot - 2;
+        long currentIndex = slot >= 0 ? indexes[slot] : baseIndex;
+        int position = slot >= 0 ? positions[slot] : 0;
+
+        while (currentIndex < index) {
+            position += buffer.getInt(position + SIZE_OFFSET);
+            currentIndex++;
+        }
+        return position;
+    }
+
+    long getTerm(long index) {
+        return index == lastIndex ? lastTerm : buffer.getLong(positionOf(index) + TERM_OFFSET);
+    }
+
+    int read(long fromIndex, int maxEntries, int maxBytes, List<LogEntry> batch) {
+        int position = positionOf(fromIndex);
+        int readBytes = 0;
+
+        for (long index = fromIndex; index <= lastIndex && maxEntries-- > 0; index++) {
+            int size = buffer.getInt(position + SIZE_OFFSET);
+            byte[] command = new byte[size - HEADER_SIZE];
+            LogEntry entry = new LogEntry(index, buffer.getLong(position + TERM_OFFSET), command);
+
+            if (readBytes + entry.getSize() > maxBytes && !batch.isEmpty()) {
+                break;
+            }
+            buffer.get(position + HEADER_SIZE, command);
+            batch.add(entry);
+            readBytes += entry.getSize();
+            position += size;
+        }
+        return readBytes;
+    }
+
+    void truncate(long fromIndex) throws IOException {
+        writePosition = positionOf(fromIndex);
+        writeTerminator();
+        lastIndex = fromIndex - 1;
+        lastTerm = lastIndex >= baseIndex ? buffer.getLong(positionOf(lastIndex) + TERM_OFFSET) : 0;
+
+        while (indexSize > 0 && indexes[indexSize - 1] >= fromIndex) {
+            indexSize--;
+        }
+        lastIndexedPosition = indexSize > 0 ? positions[indexSize - 1] : 0;
+        Files.deleteIfExists(indexFile);
+    }
+
+    void seal() throws IOException {
+        buffer.force();
+        ByteBuffer index = ByteBuffer.allocate(2 * Long.BYTES + 2 * Integer.BYTES
+                + indexSize * (Long.BYTES + Integer.BYTES) + Long.BYTES);
+        index.putLong(lastIndex).putLong(lastTerm).putInt(writePosition).putInt(indexSize);
+
+        for (int i = 0; i < indexSize; i++) {
+            index.putLong(indexes[i]).putInt(positions[i]);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(index.array(), 0, index.position());
+        index.putLong(crc.getValue());
+        index.flip();
+
+        try (FileChannel indexChannel = FileChannel.open(indexFile, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            while (index.hasRemaining()) {
+                indexChannel.write(index);
+            }
+            indexChannel.force(true);
+        }
+    }
+
+    private boolean loadIndex() throws IOException {
+        if (!Files.exists(indexFile)) {
+            return false;
+        }
+        ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+
+        if (index.remaining() < 2 * Long.BYTES + 2 * Integer.BYTES + Long.BYTES) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(index.array(), 0, index.limit() - Long.BYTES);
+
+        if (index.getLong(index.limit() - Long.BYTES) != crc.getValue()) {
+            log.warn("Index of log segment {} is corrupted and will be rebuilt", file.getFileName());
+            return false;
+        }
+        lastIndex = index.getLong();
+        lastTerm = index.getLong();
+        writePosition = index.getInt();
+        indexSize = index.getInt();
+        indexes = new long[Math.max(indexSize, INITIAL_INDEX_CAPACITY)];
+        positions = new int[indexes.length];
+
+        for (int i = 0; i < indexSize; i++) {
+            indexes[i] = index.getLong();
+            positions[i] = index.getInt();
+        }
+        lastIndexedPosition = indexSize > 0 ? positions[indexSize - 1] : 0;
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(indexFile);
+    }
+
+    long getBaseIndex() {
+        return baseIndex;
+    }
+
+    long getLastIndex() {
+        return lastIndex;
+    }
+}
@@ -0,0 +1,293 @@
+package com.slusarczykr.paxos.leader.storage.log;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import com.slusarczykr.paxos.leader.replication.log.AbstractReplicatedLog;
+import com.slusarczykr.paxos.leader.storage.config.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Stream;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@Component
+@ConditionalOnProperty(prefix = "paxos.server.storage", name = "type", havingValue = "mapped", matchIfMissing = true)
+public class SegmentedReplicatedLog extends AbstractReplicatedLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentedReplicatedLog.class);
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final StorageProperties storageProperties;
+    private final int serverPort;
+
+    private final NavigableMap<Long, LogSegment> segments = new TreeMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "paxos-log-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final NavigableMap<Long, List<CompletableFuture<Long>>> pendingFlushes = new TreeMap<>();
+
+    private Path directory;
+    private volatile LogSegment activeSegment;
+    private volatile boolean dirty;
+    private long durableIndex;
+    private long truncations;
+
+    public SegmentedReplicatedLog(StorageProperties storageProperties, @Value("${server.port}") int serverPort) {
+        this.storageProperties = storageProperties;
+        this.serverPort = serverPort;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        directory = Path.of(storageProperties.getDirectory(), String.format("paxos-%d-log", serverPort));
+        Files.createDirectories(directory);
+        log.info("Opening Paxos log: {}", directory.toAbsolutePath());
+
+        List<Long> baseIndexes = listSegments();
+
+        for (int i = 0; i < baseIndexes.size(); i++) {
+            boolean sealed = i < baseIndexes.size() - 1;
+            segments.put(baseIndexes.get(i), LogSegment.open(directory, baseIndexes.get(i), getSegmentSize(),
+                    getIndexInterval(), sealed));
+        }
+        if (segments.isEmpty()) {
+            segments.put(1L, LogSegment.create(directory, 1, getSegmentSize(), getIndexInterval()));
+        }
+        activeSegment = segments.lastEntry().getValue();
+        durableIndex = getLastIndex();
+        log.info("Paxos log opened with {} segments, last index: {}", segments.size(), getLastIndex());
+
+        long flushInterval = storageProperties.getGroupCommitWindow().toNanos();
+        flusher.scheduleWithFixedDelay(this::forceLog, flushInterval, flushInterval, NANOSECONDS);
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(it -> it.getFileName().toString())
+                    .filter(it -> it.endsWith(SEGMENT_SUFFIX))
+                    .map(it -> Long.parseLong(it.substring(0, it.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        flusher.shutdownNow();
+        forceLog();
+
+        for (LogSegment segment : segments.values()) {
+            segment.close();
+        }
+    }
+
+    @Override
+    public synchronized CompletableFuture<Long> flush() {
+        long lastIndex = getLastIndex();
+
+        if (lastIndex <= durableIndex) {
+            return CompletableFuture.completedFuture(lastIndex);
+        }
+        CompletableFuture<Long> flushed = new CompletableFuture<>();
+        pendingFlushes.computeIfAbsent(lastIndex, it -> new ArrayList<>()).add(flushed);
+        return flushed;
+    }
+
+    @Override
+    public synchronized long getDurableIndex() {
+        return durableIndex;
+    }
+
+    private void forceLog() {
+        LogSegment segment;
+        long lastIndex;
+        long truncationCount;
+
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            segment = activeSegment;
+            lastIndex = getLastIndex();
+            truncationCount = truncations;
+        }
+        try {
+            segment.force();
+            completeFlushes(lastIndex, truncationCount);
+        } catch (UncheckedIOException e) {
+            log.error("Could not flush Paxos log!", e);
+            failFlushes(e);
+        }
+    }
+
+    private synchronized void completeFlushes(long lastIndex, long truncationCount) {
+        // entries forced before a truncation may have been replaced in the meantime
+        if (truncationCount == truncations) {
+            durableIndex = Math.max(durableIndex, lastIndex);
+        }
+        NavigableMap<Long, List<CompletableFuture<Long>>> flushed = pendingFlushes.headMap(durableIndex, true);
+        long index = durableIndex;
+
+        flushed.values().forEach(it -> it.forEach(flush -> flush.complete(index)));
+        flushed.clear();
+    }
+
+    private synchronized void failFlushes(RuntimeException e) {
+        dirty = true;
+        pendingFlushes.values().forEach(it -> it.forEach(flush -> flush.completeExceptionally(e)));
+        pendingFlushes.clear();
+    }
+
+    @Override
+    protected synchronized void append(long index, long term, byte[] command) {
+        if (index != getLastIndex() + 1) {
+            throw new IllegalStateException("Log entry with index " + index + " does not follow the last index "
+                    + getLastIndex());
+        }
+        if (!activeSegment.append(index, term, command)) {
+            rollSegment(index);
+
+            if (!activeSegment.append(index, term, command)) {
+                throw new IllegalArgumentException("Log entry of " + command.length + " bytes exceeds the segment size");
+            }
+        }
+        dirty = true;
+    }
+
+    private void rollSegment(long baseIndex) {
+        try {
+            activeSegment.seal();
+            activeSegment = LogSegment.create(directory, baseIndex, getSegmentSize(), getIndexInterval());
+            segments.put(baseIndex, activeSegment);
+            log.debug("Rolled new log segment starting at index {}", baseIndex);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected synchronized void truncate(long fromIndex) {
+        try {
+            Iterator<Map.Entry<Long, LogSegment>> tail = segments.tailMap(fromIndex, true)
+                    .descendingMap()
+                    .entrySet()
+                    .iterator();
+
+            while (tail.hasNext() && segments.size() > 1) {
+                tail.next().getValue().delete();
+                tail.remove();
+            }
+            activeSegment = segments.lastEntry().getValue();
+            activeSegment.truncate(Math.max(fromIndex, activeSegment.getBaseIndex()));
+            durableIndex = Math.min(durableIndex, getLastIndex());
+            truncations++;
+            dirty = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected synchronized void discardPrefix(long snapshotIndex) {
+        Iterator<LogSegment> head = segments.values().iterator();
+
+        while (head.hasNext()) {
+            LogSegment segment = head.next();
+
+            if (segment == activeSegment || segment.getLastIndex() > snapshotIndex) {
+                break;
+            }
+            deleteSegment(segment);
+            head.remove();
+        }
+    }
+
+    @Override
+    protected synchronized void reset(long firstIndex) {
+        segments.values().forEach(this::deleteSegment);
+        segments.clear();
+
+        try {
+            activeSegment = LogSegment.create(directory, firstIndex, getSegmentSize(), getIndexInterval());
+            segments.put(firstIndex, activeSegment);
+            durableIndex = getLastIndex();
+            truncations++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteSegment(LogSegment segment) {
+        try {
+            segment.delete();
+            log.debug("Deleted compacted log segment starting at index {}", segment.getBaseIndex());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized List<LogEntry> getEntries(long fromIndex, int maxEntries, int maxBytes) {
+        List<LogEntry> batch = new ArrayList<>();
+        long index = fromIndex;
+        int remainingBytes = maxBytes;
+
+        while (index >= getFirstIndex() && index <= getLastIndex() && batch.size() < maxEntries) {
+            LogSegment segment = segments.floorEntry(index).getValue();
+            int batchSize = batch.size();
+            remainingBytes -= segment.read(index, maxEntries - batchSize, remainingBytes, batch);
+
+            if (batch.size() == batchSize || index + (batch.size() - batchSize) <= segment.getLastIndex()) {
+                break;
+            }
+            index += batch.size() - batchSize;
+        }
+        return batch;
+    }
+
+    @Override
+    protected synchronized long termAt(long index) {
+        return segments.floorEntry(index).getValue().getTerm(index);
+    }
+
+    @Override
+    public synchronized long getFirstIndex() {
+        return segments.firstKey();
+    }
+
+    @Override
+    public synchronized long getLastIndex() {
+        return activeSegment.getLastIndex();
+    }
+
+    private int getSegmentSize() {
+        return (int) storageProperties.getSegmentSize().toBytes();
+    }
+
+    private int getIndexInterval() {
+        return (int) storageProperties.getIndexInterval().toBytes();
+    }
+}
@@ -0,0 +1,19 @@
+package com.slusarczykr.paxos.leader.storage.metadata;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class GroupMetadata {
+
+    public static final int NO_VOTE = -1;
+
+    private long term;
+    private int votedFor;
+
+    // the term only grows and a vote is cast at most once per term
+    public boolean isNewerThan(GroupMetadata metadata) {
+        return term > metadata.term || term == metadata.term && metadata.votedFor == NO_VOTE && votedFor != NO_VOTE;
+    }
+}
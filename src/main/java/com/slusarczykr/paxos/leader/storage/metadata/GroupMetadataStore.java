@@ -0,0 +1,11 @@
+package com.slusarczykr.paxos.leader.storage.metadata;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface GroupMetadataStore {
+
+    Optional<GroupMetadata> load(int groupId);
+
+    CompletableFuture<Void> save(int groupId, GroupMetadata metadata);
+}
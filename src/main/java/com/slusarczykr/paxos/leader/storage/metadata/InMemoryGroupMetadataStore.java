@@ -0,0 +1,27 @@
+package com.slusarczykr.paxos.leader.storage.metadata;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@ConditionalOnProperty(prefix = "paxos.server.storage", name = "type", havingValue = "memory")
+public class InMemoryGroupMetadataStore implements GroupMetadataStore {
+
+    private final Map<Integer, GroupMetadata> metadata = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<GroupMetadata> load(int groupId) {
+        return Optional.ofNullable(metadata.get(groupId));
+    }
+
+    @Override
+    public CompletableFuture<Void> save(int groupId, GroupMetadata metadata) {
+        this.metadata.merge(groupId, metadata, (current, it) -> it.isNewerThan(current) ? it : current);
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,26 @@
+package com.slusarczykr.paxos.leader.storage.metadata;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+@ConditionalOnProperty(prefix = "paxos.server.storage", name = "type", havingValue = "memory")
+public class InMemoryMetadataStore implements MetadataStore {
+
+    private final AtomicReference<PaxosMetadata> metadata = new AtomicReference<>();
+
+    @Override
+    public Optional<PaxosMetadata> load() {
+        return Optional.ofNullable(metadata.get());
+    }
+
+    @Override
+    public CompletableFuture<Void> save(PaxosMetadata metadata) {
+        this.metadata.set(metadata);
+        return CompletableFuture.completedFuture(null);
+    }
+}
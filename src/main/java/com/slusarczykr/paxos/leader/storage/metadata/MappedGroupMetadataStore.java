@@ -0,0 +1,226 @@
+package com.slusarczykr.paxos.leader.storage.metadata;
+
+import com.slusarczykr.paxos.leader.group.config.GroupProperties;
+import com.slusarczykr.paxos.leader.storage.config.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32C;
+
+import static com.slusarczykr.paxos.leader.storage.metadata.GroupMetadata.NO_VOTE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// every group owns two alternating slots, like the single record of MappedMetadataStore
+@Component
+@ConditionalOnProperty(prefix = "paxos.server.storage", name = "type", havingValue = "mapped", matchIfMissing = true)
+public class MappedGroupMetadataStore implements GroupMetadataStore {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedGroupMetadataStore.class);
+
+    private static final int PAYLOAD_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int SLOT_SIZE = PAYLOAD_SIZE + Long.BYTES;
+    private static final int SLOTS = 2;
+
+    private static final GroupMetadata NO_METADATA = new GroupMetadata(0, NO_VOTE);
+
+    private final StorageProperties storageProperties;
+    private final GroupProperties groupProperties;
+    private final int serverPort;
+
+    private final Object lock = new Object();
+    private CompletableFuture<Void> nextFlush;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private Thread flusher;
+
+    private long[] versions = new long[0];
+    private GroupMetadata[] metadata = new GroupMetadata[0];
+    private boolean dirty;
+    private volatile boolean running;
+
+    public MappedGroupMetadataStore(StorageProperties storageProperties, GroupProperties groupProperties,
+                                    @Value("${server.port}") int serverPort) {
+        this.storageProperties = storageProperties;
+        this.groupProperties = groupProperties;
+        this.serverPort = serverPort;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        int count = groupProperties.getCount();
+
+        if (count == 0) {
+            return;
+        }
+        Path directory = Path.of(storageProperties.getDirectory());
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("paxos-%d-groups.meta", serverPort));
+        log.info("Opening election groups metadata store: {}", file.toAbsolutePath());
+
+        channel = FileChannel.open(file, CREATE, READ, WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) count * SLOTS * SLOT_SIZE);
+        versions = new long[count];
+        metadata = new GroupMetadata[count];
+
+        for (int groupId = 0; groupId < count; groupId++) {
+            metadata[groupId] = loadLatest(groupId);
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "paxos-group-metadata-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        if (channel == null) {
+            return;
+        }
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        flusher.join();
+        channel.close();
+    }
+
+    private GroupMetadata loadLatest(int groupId) {
+        GroupMetadata latest = NO_METADATA;
+
+        for (int slot = 0; slot < SLOTS; slot++) {
+            int offset = offsetOf(groupId, slot);
+            long slotVersion = buffer.getLong(offset);
+
+            if (slotVersion > versions[groupId] && isValid(offset)) {
+                versions[groupId] = slotVersion;
+                latest = new GroupMetadata(buffer.getLong(offset + Long.BYTES), buffer.getInt(offset + 2 * Long.BYTES));
+            }
+        }
+        return latest;
+    }
+
+    private int offsetOf(int groupId, int slot) {
+        return (groupId * SLOTS + slot) * SLOT_SIZE;
+    }
+
+    private boolean isValid(int offset) {
+        return buffer.getLong(offset + PAYLOAD_SIZE) == checksum(offset);
+    }
+
+    private long checksum(int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, PAYLOAD_SIZE));
+        return crc.getValue();
+    }
+
+    @Override
+    public Optional<GroupMetadata> load(int groupId) {
+        synchronized (lock) {
+            return groupId < metadata.length && metadata[groupId] != NO_METADATA
+                    ? Optional.of(metadata[groupId])
+                    : Optional.empty();
+        }
+    }
+
+    // all the saves until the next flush share its future, as a single vote request may change thousands of groups
+    @Override
+    public CompletableFuture<Void> save(int groupId, GroupMetadata metadata) {
+        synchronized (lock) {
+            if (groupId >= this.metadata.length) {
+                throw new IllegalArgumentException("Election group with id " + groupId + " does not exist");
+            }
+            // a stale state saved by a concurrent request must not overwrite a newer one
+            if (metadata.isNewerThan(this.metadata[groupId])) {
+                this.metadata[groupId] = metadata;
+                write(groupId, metadata);
+                dirty = true;
+            }
+            // an unchanged state still waits for the flush of the write which it repeats
+            if (nextFlush == null) {
+                nextFlush = new CompletableFuture<>();
+                lock.notifyAll();
+            }
+            return nextFlush;
+        }
+    }
+
+    private void write(int groupId, GroupMetadata metadata) {
+        long version = ++versions[groupId];
+        int offset = offsetOf(groupId, (int) (version % SLOTS));
+        buffer.putLong(offset, version);
+        buffer.putLong(offset + Long.BYTES, metadata.getTerm());
+        buffer.putInt(offset + 2 * Long.BYTES, metadata.getVotedFor());
+        buffer.putLong(offset + PAYLOAD_SIZE, checksum(offset));
+    }
+
+    private void runFlusher() {
+        while (awaitChanges()) {
+            awaitGroupCommitWindow();
+            flush();
+        }
+        flush();
+    }
+
+    private boolean awaitChanges() {
+        synchronized (lock) {
+            while (running && nextFlush == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return running;
+        }
+    }
+
+    private void awaitGroupCommitWindow() {
+        try {
+            Thread.sleep(storageProperties.getGroupCommitWindow().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush() {
+        CompletableFuture<Void> flushed;
+        boolean changed;
+
+        synchronized (lock) {
+            flushed = nextFlush;
+            nextFlush = null;
+            changed = dirty;
+            dirty = false;
+        }
+        if (flushed == null) {
+            return;
+        }
+        try {
+            if (changed) {
+                buffer.force();
+            }
+            log.trace("Election groups metadata flushed");
+            flushed.complete(null);
+        } catch (UncheckedIOException e) {
+            log.error("Could not flush election groups metadata!", e);
+            flushed.completeExceptionally(e);
+        }
+    }
+}
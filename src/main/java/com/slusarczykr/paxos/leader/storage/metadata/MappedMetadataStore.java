@@ -0,0 +1,184 @@
+package com.slusarczykr.paxos.leader.storage.metadata;
+
+import com.slusarczykr.paxos.leader.storage.config.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+@Component
+@ConditionalOnProperty(prefix = "paxos.server.storage", name = "type", havingValue = "mapped", matchIfMissing = true)
+public class MappedMetadataStore implements MetadataStore {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedMetadataStore.class);
+
+    private static final int PAYLOAD_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int SLOT_SIZE = PAYLOAD_SIZE + Long.BYTES;
+    private static final int SLOTS = 2;
+
+    private final StorageProperties storageProperties;
+    private final int serverPort;
+
+    private final Object lock = new Object();
+    private List<CompletableFuture<Void>> pendingFlushes = new ArrayList<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private Thread flusher;
+
+    private long version;
+    private boolean dirty;
+    private volatile boolean running;
+
+    public MappedMetadataStore(StorageProperties storageProperties, @Value("${server.port}") int serverPort) {
+        this.storageProperties = storageProperties;
+        this.serverPort = serverPort;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path directory = Path.of(storageProperties.getDirectory());
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("paxos-%d.meta", serverPort));
+        log.info("Opening Paxos metadata store: {}", file.toAbsolutePath());
+
+        channel = FileChannel.open(file, CREATE, READ, WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) SLOT_SIZE * SLOTS);
+        running = true;
+        flusher = new Thread(this::runFlusher, "paxos-metadata-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        flusher.join();
+        channel.close();
+    }
+
+    @Override
+    public Optional<PaxosMetadata> load() {
+        synchronized (lock) {
+            PaxosMetadata latest = null;
+
+            for (int slot = 0; slot < SLOTS; slot++) {
+                int offset = slot * SLOT_SIZE;
+                long slotVersion = buffer.getLong(offset);
+
+                if (slotVersion > version && isValid(offset)) {
+                    version = slotVersion;
+                    latest = new PaxosMetadata(
+                            buffer.getLong(offset + Long.BYTES),
+                            buffer.getInt(offset + 2 * Long.BYTES),
+                            buffer.getLong(offset + 2 * Long.BYTES + Integer.BYTES)
+                    );
+                }
+            }
+            return Optional.ofNullable(latest);
+        }
+    }
+
+    private boolean isValid(int offset) {
+        return buffer.getLong(offset + PAYLOAD_SIZE) == checksum(offset);
+    }
+
+    private long checksum(int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, PAYLOAD_SIZE));
+        return crc.getValue();
+    }
+
+    @Override
+    public CompletableFuture<Void> save(PaxosMetadata metadata) {
+        CompletableFuture<Void> flushed = new CompletableFuture<>();
+
+        synchronized (lock) {
+            version++;
+            int offset = (int) (version % SLOTS) * SLOT_SIZE;
+            buffer.putLong(offset, version);
+            buffer.putLong(offset + Long.BYTES, metadata.getTerm());
+            buffer.putInt(offset + 2 * Long.BYTES, metadata.getVotedFor());
+            buffer.putLong(offset + 2 * Long.BYTES + Integer.BYTES, metadata.getCommitIndex());
+            buffer.putLong(offset + PAYLOAD_SIZE, checksum(offset));
+
+            pendingFlushes.add(flushed);
+            dirty = true;
+            lock.notifyAll();
+        }
+        return flushed;
+    }
+
+    private void runFlusher() {
+        while (awaitChanges()) {
+            awaitGroupCommitWindow();
+            flush();
+        }
+        flush();
+    }
+
+    private boolean awaitChanges() {
+        synchronized (lock) {
+            while (running && !dirty) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return running;
+        }
+    }
+
+    private void awaitGroupCommitWindow() {
+        try {
+            Thread.sleep(storageProperties.getGroupCommitWindow().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush() {
+        List<CompletableFuture<Void>> flushes;
+
+        synchronized (lock) {
+            flushes = pendingFlushes;
+            pendingFlushes = new ArrayList<>();
+            dirty = false;
+        }
+        if (flushes.isEmpty()) {
+            return;
+        }
+        try {
+            buffer.force();
+            log.trace("Paxos metadata flushed, {} changes committed", flushes.size());
+            flushes.forEach(it -> it.complete(null));
+        } catch (UncheckedIOException e) {
+            log.error("Could not flush Paxos metadata!", e);
+            flushes.forEach(it -> it.completeExceptionally(e));
+        }
+    }
+}
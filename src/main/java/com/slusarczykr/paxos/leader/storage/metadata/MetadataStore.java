@@ -0,0 +1,11 @@
+package com.slusarczykr.paxos.leader.storage.metadata;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface MetadataStore {
+
+    Optional<PaxosMetadata> load();
+
+    CompletableFuture<Void> save(PaxosMetadata metadata);
+}
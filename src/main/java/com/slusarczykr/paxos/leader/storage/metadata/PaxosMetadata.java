@@ -0,0 +1,15 @@
+package com.slusarczykr.paxos.leader.storage.metadata;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PaxosMetadata {
+
+    public static final int NO_VOTE = -1;
+
+    private long term;
+    private int votedFor;
+    private long commitIndex;
+}
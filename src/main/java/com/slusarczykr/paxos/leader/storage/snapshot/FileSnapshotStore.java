@@ -0,0 +1,229 @@
+package com.slusarczykr.paxos.leader.storage.snapshot;
+
+import com.slusarczykr.paxos.leader.api.SnapshotChunk;
+import com.slusarczykr.paxos.leader.storage.config.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+@Component
+@ConditionalOnProperty(prefix = "paxos.server.storage", name = "type", havingValue = "mapped", matchIfMissing = true)
+public class FileSnapshotStore implements SnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSnapshotStore.class);
+
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String PARTIAL_SUFFIX = ".partial";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final StorageProperties storageProperties;
+    private final int serverPort;
+
+    private Path directory;
+    private volatile SnapshotMetadata latest;
+
+    public FileSnapshotStore(StorageProperties storageProperties, @Value("${server.port}") int serverPort) {
+        this.storageProperties = storageProperties;
+        this.serverPort = serverPort;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = Path.of(storageProperties.getDirectory(), String.format("paxos-%d-snapshots", serverPort));
+        Files.createDirectories(directory);
+        latest = listSnapshots().stream()
+                .max(Comparator.comparingLong(SnapshotMetadata::getLastIncludedIndex))
+                .orElse(null);
+        log.info("Opening Paxos snapshot store: {}, latest snapshot: {}", directory.toAbsolutePath(), latest);
+    }
+
+    private List<SnapshotMetadata> listSnapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(it -> it.getFileName().toString().endsWith(SNAPSHOT_SUFFIX))
+                    .map(this::toSnapshotMetadata)
+                    .toList();
+        }
+    }
+
+    private SnapshotMetadata toSnapshotMetadata(Path file) {
+        String fileName = file.getFileName().toString();
+        String[] parts = fileName.substring(0, fileName.length() - SNAPSHOT_SUFFIX.length()).split("-");
+
+        try {
+            return new SnapshotMetadata(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Files.size(file));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read snapshot " + file, e);
+        }
+    }
+
+    @Override
+    public Optional<SnapshotMetadata> getLatest() {
+        return Optional.ofNullable(latest);
+    }
+
+    @Override
+    public SnapshotMetadata save(long lastIncludedIndex, long lastIncludedTerm, SnapshotWriter writer) throws IOException {
+        Path file = resolve(lastIncludedIndex, lastIncludedTerm);
+        Path tempFile = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+
+        try (FileChannel channel = FileChannel.open(tempFile, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            writer.writeTo(outputStream);
+            outputStream.flush();
+            channel.force(true);
+        }
+        return publish(tempFile, lastIncludedIndex, lastIncludedTerm);
+    }
+
+    private synchronized SnapshotMetadata publish(Path source, long lastIncludedIndex, long lastIncludedTerm)
+            throws IOException {
+        Path file = resolve(lastIncludedIndex, lastIncludedTerm);
+        Files.move(source, file, ATOMIC_MOVE);
+        SnapshotMetadata snapshot = new SnapshotMetadata(lastIncludedIndex, lastIncludedTerm, Files.size(file));
+
+        if (latest == null || latest.getLastIncludedIndex() < lastIncludedIndex) {
+            latest = snapshot;
+        }
+        deleteOlderThan(latest);
+
+        return snapshot;
+    }
+
+    private void deleteOlderThan(SnapshotMetadata snapshot) throws IOException {
+        for (SnapshotMetadata it : listSnapshots()) {
+            if (it.getLastIncludedIndex() < snapshot.getLastIncludedIndex()) {
+                Files.deleteIfExists(resolve(it.getLastIncludedIndex(), it.getLastIncludedTerm()));
+            }
+        }
+    }
+
+    @Override
+    public InputStream open(SnapshotMetadata snapshot) throws IOException {
+        Path file = resolve(snapshot.getLastIncludedIndex(), snapshot.getLastIncludedTerm());
+        return new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+    }
+
+    @Override
+    public SnapshotReader openReader(SnapshotMetadata snapshot) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(snapshot.getLastIncludedIndex(), snapshot.getLastIncludedTerm()), READ);
+
+        return new SnapshotReader() {
+            @Override
+            public SnapshotChunk read(long offset, int maxLength) {
+                int length = (int) Math.max(0, Math.min(maxLength, snapshot.getSize() - offset));
+                return new FileSnapshotChunk(channel, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    @Override
+    public synchronized long getReceivedSize(long lastIncludedIndex, long lastIncludedTerm) throws IOException {
+        Path partialFile = resolvePartial(lastIncludedIndex, lastIncludedTerm);
+        deletePartialsExcept(partialFile);
+
+        return Files.exists(partialFile) ? Files.size(partialFile) : 0;
+    }
+
+    private void deletePartialsExcept(Path partialFile) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(it -> it.getFileName().toString().endsWith(PARTIAL_SUFFIX)).toList()) {
+                if (!file.equals(partialFile)) {
+                    log.info("Discarding partially received snapshot {}", file.getFileName());
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized long receive(long lastIncludedIndex, long lastIncludedTerm, long offset, byte[] data)
+            throws IOException {
+        Path partialFile = resolvePartial(lastIncludedIndex, lastIncludedTerm);
+
+        try (FileChannel channel = FileChannel.open(partialFile, CREATE, WRITE)) {
+            if (offset != channel.size()) {
+                return channel.size();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, offset + buffer.position());
+            }
+            return channel.size();
+        }
+    }
+
+    @Override
+    public synchronized SnapshotMetadata completeReceive(long lastIncludedIndex, long lastIncludedTerm)
+            throws IOException {
+        Path partialFile = resolvePartial(lastIncludedIndex, lastIncludedTerm);
+
+        try (FileChannel channel = FileChannel.open(partialFile, WRITE)) {
+            channel.force(true);
+        }
+        return publish(partialFile, lastIncludedIndex, lastIncludedTerm);
+    }
+
+    private Path resolvePartial(long lastIncludedIndex, long lastIncludedTerm) {
+        Path file = resolve(lastIncludedIndex, lastIncludedTerm);
+        return file.resolveSibling(file.getFileName() + PARTIAL_SUFFIX);
+    }
+
+    private static class FileSnapshotChunk implements SnapshotChunk {
+
+        private final FileChannel channel;
+        private final long offset;
+        private final int length;
+
+        private FileSnapshotChunk(FileChannel channel, long offset, int length) {
+            this.channel = channel;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int getLength() {
+            return length;
+        }
+
+        @Override
+        public long transferTo(long position, WritableByteChannel target) throws IOException {
+            return channel.transferTo(offset + position, length - position, target);
+        }
+    }
+
+    private Path resolve(long lastIncludedIndex, long lastIncludedTerm) {
+        return directory.resolve(String.format("%020d-%020d%s", lastIncludedIndex, lastIncludedTerm, SNAPSHOT_SUFFIX));
+    }
+}
@@ -0,0 +1,122 @@
+package com.slusarczykr.paxos.leader.storage.snapshot;
+
+import com.slusarczykr.paxos.leader.api.SnapshotChunk;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(prefix = "paxos.server.storage", name = "type", havingValue = "memory")
+public class InMemorySnapshotStore implements SnapshotStore {
+
+    private SnapshotMetadata latest;
+    private byte[] data;
+
+    private SnapshotMetadata partial;
+    private ByteArrayOutputStream partialData;
+
+    @Override
+    public synchronized Optional<SnapshotMetadata> getLatest() {
+        return Optional.ofNullable(latest);
+    }
+
+    @Override
+    public SnapshotMetadata save(long lastIncludedIndex, long lastIncludedTerm, SnapshotWriter writer) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writer.writeTo(outputStream);
+
+        return publish(lastIncludedIndex, lastIncludedTerm, outputStream.toByteArray());
+    }
+
+    private synchronized SnapshotMetadata publish(long lastIncludedIndex, long lastIncludedTerm, byte[] snapshotData) {
+        SnapshotMetadata snapshot = new SnapshotMetadata(lastIncludedIndex, lastIncludedTerm, snapshotData.length);
+
+        if (latest == null || latest.getLastIncludedIndex() < lastIncludedIndex) {
+            data = snapshotData;
+            latest = snapshot;
+        }
+        return snapshot;
+    }
+
+    @Override
+    public synchronized InputStream open(SnapshotMetadata snapshot) {
+        return new ByteArrayInputStream(data);
+    }
+
+    @Override
+    public synchronized SnapshotReader openReader(SnapshotMetadata snapshot) {
+        byte[] snapshotData = data;
+
+        return new SnapshotReader() {
+            @Override
+            public SnapshotChunk read(long offset, int maxLength) {
+                int length = (int) Math.max(0, Math.min(maxLength, snapshotData.length - offset));
+                return new ByteArraySnapshotChunk(snapshotData, (int) offset, length);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Override
+    public synchronized long getReceivedSize(long lastIncludedIndex, long lastIncludedTerm) {
+        if (partial == null || partial.getLastIncludedIndex() != lastIncludedIndex
+                || partial.getLastIncludedTerm() != lastIncludedTerm) {
+            partial = new SnapshotMetadata(lastIncludedIndex, lastIncludedTerm, 0);
+            partialData = new ByteArrayOutputStream();
+        }
+        return partialData.size();
+    }
+
+    @Override
+    public synchronized long receive(long lastIncludedIndex, long lastIncludedTerm, long offset, byte[] chunk) {
+        long receivedSize = getReceivedSize(lastIncludedIndex, lastIncludedTerm);
+
+        if (offset == receivedSize) {
+            partialData.writeBytes(chunk);
+        }
+        return partialData.size();
+    }
+
+    @Override
+    public synchronized SnapshotMetadata completeReceive(long lastIncludedIndex, long lastIncludedTerm) {
+        getReceivedSize(lastIncludedIndex, lastIncludedTerm);
+        byte[] snapshotData = partialData.toByteArray();
+        partial = null;
+        partialData = null;
+
+        return publish(lastIncludedIndex, lastIncludedTerm, snapshotData);
+    }
+
+    private static class ByteArraySnapshotChunk implements SnapshotChunk {
+
+        private final byte[] data;
+        private final int offset;
+        private final int length;
+
+        private ByteArraySnapshotChunk(byte[] data, int offset, int length) {
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int getLength() {
+            return length;
+        }
+
+        @Override
+        public long transferTo(long position, WritableByteChannel target) throws IOException {
+            return target.write(ByteBuffer.wrap(data, offset + (int) position, length - (int) position));
+        }
+    }
+}
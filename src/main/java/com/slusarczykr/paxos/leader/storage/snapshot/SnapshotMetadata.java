@@ -0,0 +1,13 @@
+package com.slusarczykr.paxos.leader.storage.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SnapshotMetadata {
+
+    private long lastIncludedIndex;
+    private long lastIncludedTerm;
+    private long size;
+}
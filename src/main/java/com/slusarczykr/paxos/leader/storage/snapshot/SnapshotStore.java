@@ -0,0 +1,37 @@
+package com.slusarczykr.paxos.leader.storage.snapshot;
+
+import com.slusarczykr.paxos.leader.api.SnapshotChunk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+
+public interface SnapshotStore {
+
+    Optional<SnapshotMetadata> getLatest();
+
+    SnapshotMetadata save(long lastIncludedIndex, long lastIncludedTerm, SnapshotWriter writer) throws IOException;
+
+    InputStream open(SnapshotMetadata snapshot) throws IOException;
+
+    SnapshotReader openReader(SnapshotMetadata snapshot) throws IOException;
+
+    long getReceivedSize(long lastIncludedIndex, long lastIncludedTerm) throws IOException;
+
+    long receive(long lastIncludedIndex, long lastIncludedTerm, long offset, byte[] data) throws IOException;
+
+    SnapshotMetadata completeReceive(long lastIncludedIndex, long lastIncludedTerm) throws IOException;
+
+    @FunctionalInterface
+    interface SnapshotWriter {
+
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    interface SnapshotReader extends Closeable {
+
+        SnapshotChunk read(long offset, int maxLength);
+    }
+}
@@ -5,4 +5,6 @@ import com.slusarczykr.paxos.leader.api.RequestVote;
 public interface RequestVoteService {
 
     RequestVote.Response vote(RequestVote requestVote);
+
+    RequestVote.Response preVote(RequestVote requestVote);
 }
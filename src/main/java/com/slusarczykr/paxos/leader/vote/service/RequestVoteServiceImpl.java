@@ -2,6 +2,8 @@ package com.slusarczykr.paxos.leader.vote.service;
 
 import com.slusarczykr.paxos.leader.api.RequestVote;
 import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.metrics.PaxosMetrics;
+import com.slusarczykr.paxos.leader.replication.log.ReplicatedLog;
 import com.slusarczykr.paxos.leader.vote.factory.RequestVoteFactory;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -21,16 +23,35 @@ public class RequestVoteServiceImpl implements RequestVoteService {
 
     private final RequestVoteFactory requestVoteFactory;
 
+    private final PaxosMetrics paxosMetrics;
+
+    private final ReplicatedLog replicatedLog;
+
     @Override
     public RequestVote.Response vote(RequestVote requestVote) {
         log.info("Start voting procedure for leader election of candidate server with id {}...", requestVote.getServerId());
-        long candidateTerm = requestVote.getTerm();
-        boolean accepted = vote(candidateTerm);
+        boolean accepted = castVote(requestVote);
+        paxosMetrics.recordVoteCast(accepted);
         log.info(getServerCandidacyVotingStatusMessage(accepted, requestVote.getServerId()));
 
         return requestVoteFactory.create(requestVote.getServerId(), paxosServer.getTermValue(), toResponseStatus(accepted));
     }
 
+    @Override
+    public RequestVote.Response preVote(RequestVote requestVote) {
+        long currentTerm = paxosServer.getTermValue();
+        log.debug("Pre-vote for candidate server with id {}, current term: {}, candidate term: {}",
+                requestVote.getServerId(), currentTerm, requestVote.getTerm());
+        boolean accepted = requestVote.getTerm() > currentTerm
+                && !paxosServer.isLeader()
+                && isCandidateLogUpToDate(requestVote)
+                && !isLeaderStillActive();
+        log.info("Pre-vote for candidate server with id {} has been {}", requestVote.getServerId(),
+                accepted ? "accepted" : "rejected");
+
+        return requestVoteFactory.create(requestVote.getServerId(), currentTerm, toResponseStatus(accepted));
+    }
+
     private String getServerCandidacyVotingStatusMessage(boolean accepted, long candidateServerId) {
         String acceptanceMessage = accepted ? "accepted" : "rejected";
         return String.format("Candidacy of the server with id %d has been %s!", candidateServerId, acceptanceMessage);
@@ -40,26 +61,41 @@ public class RequestVoteServiceImpl implements RequestVoteService {
         return accepted ? ACCEPTED : REJECTED;
     }
 
-    private boolean vote(long candidateTerm) {
+    private boolean castVote(RequestVote requestVote) {
         paxosServer.demoteLeader();
-        boolean accepted = voteForCandidate(candidateTerm);
+        long currentTerm = paxosServer.getTermValue();
+        long candidateTerm = requestVote.getTerm();
+        log.info("Current term: {}, candidate term: {}", currentTerm, candidateTerm);
+        boolean accepted = isCandidateLogUpToDate(requestVote)
+                && !isLeaderStillActive()
+                && voteForCandidate(requestVote);
 
-        if (accepted) {
-            setCurrentTerm(candidateTerm);
-        }
-        return accepted;
+        return falsifyVoteIfInvalidResponseEnabled(accepted);
     }
 
-    private void setCurrentTerm(long term) {
-        paxosServer.updateTerm(term);
+    private boolean voteForCandidate(RequestVote requestVote) {
+        return paxosServer.tryVoteFor(requestVote.getTerm(), (int) requestVote.getServerId()).join();
     }
 
-    private boolean voteForCandidate(long candidateTerm) {
-        long currentTerm = paxosServer.getTermValue();
-        log.info("Current term: {}, candidate term: {}", currentTerm, candidateTerm);
-        boolean accepted = candidateTerm > currentTerm;
+    private boolean isCandidateLogUpToDate(RequestVote requestVote) {
+        long lastLogTerm = replicatedLog.getLastTerm();
+        boolean upToDate = requestVote.getLastLogTerm() > lastLogTerm
+                || requestVote.getLastLogTerm() == lastLogTerm && requestVote.getLastLogIndex() >= replicatedLog.getLastIndex();
 
-        return falsifyVoteIfInvalidResponseEnabled(accepted);
+        if (!upToDate) {
+            log.info("Log of the candidate is behind, last log term: {}, last log index: {}",
+                    requestVote.getLastLogTerm(), requestVote.getLastLogIndex());
+        }
+        return upToDate;
+    }
+
+    private boolean isLeaderStillActive() {
+        boolean leaderContact = paxosServer.hasRecentLeaderContact();
+
+        if (leaderContact) {
+            log.info("Heartbeat from the current leader has been received recently, candidacy will be rejected");
+        }
+        return leaderContact;
     }
 
     private boolean falsifyVoteIfInvalidResponseEnabled(boolean accepted) {
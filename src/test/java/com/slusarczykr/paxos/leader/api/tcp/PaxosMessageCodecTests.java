@@ -0,0 +1,172 @@
+package com.slusarczykr.paxos.leader.api.tcp;
+
+import com.slusarczykr.paxos.leader.api.AppendEntry;
+import com.slusarczykr.paxos.leader.api.GroupHeartbeat;
+import com.slusarczykr.paxos.leader.api.GroupVote;
+import com.slusarczykr.paxos.leader.api.InstallSnapshot;
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import com.slusarczykr.paxos.leader.api.RequestVote;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaxosMessageCodecTests {
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(PaxosMessageCodec.MAX_FRAME_SIZE);
+
+    @Test
+    void shouldEncodeAndDecodeRequestVote() {
+        RequestVote preVote = new RequestVote(1, 5, 3, 12, 4);
+        preVote.setPreVote(true);
+        PaxosMessageCodec.encodeRequestVote(buffer, 7, preVote);
+        buffer.flip();
+
+        assertTrue(PaxosMessageCodec.containsFrame(buffer));
+        assertEquals(PaxosMessageCodec.HEADER_SIZE + 5 * Long.BYTES + Byte.BYTES, buffer.getInt());
+        assertEquals(PaxosMessageCodec.REQUEST_VOTE, buffer.get());
+        assertEquals(7, buffer.getLong());
+
+        RequestVote requestVote = PaxosMessageCodec.decodeRequestVote(buffer);
+        assertEquals(1, requestVote.getServerId());
+        assertEquals(5, requestVote.getTerm());
+        assertEquals(3, requestVote.getCommitIndex());
+        assertEquals(12, requestVote.getLastLogIndex());
+        assertEquals(4, requestVote.getLastLogTerm());
+        assertTrue(requestVote.isPreVote());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void shouldEncodeAndDecodeAppendEntryWithEntries() {
+        AppendEntry appendEntry = new AppendEntry(1, 5, 3);
+        appendEntry.setPrevLogIndex(8);
+        appendEntry.setPrevLogTerm(4);
+        appendEntry.setHeartbeatsInterval(200);
+        appendEntry.setEntries(List.of(
+                new LogEntry(9, 5, "first".getBytes(StandardCharsets.UTF_8)),
+                new LogEntry(10, 5, new byte[0])
+        ));
+        PaxosMessageCodec.encodeAppendEntry(buffer, 3, appendEntry);
+        buffer.flip();
+        skipHeader();
+
+        AppendEntry decoded = PaxosMessageCodec.decodeAppendEntry(buffer);
+        assertEquals(8, decoded.getPrevLogIndex());
+        assertEquals(4, decoded.getPrevLogTerm());
+        assertEquals(200, decoded.getHeartbeatsInterval());
+        assertEquals(2, decoded.getEntries().size());
+        assertEquals(9, decoded.getEntries().get(0).getIndex());
+        assertArrayEquals("first".getBytes(StandardCharsets.UTF_8), decoded.getEntries().get(0).getCommand());
+        assertEquals(0, decoded.getEntries().get(1).getCommand().length);
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void shouldEncodeAndDecodeRequestVoteResponse() {
+        PaxosMessageCodec.encodeRequestVoteResponse(buffer, 9, new RequestVote.Response.Rejected(2, 11));
+        buffer.flip();
+        skipHeader();
+
+        RequestVote.Response response = PaxosMessageCodec.decodeRequestVoteResponse(buffer);
+        assertEquals(new RequestVote.Response.Rejected(2, 11), response);
+    }
+
+    @Test
+    void shouldEncodeAndDecodeAppendEntryResponse() {
+        PaxosMessageCodec.encodeAppendEntryResponse(buffer, 1, new AppendEntry.Response(4, 7, true, 21));
+        buffer.flip();
+        skipHeader();
+
+        assertEquals(new AppendEntry.Response(4, 7, true, 21), PaxosMessageCodec.decodeAppendEntryResponse(buffer));
+    }
+
+    @Test
+    void shouldEncodeAndDecodeInstallSnapshot() {
+        byte[] data = "chunk".getBytes(StandardCharsets.UTF_8);
+        PaxosMessageCodec.encodeInstallSnapshot(buffer, 5, new InstallSnapshot(1, 6, 900, 5, 1024, 2048, true, data));
+        buffer.flip();
+        skipHeader();
+
+        InstallSnapshot decoded = PaxosMessageCodec.decodeInstallSnapshot(buffer);
+        assertEquals(900, decoded.getLastIncludedIndex());
+        assertEquals(5, decoded.getLastIncludedTerm());
+        assertEquals(1024, decoded.getOffset());
+        assertEquals(2048, decoded.getSize());
+        assertTrue(decoded.isDone());
+        assertArrayEquals(data, decoded.getData());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void shouldEncodeAndDecodeInstallSnapshotResponse() {
+        PaxosMessageCodec.encodeInstallSnapshotResponse(buffer, 2, new InstallSnapshot.Response(3, 6, false, 4096));
+        buffer.flip();
+        skipHeader();
+
+        assertEquals(new InstallSnapshot.Response(3, 6, false, 4096),
+                PaxosMessageCodec.decodeInstallSnapshotResponse(buffer));
+    }
+
+    @Test
+    void shouldEncodeAndDecodeGroupHeartbeat() {
+        GroupHeartbeat heartbeat = new GroupHeartbeat(2, new int[]{0, 3, 7}, new long[]{4, 5, 6}, new int[]{9});
+        PaxosMessageCodec.encodeGroupHeartbeat(buffer, 4, heartbeat);
+        buffer.flip();
+
+        assertEquals(PaxosMessageCodec.GROUP_HEARTBEAT, buffer.get(PaxosMessageCodec.LENGTH_FIELD_SIZE));
+        skipHeader();
+        assertEquals(heartbeat, PaxosMessageCodec.decodeGroupHeartbeat(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void shouldEncodeAndDecodeGroupVote() {
+        GroupVote vote = new GroupVote(1, true, new int[]{2, 5}, new long[]{8, 9});
+        PaxosMessageCodec.encodeGroupVote(buffer, 6, vote);
+        buffer.flip();
+        skipHeader();
+
+        assertEquals(vote, PaxosMessageCodec.decodeGroupVote(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void shouldEncodeAndDecodeGroupResponses() {
+        GroupHeartbeat.Response heartbeatResponse = new GroupHeartbeat.Response(3, new int[]{1}, new long[]{12});
+        PaxosMessageCodec.encodeGroupHeartbeatResponse(buffer, 1, heartbeatResponse);
+        buffer.flip();
+
+        assertEquals(PaxosMessageCodec.getFrameSize(heartbeatResponse), buffer.remaining());
+        skipHeader();
+        assertEquals(heartbeatResponse, PaxosMessageCodec.decodeGroupHeartbeatResponse(buffer));
+
+        GroupVote.Response voteResponse = new GroupVote.Response(3, new boolean[]{true, false}, new long[]{8, 10});
+        buffer.clear();
+        PaxosMessageCodec.encodeGroupVoteResponse(buffer, 2, voteResponse);
+        buffer.flip();
+
+        assertEquals(PaxosMessageCodec.getFrameSize(voteResponse), buffer.remaining());
+        skipHeader();
+        assertEquals(voteResponse, PaxosMessageCodec.decodeGroupVoteResponse(buffer));
+    }
+
+    @Test
+    void shouldNotReportPartialFrame() {
+        PaxosMessageCodec.encodeAppendEntry(buffer, 1, new AppendEntry(1, 2, 3));
+        buffer.flip();
+        buffer.limit(buffer.limit() - 1);
+
+        assertFalse(PaxosMessageCodec.containsFrame(buffer));
+    }
+
+    private void skipHeader() {
+        buffer.position(PaxosMessageCodec.LENGTH_FIELD_SIZE + PaxosMessageCodec.HEADER_SIZE);
+    }
+}
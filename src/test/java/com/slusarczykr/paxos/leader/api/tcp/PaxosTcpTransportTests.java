@@ -0,0 +1,180 @@
+package com.slusarczykr.paxos.leader.api.tcp;
+
+import com.slusarczykr.paxos.leader.PaxosLeaderElectionApplication;
+import com.slusarczykr.paxos.leader.api.InstallSnapshot;
+import com.slusarczykr.paxos.leader.api.RequestVote;
+import com.slusarczykr.paxos.leader.api.SnapshotChunk;
+import com.slusarczykr.paxos.leader.api.transport.PaxosTransport;
+import com.slusarczykr.paxos.leader.discovery.peer.Peer;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.group.service.GroupElectionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaxosTcpTransportTests {
+
+    private static final int BASE_PORT = 18190;
+    private static final int CLUSTER_SIZE = 3;
+    private static final int GROUP_COUNT = 6;
+
+    @TempDir
+    Path directory;
+
+    private final List<ConfigurableApplicationContext> servers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String hosts = IntStream.range(0, CLUSTER_SIZE)
+                .mapToObj(this::location)
+                .collect(Collectors.joining(","));
+        IntStream.range(0, CLUSTER_SIZE).forEach(it -> servers.add(startServer(BASE_PORT + it, hosts)));
+    }
+
+    private String location(int index) {
+        return "http://localhost:" + (BASE_PORT + index);
+    }
+
+    private ConfigurableApplicationContext startServer(int port, String hosts) {
+        return new SpringApplicationBuilder(PaxosLeaderElectionApplication.class)
+                .run(
+                        "--server.port=" + port,
+                        "--paxos.server.discovery.hosts=" + hosts,
+                        "--paxos.server.transport.mode=tcp",
+                        "--paxos.server.storage.type=memory",
+                        "--paxos.server.storage.directory=" + directory,
+                        "--paxos.server.leader-election.min_await_time=1s",
+                        "--paxos.server.leader-election.max_await_time=2s",
+                        "--paxos.server.leader-election.heartbeats_interval=200ms",
+                        "--paxos.server.groups.count=" + GROUP_COUNT,
+                        "--paxos.server.groups.heartbeats_interval=200ms",
+                        "--paxos.server.groups.min_election_timeout=1s",
+                        "--paxos.server.groups.max_election_timeout=2s"
+                );
+    }
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void shouldElectLeaderOverTcp() {
+        ConfigurableApplicationContext leader = await(() -> findLeader(servers));
+        long term = leader.getBean(PaxosServer.class).getTermValue();
+
+        leader.close();
+        servers.remove(leader);
+        ConfigurableApplicationContext nextLeader = await(() -> findLeader(servers));
+
+        assertTrue(nextLeader.getBean(PaxosServer.class).getTermValue() > term);
+    }
+
+    @Test
+    void shouldElectGroupLeadersOverTcp() {
+        // in tcp mode the group heartbeats and votes are sent by the tcp transport like the other peer messages
+        await(() -> Optional.of(servers).filter(it -> it.stream()
+                .allMatch(server -> server.getBean(GroupElectionService.class).getStatus().getWithoutLeader() == 0)));
+    }
+
+    @Test
+    void shouldAnswerRequestsBeyondInFlightLimit() throws Exception {
+        PaxosTransport transport = servers.get(0).getBean(PaxosTransport.class);
+        Peer peer = new Peer(1, location(1));
+
+        // more requests than the server handles at a time on one connection
+        List<CompletableFuture<Optional<RequestVote.Response>>> responses = IntStream.range(0, 500)
+                .mapToObj(it -> transport.sendRequestVote(peer, createPreVote()))
+                .toList();
+
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(30, SECONDS);
+        assertTrue(responses.stream().allMatch(it -> it.join().isPresent()));
+    }
+
+    @Test
+    void shouldStreamSnapshotChunks() throws Exception {
+        PaxosTransport transport = servers.get(0).getBean(PaxosTransport.class);
+        Peer peer = new Peer(1, location(1));
+        byte[] data = new byte[PaxosMessageCodec.MAX_SNAPSHOT_CHUNK_SIZE];
+
+        // the second chunk is read only if the first one has been framed correctly on the connection
+        for (int i = 0; i < 2; i++) {
+            InstallSnapshot installSnapshot = new InstallSnapshot(0, 0, 1, 1, (long) i * data.length,
+                    2L * data.length, false, new byte[0]);
+            Optional<InstallSnapshot.Response> response = transport.sendInstallSnapshot(peer, installSnapshot,
+                    createChunk(data)).get(30, SECONDS);
+
+            assertTrue(response.isPresent());
+        }
+    }
+
+    private SnapshotChunk createChunk(byte[] data) {
+        return new SnapshotChunk() {
+
+            @Override
+            public int getLength() {
+                return data.length;
+            }
+
+            @Override
+            public long transferTo(long position, WritableByteChannel target) throws IOException {
+                return target.write(ByteBuffer.wrap(data, (int) position, data.length - (int) position));
+            }
+        };
+    }
+
+    private RequestVote createPreVote() {
+        RequestVote requestVote = new RequestVote(0, 1, 0);
+        requestVote.setPreVote(true);
+        return requestVote;
+    }
+
+    private Optional<ConfigurableApplicationContext> findLeader(List<ConfigurableApplicationContext> candidates) {
+        List<ConfigurableApplicationContext> leaders = candidates.stream()
+                .filter(it -> it.getBean(PaxosServer.class).isLeader())
+                .toList();
+
+        if (leaders.size() > 1) {
+            return Optional.empty();
+        }
+        return leaders.stream().findFirst();
+    }
+
+    private static <T> T await(Supplier<Optional<T>> condition) {
+        long deadline = System.nanoTime() + 60_000_000_000L;
+        Optional<T> result = condition.get();
+
+        while (result.isEmpty()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met on time");
+            sleep();
+            result = condition.get();
+        }
+        return result.get();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.slusarczykr.paxos.leader.api.transport;
+
+import com.slusarczykr.paxos.leader.PaxosLeaderElectionApplication;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryPaxosNetworkTests {
+
+    private static final int BASE_PORT = 18090;
+    private static final int CLUSTER_SIZE = 3;
+
+    @TempDir
+    Path directory;
+
+    private GenericApplicationContext networkContext;
+    private final List<ConfigurableApplicationContext> servers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        networkContext = new GenericApplicationContext();
+        networkContext.registerBean(InMemoryPaxosNetwork.class);
+        networkContext.refresh();
+
+        String hosts = IntStream.range(0, CLUSTER_SIZE)
+                .mapToObj(it -> "http://localhost:" + (BASE_PORT + it))
+                .collect(Collectors.joining(","));
+        IntStream.range(0, CLUSTER_SIZE).forEach(it -> servers.add(startServer(BASE_PORT + it, hosts)));
+    }
+
+    private ConfigurableApplicationContext startServer(int port, String hosts) {
+        return new SpringApplicationBuilder(PaxosLeaderElectionApplication.class)
+                .parent(networkContext)
+                .run(
+                        "--server.port=" + port,
+                        "--paxos.server.discovery.hosts=" + hosts,
+                        "--paxos.server.transport.mode=in_memory",
+                        "--paxos.server.storage.type=memory",
+                        "--paxos.server.storage.directory=" + directory,
+                        "--paxos.server.leader-election.min_await_time=1s",
+                        "--paxos.server.leader-election.max_await_time=2s",
+                        "--paxos.server.leader-election.heartbeats_interval=200ms"
+                );
+    }
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(ConfigurableApplicationContext::close);
+        networkContext.close();
+    }
+
+    @Test
+    void shouldElectLeaderOverSharedNetwork() {
+        InMemoryPaxosNetwork network = networkContext.getBean(InMemoryPaxosNetwork.class);
+        servers.forEach(it -> assertSame(network, it.getBean(InMemoryPaxosNetwork.class)));
+
+        ConfigurableApplicationContext leader = await(() -> findLeader(servers));
+        long term = leader.getBean(PaxosServer.class).getTermValue();
+
+        // the remaining majority elects a new leader once the current one is gone
+        leader.close();
+        servers.remove(leader);
+        ConfigurableApplicationContext nextLeader = await(() -> findLeader(servers));
+
+        assertTrue(nextLeader.getBean(PaxosServer.class).getTermValue() > term);
+    }
+
+    private Optional<ConfigurableApplicationContext> findLeader(List<ConfigurableApplicationContext> candidates) {
+        List<ConfigurableApplicationContext> leaders = candidates.stream()
+                .filter(it -> it.getBean(PaxosServer.class).isLeader())
+                .toList();
+
+        if (leaders.size() > 1) {
+            return Optional.empty();
+        }
+        return leaders.stream().findFirst();
+    }
+
+    private static <T> T await(Supplier<Optional<T>> condition) {
+        long deadline = System.nanoTime() + 60_000_000_000L;
+        Optional<T> result = condition.get();
+
+        while (result.isEmpty()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met on time");
+            sleep();
+            result = condition.get();
+        }
+        return result.get();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.slusarczykr.paxos.leader.discovery.membership;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import com.slusarczykr.paxos.leader.discovery.config.ServerDiscoveryConfiguration;
+import com.slusarczykr.paxos.leader.discovery.detector.TimeoutFailureDetector;
+import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryServiceImpl;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterMembershipTests {
+
+    private static final Map<Integer, String> SERVERS = Map.of(
+            1, "http://localhost:8091",
+            2, "http://localhost:8092",
+            7, "http://localhost:9000"
+    );
+
+    private ServerDiscoveryServiceImpl discoveryService;
+    private ClusterMembership clusterMembership;
+
+    @BeforeEach
+    void setUp() {
+        discoveryService = createDiscoveryService();
+        clusterMembership = new ClusterMembership(discoveryService);
+    }
+
+    private ServerDiscoveryServiceImpl createDiscoveryService() {
+        ServerDiscoveryConfiguration configuration = new ServerDiscoveryConfiguration();
+        configuration.setHosts(List.of("http://localhost:8090", "http://localhost:8091", "http://localhost:8092"));
+
+        PaxosServer paxosServer = new PaxosServer(configuration);
+        paxosServer.setServerPort(8091);
+        paxosServer.init();
+
+        ServerDiscoveryServiceImpl serverDiscoveryService = new ServerDiscoveryServiceImpl(configuration,
+                new TimeoutFailureDetector(paxosServer, configuration, HttpClient.newHttpClient()));
+        serverDiscoveryService.init();
+        return serverDiscoveryService;
+    }
+
+    @Test
+    void shouldApplyCommittedConfiguration() {
+        byte[] command = MembershipCommand.encode(SERVERS);
+        assertTrue(MembershipCommand.isMembershipCommand(command));
+        assertFalse(MembershipCommand.isMembershipCommand("key=value".getBytes()));
+
+        clusterMembership.apply(new LogEntry(5, 2, command));
+
+        assertEquals(SERVERS, discoveryService.getAllServers());
+        assertEquals(5, clusterMembership.getStatus().getConfigurationIndex());
+        assertFalse(discoveryService.isMember(0));
+        assertEquals(2, discoveryService.getMemberIndex(7));
+    }
+
+    @Test
+    void shouldRestoreConfigurationFromSnapshot() throws Exception {
+        ByteArrayOutputStream bootstrapSnapshot = new ByteArrayOutputStream();
+        clusterMembership.snapshot().writeTo(bootstrapSnapshot);
+        assertEquals(0, bootstrapSnapshot.size());
+
+        clusterMembership.apply(new LogEntry(5, 2, MembershipCommand.encode(SERVERS)));
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        clusterMembership.snapshot().writeTo(snapshot);
+
+        ClusterMembership restoredMembership = new ClusterMembership(createDiscoveryService());
+        restoredMembership.restore(new ByteArrayInputStream(bootstrapSnapshot.toByteArray()));
+        assertEquals(0, restoredMembership.getStatus().getConfigurationIndex());
+
+        restoredMembership.restore(new ByteArrayInputStream(snapshot.toByteArray()));
+        assertEquals(5, restoredMembership.getStatus().getConfigurationIndex());
+        assertEquals(SERVERS, restoredMembership.getStatus().getServers());
+    }
+}
@@ -0,0 +1,53 @@
+package com.slusarczykr.paxos.leader.discovery.peer;
+
+import com.slusarczykr.paxos.leader.discovery.config.ServerDiscoveryConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PeerTableTests {
+
+    private static final PeerSlot<String> SLOT = new PeerSlot<>();
+
+    @Test
+    void shouldResolveExplicitAndPositionalIds() {
+        ServerDiscoveryConfiguration configuration = new ServerDiscoveryConfiguration();
+        configuration.setHosts(List.of("http://host-a:8080", "5=http://host-b:8080", "http://host-b:8081"));
+
+        assertEquals(Map.of(0, "http://host-a:8080", 5, "http://host-b:8080", 2, "http://host-b:8081"),
+                configuration.resolveServers());
+        assertEquals(2, configuration.resolveServerId(8081));
+        assertThrows(IllegalStateException.class, () -> configuration.resolveServerId(8080));
+
+        configuration.setId(5);
+        assertEquals(5, configuration.resolveServerId(8080));
+    }
+
+    @Test
+    void shouldKeepPeerStateOfUnchangedServers() {
+        PeerTable table = PeerTable.of(Map.of(0, "http://localhost:8090", 4, "http://localhost:8094"), PeerTable.empty());
+        table.getById(0).computeIfAbsent(SLOT, it -> "pipeline-0");
+        table.getById(4).computeIfAbsent(SLOT, it -> "pipeline-4");
+
+        PeerTable nextTable = PeerTable.of(Map.of(0, "http://localhost:8090", 4, "http://localhost:9094",
+                2, "http://localhost:8092"), table);
+
+        assertSame(table.getById(0), nextTable.getById(0));
+        assertEquals("pipeline-0", nextTable.getById(0).get(SLOT));
+        assertNotSame(table.getById(4), nextTable.getById(4));
+        assertNull(nextTable.getById(4).get(SLOT));
+        assertNull(nextTable.getById(3));
+        assertNull(nextTable.getById(1024));
+        assertEquals(2, nextTable.getAt(1).getId());
+        assertEquals(1, nextTable.getMemberIndex(2));
+        assertEquals(2, nextTable.getMemberIndex(3));
+        assertEquals("http://localhost:8092/leaderElection/heartbeat", nextTable.getById(2).getHeartbeatUri().toString());
+    }
+}
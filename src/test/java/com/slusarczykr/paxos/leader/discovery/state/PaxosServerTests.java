@@ -0,0 +1,87 @@
+package com.slusarczykr.paxos.leader.discovery.state;
+
+import com.slusarczykr.paxos.leader.discovery.config.ServerDiscoveryConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaxosServerTests {
+
+    private PaxosServer paxosServer;
+
+    @BeforeEach
+    void setUp() {
+        ServerDiscoveryConfiguration configuration = new ServerDiscoveryConfiguration();
+        configuration.setHosts(List.of("http://localhost:8090", "http://localhost:8091", "http://localhost:8092"));
+        paxosServer = new PaxosServer(configuration);
+        paxosServer.setServerPort(8090);
+        paxosServer.init();
+    }
+
+    @Test
+    void shouldGrantSingleVotePerTerm() throws Exception {
+        long term = paxosServer.getTermValue() + 1;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<CompletableFuture<Boolean>> votes = IntStream.range(0, 64)
+                .mapToObj(it -> CompletableFuture.supplyAsync(() -> {
+                    awaitQuietly(start);
+                    return paxosServer.tryVoteFor(term, 1 + it % 2).join();
+                }, executor))
+                .toList();
+        start.countDown();
+
+        long grantedVotes = votes.stream()
+                .map(CompletableFuture::join)
+                .filter(it -> it)
+                .count();
+        executor.shutdown();
+
+        // only the requests of the candidate that got the vote first are granted
+        assertEquals(32, grantedVotes);
+        assertFalse(paxosServer.tryVoteFor(term, 3 - paxosServer.getVotedFor().get()).join());
+    }
+
+    @Test
+    void shouldNotMoveTermBackwards() {
+        long term = paxosServer.getTermValue() + 5;
+        assertTrue(paxosServer.tryVoteFor(term, 1).join());
+
+        paxosServer.updateTerm(term - 1).join();
+        assertFalse(paxosServer.tryVoteFor(term - 1, 2).join());
+        paxosServer.updateTerm(term).join();
+
+        assertEquals(term, paxosServer.getTermValue());
+        assertEquals(1, paxosServer.getVotedFor().get());
+    }
+
+    @Test
+    void shouldGrantVoteInAdoptedTermWithoutVote() {
+        long term = paxosServer.getTermValue() + 5;
+        paxosServer.updateTerm(term).join();
+
+        assertTrue(paxosServer.tryVoteFor(term, 1).join());
+        assertFalse(paxosServer.tryVoteFor(term, 2).join());
+        assertEquals(term, paxosServer.getTermValue());
+        assertEquals(1, paxosServer.getVotedFor().get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.slusarczykr.paxos.leader.election.timeout;
+
+import com.slusarczykr.paxos.leader.election.config.LeaderElectionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ElectionTimeoutsTests {
+
+    private LeaderElectionProperties leaderElectionProps;
+    private ElectionTimeouts electionTimeouts;
+
+    @BeforeEach
+    void setUp() {
+        leaderElectionProps = new LeaderElectionProperties();
+        leaderElectionProps.setMinAwaitTime(Duration.ofSeconds(10));
+        leaderElectionProps.setMaxAwaitTime(Duration.ofSeconds(20));
+        leaderElectionProps.setHeartbeatsInterval(Duration.ofSeconds(2));
+        electionTimeouts = new ElectionTimeouts(leaderElectionProps);
+    }
+
+    @Test
+    void shouldFollowRoundTripTimeWithinBounds() {
+        assertEquals(Duration.ofSeconds(2).toNanos(), electionTimeouts.adjustHeartbeatsInterval());
+
+        recordRoundTrips(10);
+        assertEquals(MILLISECONDS.toNanos(50), electionTimeouts.adjustHeartbeatsInterval());
+        assertEquals(MILLISECONDS.toNanos(500), electionTimeouts.getElectionTimeout());
+
+        recordRoundTrips(100);
+        assertEquals(MILLISECONDS.toNanos(400), electionTimeouts.adjustHeartbeatsInterval());
+        assertEquals(MILLISECONDS.toNanos(2000), electionTimeouts.getElectionTimeout());
+
+        recordRoundTrips(1000);
+        assertEquals(Duration.ofSeconds(2).toNanos(), electionTimeouts.adjustHeartbeatsInterval());
+        assertEquals(Duration.ofSeconds(10).toNanos(), electionTimeouts.getElectionTimeout());
+    }
+
+    @Test
+    void shouldBackOffRepeatedCandidacies() {
+        electionTimeouts.recordLeaderHeartbeatsInterval(MILLISECONDS.toNanos(200));
+        long electionTimeout = electionTimeouts.getElectionTimeout();
+        long maxBackoff = leaderElectionProps.getMaxCandidacyBackoff().toNanos();
+
+        for (int i = 0; i < 1000; i++) {
+            long firstTimeout = electionTimeouts.nextElectionTimeout(0);
+            assertTrue(firstTimeout >= electionTimeout && firstTimeout < 2 * electionTimeout);
+
+            long backoffTimeout = electionTimeouts.nextElectionTimeout(30);
+            assertTrue(backoffTimeout >= electionTimeout && backoffTimeout < maxBackoff);
+        }
+    }
+
+    private void recordRoundTrips(long roundTripTime) {
+        for (int i = 0; i < 128; i++) {
+            electionTimeouts.recordRoundTrip(MILLISECONDS.toNanos(roundTripTime));
+        }
+    }
+}
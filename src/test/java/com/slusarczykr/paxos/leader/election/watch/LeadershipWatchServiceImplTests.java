@@ -0,0 +1,117 @@
+package com.slusarczykr.paxos.leader.election.watch;
+
+import com.slusarczykr.paxos.leader.discovery.config.ServerDiscoveryConfiguration;
+import com.slusarczykr.paxos.leader.discovery.detector.TimeoutFailureDetector;
+import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryServiceImpl;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.tracker.LeaderTracker;
+import com.slusarczykr.paxos.leader.execution.PaxosThreads;
+import com.slusarczykr.paxos.leader.execution.config.ExecutionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeadershipWatchServiceImplTests {
+
+    private PaxosServer paxosServer;
+    private LeadershipWatchServiceImpl leadershipWatchService;
+
+    @BeforeEach
+    void setUp() {
+        ServerDiscoveryConfiguration configuration = new ServerDiscoveryConfiguration();
+        configuration.setHosts(List.of("http://localhost:8090", "http://localhost:8091", "http://localhost:8092"));
+
+        paxosServer = new PaxosServer(configuration);
+        paxosServer.setServerPort(8090);
+        paxosServer.init();
+
+        ServerDiscoveryServiceImpl discoveryService = new ServerDiscoveryServiceImpl(configuration,
+                new TimeoutFailureDetector(paxosServer, configuration, HttpClient.newHttpClient()));
+        discoveryService.init();
+        LeaderTracker leaderTracker = new LeaderTracker(paxosServer, discoveryService);
+        leaderTracker.init();
+
+        leadershipWatchService = new LeadershipWatchServiceImpl(paxosServer, leaderTracker,
+                new PaxosThreads(new ExecutionProperties()));
+        leadershipWatchService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        leadershipWatchService.destroy();
+    }
+
+    @Test
+    void shouldNotDelaySubscribersBehindSlowOne() throws Exception {
+        CountDownLatch slowSubscriberReleased = new CountDownLatch(1);
+        BlockingQueue<LeadershipState> slowSubscriberStates = new LinkedBlockingQueue<>();
+        BlockingQueue<LeadershipState> states = new LinkedBlockingQueue<>();
+
+        leadershipWatchService.subscribe(state -> {
+            slowSubscriberStates.add(state);
+            awaitQuietly(slowSubscriberReleased);
+        }, () -> {});
+        leadershipWatchService.subscribe(states::add, () -> {});
+        long term = paxosServer.getTermValue();
+
+        for (int i = 1; i <= 3; i++) {
+            paxosServer.updateTerm(term + i).join();
+            LeadershipState state = states.poll(5, SECONDS);
+            assertNotNull(state);
+            assertEquals(term + i, state.getTerm());
+
+            if (i == 1) {
+                // the slow subscriber is busy with the first state before the next ones are published
+                assertEquals(term + 1, slowSubscriberStates.poll(5, SECONDS).getTerm());
+            }
+        }
+        slowSubscriberReleased.countDown();
+
+        // the slow subscriber skips the states published while it was busy and receives the latest one
+        assertEquals(term + 3, slowSubscriberStates.poll(5, SECONDS).getTerm());
+        assertTrue(slowSubscriberStates.isEmpty());
+    }
+
+    @Test
+    void shouldDropSubscriberBlockedOnPreviousState() throws Exception {
+        CountDownLatch blockedSubscriberReleased = new CountDownLatch(1);
+        CountDownLatch blockedSubscriberDropped = new CountDownLatch(1);
+        BlockingQueue<LeadershipState> blockedSubscriberStates = new LinkedBlockingQueue<>();
+
+        leadershipWatchService.subscribe(state -> {
+            blockedSubscriberStates.add(state);
+            awaitQuietly(blockedSubscriberReleased);
+        }, blockedSubscriberDropped::countDown);
+        long term = paxosServer.getTermValue();
+
+        paxosServer.updateTerm(term + 1).join();
+        assertEquals(term + 1, blockedSubscriberStates.poll(5, SECONDS).getTerm());
+        SECONDS.sleep(11);
+        paxosServer.updateTerm(term + 2).join();
+        SECONDS.sleep(1);
+        blockedSubscriberReleased.countDown();
+
+        // the change published while it was blocked is not delivered, the subscriber is told it has been dropped
+        assertTrue(blockedSubscriberDropped.await(5, SECONDS));
+        assertTrue(blockedSubscriberStates.isEmpty());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
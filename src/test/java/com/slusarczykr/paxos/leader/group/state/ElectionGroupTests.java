@@ -0,0 +1,46 @@
+package com.slusarczykr.paxos.leader.group.state;
+
+import org.junit.jupiter.api.Test;
+
+import static com.slusarczykr.paxos.leader.group.state.ElectionGroup.NOT_LEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ElectionGroupTests {
+
+    private static final long MIN_ELECTION_TIMEOUT = 5_000;
+
+    @Test
+    void shouldBecomeLeaderWithMajorityOfVotes() {
+        ElectionGroup group = new ElectionGroup(7, 0);
+        assertTrue(group.isElectionDue(0));
+
+        long term = group.startCandidacy(1, 2, 0, 10_000);
+        assertEquals(NOT_LEADER, group.getLeaderTerm());
+        assertFalse(group.registerVote(term - 1, 2, 0));
+
+        assertTrue(group.registerVote(term, 2, 100));
+        assertEquals(term, group.getLeaderTerm());
+        assertFalse(group.isLeaderLongerThan(100 + MIN_ELECTION_TIMEOUT, MIN_ELECTION_TIMEOUT));
+
+        assertTrue(group.updateTerm(term + 1));
+        assertEquals(NOT_LEADER, group.getLeaderTerm());
+    }
+
+    @Test
+    void shouldIgnoreCandidatesWhileLeaderIsAliveUnlessItHandsOver() {
+        ElectionGroup group = new ElectionGroup(7, 0);
+        assertTrue(group.acceptHeartbeat(0, 3, 1_000, 10_000));
+        assertFalse(group.acceptHeartbeat(2, 2, 1_000, 10_000));
+
+        assertFalse(group.vote(2, 4, false, 2_000, MIN_ELECTION_TIMEOUT, 10_000));
+        assertEquals(3, group.getTerm());
+
+        group.requestTransfer(0);
+        assertTrue(group.isTransferRequested());
+        assertTrue(group.vote(2, 4, true, 2_000, MIN_ELECTION_TIMEOUT, 10_000));
+        assertFalse(group.vote(1, 4, true, 2_000, MIN_ELECTION_TIMEOUT, 10_000));
+        assertTrue(group.vote(1, 5, false, 2_000 + MIN_ELECTION_TIMEOUT, MIN_ELECTION_TIMEOUT, 10_000));
+    }
+}
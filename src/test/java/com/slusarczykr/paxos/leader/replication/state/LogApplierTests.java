@@ -0,0 +1,130 @@
+package com.slusarczykr.paxos.leader.replication.state;
+
+import com.slusarczykr.paxos.leader.discovery.config.ServerDiscoveryConfiguration;
+import com.slusarczykr.paxos.leader.discovery.detector.TimeoutFailureDetector;
+import com.slusarczykr.paxos.leader.discovery.membership.ClusterMembership;
+import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryServiceImpl;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.execution.PaxosThreads;
+import com.slusarczykr.paxos.leader.execution.config.ExecutionProperties;
+import com.slusarczykr.paxos.leader.replication.commit.CommitTracker;
+import com.slusarczykr.paxos.leader.replication.config.ReplicationProperties;
+import com.slusarczykr.paxos.leader.storage.config.StorageProperties;
+import com.slusarczykr.paxos.leader.storage.log.SegmentedReplicatedLog;
+import com.slusarczykr.paxos.leader.storage.snapshot.FileSnapshotStore;
+import com.slusarczykr.paxos.leader.storage.snapshot.SnapshotMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogApplierTests {
+
+    private static final int SERVER_PORT = 8090;
+    private static final long SNAPSHOT_ENTRIES = 50;
+
+    @TempDir
+    Path directory;
+
+    private StorageProperties storageProperties;
+    private ReplicationProperties replicationProps;
+
+    private SegmentedReplicatedLog replicatedLog;
+    private FileSnapshotStore snapshotStore;
+    private KeyValueStateMachine stateMachine;
+    private CommitTracker commitTracker;
+    private LogApplier logApplier;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.setDirectory(directory.toString());
+        storageProperties.setSegmentSize(DataSize.ofBytes(1024));
+        replicationProps = new ReplicationProperties();
+        replicationProps.setSnapshotEntries(SNAPSHOT_ENTRIES);
+    }
+
+    @Test
+    void shouldRestoreStateFromSnapshotAndLogTailAfterRestart() throws Exception {
+        start();
+        for (int i = 1; i <= 120; i++) {
+            replicatedLog.append(1, command(i % 10 == 0 ? "key-" + (i - 5) : "key-" + i + "=value-" + i));
+        }
+        commitTracker.advance(100);
+        await(() -> snapshotStore.getLatest().filter(it -> it.getLastIncludedIndex() == 100).isPresent());
+        await(() -> replicatedLog.getFirstIndex() > 1);
+
+        commitTracker.advance(120);
+        await(() -> logApplier.getLastApplied() == 120);
+        assertEquals(Optional.of(100L), snapshotStore.getLatest().map(SnapshotMetadata::getLastIncludedIndex));
+        stop();
+
+        start();
+        assertEquals(100, logApplier.getLastApplied());
+        assertTrue(replicatedLog.getFirstIndex() > 1);
+        assertEquals(120, replicatedLog.getLastIndex());
+        assertEquals(Optional.of("value-42"), stateMachine.get("key-42"));
+        assertTrue(stateMachine.get("key-95").isEmpty());
+        assertTrue(stateMachine.get("key-101").isEmpty());
+
+        // the tail past the snapshot is replayed once it is known to be committed
+        commitTracker.advance(120);
+        await(() -> logApplier.getLastApplied() == 120);
+        assertEquals(Optional.of("value-101"), stateMachine.get("key-101"));
+        assertTrue(stateMachine.get("key-115").isEmpty());
+        assertEquals(96, stateMachine.size());
+        stop();
+    }
+
+    private void start() throws Exception {
+        ServerDiscoveryConfiguration configuration = new ServerDiscoveryConfiguration();
+        configuration.setHosts(List.of("http://localhost:8090", "http://localhost:8091", "http://localhost:8092"));
+
+        PaxosServer paxosServer = new PaxosServer(configuration);
+        paxosServer.setServerPort(SERVER_PORT);
+        paxosServer.init();
+
+        ServerDiscoveryServiceImpl discoveryService = new ServerDiscoveryServiceImpl(configuration,
+                new TimeoutFailureDetector(paxosServer, configuration, HttpClient.newHttpClient()));
+        discoveryService.init();
+
+        replicatedLog = new SegmentedReplicatedLog(storageProperties, SERVER_PORT);
+        replicatedLog.open();
+        snapshotStore = new FileSnapshotStore(storageProperties, SERVER_PORT);
+        snapshotStore.open();
+        stateMachine = new KeyValueStateMachine();
+        commitTracker = new CommitTracker(paxosServer);
+
+        logApplier = new LogApplier(paxosServer, replicatedLog, stateMachine, snapshotStore, commitTracker,
+                replicationProps, new ClusterMembership(discoveryService), new PaxosThreads(new ExecutionProperties()));
+        logApplier.init();
+    }
+
+    private void stop() throws Exception {
+        logApplier.destroy();
+        replicatedLog.close();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met on time");
+            Thread.sleep(10);
+        }
+    }
+
+    private byte[] command(String command) {
+        return command.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,250 @@
+package com.slusarczykr.paxos.leader.simulation;
+
+import com.slusarczykr.paxos.leader.discovery.config.ServerDiscoveryConfiguration;
+import com.slusarczykr.paxos.leader.execution.PaxosClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+// Runs the election services of a cluster of SimulatedNodes on a simulated clock and network, so that thousands of
+// failovers take seconds. Time is kept in nanoseconds like the services read it, the config and the report use ms.
+public class ClusterSimulator {
+
+    private static final int BASE_PORT = 8090;
+    private static final String ELECTION_DURATION = "paxos.election.duration";
+
+    private final SimulationConfig config;
+    private final Random random;
+    private final SimulatedNetwork network;
+    private final List<SimulatedNode> nodes = new ArrayList<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private final PaxosClock clock = new PaxosClock() {
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+    };
+    private long now;
+    private long sequence;
+
+    private long disruptionTime;
+    private long electionTime = -1;
+    private boolean measuring;
+
+    public ClusterSimulator(SimulationConfig config) {
+        this.config = config;
+        this.random = new Random(config.getSeed());
+        this.network = new SimulatedNetwork(config, random);
+        initNodes();
+    }
+
+    private void initNodes() {
+        ServerDiscoveryConfiguration discoveryConfiguration = new ServerDiscoveryConfiguration();
+        discoveryConfiguration.setHosts(IntStream.range(0, config.getClusterSize())
+                .mapToObj(it -> "http://localhost:" + (BASE_PORT + it))
+                .toList());
+
+        IntStream.range(0, config.getClusterSize())
+                .forEach(it -> nodes.add(new SimulatedNode(this, config, discoveryConfiguration, BASE_PORT + it)));
+        nodes.forEach(network::register);
+    }
+
+    public SimulationReport run() {
+        List<Long> timesToLeader = new ArrayList<>();
+        int unresolvedRounds = 0;
+        long termsConsumed = 0;
+        long candidacies = 0;
+        long failedCandidacies = 0;
+
+        nodes.forEach(SimulatedNode::start);
+
+        for (int round = 0; round < config.getRounds(); round++) {
+            long termBeforeRound = getMaxTerm();
+            long candidaciesBeforeRound = countCandidacies();
+            long failedCandidaciesBeforeRound = countFailedCandidacies();
+            startRound(round);
+            runUntil(() -> electionTime >= 0, disruptionTime + MILLISECONDS.toNanos(config.getMaxRoundTime()));
+            measuring = false;
+
+            if (electionTime >= 0) {
+                timesToLeader.add(NANOSECONDS.toMillis(electionTime - disruptionTime));
+            } else {
+                unresolvedRounds++;
+            }
+            candidacies += countCandidacies() - candidaciesBeforeRound;
+            failedCandidacies += countFailedCandidacies() - failedCandidaciesBeforeRound;
+            endRound();
+            termsConsumed += getMaxTerm() - termBeforeRound;
+        }
+        return new SimulationReport(config.getRounds(), unresolvedRounds,
+                timesToLeader.stream().mapToLong(Long::longValue).toArray(), candidacies, failedCandidacies, termsConsumed);
+    }
+
+    // every node records its candidacies in the shared registry, tagged with their outcome
+    private long countCandidacies() {
+        return meterRegistry.find(ELECTION_DURATION).timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    private long countFailedCandidacies() {
+        return meterRegistry.find(ELECTION_DURATION).tag("outcome", "lost").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    private void startRound(int round) {
+        disruptionTime = now;
+        electionTime = -1;
+        measuring = true;
+
+        if (round > 0) {
+            getLeader().ifPresent(this::disrupt);
+        }
+    }
+
+    private void disrupt(SimulatedNode leader) {
+        if (random.nextDouble() < config.getPartitionRate()) {
+            network.isolate(leader.getId());
+        } else {
+            leader.crash();
+        }
+    }
+
+    // an isolated server rejoins only after it has had time to campaign on its own, the terms it consumes meanwhile
+    // and its disruption of the new leader are counted in the round
+    private void endRound() {
+        nodes.stream()
+                .filter(SimulatedNode::isCrashed)
+                .forEach(SimulatedNode::recover);
+        runUntil(() -> false, now + MILLISECONDS.toNanos(config.getSettleTime()));
+        network.heal();
+        runUntil(() -> false, now + MILLISECONDS.toNanos(config.getSettleTime()));
+    }
+
+    private Optional<SimulatedNode> getLeader() {
+        return nodes.stream()
+                .filter(SimulatedNode::isLeader)
+                .max((first, second) -> Long.compare(first.getTerm(), second.getTerm()));
+    }
+
+    private long getMaxTerm() {
+        return nodes.stream()
+                .mapToLong(SimulatedNode::getTerm)
+                .max()
+                .orElse(0);
+    }
+
+    private void runUntil(BooleanSupplier condition, long deadline) {
+        while (!condition.getAsBoolean() && !events.isEmpty() && events.peek().time <= deadline) {
+            Event event = events.poll();
+            now = event.time;
+            event.action.run();
+        }
+        if (!condition.getAsBoolean()) {
+            now = Math.max(now, deadline);
+        }
+    }
+
+    public void schedule(long delayNanos, Runnable action) {
+        events.add(new Event(now + delayNanos, sequence++, action));
+    }
+
+    public PaxosClock getClock() {
+        return clock;
+    }
+
+    public Random getRandom() {
+        return random;
+    }
+
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    public SimulatedNetwork getNetwork() {
+        return network;
+    }
+
+    public List<SimulatedNode> getNodes() {
+        return nodes;
+    }
+
+    // a leader cut off from the majority keeps its state until it learns of a higher term, so it does not end the round
+    public void onStateChanged(SimulatedNode node) {
+        if (measuring && electionTime < 0 && node.isLeader() && isInMajorityPartition(node)) {
+            electionTime = now;
+        }
+    }
+
+    private boolean isInMajorityPartition(SimulatedNode node) {
+        long reachable = nodes.stream()
+                .filter(it -> it == node || network.isReachable(node, it))
+                .count();
+        return reachable > nodes.size() / 2;
+    }
+
+    public static void main(String[] args) {
+        SimulationConfig config = new SimulationConfig();
+
+        for (String arg : args) {
+            String[] property = arg.replaceFirst("^--", "").split("=", 2);
+            apply(config, property[0], property[1]);
+        }
+        long start = System.nanoTime();
+        SimulationReport report = new ClusterSimulator(config).run();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println(config);
+        System.out.println(report);
+        System.out.printf("Simulated %d rounds in %d ms%n", report.getRounds(), elapsed);
+    }
+
+    private static void apply(SimulationConfig config, String name, String value) {
+        switch (name) {
+            case "seed" -> config.setSeed(Long.parseLong(value));
+            case "clusterSize" -> config.setClusterSize(Integer.parseInt(value));
+            case "rounds" -> config.setRounds(Integer.parseInt(value));
+            case "minAwaitTime" -> config.setMinAwaitTime(Long.parseLong(value));
+            case "maxAwaitTime" -> config.setMaxAwaitTime(Long.parseLong(value));
+            case "heartbeatsInterval" -> config.setHeartbeatsInterval(Long.parseLong(value));
+            case "voteTimeout" -> config.setVoteTimeout(Long.parseLong(value));
+            case "preVote" -> config.setPreVote(Boolean.parseBoolean(value));
+            case "checkQuorum" -> config.setCheckQuorum(Boolean.parseBoolean(value));
+            case "adaptiveTimeouts" -> config.setAdaptiveTimeouts(Boolean.parseBoolean(value));
+            case "minHeartbeatsInterval" -> config.setMinHeartbeatsInterval(Long.parseLong(value));
+            case "minElectionTimeout" -> config.setMinElectionTimeout(Long.parseLong(value));
+            case "maxCandidacyBackoff" -> config.setMaxCandidacyBackoff(Long.parseLong(value));
+            case "minLatency" -> config.setMinLatency(Long.parseLong(value));
+            case "maxLatency" -> config.setMaxLatency(Long.parseLong(value));
+            case "lossRate" -> config.setLossRate(Double.parseDouble(value));
+            case "partitionRate" -> config.setPartitionRate(Double.parseDouble(value));
+            case "maxRoundTime" -> config.setMaxRoundTime(Long.parseLong(value));
+            case "settleTime" -> config.setSettleTime(Long.parseLong(value));
+            default -> throw new IllegalArgumentException("Unknown simulation property: " + name);
+        }
+    }
+
+    private record Event(long time, long sequence, Runnable action) implements Comparable<Event> {
+
+        @Override
+        public int compareTo(Event other) {
+            int comparison = Long.compare(time, other.time);
+            return comparison != 0 ? comparison : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.slusarczykr.paxos.leader.simulation;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterSimulatorTests {
+
+    @BeforeAll
+    static void setUp() {
+        // the application contexts started by other tests in this JVM leave the services logging at debug level
+        LoggingSystem.get(ClusterSimulatorTests.class.getClassLoader())
+                .setLogLevel("com.slusarczykr.paxos.leader", LogLevel.WARN);
+    }
+
+    @Test
+    void shouldProduceSameReportForSameSeed() {
+        SimulationReport first = new ClusterSimulator(createConfig()).run();
+        SimulationReport second = new ClusterSimulator(createConfig()).run();
+
+        assertArrayEquals(first.getTimesToLeader(), second.getTimesToLeader());
+        assertEquals(first.getCandidacies(), second.getCandidacies());
+        assertEquals(first.getTermsConsumed(), second.getTermsConsumed());
+    }
+
+    @Test
+    void shouldElectLeaderAfterLeaderFailures() {
+        SimulationConfig config = createConfig();
+        config.setLossRate(0.01);
+        config.setPartitionRate(0.2);
+
+        SimulationReport report = new ClusterSimulator(config).run();
+
+        assertTrue(report.getTimesToLeader().length > report.getRounds() / 2);
+        // followers time out counting from the last heartbeat received before the failure
+        assertTrue(report.getTimeToLeaderPercentile(50) >= config.getMinAwaitTime() - config.getHeartbeatsInterval());
+    }
+
+    @Test
+    void shouldNotInflateTermsWithPreVote() {
+        SimulationConfig config = createConfig();
+        config.setPartitionRate(1.0);
+        SimulationReport preVoteReport = new ClusterSimulator(config).run();
+
+        // without check quorum the isolated leader keeps its leadership, with it the leader steps down and campaigns
+        config.setPreVote(false);
+        SimulationReport report = new ClusterSimulator(config).run();
+
+        assertTrue(preVoteReport.getTermInflation() < report.getTermInflation());
+        assertTrue(preVoteReport.getTimeToLeaderPercentile(50) < report.getTimeToLeaderPercentile(50));
+    }
+
+    @Test
+    void shouldElectLeaderWithinMinAwaitTimeWithAdaptiveTimeouts() {
+        SimulationConfig config = createConfig();
+        config.setAdaptiveTimeouts(true);
+
+        SimulationReport report = new ClusterSimulator(config).run();
+
+        assertEquals(0, report.getUnresolvedRounds());
+        assertTrue(report.getTimeToLeaderPercentile(50) < config.getMinAwaitTime());
+    }
+
+    private SimulationConfig createConfig() {
+        SimulationConfig config = new SimulationConfig();
+        config.setSeed(42);
+        config.setRounds(200);
+        return config;
+    }
+}
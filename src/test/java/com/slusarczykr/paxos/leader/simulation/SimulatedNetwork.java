@@ -0,0 +1,63 @@
+package com.slusarczykr.paxos.leader.simulation;
+
+import com.slusarczykr.paxos.leader.api.transport.InMemoryPaxosNetwork;
+import com.slusarczykr.paxos.leader.election.handler.PeerMessageHandler;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class SimulatedNetwork {
+
+    private final SimulationConfig config;
+    private final Random random;
+
+    private final Map<String, SimulatedNode> nodes = new HashMap<>();
+    private final Set<Integer> partition = new HashSet<>();
+
+    public SimulatedNetwork(SimulationConfig config, Random random) {
+        this.config = config;
+        this.random = random;
+    }
+
+    public void register(SimulatedNode node) {
+        nodes.put(node.getLocation(), node);
+    }
+
+    // The network as seen by the in-memory transport of one server. A request reaches the peer only if both are up,
+    // on the same side of the partition and the request is not lost, otherwise the peer is reported as unreachable.
+    public InMemoryPaxosNetwork getView(SimulatedNode from) {
+        return new InMemoryPaxosNetwork() {
+
+            @Override
+            public Optional<PeerMessageHandler> getHandler(String serverLocation) {
+                return Optional.ofNullable(nodes.get(serverLocation))
+                        .filter(to -> isReachable(from, to) && random.nextDouble() >= config.getLossRate())
+                        .map(SimulatedNode::getPeerMessageHandler);
+            }
+        };
+    }
+
+    public boolean isReachable(SimulatedNode from, SimulatedNode to) {
+        return !from.isCrashed() && !to.isCrashed() && partition.contains(from.getId()) == partition.contains(to.getId());
+    }
+
+    // requests are handled once the latency has passed, the reply is returned to the sender at once
+    public long randomLatency() {
+        long latency = config.getMinLatency() + (long) (random.nextDouble() * (config.getMaxLatency() - config.getMinLatency()));
+        return MILLISECONDS.toNanos(latency);
+    }
+
+    public void isolate(int nodeId) {
+        partition.add(nodeId);
+    }
+
+    public void heal() {
+        partition.clear();
+    }
+}
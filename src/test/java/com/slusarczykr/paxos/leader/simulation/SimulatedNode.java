@@ -0,0 +1,209 @@
+package com.slusarczykr.paxos.leader.simulation;
+
+import com.slusarczykr.paxos.leader.api.transport.InMemoryPaxosTransport;
+import com.slusarczykr.paxos.leader.discovery.config.ServerDiscoveryConfiguration;
+import com.slusarczykr.paxos.leader.discovery.detector.TimeoutFailureDetector;
+import com.slusarczykr.paxos.leader.discovery.membership.ClusterMembership;
+import com.slusarczykr.paxos.leader.discovery.service.ServerDiscoveryServiceImpl;
+import com.slusarczykr.paxos.leader.discovery.state.PaxosServer;
+import com.slusarczykr.paxos.leader.election.config.LeaderElectionProperties;
+import com.slusarczykr.paxos.leader.election.handler.PeerMessageHandler;
+import com.slusarczykr.paxos.leader.election.heartbeat.HeartbeatServiceImpl;
+import com.slusarczykr.paxos.leader.election.lease.LeaderLease;
+import com.slusarczykr.paxos.leader.election.service.LeaderElectionServiceImpl;
+import com.slusarczykr.paxos.leader.election.starter.LeaderElectionStarter;
+import com.slusarczykr.paxos.leader.election.task.LeaderCandidacy;
+import com.slusarczykr.paxos.leader.election.timeout.ElectionTimeouts;
+import com.slusarczykr.paxos.leader.election.tracker.LeaderTracker;
+import com.slusarczykr.paxos.leader.group.config.GroupProperties;
+import com.slusarczykr.paxos.leader.group.service.GroupElectionServiceImpl;
+import com.slusarczykr.paxos.leader.metrics.PaxosMetrics;
+import com.slusarczykr.paxos.leader.replication.commit.CommitTracker;
+import com.slusarczykr.paxos.leader.replication.config.ReplicationProperties;
+import com.slusarczykr.paxos.leader.replication.log.InMemoryReplicatedLog;
+import com.slusarczykr.paxos.leader.replication.log.ReplicatedLog;
+import com.slusarczykr.paxos.leader.replication.service.LogReplicationServiceImpl;
+import com.slusarczykr.paxos.leader.replication.snapshot.SnapshotTransferServiceImpl;
+import com.slusarczykr.paxos.leader.replication.state.KeyValueStateMachine;
+import com.slusarczykr.paxos.leader.replication.state.LogApplier;
+import com.slusarczykr.paxos.leader.storage.metadata.InMemoryGroupMetadataStore;
+import com.slusarczykr.paxos.leader.storage.metadata.InMemoryMetadataStore;
+import com.slusarczykr.paxos.leader.storage.metadata.MetadataStore;
+import com.slusarczykr.paxos.leader.storage.snapshot.InMemorySnapshotStore;
+import com.slusarczykr.paxos.leader.storage.snapshot.SnapshotStore;
+import com.slusarczykr.paxos.leader.vote.factory.RequestVoteFactory;
+import com.slusarczykr.paxos.leader.vote.service.RequestVoteServiceImpl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+// A server of the simulated cluster. It runs the real election services over the in-memory transport, wired by hand
+// as the application context does, with the clock, the timer and the executors of the simulator. The metadata, the
+// log and the snapshots survive a crash like on disk, the services are created again when the server recovers.
+public class SimulatedNode {
+
+    private final ClusterSimulator simulator;
+    private final ServerDiscoveryConfiguration discoveryConfiguration;
+    private final LeaderElectionProperties leaderElectionProps;
+    private final int port;
+    private final int id;
+
+    private final MetadataStore metadataStore = new InMemoryMetadataStore();
+    private final ReplicatedLog replicatedLog = new InMemoryReplicatedLog();
+    private final SnapshotStore snapshotStore = new InMemorySnapshotStore();
+
+    private SimulatedThreads threads;
+    private SimulatedThreads deliveryThreads;
+    private SimulatedTimer timer;
+
+    private PaxosServer paxosServer;
+    private TimeoutFailureDetector failureDetector;
+    private PeerMessageHandler peerMessageHandler;
+
+    private boolean crashed;
+
+    public SimulatedNode(ClusterSimulator simulator, SimulationConfig config,
+                         ServerDiscoveryConfiguration discoveryConfiguration, int port) {
+        this.simulator = simulator;
+        this.discoveryConfiguration = discoveryConfiguration;
+        this.leaderElectionProps = createLeaderElectionProperties(config);
+        this.port = port;
+        this.id = discoveryConfiguration.resolveServerId(port);
+    }
+
+    private static LeaderElectionProperties createLeaderElectionProperties(SimulationConfig config) {
+        LeaderElectionProperties leaderElectionProps = new LeaderElectionProperties();
+        leaderElectionProps.setMinAwaitTime(Duration.ofMillis(config.getMinAwaitTime()));
+        leaderElectionProps.setMaxAwaitTime(Duration.ofMillis(config.getMaxAwaitTime()));
+        leaderElectionProps.setHeartbeatsInterval(Duration.ofMillis(config.getHeartbeatsInterval()));
+        leaderElectionProps.setVoteTimeout(Duration.ofMillis(config.getVoteTimeout()));
+        leaderElectionProps.setPreVote(config.isPreVote());
+        leaderElectionProps.setCheckQuorum(config.isCheckQuorum());
+        leaderElectionProps.setAdaptiveTimeouts(config.isAdaptiveTimeouts());
+        leaderElectionProps.setMinHeartbeatsInterval(Duration.ofMillis(config.getMinHeartbeatsInterval()));
+        leaderElectionProps.setMinElectionTimeout(Duration.ofMillis(config.getMinElectionTimeout()));
+        leaderElectionProps.setMaxCandidacyBackoff(Duration.ofMillis(config.getMaxCandidacyBackoff()));
+        return leaderElectionProps;
+    }
+
+    public void start() {
+        threads = new SimulatedThreads(simulator, () -> 0);
+        deliveryThreads = new SimulatedThreads(simulator, simulator.getNetwork()::randomLatency);
+        timer = new SimulatedTimer(simulator);
+
+        paxosServer = new PaxosServer(discoveryConfiguration, metadataStore, simulator.getClock());
+        paxosServer.setServerPort(port);
+        paxosServer.init();
+        paxosServer.addStateListener(() -> simulator.onStateChanged(this));
+
+        // the sweep of the detector is not started, probePeers stands for its probes
+        failureDetector = new TimeoutFailureDetector(paxosServer, discoveryConfiguration, null);
+        ServerDiscoveryServiceImpl discoveryService = new ServerDiscoveryServiceImpl(discoveryConfiguration, failureDetector);
+        discoveryService.init();
+
+        ElectionTimeouts electionTimeouts = new ElectionTimeouts(leaderElectionProps, simulator::getRandom);
+        PaxosMetrics paxosMetrics = new PaxosMetrics(simulator.getMeterRegistry(), paxosServer, electionTimeouts);
+        ReplicationProperties replicationProps = new ReplicationProperties();
+        CommitTracker commitTracker = new CommitTracker(paxosServer);
+        LogApplier logApplier = new LogApplier(paxosServer, replicatedLog, new KeyValueStateMachine(), snapshotStore,
+                commitTracker, replicationProps, new ClusterMembership(discoveryService), threads);
+        initLogApplier(logApplier);
+
+        InMemoryPaxosTransport paxosTransport = new InMemoryPaxosTransport(simulator.getNetwork().getView(this),
+                paxosServer, deliveryThreads);
+        paxosTransport.init();
+        SnapshotTransferServiceImpl snapshotTransferService = new SnapshotTransferServiceImpl(paxosTransport, paxosServer,
+                snapshotStore, logApplier, paxosMetrics, replicationProps, threads);
+        snapshotTransferService.init();
+
+        LeaderLease leaderLease = new LeaderLease(paxosServer, discoveryService, leaderElectionProps, electionTimeouts,
+                simulator.getClock());
+        HeartbeatServiceImpl heartbeatService = new HeartbeatServiceImpl(paxosTransport, paxosServer, discoveryService,
+                failureDetector, leaderElectionProps, paxosMetrics, leaderLease, replicatedLog, commitTracker,
+                replicationProps, snapshotTransferService, electionTimeouts, simulator.getClock(), timer);
+        LeaderElectionServiceImpl leaderElectionService = new LeaderElectionServiceImpl(paxosTransport, paxosServer,
+                discoveryService, failureDetector, leaderElectionProps, heartbeatService, paxosMetrics, replicatedLog,
+                simulator.getClock(), timer, threads);
+        leaderElectionService.init();
+        LeaderElectionStarter leaderElectionStarter = new LeaderElectionStarter(new LeaderCandidacy(leaderElectionService),
+                leaderElectionService, leaderElectionProps, paxosServer, paxosMetrics, leaderLease, timer, commitTracker,
+                electionTimeouts, simulator.getClock(), discoveryService);
+        leaderElectionStarter.addMembershipListener();
+
+        LeaderTracker leaderTracker = new LeaderTracker(paxosServer, discoveryService);
+        leaderTracker.init();
+        // no election groups are configured, so the group service only has to answer the handler
+        GroupElectionServiceImpl groupElectionService = new GroupElectionServiceImpl(paxosServer, discoveryService,
+                failureDetector, paxosTransport, new GroupProperties(), timer, new InMemoryGroupMetadataStore(), threads);
+        peerMessageHandler = new PeerMessageHandler(leaderElectionStarter,
+                new RequestVoteServiceImpl(paxosServer, new RequestVoteFactory(), paxosMetrics, replicatedLog),
+                paxosServer, failureDetector, leaderElectionProps,
+                new LogReplicationServiceImpl(paxosServer, replicatedLog, commitTracker, replicationProps, leaderElectionStarter),
+                replicatedLog, snapshotTransferService, electionTimeouts, leaderTracker, groupElectionService);
+
+        leaderElectionStarter.init();
+        scheduleProbes();
+    }
+
+    private static void initLogApplier(LogApplier logApplier) {
+        try {
+            logApplier.init();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void scheduleProbes() {
+        timer.schedule(this::probePeers, discoveryConfiguration.getProbeInterval().toMillis(), MILLISECONDS);
+    }
+
+    // the probes of the detector sweep, a suspected peer becomes available again once it is reachable
+    private void probePeers() {
+        for (SimulatedNode peer : simulator.getNodes()) {
+            if (peer != this && !failureDetector.isAvailable(peer.getId())
+                    && simulator.getNetwork().isReachable(this, peer)) {
+                failureDetector.recordHeartbeat(peer.getId());
+            }
+        }
+        scheduleProbes();
+    }
+
+    public void crash() {
+        crashed = true;
+        threads.stop();
+        deliveryThreads.stop();
+        timer.stop();
+    }
+
+    public void recover() {
+        crashed = false;
+        start();
+    }
+
+    public String getLocation() {
+        return "http://localhost:" + port;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public long getTerm() {
+        return paxosServer.getTermValue();
+    }
+
+    public boolean isLeader() {
+        return !crashed && paxosServer.isLeader();
+    }
+
+    public boolean isCrashed() {
+        return crashed;
+    }
+
+    public PeerMessageHandler getPeerMessageHandler() {
+        return peerMessageHandler;
+    }
+}
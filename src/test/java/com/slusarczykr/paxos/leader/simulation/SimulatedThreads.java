@@ -0,0 +1,85 @@
+package com.slusarczykr.paxos.leader.simulation;
+
+import com.slusarczykr.paxos.leader.execution.PaxosThreads;
+import com.slusarczykr.paxos.leader.execution.config.ExecutionProperties;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Executors of one server incarnation, their tasks run as events of the simulator after the given delay. The tasks of
+// a crashed incarnation are dropped.
+public class SimulatedThreads extends PaxosThreads {
+
+    private final ClusterSimulator simulator;
+    private final LongSupplier delay;
+
+    private boolean stopped;
+
+    public SimulatedThreads(ClusterSimulator simulator, LongSupplier delay) {
+        super(new ExecutionProperties());
+        this.simulator = simulator;
+        this.delay = delay;
+    }
+
+    @Override
+    public ExecutorService newTaskExecutor(String name) {
+        return new SimulatedExecutor();
+    }
+
+    // tasks scheduled at the same time run in the order of submission, so one executor is serial as well
+    @Override
+    public ExecutorService newSerialExecutor(String name) {
+        return new SimulatedExecutor();
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    private class SimulatedExecutor extends AbstractExecutorService {
+
+        private boolean shutdown;
+
+        @Override
+        public void execute(Runnable task) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+            simulator.schedule(delay.getAsLong(), () -> {
+                if (!stopped && !shutdown) {
+                    task.run();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return shutdown;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.slusarczykr.paxos.leader.simulation;
+
+import com.slusarczykr.paxos.leader.election.timer.PaxosTimer;
+
+import java.util.concurrent.TimeUnit;
+
+// Election timer of one server incarnation on the simulated clock, the timeouts of a crashed incarnation never expire
+public class SimulatedTimer implements PaxosTimer {
+
+    private final ClusterSimulator simulator;
+
+    private boolean stopped;
+
+    public SimulatedTimer(ClusterSimulator simulator) {
+        this.simulator = simulator;
+    }
+
+    @Override
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        SimulatedTimeout timeout = new SimulatedTimeout();
+        simulator.schedule(Math.max(unit.toNanos(delay), 0), () -> {
+            if (!stopped && !timeout.cancelled) {
+                task.run();
+            }
+        });
+        return timeout;
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    private static class SimulatedTimeout implements Timeout {
+
+        private boolean cancelled;
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.slusarczykr.paxos.leader.simulation;
+
+import lombok.Data;
+
+@Data
+public class SimulationConfig {
+
+    private long seed = 1;
+    private int clusterSize = 5;
+    private int rounds = 1000;
+
+    private long minAwaitTime = 15_000;
+    private long maxAwaitTime = 25_000;
+    private long heartbeatsInterval = 5_000;
+    private long voteTimeout = 2_000;
+
+    private boolean preVote = true;
+    private boolean checkQuorum = true;
+    // fixed timeouts by default, so that the times to elect a leader stay comparable with the await times
+    private boolean adaptiveTimeouts = false;
+    private long minHeartbeatsInterval = 50;
+    private long minElectionTimeout = 500;
+    private long maxCandidacyBackoff = 60_000;
+
+    private long minLatency = 1;
+    private long maxLatency = 10;
+    private double lossRate = 0.0;
+    private double partitionRate = 0.0;
+
+    private long maxRoundTime = 600_000;
+    private long settleTime = 0;
+
+    public long getSettleTime() {
+        return settleTime > 0 ? settleTime : 3 * maxAwaitTime;
+    }
+}
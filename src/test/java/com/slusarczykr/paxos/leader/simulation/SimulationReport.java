@@ -0,0 +1,41 @@
+package com.slusarczykr.paxos.leader.simulation;
+
+import lombok.Data;
+
+import java.util.Arrays;
+
+@Data
+public class SimulationReport {
+
+    private final int rounds;
+    private final int unresolvedRounds;
+    private final long[] timesToLeader;
+    private final long candidacies;
+    private final long failedCandidacies;
+    private final long termsConsumed;
+
+    public long getTimeToLeaderPercentile(double percentile) {
+        if (timesToLeader.length == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.stream(timesToLeader).sorted().toArray();
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    public double getSplitVoteRate() {
+        return candidacies == 0 ? 0 : (double) failedCandidacies / candidacies;
+    }
+
+    public double getTermInflation() {
+        return rounds == 0 ? 0 : (double) termsConsumed / rounds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rounds: %d (unresolved: %d), time to leader p50: %d ms, p99: %d ms, "
+                        + "split vote rate: %.3f, terms per round: %.2f",
+                rounds, unresolvedRounds, getTimeToLeaderPercentile(50), getTimeToLeaderPercentile(99),
+                getSplitVoteRate(), getTermInflation());
+    }
+}
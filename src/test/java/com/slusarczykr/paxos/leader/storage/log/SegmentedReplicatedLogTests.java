@@ -0,0 +1,188 @@
+package com.slusarczykr.paxos.leader.storage.log;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import com.slusarczykr.paxos.leader.storage.config.StorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentedReplicatedLogTests {
+
+    private static final int SERVER_PORT = 8090;
+
+    @TempDir
+    Path directory;
+
+    private StorageProperties storageProperties;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.setDirectory(directory.toString());
+        storageProperties.setSegmentSize(DataSize.ofBytes(1024));
+        storageProperties.setIndexInterval(DataSize.ofBytes(128));
+    }
+
+    @Test
+    void shouldReadEntriesAcrossSegmentsAfterReopen() throws Exception {
+        SegmentedReplicatedLog replicatedLog = openLog();
+        for (int i = 1; i <= 100; i++) {
+            replicatedLog.append(i / 10 + 1, command(i));
+        }
+        replicatedLog.close();
+        assertTrue(countSegments() > 1);
+
+        SegmentedReplicatedLog reopened = openLog();
+        assertEquals(100, reopened.getLastIndex());
+        assertEquals(11, reopened.getLastTerm());
+        assertEquals(OptionalLong.of(5), reopened.getTerm(45));
+
+        List<LogEntry> entries = reopened.getEntries(20, 50, Integer.MAX_VALUE);
+        assertEquals(50, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(20 + i, entries.get(i).getIndex());
+            assertArrayEquals(command(20 + i), entries.get(i).getCommand());
+        }
+        reopened.close();
+    }
+
+    @Test
+    void shouldTruncateConflictingSuffix() throws Exception {
+        SegmentedReplicatedLog replicatedLog = openLog();
+        for (int i = 1; i <= 60; i++) {
+            replicatedLog.append(1, command(i));
+        }
+        OptionalLong matchIndex = replicatedLog.tryAppend(10, 1, List.of(
+                new LogEntry(11, 1, command(11)),
+                new LogEntry(12, 2, command(-12))
+        ));
+        assertEquals(OptionalLong.of(12), matchIndex);
+        assertEquals(12, replicatedLog.getLastIndex());
+        replicatedLog.append(2, command(13));
+        replicatedLog.close();
+
+        SegmentedReplicatedLog reopened = openLog();
+        assertEquals(13, reopened.getLastIndex());
+        assertEquals(2, reopened.getLastTerm());
+        assertArrayEquals(command(-12), reopened.getEntries(12, 1, Integer.MAX_VALUE).get(0).getCommand());
+        assertTrue(reopened.tryAppend(20, 1, List.of()).isEmpty());
+        reopened.close();
+    }
+
+    @Test
+    void shouldRecoverUpToLastValidEntry() throws Exception {
+        SegmentedReplicatedLog replicatedLog = openLog();
+        for (int i = 1; i <= 5; i++) {
+            replicatedLog.append(3, command(i));
+        }
+        replicatedLog.close();
+
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile(1).toFile(), "rw")) {
+            int recordSize = LogSegment.HEADER_SIZE + command(1).length;
+            file.seek(4L * recordSize + LogSegment.HEADER_SIZE);
+            file.write('X');
+        }
+        SegmentedReplicatedLog reopened = openLog();
+        assertEquals(4, reopened.getLastIndex());
+        assertEquals(5, reopened.append(3, command(5)));
+        reopened.close();
+    }
+
+    @Test
+    void shouldDiscardSegmentsCoveredBySnapshot() throws Exception {
+        SegmentedReplicatedLog replicatedLog = openLog();
+        for (int i = 1; i <= 100; i++) {
+            replicatedLog.append(1, command(i));
+        }
+        long segments = countSegments();
+        replicatedLog.compact(80, 1);
+
+        assertTrue(countSegments() < segments);
+        assertTrue(replicatedLog.getFirstIndex() > 1 && replicatedLog.getFirstIndex() <= 81);
+        assertEquals(OptionalLong.of(1), replicatedLog.getTerm(80));
+        assertEquals(List.of(), replicatedLog.getEntries(1, 10, Integer.MAX_VALUE));
+        List<LogEntry> entries = LongStream.rangeClosed(76, 102)
+                .mapToObj(it -> new LogEntry(it, it > 100 ? 2 : 1, command((int) it)))
+                .toList();
+        assertEquals(OptionalLong.of(102), replicatedLog.tryAppend(75, 7, entries));
+        assertEquals(102, replicatedLog.getLastIndex());
+        assertEquals(2, replicatedLog.getLastTerm());
+        replicatedLog.close();
+    }
+
+    @Test
+    void shouldReplaceDivergentLogWithInstalledSnapshot() throws Exception {
+        SegmentedReplicatedLog replicatedLog = openLog();
+        for (int i = 1; i <= 30; i++) {
+            replicatedLog.append(1, command(i));
+        }
+        replicatedLog.install(500, 4);
+
+        assertEquals(1, countSegments());
+        assertEquals(501, replicatedLog.getFirstIndex());
+        assertEquals(500, replicatedLog.getLastIndex());
+        assertEquals(4, replicatedLog.getLastTerm());
+        assertEquals(OptionalLong.of(501), replicatedLog.tryAppend(500, 4, List.of(new LogEntry(501, 4, command(501)))));
+        replicatedLog.close();
+
+        SegmentedReplicatedLog reopened = openLog();
+        reopened.compact(500, 4);
+        assertEquals(501, reopened.getLastIndex());
+        assertEquals(OptionalLong.of(4), reopened.getTerm(500));
+        reopened.close();
+    }
+
+    @Test
+    void shouldCompleteFlushOnceEntriesAreDurable() throws Exception {
+        // a long window keeps the background flush from making the entries durable between the assertions
+        storageProperties.setGroupCommitWindow(Duration.ofMillis(500));
+        SegmentedReplicatedLog replicatedLog = openLog();
+        replicatedLog.append(1, command(1));
+        replicatedLog.append(1, command(2));
+        assertEquals(0, replicatedLog.getDurableIndex());
+
+        assertEquals(2, replicatedLog.flush().get(5, TimeUnit.SECONDS));
+        assertEquals(2, replicatedLog.getDurableIndex());
+
+        replicatedLog.tryAppend(1, 1, List.of(new LogEntry(2, 2, command(3))));
+        assertEquals(1, replicatedLog.getDurableIndex());
+        assertEquals(2, replicatedLog.flush().get(5, TimeUnit.SECONDS));
+        replicatedLog.close();
+    }
+
+    private SegmentedReplicatedLog openLog() throws Exception {
+        SegmentedReplicatedLog replicatedLog = new SegmentedReplicatedLog(storageProperties, SERVER_PORT);
+        replicatedLog.open();
+        return replicatedLog;
+    }
+
+    private Path segmentFile(long baseIndex) {
+        return directory.resolve("paxos-8090-log").resolve(String.format("%020d.log", baseIndex));
+    }
+
+    private long countSegments() throws Exception {
+        try (Stream<Path> files = Files.list(directory.resolve("paxos-8090-log"))) {
+            return files.filter(it -> it.toString().endsWith(".log")).count();
+        }
+    }
+
+    private byte[] command(int i) {
+        return String.format("command-%04d", i).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,59 @@
+package com.slusarczykr.paxos.leader.storage.metadata;
+
+import com.slusarczykr.paxos.leader.group.config.GroupProperties;
+import com.slusarczykr.paxos.leader.storage.config.StorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static com.slusarczykr.paxos.leader.storage.metadata.GroupMetadata.NO_VOTE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedGroupMetadataStoreTests {
+
+    private static final int SERVER_PORT = 8090;
+
+    @TempDir
+    Path directory;
+
+    private StorageProperties storageProperties;
+    private GroupProperties groupProperties;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.setDirectory(directory.toString());
+        groupProperties = new GroupProperties();
+        groupProperties.setCount(1000);
+    }
+
+    @Test
+    void shouldRestoreTermsAndVotesAfterReopen() throws Exception {
+        MappedGroupMetadataStore store = openStore();
+        assertTrue(store.load(7).isEmpty());
+
+        store.save(7, new GroupMetadata(3, NO_VOTE));
+        store.save(7, new GroupMetadata(3, 2));
+        store.save(999, new GroupMetadata(5, 1));
+        // stale states saved by concurrent requests are ignored
+        store.save(7, new GroupMetadata(2, 1));
+        store.save(7, new GroupMetadata(3, NO_VOTE)).join();
+        store.close();
+
+        MappedGroupMetadataStore reopened = openStore();
+        assertEquals(Optional.of(new GroupMetadata(3, 2)), reopened.load(7));
+        assertEquals(Optional.of(new GroupMetadata(5, 1)), reopened.load(999));
+        assertTrue(reopened.load(8).isEmpty());
+        reopened.close();
+    }
+
+    private MappedGroupMetadataStore openStore() throws Exception {
+        MappedGroupMetadataStore store = new MappedGroupMetadataStore(storageProperties, groupProperties, SERVER_PORT);
+        store.open();
+        return store;
+    }
+}
@@ -0,0 +1,69 @@
+package com.slusarczykr.paxos.leader.storage.metadata;
+
+import com.slusarczykr.paxos.leader.storage.config.StorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedMetadataStoreTests {
+
+    private static final int SERVER_PORT = 8090;
+
+    @TempDir
+    Path directory;
+
+    private StorageProperties storageProperties;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.setDirectory(directory.toString());
+    }
+
+    @Test
+    void shouldRestoreLatestMetadataAfterReopen() throws Exception {
+        MappedMetadataStore store = openStore();
+        assertTrue(store.load().isEmpty());
+
+        CompletableFuture<?>[] saves = IntStream.rangeClosed(1, 10)
+                .mapToObj(it -> store.save(new PaxosMetadata(it, it % 3, it * 2L)))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(saves).join();
+        store.close();
+
+        MappedMetadataStore reopened = openStore();
+        assertEquals(Optional.of(new PaxosMetadata(10, 1, 20)), reopened.load());
+        reopened.close();
+    }
+
+    @Test
+    void shouldFallBackToPreviousSlotWhenLatestIsCorrupted() throws Exception {
+        MappedMetadataStore store = openStore();
+        store.save(new PaxosMetadata(4, 1, 0)).join();
+        store.save(new PaxosMetadata(5, 2, 0)).join();
+        store.close();
+
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("paxos-8090.meta").toFile(), "rw")) {
+            file.seek(Long.BYTES);
+            file.writeLong(42);
+        }
+        MappedMetadataStore reopened = openStore();
+        assertEquals(Optional.of(new PaxosMetadata(4, 1, 0)), reopened.load());
+        reopened.close();
+    }
+
+    private MappedMetadataStore openStore() throws Exception {
+        MappedMetadataStore store = new MappedMetadataStore(storageProperties, SERVER_PORT);
+        store.open();
+        return store;
+    }
+}
@@ -0,0 +1,111 @@
+package com.slusarczykr.paxos.leader.storage.snapshot;
+
+import com.slusarczykr.paxos.leader.api.LogEntry;
+import com.slusarczykr.paxos.leader.replication.state.KeyValueStateMachine;
+import com.slusarczykr.paxos.leader.storage.config.StorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileSnapshotStoreTests {
+
+    private static final int SERVER_PORT = 8090;
+
+    @TempDir
+    Path directory;
+
+    private StorageProperties storageProperties;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.setDirectory(directory.toString());
+    }
+
+    @Test
+    void shouldRestoreStateFromLatestSnapshotAfterReopen() throws Exception {
+        KeyValueStateMachine stateMachine = new KeyValueStateMachine();
+        FileSnapshotStore snapshotStore = openStore();
+        assertTrue(snapshotStore.getLatest().isEmpty());
+
+        stateMachine.apply(entry(1, "a=1"));
+        snapshotStore.save(1, 1, stateMachine.snapshot());
+        stateMachine.apply(entry(2, "b=2"));
+        stateMachine.apply(entry(3, "a"));
+        SnapshotMetadata snapshot = snapshotStore.save(3, 2, stateMachine.snapshot());
+
+        FileSnapshotStore reopened = openStore();
+        assertEquals(Optional.of(snapshot), reopened.getLatest());
+        assertEquals(1, countSnapshots());
+
+        KeyValueStateMachine restored = new KeyValueStateMachine();
+        try (InputStream inputStream = reopened.open(snapshot)) {
+            restored.restore(inputStream);
+        }
+        assertEquals(1, restored.size());
+        assertEquals(Optional.of("2"), restored.get("b"));
+        assertTrue(restored.get("a").isEmpty());
+    }
+
+    @Test
+    void shouldResumePartiallyReceivedSnapshotAfterReopen() throws Exception {
+        KeyValueStateMachine stateMachine = new KeyValueStateMachine();
+        for (int i = 1; i <= 100; i++) {
+            stateMachine.apply(entry(i, "key-" + i + "=value-" + i));
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        stateMachine.snapshot().writeTo(outputStream);
+        byte[] data = outputStream.toByteArray();
+        int half = data.length / 2;
+
+        FileSnapshotStore snapshotStore = openStore();
+        assertEquals(0, snapshotStore.getReceivedSize(100, 3));
+        assertEquals(half, snapshotStore.receive(100, 3, 0, Arrays.copyOfRange(data, 0, half)));
+
+        FileSnapshotStore reopened = openStore();
+        assertTrue(reopened.getLatest().isEmpty());
+        assertEquals(half, reopened.getReceivedSize(100, 3));
+        // a chunk sent again is not stored twice
+        assertEquals(half, reopened.receive(100, 3, 0, Arrays.copyOfRange(data, 0, half)));
+        assertEquals(data.length, reopened.receive(100, 3, half, Arrays.copyOfRange(data, half, data.length)));
+        SnapshotMetadata snapshot = reopened.completeReceive(100, 3);
+
+        assertEquals(new SnapshotMetadata(100, 3, data.length), snapshot);
+        assertEquals(Optional.of(snapshot), openStore().getLatest());
+
+        KeyValueStateMachine restored = new KeyValueStateMachine();
+        try (InputStream inputStream = reopened.open(snapshot)) {
+            restored.restore(inputStream);
+        }
+        assertEquals(100, restored.size());
+        assertEquals(Optional.of("value-42"), restored.get("key-42"));
+    }
+
+    private FileSnapshotStore openStore() throws Exception {
+        FileSnapshotStore snapshotStore = new FileSnapshotStore(storageProperties, SERVER_PORT);
+        snapshotStore.open();
+        return snapshotStore;
+    }
+
+    private long countSnapshots() throws Exception {
+        try (Stream<Path> files = Files.list(directory.resolve("paxos-8090-snapshots"))) {
+            return files.filter(it -> it.toString().endsWith(".snapshot")).count();
+        }
+    }
+
+    private LogEntry entry(long index, String command) {
+        return new LogEntry(index, 1, command.getBytes(StandardCharsets.UTF_8));
+    }
+}